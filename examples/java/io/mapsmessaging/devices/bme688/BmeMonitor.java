@@ -23,7 +23,6 @@ import io.mapsmessaging.devices.DeviceBusManager;
 import io.mapsmessaging.devices.i2c.I2CBusManager;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
-import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.i2c.devices.sensors.bme688.BME688Sensor;
 import io.mapsmessaging.devices.sensorreadings.ComputationResult;
 import io.mapsmessaging.devices.sensorreadings.SensorReading;
@@ -86,7 +85,8 @@ public class BmeMonitor implements Runnable {
     long stop = System.currentTimeMillis() + 120_000;
 
     while (gas != null && humidity != null && temp != null && pressure != null && stop > System.currentTimeMillis()) {
-      synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+      device.getBusLock().lock();
+      try {
         ComputationResult<Float> tempResult = (ComputationResult<Float>) temp.getValue();
         ComputationResult<Float> gasResult = (ComputationResult<Float>) gas.getValue();
         ComputationResult<Float> humResult = (ComputationResult<Float>) humidity.getValue();
@@ -101,6 +101,8 @@ public class BmeMonitor implements Runnable {
           System.err.println(pre + " Ohms\t" + tmp + " C\t" + dis + "%"+"\t"+pres+"hPa");
           Thread.sleep(1000);
         }
+      } finally {
+        device.getBusLock().unlock();
       }
     }
   }
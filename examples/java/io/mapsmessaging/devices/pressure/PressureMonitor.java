@@ -23,7 +23,6 @@ import io.mapsmessaging.devices.DeviceBusManager;
 import io.mapsmessaging.devices.i2c.I2CBusManager;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
-import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.i2c.devices.sensors.lps25.Lps25Sensor;
 import io.mapsmessaging.devices.i2c.devices.sensors.lps25.values.DataRate;
 import io.mapsmessaging.devices.i2c.devices.sensors.lps25.values.FiFoMode;
@@ -42,7 +41,8 @@ public class PressureMonitor implements Runnable {
 
   public PressureMonitor(Lps25Sensor device) throws IOException {
     this.device = device;
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    device.getBusLock().lock();
+    try {
       device.reset();
       device.delay(100);
       device.getControl1().setDataRate(DataRate.RATE_1_HZ);
@@ -50,6 +50,8 @@ public class PressureMonitor implements Runnable {
       device.getControl2().enableFiFo(true);
       device.getControl1().setBlockUpdate(true);
       device.getControl1().setPowerDownMode(true);
+    } finally {
+      device.getBusLock().unlock();
     }
 
     Thread t = new Thread(this);
@@ -89,7 +91,8 @@ public class PressureMonitor implements Runnable {
     float altitude = 0.0f;
     float pResOld = 0.0f;
     while (pressure != null && temp != null && stop > System.currentTimeMillis()) {
-      synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+      device.getBusLock().lock();
+      try {
         ComputationResult<Float> tempResult = (ComputationResult<Float>) temp.getValue();
         ComputationResult<Float> result = (ComputationResult<Float>) pressure.getValue();
         if (!result.hasError()) {
@@ -106,6 +109,8 @@ public class PressureMonitor implements Runnable {
           String dis = roundFloatToString(dist, 3);
           System.err.println(pre + " hPa\t" + tmp + " C\t" + dis + "mm\t" + altitude + "mm");
         }
+      } finally {
+        device.getBusLock().unlock();
       }
     }
   }
@@ -23,7 +23,6 @@ import io.mapsmessaging.devices.DeviceBusManager;
 import io.mapsmessaging.devices.i2c.I2CBusManager;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
-import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.i2c.devices.drivers.pca9685.Pca9685Device;
 
 import java.io.IOException;
@@ -37,7 +36,8 @@ public class ServoDemo {
   private static final int SERVO_HIGHER_BOUND = 550;
 
   public ServoDemo(Pca9685Device device) throws IOException {
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    device.getBusLock().lock();
+    try {
       device.reset();
       device.setPWMFrequency(SERVO_PWM_FREQUENCY);
       // Allocate the servos. This code simple manages the bounds that the servo can work within
@@ -60,6 +60,8 @@ public class ServoDemo {
         device.delay(1000);
         pos -= 10f;
       }
+    } finally {
+      device.getBusLock().unlock();
     }
   }
 
@@ -23,7 +23,6 @@ import io.mapsmessaging.devices.DeviceBusManager;
 import io.mapsmessaging.devices.i2c.I2CBusManager;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
-import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.i2c.devices.sensors.scd41.Scd41Sensor;
 import io.mapsmessaging.devices.sensorreadings.ComputationResult;
 import io.mapsmessaging.devices.sensorreadings.SensorReading;
@@ -83,7 +82,8 @@ public class Co2Monitor implements Runnable {
     long stop = System.currentTimeMillis() + 120_000;
 
     while (co2 != null && humidity != null && temp != null && stop > System.currentTimeMillis()) {
-      synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+      device.getBusLock().lock();
+      try {
         ComputationResult<Float> tempResult = (ComputationResult<Float>) temp.getValue();
         ComputationResult<Integer> result = (ComputationResult<Integer>) co2.getValue();
         ComputationResult<Float> humResult = (ComputationResult<Float>) humidity.getValue();
@@ -96,6 +96,8 @@ public class Co2Monitor implements Runnable {
           System.err.println(pre + " ppm\t" + tmp + " C\t" + dis + "%");
           Thread.sleep(1000);
         }
+      } finally {
+        device.getBusLock().unlock();
       }
     }
   }
@@ -30,7 +30,6 @@ import io.mapsmessaging.devices.deviceinterfaces.Resetable;
 import io.mapsmessaging.devices.i2c.I2CBusManager;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
-import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.onewire.OneWireDeviceController;
 import io.mapsmessaging.devices.spi.SpiDeviceController;
 
@@ -281,7 +280,8 @@ public class SimpleWebAccess {
   private void handleFunction(Context ctx, DeviceController deviceController, String function) throws IOException {
     if (deviceController instanceof I2CDeviceController) {
       I2CDevice device = ((I2CDeviceController) deviceController).getDevice();
-      synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+      device.getBusLock().lock();
+      try {
         if (device instanceof PowerManagement) {
           if (function.equalsIgnoreCase("powerOn")) {
             ((PowerManagement) device).powerOn();
@@ -306,6 +306,8 @@ public class SimpleWebAccess {
             return;
           }
         }
+      } finally {
+        device.getBusLock().unlock();
       }
     }
     ctx.result("unknown or unhandled function received " + function);
@@ -0,0 +1,80 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.benchmarks;
+
+import io.mapsmessaging.devices.i2c.devices.sensors.scd41.functions.Request;
+import io.mapsmessaging.devices.i2c.devices.sensors.sht31.commands.Crc8;
+import io.mapsmessaging.devices.impl.I2CMockDeviceImpl;
+import io.mapsmessaging.devices.serial.devices.sensors.ModbusCrc16;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CRC routines run on every frame: Modbus CRC-16 for the RS485 sensors and the Sensirion CRC-8 in the
+ * SCD41 and SHT31 drivers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrcJMH {
+
+  // Sen0657 full weather read response: addr, func, count, 8 data bytes, crc
+  private final byte[] modbusFrame = {0x01, 0x03, 0x08, 0x00, 0x12, 0x01, 0x2C, 0x27, 0x10, 0x00, 0x5A, 0x00, 0x00};
+  // SHT31/SCD41 measurement: 3 words, each followed by its CRC
+  private final byte[] sensirionFrame = {0x66, 0x66, (byte) 0x93, 0x5A, 0x3D, (byte) 0x8C, 0x01, (byte) 0x90, 0x4C};
+
+  private CrcRequest scd41Request;
+
+  @Setup
+  public void setup() {
+    ModbusCrc16.append(modbusFrame, modbusFrame.length - 2);
+    scd41Request = new CrcRequest();
+  }
+
+  @Benchmark
+  public boolean modbusCrc16Check() {
+    return ModbusCrc16.check(modbusFrame);
+  }
+
+  @Benchmark
+  public int sht31Crc8() {
+    return Crc8.compute(sensirionFrame, 0, 2) + Crc8.compute(sensirionFrame, 3, 2) + Crc8.compute(sensirionFrame, 6, 2);
+  }
+
+  @Benchmark
+  public int scd41Crc8() {
+    return scd41Request.crc(sensirionFrame, 0) + scd41Request.crc(sensirionFrame, 3) + scd41Request.crc(sensirionFrame, 6);
+  }
+
+  private static final class CrcRequest extends Request {
+
+    CrcRequest() {
+      super(0, 0xEC05, 9, new I2CMockDeviceImpl(1, 0x62));
+    }
+
+    byte crc(byte[] data, int start) {
+      return generateCrc(data, start);
+    }
+  }
+}
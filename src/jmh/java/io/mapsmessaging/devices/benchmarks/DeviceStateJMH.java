@@ -0,0 +1,72 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.benchmarks;
+
+import io.mapsmessaging.devices.deviceinterfaces.Sensor;
+import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+import io.mapsmessaging.devices.util.SensorReadingAugmentor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State read of real drivers mounted on the mock I2C device: the original walkSensorReadings + convert
+ * path, the controller's getDeviceState() and building the computed readings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceStateJMH {
+
+  @Param({"BME688", "LPS25", "MSA311"})
+  public String device;
+
+  private I2CDeviceController controller;
+  private ReadingsController readingsController;
+  private List<SensorReading<?>> readings;
+
+  @Setup
+  public void setup() throws IOException {
+    controller = MockDevices.mount(device);
+    readings = ((Sensor) controller.getDevice()).getReadings();
+    readingsController = new ReadingsController(device, readings);
+  }
+
+  @Benchmark
+  public byte[] walkSensorReadingsAndConvert() throws IOException {
+    return readingsController.legacyState();
+  }
+
+  @Benchmark
+  public byte[] getDeviceState() throws IOException {
+    return controller.getDeviceState();
+  }
+
+  @Benchmark
+  public List<SensorReading<?>> addComputedReadings() {
+    return SensorReadingAugmentor.addComputedReadings(readings);
+  }
+}
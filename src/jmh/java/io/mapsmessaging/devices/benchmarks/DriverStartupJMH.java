@@ -0,0 +1,73 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.benchmarks;
+
+import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.registry.DriverBus;
+import io.mapsmessaging.devices.registry.DriverIndex;
+import io.mapsmessaging.devices.registry.DriverRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the driver lookup, each measurement in a fresh JVM. The eager case is what the bus managers
+ * did before the index: every I2C bus manager, the mock bus included, and each other bus manager loaded and
+ * constructed all of its drivers. The indexed case reads the index and loads only the driver configured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class DriverStartupJMH {
+
+  private static final int I2C_BUS_MANAGERS = 3;
+
+  @Benchmark
+  public void eagerServiceLoader(Blackhole blackhole) {
+    for (int i = 0; i < I2C_BUS_MANAGERS; i++) {
+      for (I2CDeviceController controller : ServiceLoader.load(I2CDeviceController.class)) {
+        blackhole.consume(controller.getAddressRange());
+      }
+    }
+    for (DriverBus bus : DriverBus.values()) {
+      if (bus != DriverBus.I2C) {
+        for (DeviceController controller : ServiceLoader.load(bus.getService())) {
+          blackhole.consume(controller.getName());
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void indexedRegistry(Blackhole blackhole) {
+    for (DriverBus bus : DriverBus.values()) {
+      for (DriverIndex.Entry entry : DriverRegistry.forService(bus.getService()).getEntries()) {
+        blackhole.consume(entry.addresses());
+      }
+    }
+    blackhole.consume(DriverRegistry.forService(I2CDeviceController.class).get("BME688"));
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.benchmarks;
+
+import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.impl.I2CMockDeviceImpl;
+
+import java.io.IOException;
+import java.util.ServiceLoader;
+
+/**
+ * Mounts the production drivers against {@link I2CMockDeviceImpl} so the benchmarks run without hardware.
+ */
+final class MockDevices {
+
+  static I2CDeviceController mount(String name) throws IOException {
+    for (I2CDeviceController controller : ServiceLoader.load(I2CDeviceController.class)) {
+      if (controller.getName().equals(name)) {
+        int address = controller.getAddressRange()[0];
+        return controller.mount(new I2CMockDeviceImpl(1, address));
+      }
+    }
+    throw new IOException("No driver named " + name);
+  }
+
+  private MockDevices() {
+  }
+}
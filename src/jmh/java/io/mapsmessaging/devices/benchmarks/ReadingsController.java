@@ -0,0 +1,89 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.benchmarks;
+
+import com.google.gson.JsonObject;
+import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+import io.mapsmessaging.schemas.config.SchemaConfig;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Minimal controller over a fixed list of readings, exposes the protected encode paths to the benchmarks.
+ */
+class ReadingsController extends DeviceController {
+
+  private final String name;
+  private final List<SensorReading<?>> readings;
+
+  ReadingsController(String name, List<SensorReading<?>> readings) {
+    this.name = name;
+    this.readings = readings;
+  }
+
+  byte[] legacyState() throws IOException {
+    JsonObject jsonObject = new JsonObject();
+    walkSensorReadings(jsonObject, readings);
+    return convert(jsonObject);
+  }
+
+  @Override
+  protected List<SensorReading<?>> getStateReadings() {
+    return readings;
+  }
+
+  @Override
+  public byte[] getDeviceState() throws IOException {
+    return encodeState(readings);
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getDescription() {
+    return name + " benchmark device";
+  }
+
+  @Override
+  public SchemaConfig getSchema() {
+    return null;
+  }
+
+  @Override
+  public byte[] getDeviceConfiguration() {
+    return new byte[0];
+  }
+
+  @Override
+  public DeviceType getType() {
+    return DeviceType.SENSOR;
+  }
+
+  @Override
+  public byte[] updateDeviceConfiguration(byte[] val) {
+    return new byte[0];
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.benchmarks;
+
+import io.mapsmessaging.devices.util.RollingBucketAccumulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bucket accumulator behind the rain totals, fed four samples per bucket.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RollingBucketAccumulatorJMH {
+
+  @Param({"600000", "3600000", "86400000"})
+  public long windowMillis;
+
+  private RollingBucketAccumulator accumulator;
+  private long now;
+
+  @Setup
+  public void setup() {
+    accumulator = new RollingBucketAccumulator(windowMillis, 1_000L);
+    now = 1_700_000_000_000L;
+  }
+
+  @Benchmark
+  public float add() {
+    now += 250L;
+    accumulator.add(now, 0.2f);
+    return accumulator.getSum();
+  }
+}
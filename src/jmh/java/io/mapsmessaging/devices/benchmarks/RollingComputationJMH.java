@@ -0,0 +1,133 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.benchmarks;
+
+import io.mapsmessaging.devices.sensorreadings.TimedFloatSample;
+import io.mapsmessaging.devices.sensorreadings.TimedFloatSampleRing;
+import io.mapsmessaging.devices.util.IncrementalRollingComputation;
+import io.mapsmessaging.devices.util.RollingComputation;
+import io.mapsmessaging.devices.util.RollingComputations;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Rolling window computations over large windows, one sample per second. The "deque" storage is the boxed
+ * ArrayDeque StatefulFloatSensorReading used to keep, "ring" is the primitive TimedFloatSampleRing it keeps now.
+ * "incremental" feeds the incremental variant of the computation, where there is one, as samples are added and
+ * dropped. The update benchmark is the steady state of a full window: add a sample, drop the oldest, compute. Run
+ * with {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RollingComputationJMH {
+
+  private static final Map<String, Supplier<RollingComputation>> COMPUTATIONS = Map.of(
+      "average", RollingComputations::average,
+      "min", RollingComputations::min,
+      "max", RollingComputations::max,
+      "deltaFirstToLast", RollingComputations::deltaFirstToLast,
+      "ratePerHourFirstToLast", RollingComputations::ratePerHourFirstToLast,
+      "slopeLeastSquaresPerHour", RollingComputations::slopeLeastSquaresPerHour
+  );
+
+  private static final Map<String, Supplier<IncrementalRollingComputation>> INCREMENTAL = Map.of(
+      "average", RollingComputations::incrementalAverage,
+      "min", RollingComputations::incrementalMin,
+      "max", RollingComputations::incrementalMax,
+      "slopeLeastSquaresPerHour", RollingComputations::incrementalSlopeLeastSquaresPerHour
+  );
+
+  @Param({"60", "3600", "86400"})
+  public int windowSize;
+
+  @Param({"average", "min", "max", "deltaFirstToLast", "ratePerHourFirstToLast", "slopeLeastSquaresPerHour"})
+  public String computation;
+
+  @Param({"deque", "ring", "incremental"})
+  public String storage;
+
+  private RollingComputation rollingComputation;
+  private ArrayDeque<TimedFloatSample> samples;
+  private TimedFloatSampleRing ring;
+  private IncrementalRollingComputation incremental;
+  private long next;
+
+  @Setup
+  public void setup() {
+    rollingComputation = COMPUTATIONS.get(computation).get();
+    samples = new ArrayDeque<>(windowSize);
+    ring = new TimedFloatSampleRing(windowSize);
+    incremental = storage.equals("incremental") && INCREMENTAL.containsKey(computation)
+        ? INCREMENTAL.get(computation).get()
+        : null;
+    long start = 1_700_000_000_000L;
+    for (int i = 0; i < windowSize; i++) {
+      long time = start + i * 1_000L;
+      float value = 1000f + (float) Math.sin(i / 60.0);
+      samples.addLast(new TimedFloatSample(time, value));
+      ring.add(time, value);
+      if (incremental != null) {
+        incremental.add(time, value);
+      }
+    }
+    next = start + windowSize * 1_000L;
+  }
+
+  @Benchmark
+  public float compute() {
+    if (incremental != null) {
+      return incremental.result();
+    }
+    if (!storage.equals("deque")) {
+      return rollingComputation.compute(ring);
+    }
+    return rollingComputation.compute(samples);
+  }
+
+  @Benchmark
+  public float update() {
+    float value = 1000f + (float) Math.sin(next / 60_000.0);
+    if (incremental != null) {
+      incremental.evict(ring.time(0), ring.value(0));
+      ring.removeFirst();
+      ring.add(next, value);
+      incremental.add(next, value);
+      next += 1_000L;
+      return incremental.result();
+    }
+    if (!storage.equals("deque")) {
+      ring.add(next, value);
+      next += 1_000L;
+      return rollingComputation.compute(ring);
+    }
+    samples.addLast(new TimedFloatSample(next, value));
+    samples.removeFirst();
+    next += 1_000L;
+    return rollingComputation.compute(samples);
+  }
+}
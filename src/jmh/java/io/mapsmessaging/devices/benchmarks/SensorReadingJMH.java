@@ -0,0 +1,78 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.benchmarks;
+
+import io.mapsmessaging.devices.encoding.StateFormat;
+import io.mapsmessaging.devices.sensorreadings.FloatSensorReading;
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+import io.mapsmessaging.devices.sensorreadings.StringSensorReading;
+import io.mapsmessaging.devices.util.SensorReadingAugmentor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per getDeviceState() for a BME688 shaped reading list (4 floats, 2 strings and the computed
+ * readings). LEGACY is the original walkSensorReadings + pretty Gson path, the other modes use the
+ * primitive readInto path with the given encoder. Run with -prof gc and compare gc.alloc.rate.norm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SensorReadingJMH {
+
+  @Param({"LEGACY", "JSON", "COMPACT_JSON", "CBOR", "BINARY"})
+  public String mode;
+
+  private ReadingsController controller;
+  private StateFormat format;
+
+  @Setup
+  public void setup() {
+    controller = new ReadingsController("BME688", bme688Readings());
+    format = mode.equals("LEGACY") ? null : StateFormat.valueOf(mode);
+  }
+
+  @Benchmark
+  public byte[] getDeviceState() throws IOException {
+    if (format == null) {
+      return controller.legacyState();
+    }
+    return controller.getEncodedDeviceState(format);
+  }
+
+  static List<SensorReading<?>> bme688Readings() {
+    float[] raw = {21.37f, 48.21f, 1012.64f, 12345.6f};
+    List<SensorReading<?>> base = List.of(
+        new FloatSensorReading("temperature", "°C", "", 25.0f, true, -40f, 85f, 1, () -> raw[0] += 0.01f),
+        new FloatSensorReading("humidity", "%RH", "", 50.0f, true, 10f, 90f, 1, () -> raw[1]),
+        new FloatSensorReading("pressure", "hPa", "", 1013.25f, true, 300f, 1100f, 1, () -> raw[2]),
+        new FloatSensorReading("gas", "Ω", "", 10000.0f, true, 0f, 65535f, 1, () -> raw[3]),
+        new StringSensorReading("heaterStatus", "", "", "ON", true, () -> "ON"),
+        new StringSensorReading("gasMode", "", "", "profile_0", true, () -> "profile_0")
+    );
+    return SensorReadingAugmentor.addComputedReadings(base);
+  }
+}
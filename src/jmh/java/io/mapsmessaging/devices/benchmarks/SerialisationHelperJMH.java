@@ -0,0 +1,66 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.benchmarks;
+
+import io.mapsmessaging.devices.deviceinterfaces.RegisterData;
+import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.io.SerialisationHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Register map (de)serialisation as used by getDeviceConfiguration() and updateDeviceConfiguration().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerialisationHelperJMH {
+
+  @Param({"BME688", "LPS25"})
+  public String device;
+
+  private SerialisationHelper helper;
+  private Map<Integer, RegisterData> registers;
+  private byte[] serialised;
+
+  @Setup
+  public void setup() throws IOException {
+    I2CDeviceController controller = MockDevices.mount(device);
+    helper = new SerialisationHelper();
+    registers = controller.getDevice().getRegisterMap().getData();
+    serialised = helper.serialise(registers);
+  }
+
+  @Benchmark
+  public byte[] serialise() throws IOException {
+    return helper.serialise(registers);
+  }
+
+  @Benchmark
+  public Map<Integer, RegisterData> deserialise() throws IOException {
+    return helper.deserialise(serialised);
+  }
+}
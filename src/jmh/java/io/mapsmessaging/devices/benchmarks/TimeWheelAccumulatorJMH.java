@@ -0,0 +1,95 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.benchmarks;
+
+import io.mapsmessaging.devices.util.RollingBucketAccumulator;
+import io.mapsmessaging.devices.util.TimeWheelAccumulator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Sen0657 rain totals, 10 minutes, 1 hour and 24 hours, kept as three RollingBucketAccumulators or one
+ * TimeWheelAccumulator. The group benchmarks add a writer thread to two readers to show readers not serialising.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeWheelAccumulatorJMH {
+
+  private RollingBucketAccumulator rain10Min;
+  private RollingBucketAccumulator rain1Hour;
+  private RollingBucketAccumulator rain24Hour;
+
+  private TimeWheelAccumulator rainfall;
+  private TimeWheelAccumulator.Window wheel10Min;
+  private TimeWheelAccumulator.Window wheel1Hour;
+  private TimeWheelAccumulator.Window wheel24Hour;
+
+  private long now;
+
+  @Setup
+  public void setup() {
+    rain10Min = new RollingBucketAccumulator(10L * 60_000L, 5_000L);
+    rain1Hour = new RollingBucketAccumulator(60L * 60_000L, 60_000L);
+    rain24Hour = new RollingBucketAccumulator(24L * 60L * 60_000L, 60_000L);
+    rainfall = new TimeWheelAccumulator();
+    wheel10Min = rainfall.addWindow(10L * 60_000L, 5_000L);
+    wheel1Hour = rainfall.addWindow(60L * 60_000L, 60_000L);
+    wheel24Hour = rainfall.addWindow(24L * 60L * 60_000L, 60_000L);
+    now = 1_700_000_000_000L;
+  }
+
+  @Benchmark
+  @Group("separate")
+  public void separateAdd(Blackhole blackhole) {
+    now += 250L;
+    rain10Min.add(now, 0.2f);
+    rain1Hour.add(now, 0.2f);
+    rain24Hour.add(now, 0.2f);
+    blackhole.consume(rain10Min.getSum());
+  }
+
+  @Benchmark
+  @Group("separate")
+  @GroupThreads(2)
+  public float separateRead() {
+    return rain1Hour.getSum() + rain24Hour.getSum();
+  }
+
+  @Benchmark
+  @Group("wheel")
+  public void wheelAdd(Blackhole blackhole) {
+    now += 250L;
+    rainfall.add(now, 0.2f);
+    blackhole.consume(wheel10Min.getSum());
+  }
+
+  @Benchmark
+  @Group("wheel")
+  @GroupThreads(2)
+  public float wheelRead() {
+    return wheel1Hour.getSum() + wheel24Hour.getSum();
+  }
+}
@@ -22,7 +22,6 @@ package io.mapsmessaging.devices;
 import com.pi4j.Pi4J;
 import com.pi4j.context.Context;
 import com.pi4j.io.i2c.I2C;
-import com.pi4j.io.i2c.I2CProvider;
 import io.mapsmessaging.devices.gpio.InterruptFactory;
 import io.mapsmessaging.devices.gpio.Pi4JPinManagement;
 import io.mapsmessaging.devices.gpio.PiInterruptFactory;
@@ -31,56 +30,189 @@ import io.mapsmessaging.devices.i2c.I2CDeviceController;
 import io.mapsmessaging.devices.i2cmock.I2CMockBusManager;
 import io.mapsmessaging.devices.logging.DeviceLogMessage;
 import io.mapsmessaging.devices.onewire.OneWireBusManager;
+import io.mapsmessaging.devices.sampling.SamplingScheduler;
 import io.mapsmessaging.devices.serial.SerialBusManager;
 import io.mapsmessaging.devices.spi.SpiBusManager;
+import io.mapsmessaging.devices.util.DeviceThreads;
 import io.mapsmessaging.logging.Logger;
 import io.mapsmessaging.logging.LoggerFactory;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
+/**
+ * Owns every bus manager. By default they are brought up one after another in the constructor. With
+ * -Ddevice.startup=async the independent buses start concurrently: each has a readiness future, the getters wait
+ * only for the bus they return, and {@link #getActiveDevices()} lists the buses that are ready so far.
+ */
 @SuppressWarnings("java:S6548") // yes it is a singleton
 @Getter
 public class DeviceBusManager {
+  public static final String STARTUP_PROPERTY = "device.startup";
+
+  private static final int I2C_BUSES = 3;
+
   private final Logger logger = LoggerFactory.getLogger(DeviceBusManager.class);
-  private final Context pi4j;
+  @Getter(AccessLevel.NONE)
+  private final boolean asyncStartup;
+  @Getter(AccessLevel.NONE)
+  private final CompletableFuture<Context> pi4jReady;
+  @Getter(AccessLevel.NONE)
+  private final CompletableFuture<Boolean> lengthResponseReady;
+  @Getter(AccessLevel.NONE)
   private final I2CBusManager[] i2cBusManager;
-  private final OneWireBusManager oneWireBusManager;
-  private final SpiBusManager spiBusManager;
-  private final Pi4JPinManagement pinManagement;
-  private final SerialBusManager serialBusManager;
-  private final InterruptFactory interruptFactory;
-  private final boolean supportsLengthResponse;
+  @Getter(AccessLevel.NONE)
+  private final CompletableFuture<?>[] i2cReady;
+  @Getter(AccessLevel.NONE)
+  private final CompletableFuture<OneWireBusManager> oneWireReady;
+  @Getter(AccessLevel.NONE)
+  private final CompletableFuture<SpiBusManager> spiReady;
+  @Getter(AccessLevel.NONE)
+  private final CompletableFuture<Pi4JPinManagement> pinManagementReady;
+  @Getter(AccessLevel.NONE)
+  private final CompletableFuture<SerialBusManager> serialReady;
+  @Getter(AccessLevel.NONE)
+  private final CompletableFuture<InterruptFactory> interruptFactoryReady;
+  private final SamplingScheduler samplingScheduler;
   private boolean timestamp;
 
   private DeviceBusManager() {
     logger.log(DeviceLogMessage.BUS_MANAGER_STARTUP);
-    pi4j = Pi4J.newAutoContext();
-    I2CProvider i2cProvider = pi4j.getI2CProvider();
-    String name = i2cProvider.getId();
-    supportsLengthResponse = name.equalsIgnoreCase("linuxfs-i2c");
+    asyncStartup = System.getProperty(STARTUP_PROPERTY, "sync").equalsIgnoreCase("async");
+    pi4jReady = start("Pi4J", Pi4J::newAutoContext);
+    lengthResponseReady = pi4jReady.thenApply(context -> {
+      String name = context.getI2CProvider().getId();
+      logger.log(DeviceLogMessage.BUS_MANAGER_PROVIDER, name);
+      return name.equalsIgnoreCase("linuxfs-i2c");
+    });
+    logger.log(DeviceLogMessage.BUS_MANAGER_THREADS, DeviceThreads.getMode(), DeviceThreads.isVirtualSupported());
 
-    logger.log(DeviceLogMessage.BUS_MANAGER_PROVIDER, name);
-    i2cBusManager = new I2CBusManager[3];
+    i2cBusManager = new I2CBusManager[I2C_BUSES];
+    i2cReady = new CompletableFuture<?>[I2C_BUSES];
     for (int x = 0; x < i2cBusManager.length; x++) {
-      if(x < i2cBusManager.length-1) {
-        i2cBusManager[x] = new I2CBusManager(pi4j, i2cProvider, x);
-      }
-      else{
-        i2cBusManager[x] = new I2CMockBusManager(255);
+      int bus = x;
+      if (x < i2cBusManager.length - 1) {
+        i2cReady[x] = startAfter(pi4jReady, "I2C bus " + bus, context -> i2cBusManager[bus] = new I2CBusManager(context, context.getI2CProvider(), bus));
+      } else {
+        i2cReady[x] = start("I2C mock bus", () -> i2cBusManager[bus] = new I2CMockBusManager(255));
       }
     }
 
-    oneWireBusManager = new OneWireBusManager();
-    spiBusManager = new SpiBusManager(pi4j);
-    pinManagement = new Pi4JPinManagement(pi4j);
-    interruptFactory = new PiInterruptFactory(pi4j);
-    serialBusManager = new SerialBusManager();
+    oneWireReady = start("1-Wire", OneWireBusManager::new);
+    spiReady = startAfter(pi4jReady, "SPI", SpiBusManager::new);
+    pinManagementReady = startAfter(pi4jReady, "Pins", Pi4JPinManagement::new);
+    interruptFactoryReady = startAfter(pi4jReady, "Interrupts", PiInterruptFactory::new);
+    serialReady = start("Serial", SerialBusManager::new);
+    samplingScheduler = new SamplingScheduler(this::getActiveDevices);
+  }
+
+  /**
+   * Runs the bus bring-up on its own thread in async mode, or now on the calling thread, where a failure
+   * is thrown from the constructor as before.
+   */
+  private <T> CompletableFuture<T> start(String bus, Supplier<T> bringUp) {
+    if (!asyncStartup) {
+      return CompletableFuture.completedFuture(bringUp.get());
+    }
+    return CompletableFuture.supplyAsync(() -> timed(bus, bringUp), runnable -> DeviceThreads.start("Bus-Startup", runnable));
+  }
+
+  private <T, U> CompletableFuture<T> startAfter(CompletableFuture<U> dependency, String bus, Function<U, T> bringUp) {
+    if (!asyncStartup) {
+      return CompletableFuture.completedFuture(bringUp.apply(dependency.join()));
+    }
+    return dependency.thenApplyAsync(value -> timed(bus, () -> bringUp.apply(value)), runnable -> DeviceThreads.start("Bus-Startup", runnable));
+  }
+
+  private <T> T timed(String bus, Supplier<T> bringUp) {
+    long start = System.nanoTime();
+    try {
+      T result = bringUp.get();
+      logger.log(DeviceLogMessage.BUS_MANAGER_BUS_READY, bus, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      return result;
+    } catch (RuntimeException e) {
+      logger.log(DeviceLogMessage.BUS_MANAGER_BUS_FAILED, bus, e.getMessage());
+      throw e;
+    }
+  }
+
+  public boolean isAsyncStartup() {
+    return asyncStartup;
+  }
+
+  //<editor-fold desc="Readiness futures, complete once the bus manager has been brought up">
+  public CompletableFuture<I2CBusManager> getI2cBusReady(int index) {
+    return i2cReady[index].thenApply(ready -> i2cBusManager[index]);
+  }
+
+  public CompletableFuture<OneWireBusManager> getOneWireReady() {
+    return oneWireReady.copy();
+  }
+
+  public CompletableFuture<SpiBusManager> getSpiReady() {
+    return spiReady.copy();
+  }
+
+  public CompletableFuture<SerialBusManager> getSerialReady() {
+    return serialReady.copy();
+  }
+
+  public CompletableFuture<Pi4JPinManagement> getPinManagementReady() {
+    return pinManagementReady.copy();
+  }
+
+  /**
+   * @return a future that completes once every bus has been brought up, or fails if any could not be
+   */
+  public CompletableFuture<Void> getReady() {
+    List<CompletableFuture<?>> all = new ArrayList<>(Arrays.asList(i2cReady));
+    all.addAll(List.of(pi4jReady, lengthResponseReady, oneWireReady, spiReady, pinManagementReady, serialReady, interruptFactoryReady));
+    return CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0]));
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="Bus managers, each getter waits only for the bus it returns">
+  public Context getPi4j() {
+    return pi4jReady.join();
+  }
+
+  public boolean isSupportsLengthResponse() {
+    return lengthResponseReady.join();
   }
 
+  public I2CBusManager[] getI2cBusManager() {
+    CompletableFuture.allOf(i2cReady).join();
+    return i2cBusManager;
+  }
+
+  public OneWireBusManager getOneWireBusManager() {
+    return oneWireReady.join();
+  }
+
+  public SpiBusManager getSpiBusManager() {
+    return spiReady.join();
+  }
+
+  public Pi4JPinManagement getPinManagement() {
+    return pinManagementReady.join();
+  }
+
+  public SerialBusManager getSerialBusManager() {
+    return serialReady.join();
+  }
+
+  public InterruptFactory getInterruptFactory() {
+    return interruptFactoryReady.join();
+  }
+  //</editor-fold>
+
   // Global access point to get the Singleton instance
   public static DeviceBusManager getInstance() {
     return Holder.INSTANCE;
@@ -90,6 +222,7 @@ public class DeviceBusManager {
   public boolean isAvailable() {
     boolean result = false;
    try {
+      Context pi4j = getPi4j();
       try (var i2c = pi4j.create(I2C.newConfigBuilder(pi4j).id("Test I2C").device(1).bus(1).build())) {
         i2c.getDevice();
         result = true;
@@ -106,14 +239,61 @@ public class DeviceBusManager {
     Map<String, Object> i2c = getConfig("i2c", config);
     if (!i2c.isEmpty()) {
       int bus = Integer.parseInt(i2c.get("bus").toString());
-      i2cBusManager[bus].configureDevices(i2c);
+      getI2cBusReady(bus).join().configureDevices(i2c);
     }
     Map<String, Object> spi = getConfig("spi", config);
     if (!spi.isEmpty()) {
-      spiBusManager.configureDevices(spi);
+      getSpiBusManager().configureDevices(spi);
+    }
+    Map<String, Object> sampling = getConfig("sampling", config);
+    if (!sampling.isEmpty()) {
+      samplingScheduler.configure(sampling);
+      samplingScheduler.start();
     }
   }
 
+  /**
+   * @return the devices on every bus that is ready, buses still starting are left out rather than waited for
+   */
+  public List<DeviceController> getActiveDevices() {
+    List<DeviceController> active = new ArrayList<>();
+    for (int x = 0; x < i2cBusManager.length; x++) {
+      I2CBusManager manager = readyOrNull(i2cReady[x]) != null ? i2cBusManager[x] : null;
+      if (manager != null) {
+        active.addAll(manager.getActive().values());
+      }
+    }
+    OneWireBusManager oneWire = readyOrNull(oneWireReady);
+    if (oneWire != null) {
+      active.addAll(oneWire.getActive().values());
+    }
+    SpiBusManager spi = readyOrNull(spiReady);
+    if (spi != null) {
+      active.addAll(spi.getActive().values());
+    }
+    SerialBusManager serial = readyOrNull(serialReady);
+    if (serial != null) {
+      active.addAll(serial.getActive().values());
+    }
+    return active;
+  }
+
+  private static <T> T readyOrNull(CompletableFuture<T> future) {
+    return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+  }
+
+  public DeviceThreads.Mode getThreadMode() {
+    return DeviceThreads.getMode();
+  }
+
+  /**
+   * Selects platform or virtual threads for bus workers, samplers, interrupt pollers and display tasks.
+   * Threads that are already running keep their type, so set this before devices are configured.
+   */
+  public void setThreadMode(DeviceThreads.Mode mode) {
+    DeviceThreads.setMode(mode);
+  }
+
   public void enableTimestamping(boolean enable) {
     I2CDeviceController.setTimestampReadings(enable);
   }
@@ -127,7 +307,22 @@ public class DeviceBusManager {
   }
 
   public void close() {
-    pi4j.shutdown();
+    samplingScheduler.close();
+    // Let buses still starting finish, so none is left running after the shutdown
+    getReady().exceptionally(e -> null).join();
+    for (I2CBusManager manager : i2cBusManager) {
+      if (manager != null) {
+        manager.shutdown();
+      }
+    }
+    SerialBusManager serial = readyOrNull(serialReady);
+    if (serial != null) {
+      serial.close();
+    }
+    Context pi4j = readyOrNull(pi4jReady);
+    if (pi4j != null) {
+      pi4j.shutdown();
+    }
     logger.log(DeviceLogMessage.BUS_MANAGER_SHUTDOWN);
   }
 
@@ -23,9 +23,15 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
+import io.mapsmessaging.devices.encoding.StateEncoder;
+import io.mapsmessaging.devices.encoding.StateFormat;
+import io.mapsmessaging.devices.sampling.ReportByException;
+import io.mapsmessaging.devices.sampling.ReportPolicy;
 import io.mapsmessaging.devices.sensorreadings.ComputationResult;
 import io.mapsmessaging.devices.sensorreadings.GroupSensorReading;
+import io.mapsmessaging.devices.sensorreadings.ReadingContext;
 import io.mapsmessaging.devices.sensorreadings.SensorReading;
+import io.mapsmessaging.devices.sensorreadings.SensorSampleSink;
 import io.mapsmessaging.devices.util.UuidGenerator;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import lombok.Getter;
@@ -34,10 +40,13 @@ import lombok.Setter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 public abstract class DeviceController {
   private final AtomicReference<UUID> uuid;
@@ -46,6 +55,34 @@ public abstract class DeviceController {
   @Setter
   private boolean raiseExceptionOnError = false;
 
+  /**
+   * Number of bus transactions made by the most recent state request.
+   */
+  @Getter
+  private volatile int lastBusTransactionCount;
+
+  /**
+   * Number of readings taken, and of those the number that failed, by the most recent state request.
+   */
+  @Getter
+  private volatile int lastReadingCount;
+  @Getter
+  private volatile int lastFailedReadingCount;
+
+  /**
+   * Encoding used by getDeviceState() for controllers that report sensor readings.
+   */
+  @Getter
+  @Setter
+  private volatile StateFormat stateFormat = StateFormat.JSON;
+
+  private final Map<StateFormat, EncoderSink> stateEncoders = new EnumMap<>(StateFormat.class);
+
+  /**
+   * Set in report-by-exception mode, where state calls leave out readings that have not moved beyond their deadband
+   */
+  private volatile ReportByException reportFilter;
+
 
   protected DeviceController() {
     uuid = new AtomicReference<>();
@@ -79,6 +116,60 @@ public abstract class DeviceController {
 
   public abstract byte[] getDeviceState() throws IOException;
 
+  /**
+   * Reads the device state in the requested format rather than the controller's configured one.
+   *
+   * @throws IOException if the device does not report its state as sensor readings and the format is not JSON
+   */
+  public byte[] getEncodedDeviceState(StateFormat format) throws IOException {
+    List<SensorReading<?>> readings = getStateReadings();
+    if (readings == null) {
+      if (format == StateFormat.JSON) {
+        return getDeviceState();
+      }
+      throw new IOException(getName() + " does not support " + format + " state encoding");
+    }
+    return encodeState(readings, format);
+  }
+
+  /**
+   * Reads the state in the controller's format, leaving out readings the caller's filter has already reported.
+   * The filter replaces any set by {@link #enableReportByException(ReportPolicy)}, so each consumer holding its
+   * own filter sees every change once, whatever other callers read in between. A null filter is the same as
+   * {@link #getDeviceState()}.
+   */
+  public byte[] getFilteredDeviceState(ReportByException filter) throws IOException {
+    List<SensorReading<?>> readings = filter != null ? getStateReadings() : null;
+    if (readings == null) {
+      return getDeviceState();
+    }
+    return encodeState(readings, stateFormat, filter);
+  }
+
+  /**
+   * @return the readings that make up this device's state, or null if the state is not built from readings
+   */
+  protected List<SensorReading<?>> getStateReadings() {
+    return null;
+  }
+
+  /**
+   * Switches state calls to report by exception: a reading is only included once it moves beyond its deadband
+   * or its heartbeat interval has passed. The first state after this reports every reading. This applies to
+   * controllers whose state is built from sensor readings, in every state format.
+   */
+  public void enableReportByException(ReportPolicy policy) {
+    reportFilter = new ReportByException(policy);
+  }
+
+  public void disableReportByException() {
+    reportFilter = null;
+  }
+
+  public boolean isReportByException() {
+    return reportFilter != null;
+  }
+
   public boolean getRaiseExceptionOnError() {
     return true;
   }
@@ -97,11 +188,68 @@ public abstract class DeviceController {
     return SchemaBuilder.buildSchema(sensor, additionalValues);
   }
 
+  protected byte[] encodeState(List<SensorReading<?>> readings) throws IOException {
+    return encodeState(readings, stateFormat);
+  }
+
+  protected byte[] encodeState(List<SensorReading<?>> readings, StateFormat format) throws IOException {
+    return encodeState(readings, format, reportFilter);
+  }
+
+  private byte[] encodeState(List<SensorReading<?>> readings, StateFormat format, ReportByException filter) throws IOException {
+    EncoderSink sink;
+    synchronized (stateEncoders) {
+      sink = stateEncoders.computeIfAbsent(format, f -> new EncoderSink(f.createEncoder()));
+    }
+    // Readings may wait for the bus, so the sink is held with a lock rather than a monitor
+    sink.lock.lock();
+    try (ReadingContext context = ReadingContext.open()) {
+      sink.encoder.begin(this, readings);
+      sink.failure = null;
+      sink.raiseOnError = raiseExceptionOnError;
+      sink.filter = filter;
+      sink.now = System.currentTimeMillis();
+      encodeReadings(sink, readings);
+      recordCounts(context);
+      return sink.encoder.end();
+    } finally {
+      sink.lock.unlock();
+    }
+  }
+
+  private void encodeReadings(EncoderSink sink, List<SensorReading<?>> readings) throws IOException {
+    for (SensorReading<?> reading : readings) {
+      if (reading instanceof GroupSensorReading groupReading) {
+        sink.encoder.beginGroup(reading.getName());
+        encodeReadings(sink, groupReading.getGroupList());
+        sink.encoder.endGroup();
+      } else {
+        reading.readInto(sink);
+        if (sink.failure != null) {
+          throw new IOException(sink.failure);
+        }
+      }
+    }
+  }
+
   protected void walkSensorReadings(JsonObject root, List<SensorReading<?>> readings) throws IOException {
+    try (ReadingContext context = ReadingContext.open()) {
+      walkReadings(root, readings);
+      recordCounts(context);
+    }
+  }
+
+  private void recordCounts(ReadingContext context) {
+    lastBusTransactionCount = context.getTransactionCount();
+    lastReadingCount = context.getReadCount();
+    lastFailedReadingCount = context.getFailureCount();
+  }
+
+  private void walkReadings(JsonObject root, List<SensorReading<?>> readings) throws IOException {
     for (SensorReading<?> reading : readings) {
       if (reading instanceof GroupSensorReading groupReading) {
         JsonObject readingObject = new JsonObject();
-        walkSensorReadings(new JsonObject(), groupReading.getGroupList());
+        walkReadings(new JsonObject(), groupReading.getGroupList());
         if (!readingObject.isEmpty()) {
           root.add(reading.getName(), readingObject);
         }
@@ -147,4 +295,68 @@ public abstract class DeviceController {
     return gson.toJson(jsonObject).getBytes(StandardCharsets.UTF_8);
   }
 
+  /**
+   * Adapts the primitive reading callbacks onto a {@link StateEncoder}.
+   */
+  private static final class EncoderSink implements SensorSampleSink {
+
+    private final StateEncoder encoder;
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean raiseOnError;
+    private IOException failure;
+    private ReportByException filter;
+    private long now;
+
+    private EncoderSink(StateEncoder encoder) {
+      this.encoder = encoder;
+    }
+
+    @Override
+    public void acceptFloat(SensorReading<?> reading, float value) {
+      if (filter == null || filter.changed(reading, value, now)) {
+        encoder.writeFloat(reading, value);
+      } else {
+        encoder.writeValue(reading, null);
+      }
+    }
+
+    @Override
+    public void acceptInt(SensorReading<?> reading, int value) {
+      if (filter == null || filter.changed(reading, value, now)) {
+        encoder.writeInt(reading, value);
+      } else {
+        encoder.writeValue(reading, null);
+      }
+    }
+
+    @Override
+    public void acceptLong(SensorReading<?> reading, long value) {
+      if (filter == null || filter.changed(reading, value, now)) {
+        encoder.writeLong(reading, value);
+      } else {
+        encoder.writeValue(reading, null);
+      }
+    }
+
+    @Override
+    public void accept(SensorReading<?> reading, Object value) {
+      if (value instanceof Optional<?> optional) {
+        value = optional.orElse(null);
+      }
+      // Unchanged readings are written as null, which encoders leave out while keeping their layout
+      if (value != null && filter != null && !filter.changed(reading, value, now)) {
+        value = null;
+      }
+      encoder.writeValue(reading, value);
+    }
+
+    @Override
+    public void acceptError(SensorReading<?> reading, IOException error) {
+      if (raiseOnError) {
+        failure = error;
+      } else {
+        encoder.writeError(reading, error.getMessage());
+      }
+    }
+  }
 }
@@ -0,0 +1,48 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.deviceinterfaces;
+
+import java.io.IOException;
+
+/**
+ * Implemented by sensors whose measurement needs a conversion time. Splitting the read lets a caller
+ * start the conversion, release the bus while it runs, and come back for the result, so the conversions
+ * of several sensors on one bus overlap instead of running one after another.
+ * <p>
+ * {@link #collect()} refreshes the values the sensor's readings report, and the readings then serve
+ * those values for the driver's usual refresh interval without starting another conversion.
+ */
+public interface SplitPhaseMeasurement {
+
+  /**
+   * Starts a conversion.
+   *
+   * @return the time, in {@link System#currentTimeMillis()} terms, from which {@link #collect()} can read the result
+   * @throws IOException if the conversion could not be started
+   */
+  long startMeasurement() throws IOException;
+
+  /**
+   * Reads the result of the conversion started by {@link #startMeasurement()}.
+   *
+   * @throws IOException if the result could not be read
+   */
+  void collect() throws IOException;
+}
@@ -0,0 +1,293 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.encoding;
+
+import com.google.gson.Gson;
+import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.sensorreadings.*;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixed layout binary record. The layout follows the readings that the device schema is built from, so
+ * a consumer holding the schema (identified by the UUID at the front of every record) can decode any
+ * field by offset. All values are big endian:
+ * <pre>
+ *   0   schema id, most significant long
+ *   8   schema id, least significant long
+ *   16  timestamp, epoch milliseconds
+ *   24  validity bitmap, one bit per slot, set when the slot holds a value
+ *   ..  fixed slots in reading order: FLOAT32, INT32, INT64, FLOAT64 or BOOLEAN (1 byte)
+ *   ..  variable slots in reading order, each an unsigned short length followed by UTF-8 text or raw bytes
+ * </pre>
+ * Numeric values are written straight into a ByteBuffer that is reused between records.
+ */
+public class BinaryStateEncoder implements StateEncoder {
+
+  public static final int HEADER_LENGTH = 24;
+
+  private static final Gson GSON = new Gson();
+
+  public enum SlotType {
+    FLOAT32(4),
+    INT32(4),
+    INT64(8),
+    FLOAT64(8),
+    BOOLEAN(1),
+    VARIABLE(0);
+
+    @Getter
+    private final int size;
+
+    SlotType(int size) {
+      this.size = size;
+    }
+  }
+
+  public record Slot(String name, SlotType type, int offset) {
+  }
+
+  private List<SensorReading<?>> layoutReadings;
+  @Getter
+  private List<Slot> slots;
+  @Getter
+  private int fixedLength;
+
+  private ByteBuffer buffer;
+  private int cursor;
+
+  public BinaryStateEncoder() {
+    slots = List.of();
+    buffer = ByteBuffer.allocate(256);
+  }
+
+  /**
+   * Builds the slot layout for a list of readings, groups are flattened in order.
+   */
+  public static List<Slot> layout(List<SensorReading<?>> readings) {
+    List<SensorReading<?>> leaves = new ArrayList<>();
+    flatten(readings, leaves);
+    int offset = HEADER_LENGTH + (leaves.size() + 7) / 8;
+    List<Slot> result = new ArrayList<>(leaves.size());
+    for (SensorReading<?> reading : leaves) {
+      SlotType type = slotType(reading);
+      result.add(new Slot(reading.getName(), type, type == SlotType.VARIABLE ? -1 : offset));
+      offset += type.getSize();
+    }
+    return List.copyOf(result);
+  }
+
+  @Override
+  public void begin(DeviceController controller, List<SensorReading<?>> readings) {
+    if (readings != layoutReadings) {
+      layoutReadings = readings;
+      slots = layout(readings);
+      fixedLength = HEADER_LENGTH + (slots.size() + 7) / 8;
+      for (Slot slot : slots) {
+        fixedLength += slot.type().getSize();
+      }
+      if (buffer.capacity() < fixedLength) {
+        buffer = ByteBuffer.allocate(fixedLength * 2);
+      }
+    }
+    buffer.clear();
+    UUID schemaId = controller.getSchemaId();
+    buffer.putLong(schemaId.getMostSignificantBits());
+    buffer.putLong(schemaId.getLeastSignificantBits());
+    buffer.putLong(System.currentTimeMillis());
+    Arrays.fill(buffer.array(), HEADER_LENGTH, fixedLength, (byte) 0);
+    buffer.position(fixedLength);
+    cursor = 0;
+  }
+
+  @Override
+  public void beginGroup(String name) {
+    // groups are flattened into the slot layout
+  }
+
+  @Override
+  public void endGroup() {
+    // groups are flattened into the slot layout
+  }
+
+  @Override
+  public void writeValue(SensorReading<?> reading, Object value) {
+    if (cursor >= slots.size()) {
+      return;
+    }
+    int index = cursor++;
+    Slot slot = slots.get(index);
+    if (value == null) {
+      if (slot.type() == SlotType.VARIABLE) {
+        writeVariable(null);
+      }
+      return;
+    }
+    switch (slot.type()) {
+      case FLOAT32 -> buffer.putFloat(slot.offset(), ((Number) value).floatValue());
+      case INT32 -> buffer.putInt(slot.offset(), ((Number) value).intValue());
+      case INT64 -> buffer.putLong(slot.offset(), ((Number) value).longValue());
+      case FLOAT64 -> buffer.putDouble(slot.offset(), ((Number) value).doubleValue());
+      case BOOLEAN -> buffer.put(slot.offset(), (byte) (Boolean.TRUE.equals(value) ? 1 : 0));
+      default -> writeVariable(toBytes(value));
+    }
+    markValid(index);
+  }
+
+  @Override
+  public void writeFloat(SensorReading<?> reading, float value) {
+    Slot slot = nextSlot();
+    if (slot == null) {
+      return;
+    }
+    switch (slot.type()) {
+      case FLOAT32 -> buffer.putFloat(slot.offset(), value);
+      case FLOAT64 -> buffer.putDouble(slot.offset(), value);
+      default -> {
+        cursor--;
+        writeValue(reading, value);
+        return;
+      }
+    }
+    markValid(cursor - 1);
+  }
+
+  @Override
+  public void writeInt(SensorReading<?> reading, int value) {
+    Slot slot = nextSlot();
+    if (slot == null) {
+      return;
+    }
+    switch (slot.type()) {
+      case INT32 -> buffer.putInt(slot.offset(), value);
+      case INT64 -> buffer.putLong(slot.offset(), value);
+      default -> {
+        cursor--;
+        writeValue(reading, value);
+        return;
+      }
+    }
+    markValid(cursor - 1);
+  }
+
+  @Override
+  public void writeLong(SensorReading<?> reading, long value) {
+    Slot slot = nextSlot();
+    if (slot == null) {
+      return;
+    }
+    if (slot.type() != SlotType.INT64) {
+      cursor--;
+      writeValue(reading, value);
+      return;
+    }
+    buffer.putLong(slot.offset(), value);
+    markValid(cursor - 1);
+  }
+
+  @Override
+  public void writeError(SensorReading<?> reading, String message) {
+    // the validity bit stays clear
+    writeValue(reading, null);
+  }
+
+  @Override
+  public byte[] end() {
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  /**
+   * @return a read only view of the last record, valid until the next call to begin
+   */
+  public ByteBuffer getRecord() {
+    return buffer.asReadOnlyBuffer().flip();
+  }
+
+  private Slot nextSlot() {
+    if (cursor >= slots.size()) {
+      return null;
+    }
+    return slots.get(cursor++);
+  }
+
+  private void markValid(int index) {
+    int bit = HEADER_LENGTH + (index >> 3);
+    buffer.put(bit, (byte) (buffer.get(bit) | (1 << (index & 7))));
+  }
+
+  private void writeVariable(byte[] data) {
+    int length = data == null ? 0 : Math.min(data.length, 0xFFFF);
+    if (buffer.remaining() < length + 2) {
+      ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length + 2));
+      buffer.flip();
+      larger.put(buffer);
+      buffer = larger;
+    }
+    buffer.putShort((short) length);
+    if (length > 0) {
+      buffer.put(data, 0, length);
+    }
+  }
+
+  private static byte[] toBytes(Object value) {
+    if (value instanceof byte[] bytes) {
+      return bytes;
+    }
+    if (value instanceof String || value instanceof Character || value instanceof Number || value instanceof Boolean) {
+      return value.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    return GSON.toJson(value).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static SlotType slotType(SensorReading<?> reading) {
+    if (reading instanceof FloatSensorReading || reading instanceof StatefulFloatSensorReading) {
+      return SlotType.FLOAT32;
+    }
+    if (reading instanceof IntegerSensorReading) {
+      return SlotType.INT32;
+    }
+    if (reading instanceof LongSensorReading) {
+      return SlotType.INT64;
+    }
+    if (reading instanceof NumericSensorReading) {
+      return SlotType.FLOAT64;
+    }
+    if (reading instanceof BooleanSensorReading || reading instanceof OptionalBooleanSensorReading) {
+      return SlotType.BOOLEAN;
+    }
+    return SlotType.VARIABLE;
+  }
+
+  private static void flatten(List<SensorReading<?>> readings, List<SensorReading<?>> leaves) {
+    for (SensorReading<?> reading : readings) {
+      if (reading instanceof GroupSensorReading group) {
+        flatten(group.getGroupList(), leaves);
+      } else {
+        leaves.add(reading);
+      }
+    }
+  }
+}
@@ -0,0 +1,275 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.encoding;
+
+import com.google.gson.*;
+import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CBOR (RFC 8949) encoder. The record is an indefinite length map with the same keys as the JSON
+ * formats; floats stay 4 byte floats and the single "timestamp" entry is epoch milliseconds. Keys are
+ * encoded once and cached, and the output buffer is reused between records.
+ */
+public class CborStateEncoder implements StateEncoder {
+
+  private static final int MAJOR_UNSIGNED = 0;
+  private static final int MAJOR_NEGATIVE = 1;
+  private static final int MAJOR_BYTES = 2;
+  private static final int MAJOR_TEXT = 3;
+  private static final int MAJOR_ARRAY = 4;
+  private static final int MAJOR_MAP = 5;
+
+  private static final int INDEFINITE_MAP = 0xBF;
+  private static final int BREAK = 0xFF;
+  private static final int FALSE = 0xF4;
+  private static final int TRUE = 0xF5;
+  private static final int NULL = 0xF6;
+  private static final int FLOAT32 = 0xFA;
+  private static final int FLOAT64 = 0xFB;
+
+  private static final Gson GSON = new Gson();
+
+  private final Map<String, byte[]> keys;
+  private byte[] buffer;
+  private int position;
+  private int[] groupMarks;
+  private int[] groupStarts;
+  private int depth;
+
+  public CborStateEncoder() {
+    keys = new HashMap<>();
+    buffer = new byte[256];
+    groupMarks = new int[8];
+    groupStarts = new int[8];
+  }
+
+  @Override
+  public void begin(DeviceController controller, List<SensorReading<?>> readings) {
+    position = 0;
+    depth = 0;
+    writeByte(INDEFINITE_MAP);
+  }
+
+  @Override
+  public void beginGroup(String name) {
+    if (depth + 1 == groupMarks.length) {
+      groupMarks = Arrays.copyOf(groupMarks, groupMarks.length * 2);
+      groupStarts = Arrays.copyOf(groupStarts, groupStarts.length * 2);
+    }
+    depth++;
+    groupMarks[depth] = position;
+    key(name);
+    writeByte(INDEFINITE_MAP);
+    groupStarts[depth] = position;
+  }
+
+  @Override
+  public void endGroup() {
+    if (position == groupStarts[depth]) {
+      position = groupMarks[depth]; // nothing was written, drop the group
+    } else {
+      writeByte(BREAK);
+    }
+    depth--;
+  }
+
+  @Override
+  public void writeValue(SensorReading<?> reading, Object value) {
+    if (value == null) {
+      return;
+    }
+    key(reading.getName());
+    writeObject(value);
+  }
+
+  @Override
+  public void writeFloat(SensorReading<?> reading, float value) {
+    key(reading.getName());
+    ensure(5);
+    buffer[position++] = (byte) FLOAT32;
+    writeInt(Float.floatToIntBits(value));
+  }
+
+  @Override
+  public void writeInt(SensorReading<?> reading, int value) {
+    key(reading.getName());
+    writeInteger(value);
+  }
+
+  @Override
+  public void writeLong(SensorReading<?> reading, long value) {
+    key(reading.getName());
+    writeInteger(value);
+  }
+
+  @Override
+  public void writeError(SensorReading<?> reading, String message) {
+    key(reading.getName());
+    writeText(String.valueOf(message));
+  }
+
+  @Override
+  public byte[] end() {
+    key("timestamp");
+    writeInteger(System.currentTimeMillis());
+    writeByte(BREAK);
+    return Arrays.copyOf(buffer, position);
+  }
+
+  private void writeObject(Object value) {
+    if (value instanceof Float f) {
+      ensure(5);
+      buffer[position++] = (byte) FLOAT32;
+      writeInt(Float.floatToIntBits(f));
+    } else if (value instanceof Double d) {
+      writeDouble(d);
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      writeInteger(((Number) value).longValue());
+    } else if (value instanceof Number number) {
+      writeDouble(number.doubleValue());
+    } else if (value instanceof Boolean bool) {
+      writeByte(Boolean.TRUE.equals(bool) ? TRUE : FALSE);
+    } else if (value instanceof String || value instanceof Character) {
+      writeText(value.toString());
+    } else if (value instanceof byte[] bytes) {
+      writeHead(MAJOR_BYTES, bytes.length);
+      writeBytes(bytes);
+    } else {
+      writeElement(GSON.toJsonTree(value));
+    }
+  }
+
+  private void writeElement(JsonElement element) {
+    if (element instanceof JsonObject object) {
+      writeHead(MAJOR_MAP, object.size());
+      for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+        writeText(entry.getKey());
+        writeElement(entry.getValue());
+      }
+    } else if (element instanceof JsonArray array) {
+      writeHead(MAJOR_ARRAY, array.size());
+      for (JsonElement child : array) {
+        writeElement(child);
+      }
+    } else if (element instanceof JsonPrimitive primitive) {
+      if (primitive.isBoolean()) {
+        writeByte(primitive.getAsBoolean() ? TRUE : FALSE);
+      } else if (primitive.isNumber()) {
+        BigDecimal decimal = primitive.getAsBigDecimal();
+        if (decimal.scale() <= 0 && decimal.toBigInteger().bitLength() < 64) {
+          writeInteger(decimal.longValue());
+        } else {
+          writeDouble(decimal.doubleValue());
+        }
+      } else {
+        writeText(primitive.getAsString());
+      }
+    } else {
+      writeByte(NULL);
+    }
+  }
+
+  private void key(String name) {
+    writeBytes(keys.computeIfAbsent(name, CborStateEncoder::encodeText));
+  }
+
+  private static byte[] encodeText(String text) {
+    CborStateEncoder encoder = new CborStateEncoder();
+    encoder.writeText(text);
+    return Arrays.copyOf(encoder.buffer, encoder.position);
+  }
+
+  private void writeText(String text) {
+    byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+    writeHead(MAJOR_TEXT, utf8.length);
+    writeBytes(utf8);
+  }
+
+  private void writeInteger(long value) {
+    if (value >= 0) {
+      writeHead(MAJOR_UNSIGNED, value);
+    } else {
+      writeHead(MAJOR_NEGATIVE, -1 - value);
+    }
+  }
+
+  private void writeDouble(double value) {
+    ensure(9);
+    buffer[position++] = (byte) FLOAT64;
+    long bits = Double.doubleToLongBits(value);
+    writeInt((int) (bits >>> 32));
+    writeInt((int) bits);
+  }
+
+  private void writeHead(int major, long length) {
+    int type = major << 5;
+    ensure(9);
+    if (length < 24) {
+      buffer[position++] = (byte) (type | length);
+    } else if (length < 0x100) {
+      buffer[position++] = (byte) (type | 24);
+      buffer[position++] = (byte) length;
+    } else if (length < 0x10000) {
+      buffer[position++] = (byte) (type | 25);
+      buffer[position++] = (byte) (length >> 8);
+      buffer[position++] = (byte) length;
+    } else if (length < 0x100000000L) {
+      buffer[position++] = (byte) (type | 26);
+      writeInt((int) length);
+    } else {
+      buffer[position++] = (byte) (type | 27);
+      writeInt((int) (length >>> 32));
+      writeInt((int) length);
+    }
+  }
+
+  private void writeInt(int value) {
+    ensure(4);
+    buffer[position++] = (byte) (value >> 24);
+    buffer[position++] = (byte) (value >> 16);
+    buffer[position++] = (byte) (value >> 8);
+    buffer[position++] = (byte) value;
+  }
+
+  private void writeByte(int value) {
+    ensure(1);
+    buffer[position++] = (byte) value;
+  }
+
+  private void writeBytes(byte[] bytes) {
+    ensure(bytes.length);
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  private void ensure(int needed) {
+    if (position + needed > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + needed));
+    }
+  }
+}
@@ -0,0 +1,278 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.encoding;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * JSON encoder. The pretty form builds a Gson tree with each reading as a property named after it and errors
+ * as the error message. By default it keeps the historic getDeviceState() output byte for byte: groups are
+ * dropped and a "timestamp" property is taken again after every reading, so the key sits after the first
+ * reading and holds the time of the last one. {@link #nested()} instead keeps a group as a nested object, left
+ * out when it has no entries, and stamps every object holding a reading with one timestamp per record.
+ * <p>
+ * The compact form appends straight into a reused StringBuilder, nests and drops groups the same way as the
+ * nested pretty form, but writes a single epoch millisecond timestamp at the end of the record only.
+ */
+public class JsonStateEncoder implements StateEncoder {
+
+  private static final Gson PRETTY = new GsonBuilder().setPrettyPrinting().create();
+  private static final Gson COMPACT = new Gson();
+
+  private final boolean pretty;
+  private final boolean nestGroups;
+
+  // pretty form
+  private final Deque<JsonObject> objects;
+  private final Deque<String> groupNames;
+  private String timestamp;
+
+  // compact form
+  private final StringBuilder builder;
+  private int[] groupMarks;
+  private boolean[] parentHadEntries;
+  private boolean[] hasEntries;
+  private int depth;
+
+  public JsonStateEncoder(boolean pretty) {
+    this(pretty, !pretty);
+  }
+
+  private JsonStateEncoder(boolean pretty, boolean nestGroups) {
+    this.pretty = pretty;
+    this.nestGroups = nestGroups;
+    objects = new ArrayDeque<>();
+    groupNames = new ArrayDeque<>();
+    builder = new StringBuilder(256);
+    groupMarks = new int[8];
+    parentHadEntries = new boolean[8];
+    hasEntries = new boolean[8];
+  }
+
+  /**
+   * Pretty printed encoder that keeps groups as nested objects, with one timestamp per record
+   */
+  public static JsonStateEncoder nested() {
+    return new JsonStateEncoder(true, true);
+  }
+
+  @Override
+  public void begin(DeviceController controller, List<SensorReading<?>> readings) {
+    if (pretty) {
+      objects.clear();
+      groupNames.clear();
+      objects.push(new JsonObject());
+      timestamp = null;
+    } else {
+      builder.setLength(0);
+      builder.append('{');
+      depth = 0;
+      hasEntries[0] = false;
+    }
+  }
+
+  @Override
+  public void beginGroup(String name) {
+    if (pretty) {
+      objects.push(new JsonObject());
+      groupNames.push(name);
+      return;
+    }
+    if (depth + 1 == groupMarks.length) {
+      groupMarks = Arrays.copyOf(groupMarks, groupMarks.length * 2);
+      parentHadEntries = Arrays.copyOf(parentHadEntries, parentHadEntries.length * 2);
+      hasEntries = Arrays.copyOf(hasEntries, hasEntries.length * 2);
+    }
+    groupMarks[depth + 1] = builder.length();
+    parentHadEntries[depth + 1] = hasEntries[depth];
+    key(name);
+    builder.append('{');
+    depth++;
+    hasEntries[depth] = false;
+  }
+
+  @Override
+  public void endGroup() {
+    if (pretty) {
+      JsonObject group = objects.pop();
+      String name = groupNames.pop();
+      if (nestGroups && !group.isEmpty()) {
+        objects.peek().add(name, group);
+      }
+      return;
+    }
+    if (hasEntries[depth]) {
+      builder.append('}');
+      depth--;
+    } else {
+      builder.setLength(groupMarks[depth]);
+      hasEntries[depth - 1] = parentHadEntries[depth];
+      depth--;
+    }
+  }
+
+  @Override
+  public void writeValue(SensorReading<?> reading, Object value) {
+    if (value == null) {
+      return;
+    }
+    if (pretty) {
+      JsonObject object = objects.peek();
+      if (value instanceof Number number) {
+        object.addProperty(reading.getName(), number);
+      } else if (value instanceof Boolean bool) {
+        object.addProperty(reading.getName(), bool);
+      } else if (value instanceof Character character) {
+        object.addProperty(reading.getName(), character);
+      } else if (value instanceof String str) {
+        object.addProperty(reading.getName(), str);
+      } else {
+        object.add(reading.getName(), PRETTY.toJsonTree(value));
+      }
+      stamp(object);
+      return;
+    }
+    key(reading.getName());
+    if (value instanceof Float f) {
+      appendDecimal(f.isNaN() || f.isInfinite(), f.toString());
+    } else if (value instanceof Double d) {
+      appendDecimal(d.isNaN() || d.isInfinite(), d.toString());
+    } else if (value instanceof Number || value instanceof Boolean) {
+      builder.append(value);
+    } else if (value instanceof String || value instanceof Character) {
+      string(value.toString());
+    } else {
+      builder.append(COMPACT.toJson(value));
+    }
+  }
+
+  @Override
+  public void writeFloat(SensorReading<?> reading, float value) {
+    if (pretty) {
+      writeValue(reading, value);
+      return;
+    }
+    key(reading.getName());
+    if (Float.isNaN(value) || Float.isInfinite(value)) {
+      builder.append("null");
+    } else {
+      builder.append(value);
+    }
+  }
+
+  @Override
+  public void writeInt(SensorReading<?> reading, int value) {
+    if (pretty) {
+      writeValue(reading, value);
+      return;
+    }
+    key(reading.getName());
+    builder.append(value);
+  }
+
+  @Override
+  public void writeLong(SensorReading<?> reading, long value) {
+    if (pretty) {
+      writeValue(reading, value);
+      return;
+    }
+    key(reading.getName());
+    builder.append(value);
+  }
+
+  @Override
+  public void writeError(SensorReading<?> reading, String message) {
+    if (pretty) {
+      JsonObject object = objects.peek();
+      object.addProperty(reading.getName(), message);
+      stamp(object);
+      return;
+    }
+    key(reading.getName());
+    string(String.valueOf(message));
+  }
+
+  @Override
+  public byte[] end() {
+    if (pretty) {
+      return PRETTY.toJson(objects.pop()).getBytes(StandardCharsets.UTF_8);
+    }
+    key("timestamp");
+    builder.append(System.currentTimeMillis()).append('}');
+    return builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private void stamp(JsonObject object) {
+    if (!nestGroups) {
+      object.addProperty("timestamp", Instant.now().toString());
+      return;
+    }
+    if (timestamp == null) {
+      timestamp = Instant.now().toString();
+    }
+    object.addProperty("timestamp", timestamp);
+  }
+
+  private void key(String name) {
+    if (hasEntries[depth]) {
+      builder.append(',');
+    }
+    hasEntries[depth] = true;
+    string(name);
+    builder.append(':');
+  }
+
+  private void appendDecimal(boolean notFinite, String text) {
+    builder.append(notFinite ? "null" : text);
+  }
+
+  private void string(String value) {
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> builder.append("\\\"");
+        case '\\' -> builder.append("\\\\");
+        case '\n' -> builder.append("\\n");
+        case '\r' -> builder.append("\\r");
+        case '\t' -> builder.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            builder.append(String.format("\\u%04x", (int) c));
+          } else {
+            builder.append(c);
+          }
+        }
+      }
+    }
+    builder.append('"');
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.encoding;
+
+import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+
+import java.util.List;
+
+/**
+ * Turns one pass over a sensor's readings into the bytes returned by getDeviceState(). The controller
+ * calls {@link #begin}, then one write per leaf reading in list order (groups are bracketed by
+ * {@link #beginGroup}/{@link #endGroup}), then {@link #end}.
+ * <p>
+ * Encoders keep their buffers between records and are not thread safe; each controller owns its own.
+ */
+public interface StateEncoder {
+
+  void begin(DeviceController controller, List<SensorReading<?>> readings);
+
+  void beginGroup(String name);
+
+  void endGroup();
+
+  /**
+   * @param value the formatted value, or null if the reading has nothing to report this time
+   */
+  void writeValue(SensorReading<?> reading, Object value);
+
+  default void writeFloat(SensorReading<?> reading, float value) {
+    writeValue(reading, value);
+  }
+
+  default void writeInt(SensorReading<?> reading, int value) {
+    writeValue(reading, value);
+  }
+
+  default void writeLong(SensorReading<?> reading, long value) {
+    writeValue(reading, value);
+  }
+
+  void writeError(SensorReading<?> reading, String message);
+
+  byte[] end();
+}
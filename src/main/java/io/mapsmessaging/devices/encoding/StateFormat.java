@@ -0,0 +1,65 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.encoding;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+public enum StateFormat {
+
+  /**
+   * Pretty printed JSON, the original format. Groups are left out
+   */
+  JSON(() -> new JsonStateEncoder(true)),
+
+  /**
+   * Pretty printed JSON with groups as nested objects and one timestamp per record
+   */
+  NESTED_JSON(JsonStateEncoder::nested),
+
+  /**
+   * Single line JSON with nested groups and one timestamp per record
+   */
+  COMPACT_JSON(() -> new JsonStateEncoder(false)),
+
+  /**
+   * RFC 8949 CBOR map, same keys as the JSON formats
+   */
+  CBOR(CborStateEncoder::new),
+
+  /**
+   * Fixed layout record, see {@link BinaryStateEncoder}
+   */
+  BINARY(BinaryStateEncoder::new);
+
+  private final Supplier<StateEncoder> factory;
+
+  StateFormat(Supplier<StateEncoder> factory) {
+    this.factory = factory;
+  }
+
+  public StateEncoder createEncoder() {
+    return factory.get();
+  }
+
+  public static StateFormat fromName(String name) {
+    return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+  }
+}
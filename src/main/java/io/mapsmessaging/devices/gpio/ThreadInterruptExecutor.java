@@ -19,6 +19,7 @@
 
 package io.mapsmessaging.devices.gpio;
 
+import io.mapsmessaging.devices.util.DeviceThreads;
 
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -31,9 +32,7 @@ public class ThreadInterruptExecutor implements InterruptExecutor, Runnable {
   public ThreadInterruptExecutor(InterruptHandler handler) {
     flag = new AtomicBoolean(true);
     this.handler = handler;
-    Thread t = new Thread(this);
-    t.setDaemon(true);
-    t.start();
+    DeviceThreads.start("Interrupt-Poller", this);
   }
 
   @Override
@@ -0,0 +1,160 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Grants the bus lock by {@link I2CPriority}. A request that gets the lock while a higher priority request is
+ * waiting for it steps aside until that request has been served. Bulk transfers call
+ * {@link #yieldToHigherPriority()} between chunks so waiting interactive requests can run in between.
+ * <p>
+ * The lock is the bus's {@link I2CBusLock}, so a device that calls {@link I2CDevice#delay(int)} releases the bus
+ * to other devices exactly as before.
+ */
+public class I2CBusArbiter {
+
+  @FunctionalInterface
+  public interface Task<T> {
+    T run() throws IOException;
+  }
+
+  private static final I2CPriority[] PRIORITIES = I2CPriority.values();
+
+  private final I2CBusLock busLock;
+  private final AtomicIntegerArray waiting;
+  private final WaitMetrics[] metrics;
+  private final ThreadLocal<I2CPriority> current;
+
+  public I2CBusArbiter(I2CBusLock busLock) {
+    this.busLock = busLock;
+    waiting = new AtomicIntegerArray(PRIORITIES.length);
+    metrics = new WaitMetrics[PRIORITIES.length];
+    for (int i = 0; i < metrics.length; i++) {
+      metrics[i] = new WaitMetrics();
+    }
+    current = new ThreadLocal<>();
+  }
+
+  public <T> T execute(I2CPriority priority, Task<T> task) throws IOException {
+    int level = priority.ordinal();
+    long queued = System.nanoTime();
+    waiting.incrementAndGet(level);
+    busLock.lock();
+    try {
+      try {
+        awaitTurn(level);
+      } finally {
+        waiting.decrementAndGet(level);
+      }
+      metrics[level].record(System.nanoTime() - queued);
+      // Lower priorities that stepped aside for this request may use the bus while it is in a delay
+      busLock.signalAll();
+      I2CPriority previous = current.get();
+      current.set(priority);
+      try {
+        return task.run();
+      } finally {
+        if (previous != null) {
+          current.set(previous);
+        } else {
+          current.remove();
+        }
+        // Requests that stepped aside re-check once the bus is released
+        busLock.signalAll();
+      }
+    } finally {
+      busLock.unlock();
+    }
+  }
+
+  /**
+   * Called from within a transaction between the chunks of a long transfer. If a higher priority request is
+   * waiting the bus is released until it has been served. Outside an arbitrated transaction this does nothing.
+   */
+  public void yieldToHigherPriority() throws IOException {
+    I2CPriority priority = current.get();
+    if (priority == null || !higherWaiting(priority.ordinal())) {
+      return;
+    }
+    busLock.lock();
+    try {
+      awaitTurn(priority.ordinal());
+    } finally {
+      busLock.unlock();
+    }
+  }
+
+  public WaitStatistics getWaitStatistics(I2CPriority priority) {
+    return metrics[priority.ordinal()].snapshot();
+  }
+
+  public int getWaiting(I2CPriority priority) {
+    return waiting.get(priority.ordinal());
+  }
+
+  private void awaitTurn(int level) throws IOException {
+    try {
+      while (higherWaiting(level)) {
+        busLock.await();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the I2C bus", e);
+    }
+  }
+
+  private boolean higherWaiting(int level) {
+    for (int i = 0; i < level; i++) {
+      if (waiting.get(i) > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Time requests of one priority spent waiting for the bus
+   */
+  public record WaitStatistics(long count, long totalNanos, long maxNanos) {
+    public long getMeanNanos() {
+      return count == 0 ? 0 : totalNanos / count;
+    }
+  }
+
+  private static final class WaitMetrics {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long nanos) {
+      count.increment();
+      total.add(nanos);
+      max.accumulateAndGet(nanos, Math::max);
+    }
+
+    WaitStatistics snapshot() {
+      return new WaitStatistics(count.sum(), total.sum(), max.get());
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c;
+
+import io.mapsmessaging.devices.util.DeviceThreads;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialises all asynchronous transactions for a single I2C bus onto one worker thread. Callers
+ * queue a transaction and receive a future, so they never park on the bus lock themselves. Queued
+ * transactions run highest {@link I2CPriority} first, and in the order they were submitted within a priority.
+ */
+public class I2CBusExecutor implements AutoCloseable {
+
+  @FunctionalInterface
+  public interface Transaction {
+    byte[] execute() throws IOException;
+  }
+
+  @Getter
+  private final int bus;
+  private final ThreadFactory threadFactory;
+  private final BlockingQueue<PendingTransaction> queue;
+  private final AtomicBoolean started;
+  private final AtomicLong sequence;
+  private volatile boolean closed;
+  private volatile Thread worker;
+
+  public I2CBusExecutor(int bus) {
+    this(bus, DeviceThreads.factory("I2C-Bus-" + bus + "-"));
+  }
+
+  public I2CBusExecutor(int bus, ThreadFactory threadFactory) {
+    this.bus = bus;
+    this.threadFactory = threadFactory;
+    queue = new PriorityBlockingQueue<>();
+    started = new AtomicBoolean(false);
+    sequence = new AtomicLong();
+    closed = false;
+  }
+
+  public CompletableFuture<byte[]> submit(Transaction transaction) {
+    return submit(I2CPriority.PERIODIC, transaction);
+  }
+
+  public CompletableFuture<byte[]> submit(I2CPriority priority, Transaction transaction) {
+    CompletableFuture<byte[]> future = new CompletableFuture<>();
+    if (closed) {
+      future.completeExceptionally(new IOException("I2C bus " + bus + " executor has been closed"));
+      return future;
+    }
+    queue.add(new PendingTransaction(priority, sequence.getAndIncrement(), transaction, future));
+    if (closed) {
+      // Closed after the check above, the worker may already have drained the queue for the last time
+      failPending();
+      return future;
+    }
+    if (started.compareAndSet(false, true)) {
+      worker = threadFactory.newThread(this::processQueue);
+      worker.start();
+    }
+    return future;
+  }
+
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    if (worker != null) {
+      worker.interrupt();
+    }
+    failPending();
+  }
+
+  private void processQueue() {
+    while (!closed) {
+      try {
+        PendingTransaction pending = queue.take();
+        if (!pending.future.isDone()) {
+          execute(pending);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    failPending();
+  }
+
+  @SuppressWarnings("java:S1181") // a failing driver must never kill the bus worker
+  private void execute(PendingTransaction pending) {
+    try {
+      pending.future.complete(pending.transaction.execute());
+    } catch (Throwable e) {
+      pending.future.completeExceptionally(e);
+    }
+  }
+
+  private void failPending() {
+    PendingTransaction pending;
+    while ((pending = queue.poll()) != null) {
+      pending.future.completeExceptionally(new IOException("I2C bus " + bus + " executor has been closed"));
+    }
+  }
+
+  private record PendingTransaction(I2CPriority priority, long sequence, Transaction transaction,
+                                    CompletableFuture<byte[]> future) implements Comparable<PendingTransaction> {
+    @Override
+    public int compareTo(PendingTransaction other) {
+      int result = priority.compareTo(other.priority);
+      return result != 0 ? result : Long.compare(sequence, other.sequence);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serialises access to one physical bus. Hold it with {@link #lock()} and {@link #unlock()} in a try/finally
+ * block, it is no longer a monitor, so {@code synchronized} on it does not exclude other devices.
+ * <p>
+ * A device that waits while holding the bus, in {@link I2CDevice#delay(int)} or for its turn in the
+ * {@link I2CBusArbiter}, releases it through a {@link Condition} rather than {@link Object#wait()}, so a virtual
+ * thread waiting for the bus is unmounted from its carrier instead of pinning it.
+ */
+public class I2CBusLock {
+
+  private final ReentrantLock lock;
+  private final Condition released;
+
+  public I2CBusLock() {
+    lock = new ReentrantLock();
+    released = lock.newCondition();
+  }
+
+  public void lock() {
+    lock.lock();
+  }
+
+  public void unlock() {
+    lock.unlock();
+  }
+
+  public boolean isHeldByCurrentThread() {
+    return lock.isHeldByCurrentThread();
+  }
+
+  /**
+   * Releases the bus, however many times the current thread holds it, until {@link #signalAll()} is called and
+   * the bus can be taken back.
+   */
+  public void await() throws InterruptedException {
+    released.await();
+  }
+
+  /**
+   * Releases the bus for at most the given time.
+   *
+   * @return the time left, zero or less once the full time has passed
+   */
+  public long await(long time, TimeUnit unit) throws InterruptedException {
+    return released.awaitNanos(unit.toNanos(time));
+  }
+
+  /**
+   * Wakes every thread waiting in {@link #await()}, must be called with the bus held.
+   */
+  public void signalAll() {
+    released.signalAll();
+  }
+}
@@ -24,14 +24,20 @@ import com.pi4j.io.i2c.I2C;
 import com.pi4j.io.i2c.I2CConfig;
 import com.pi4j.io.i2c.I2CProvider;
 import io.mapsmessaging.devices.DeviceController;
-import io.mapsmessaging.devices.i2c.devices.demo.I2cDemoController;
 import io.mapsmessaging.devices.i2c.devices.sensors.sht31.commands.SoftResetCommand;
+import io.mapsmessaging.devices.impl.AddressableDevice;
 import io.mapsmessaging.devices.impl.I2CDeviceImpl;
 import io.mapsmessaging.devices.logging.DeviceLogMessage;
+import io.mapsmessaging.devices.registry.DriverIndex;
+import io.mapsmessaging.devices.registry.DriverRegistry;
+import io.mapsmessaging.devices.replay.TraceRecorder;
 import io.mapsmessaging.logging.Logger;
 import io.mapsmessaging.logging.LoggerFactory;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -41,10 +47,15 @@ import static io.mapsmessaging.devices.logging.DeviceLogMessage.I2C_BUS_SCAN_MUL
 
 public class I2CBusManager {
 
+  private static final Map<Integer, I2CBusLock> BUS_LOCKS = new ConcurrentHashMap<>();
+  private static final Map<Integer, I2CBusExecutor> BUS_EXECUTORS = new ConcurrentHashMap<>();
+  private static final Map<Integer, I2CBusArbiter> BUS_ARBITERS = new ConcurrentHashMap<>();
+  private static final int LAST_ADDRESS = 0x77;
+
   protected final Logger logger = LoggerFactory.getLogger(I2CBusManager.class);
 
-  protected final Map<String, I2CDeviceController> knownDevices;
-  protected final Map<Integer, List<I2CDeviceController>> mappedDevices;
+  protected final DriverRegistry<I2CDeviceController> knownDevices;
+  protected final Map<Integer, List<DriverIndex.Entry>> mappedDevices;
   protected final Map<String, DeviceController> activeDevices;
   protected final Map<Integer, I2C> physicalDevices;
 
@@ -52,16 +63,36 @@ public class I2CBusManager {
   private final I2CProvider i2cProvider;
   protected final int i2cBus;
   protected final boolean active;
+  protected final I2CBusLock busLock;
+  protected final I2CBusExecutor busExecutor;
+  @Getter
+  protected final I2CHealthMonitor healthMonitor;
+
+  /**
+   * When set, the traffic of every device mounted from then on is written to the recorder, which is closed by
+   * {@link #shutdown()}
+   */
+  @Getter
+  @Setter
+  private volatile TraceRecorder recorder;
+
+  private final Object scanLock = new Object();
+  private final long[] absentUntil = new long[LAST_ADDRESS + 1];
+  private int scanCursor;
+  private volatile long negativeCacheNanos = TimeUnit.SECONDS.toNanos(Long.getLong("i2c.scan.negativeTtl", 60));
 
 
   protected I2CBusManager(int bus) {
     active = true;
     i2cBus = bus;
+    busLock = getBusLock(bus);
+    busExecutor = getBusExecutor(bus);
+    healthMonitor = new I2CHealthMonitor(bus);
     this.pi4j = null;
     this.i2cProvider = null;
     mappedDevices = new LinkedHashMap<>();
     activeDevices = new ConcurrentHashMap<>();
-    knownDevices = new ConcurrentHashMap<>();
+    knownDevices = DriverRegistry.forService(I2CDeviceController.class);
     physicalDevices = new ConcurrentHashMap<>();
 
   }
@@ -71,27 +102,130 @@ public class I2CBusManager {
     boolean enableBus0 = Boolean.parseBoolean(System.getProperty("i2cbus0", "false"));
     active = bus != 0 || enableBus0;
     i2cBus = bus;
+    busLock = getBusLock(bus);
+    busExecutor = getBusExecutor(bus);
+    healthMonitor = new I2CHealthMonitor(bus);
     this.pi4j = pi4j;
     this.i2cProvider = i2cProvider;
     mappedDevices = new LinkedHashMap<>();
     activeDevices = new ConcurrentHashMap<>();
-    knownDevices = new ConcurrentHashMap<>();
+    knownDevices = DriverRegistry.forService(I2CDeviceController.class);
     physicalDevices = new ConcurrentHashMap<>();
 
-    ServiceLoader<I2CDeviceController> deviceEntries = ServiceLoader.load(I2CDeviceController.class);
-    for (I2CDeviceController device : deviceEntries) {
-      if(!(device instanceof I2cDemoController)) {
-        knownDevices.put(device.getName(), device);
-        logger.log(DeviceLogMessage.I2C_BUS_LOADED_DEVICE, device.getName());
-        int[] addressRange = device.getAddressRange();
-        for (int i : addressRange) {
-          logger.log(DeviceLogMessage.I2C_BUS_ALLOCATING_ADDRESS, "0x" + Integer.toHexString(i), device.getName());
-          mappedDevices.computeIfAbsent(i, k -> new ArrayList<>()).add(device);
+    String recordDirectory = System.getProperty("i2c.record");
+    if (recordDirectory != null && active) {
+      try {
+        recorder = TraceRecorder.open(Path.of(recordDirectory, "i2c-bus" + bus + ".trace"));
+      } catch (IOException e) {
+        logger.log(DeviceLogMessage.TRACE_RECORDING_FAILED, e.getMessage());
+      }
+    }
+
+    // Drivers are only mapped from the index here, each one is loaded when a scan or configuration needs it
+    for (DriverIndex.Entry entry : knownDevices.getEntries()) {
+      if (!entry.demo()) {
+        logger.log(DeviceLogMessage.I2C_BUS_LOADED_DEVICE, entry.name());
+        for (int i : entry.addresses()) {
+          logger.log(DeviceLogMessage.I2C_BUS_ALLOCATING_ADDRESS, "0x" + Integer.toHexString(i), entry.name());
+          mappedDevices.computeIfAbsent(i, k -> new ArrayList<>()).add(entry);
         }
       }
     }
   }
 
+  // Demo drivers are only served by the mock bus
+  private I2CDeviceController getDriver(String name) {
+    DriverIndex.Entry entry = knownDevices.getEntry(name);
+    return entry != null && !entry.demo() ? knownDevices.get(entry) : null;
+  }
+
+  // Driver names are not unique (the LCD1602 and its backlights share one), so match the mounted class
+  private I2CDeviceController getDriver(int addr, I2CDeviceController mounted) {
+    String provider = mounted.getClass().getName();
+    for (DriverIndex.Entry entry : mappedDevices.getOrDefault(addr, List.of())) {
+      if (entry.provider().equals(provider)) {
+        return knownDevices.get(entry);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Loads the drivers that can live at the address.
+   */
+  protected List<I2CDeviceController> getCandidates(int addr) {
+    List<I2CDeviceController> candidates = new ArrayList<>();
+    for (DriverIndex.Entry entry : mappedDevices.getOrDefault(addr, List.of())) {
+      I2CDeviceController controller = knownDevices.get(entry);
+      if (controller != null) {
+        candidates.add(controller);
+      }
+    }
+    return candidates;
+  }
+
+  protected AddressableDevice record(AddressableDevice device) {
+    TraceRecorder traceRecorder = recorder;
+    return traceRecorder != null ? traceRecorder.wrap(device) : device;
+  }
+
+  /**
+   * Returns the lock that serialises access to the given physical bus. Devices on different
+   * buses use different locks so a slow transaction on one bus does not stall the others.
+   *
+   * @param bus the I2C bus number
+   * @return the lock shared by every device on that bus
+   */
+  public static I2CBusLock getBusLock(int bus) {
+    return BUS_LOCKS.computeIfAbsent(bus, k -> new I2CBusLock());
+  }
+
+  public I2CBusLock getBusLock() {
+    return busLock;
+  }
+
+  /**
+   * Returns the arbiter that grants the bus lock to waiting requests by priority.
+   *
+   * @param bus the I2C bus number
+   * @return the arbiter shared by every device on that bus
+   */
+  public static I2CBusArbiter getBusArbiter(int bus) {
+    return BUS_ARBITERS.computeIfAbsent(bus, k -> new I2CBusArbiter(getBusLock(k)));
+  }
+
+  public I2CBusArbiter getBusArbiter() {
+    return getBusArbiter(i2cBus);
+  }
+
+  /**
+   * Returns the single worker that runs asynchronous transactions for the given bus, in submission order.
+   *
+   * @param bus the I2C bus number
+   * @return the executor shared by every device on that bus
+   */
+  public static I2CBusExecutor getBusExecutor(int bus) {
+    return BUS_EXECUTORS.computeIfAbsent(bus, I2CBusExecutor::new);
+  }
+
+  public I2CBusExecutor getBusExecutor() {
+    return busExecutor;
+  }
+
+  public void shutdown() {
+    BUS_EXECUTORS.remove(i2cBus, busExecutor);
+    busExecutor.close();
+    TraceRecorder traceRecorder = recorder;
+    recorder = null;
+    if (traceRecorder != null) {
+      try {
+        traceRecorder.close();
+      } catch (IOException e) {
+        logger.log(DeviceLogMessage.TRACE_RECORDING_FAILED, e.getMessage());
+      }
+    }
+  }
+
   public I2CDeviceController configureDevice(int address, String name) throws IOException {
     Map<String, Object> map = new LinkedHashMap<>();
     Map<String, Object> config = new LinkedHashMap<>();
@@ -107,7 +241,7 @@ public class I2CBusManager {
       // Retrieve the device name from the configuration
       String deviceName = (String) deviceConfig.get("deviceName");
       // Find the matching device in the known devices list
-      I2CDeviceController deviceEntry = knownDevices.get(deviceName);
+      I2CDeviceController deviceEntry = getDriver(deviceName);
       if (deviceEntry != null) {
         logger.log(DeviceLogMessage.I2C_BUS_CONFIGURING_DEVICE, deviceEntry.getName(), i2cAddress);
         return createAndMountDevice(i2cAddress, deviceEntry);
@@ -122,6 +256,51 @@ public class I2CBusManager {
     deviceController.close();
     String key = Integer.toHexString(deviceController.getMountedAddress());
     activeDevices.remove(key);
+    healthMonitor.remove(deviceController.getMountedAddress());
+  }
+
+  /**
+   * Re-probes every quarantined device whose back-off has expired and remounts those that answer. The
+   * back-off doubles, up to the monitor's maximum, for each probe that fails. This is also run at the
+   * start of each {@link #scanIncremental(long)} pass.
+   *
+   * @return the addresses that were remounted
+   */
+  public List<Integer> checkHealth() {
+    List<Integer> remounted = new ArrayList<>();
+    for (int addr : healthMonitor.retryDue()) {
+      if (probeAddress(addr) && remount(addr)) {
+        healthMonitor.remounted(addr);
+        remounted.add(addr);
+      } else {
+        healthMonitor.retryFailed(addr);
+      }
+    }
+    return remounted;
+  }
+
+  private boolean remount(int addr) {
+    DeviceController current = activeDevices.get(Integer.toHexString(addr));
+    if (!(current instanceof I2CDeviceScheduler scheduler)) {
+      return false;
+    }
+    I2CDeviceController deviceEntry = getDriver(addr, scheduler.getDeviceController());
+    if (deviceEntry == null) {
+      deviceEntry = scheduler.getDeviceController();
+    }
+    try {
+      mountDevice(addr, deviceEntry);
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Mounts the driver at the address, replacing any controller already active there.
+   */
+  protected I2CDeviceController mountDevice(int addr, I2CDeviceController deviceEntry) throws IOException {
+    return createAndMountDevice(addr, deviceEntry);
   }
 
   public I2CDeviceController get(String id) {
@@ -132,18 +311,154 @@ public class I2CBusManager {
     return activeDevices;
   }
 
+  /**
+   * Sets how long an address that did not answer is skipped by {@link #scanIncremental(long)}.
+   */
+  public void setNegativeCacheTtl(long ttl, TimeUnit unit) {
+    negativeCacheNanos = unit.toNanos(ttl);
+  }
+
+  public void clearNegativeCache() {
+    synchronized (scanLock) {
+      Arrays.fill(absentUntil, 0L);
+    }
+  }
+
+  /**
+   * Runs one pass of an incremental scan. The pass continues from the address where the previous pass
+   * stopped and ends once every address has been visited or the time budget is spent, so it can be called
+   * periodically alongside normal polling. The bus lock is only held for each individual probe, and any
+   * settle time inside a probe releases it, so scheduled reads interleave with the scan. Addresses that do
+   * not answer are skipped until the negative cache entry expires, and the device specific probes are only
+   * run where a known driver maps to the address. Devices that answer are mounted as in
+   * {@link #scanForDevices(long)}.
+   *
+   * @param budgetMillis the time this pass may take; at least one address is always probed
+   * @return the addresses that answered during this pass
+   */
+  public List<Integer> scanIncremental(long budgetMillis) {
+    List<Integer> found = new ArrayList<>();
+    if (!active) return found;
+    synchronized (scanLock) {
+      checkHealth();
+      long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+      for (int visited = 0; visited <= LAST_ADDRESS; visited++) {
+        int addr = scanCursor;
+        scanCursor = (scanCursor + 1) % (LAST_ADDRESS + 1);
+        if (activeDevices.containsKey(Integer.toHexString(addr)) || isCachedAbsent(addr)) {
+          continue;
+        }
+        if (probeAddress(addr)) {
+          absentUntil[addr] = 0L;
+          found.add(addr);
+          List<I2CDeviceController> devices = getCandidates(addr);
+          if (!devices.isEmpty()) {
+            processDeviceList(addr, devices);
+          }
+        } else {
+          // 0 marks "not cached", so never store it as a deadline
+          absentUntil[addr] = (System.nanoTime() + negativeCacheNanos) | 1L;
+        }
+        if (System.nanoTime() - deadline >= 0) {
+          break;
+        }
+      }
+    }
+    return found;
+  }
+
+  private boolean isCachedAbsent(int addr) {
+    long until = absentUntil[addr];
+    return until != 0L && System.nanoTime() - until < 0;
+  }
+
+  /**
+   * Probes a single address for {@link #scanIncremental(long)}, holding the bus lock for the probe only.
+   */
+  protected boolean probeAddress(int addr) {
+    try {
+      I2C device = physicalDevices.get(addr);
+      if (device == null) {
+        device = createi2cDevice(addr);
+      }
+      busLock.lock();
+      try {
+        return isOnBus(addr, device, true);
+      } finally {
+        busLock.unlock();
+      }
+    } catch (Exception e) {
+      // Nothing usable at this address
+      return false;
+    }
+  }
+
+  /**
+   * Reads the state of every active device in one cycle. Conversions are started back to back on every
+   * device that supports split-phase measurement, the remaining devices are read while those conversions
+   * run, and the results are then collected in the order they become ready. The bus is free while the
+   * conversions run, so a cycle takes about as long as the slowest conversion rather than the sum of them.
+   *
+   * @return the state of each device that could be read, keyed by its address in hex
+   */
+  public Map<String, byte[]> pollActiveDevices() throws InterruptedException {
+    Map<String, byte[]> states = new LinkedHashMap<>();
+    List<PendingMeasurement> pending = new ArrayList<>();
+    List<Map.Entry<String, I2CDeviceController>> direct = new ArrayList<>();
+    for (Map.Entry<String, DeviceController> entry : activeDevices.entrySet()) {
+      I2CDeviceController controller = (I2CDeviceController) entry.getValue();
+      if (controller.isSplitPhase()) {
+        try {
+          pending.add(new PendingMeasurement(entry.getKey(), controller, controller.startMeasurement()));
+        } catch (IOException | RuntimeException e) {
+          // Skip the device for this cycle, the failure is recorded by its scheduler
+        }
+      } else {
+        direct.add(Map.entry(entry.getKey(), controller));
+      }
+    }
+    for (Map.Entry<String, I2CDeviceController> entry : direct) {
+      readState(states, entry.getKey(), entry.getValue());
+    }
+    pending.sort(Comparator.comparingLong(PendingMeasurement::readyAt));
+    for (PendingMeasurement measurement : pending) {
+      long wait = measurement.readyAt() - System.currentTimeMillis();
+      if (wait > 0) {
+        TimeUnit.MILLISECONDS.sleep(wait);
+      }
+      try {
+        measurement.controller().collect();
+        readState(states, measurement.key(), measurement.controller());
+      } catch (IOException | RuntimeException e) {
+        // Skip the device for this cycle
+      }
+    }
+    return states;
+  }
+
+  private static void readState(Map<String, byte[]> states, String key, I2CDeviceController controller) {
+    try {
+      states.put(key, controller.getDeviceState());
+    } catch (IOException | RuntimeException e) {
+      // Skip the device for this cycle
+    }
+  }
+
+  private record PendingMeasurement(String key, I2CDeviceController controller, long readyAt) {
+  }
+
   public void scanForDevices(long pollDelay) throws InterruptedException {
     if (!active) return;
     List<Integer> foundDevices = findDevicesOnBus(pollDelay);
     for (Integer addr : foundDevices) {
-      List<I2CDeviceController> devices = mappedDevices.get(addr);
-      if (devices != null && !devices.isEmpty()) {
+      List<I2CDeviceController> devices = getCandidates(addr);
+      if (!devices.isEmpty()) {
         processDeviceList(addr, devices);
       }
     }
   }
 
-  private void processDeviceList(int addr, List<I2CDeviceController> devices) {
+  protected void processDeviceList(int addr, List<I2CDeviceController> devices) {
     if (devices.size() == 1) {
       try {
         createAndMountDevice(addr, devices.get(0));
@@ -186,10 +501,13 @@ public class I2CBusManager {
           if (device == null) {
             device = createi2cDevice(x);
           }
-          synchronized (I2CDeviceScheduler.getI2cBusLock()) {
-            if (isOnBus(x, device)) {
+          busLock.lock();
+          try {
+            if (isOnBus(x, device, false)) {
               found.add(x);
             }
+          } finally {
+            busLock.unlock();
           }
         } catch (Exception e) {
           // Ignore since we are simply looking for devices
@@ -213,27 +531,29 @@ public class I2CBusManager {
     return device;
   }
 
-  private boolean isOnBus(int addr, I2C device) {
+  private boolean isOnBus(int addr, I2C device, boolean incremental) {
     try {
       byte[] buf = new byte[1];
-      if (addr == 0x5c) {
+      // The incremental scan only wakes or resets a device when a known driver can live at the address
+      boolean specialCase = !incremental || mappedDevices.containsKey(addr);
+      if (addr == 0x5c && specialCase) {
         device.read(buf, 0, 1);
-        TimeUnit.MILLISECONDS.sleep(20);
-      } else if (addr == 0x62) {
+        settle(20, incremental);
+      } else if (addr == 0x62 && specialCase) {
         // special case for the SCD41 device
         byte[] req = {0x36, (byte) 0x82};
         device.write(req);
-        TimeUnit.MILLISECONDS.sleep(1);
+        settle(1, incremental);
         byte[] response = new byte[9];
         int read = device.read(response);
         if (read == 9) return true;
       }
-      else if(addr == 0x44){
+      else if(addr == 0x44 && specialCase){
         SoftResetCommand command = new SoftResetCommand();
         I2CDeviceImpl deviceImpl = new I2CDeviceImpl(device);
         command.sendCommand(null, deviceImpl);
         return true;
-      } else {
+      } else if (!incremental) {
         TimeUnit.MILLISECONDS.sleep(1);
       }
       return device.read(buf, 0, 1) == 1;
@@ -245,14 +565,25 @@ public class I2CBusManager {
     return false;
   }
 
+  @SuppressWarnings("java:S2274")
+  // During an incremental scan the caller holds the bus lock, waiting on it lets other devices use the bus
+  private void settle(long ms, boolean incremental) throws InterruptedException {
+    if (incremental) {
+      busLock.await(ms, TimeUnit.MILLISECONDS);
+    } else {
+      TimeUnit.MILLISECONDS.sleep(ms);
+    }
+  }
+
   private I2CDeviceController createAndMountDevice(int i2cAddress, I2CDeviceController deviceEntry) throws IOException {
     I2C i2c = physicalDevices.get(i2cAddress);
     if (i2c == null) {
       i2c = createi2cDevice(i2cAddress);
     }
-    I2CDeviceImpl i2CDevice = new I2CDeviceImpl(i2c);
+    AddressableDevice i2CDevice = record(new I2CDeviceImpl(i2c));
     I2CDeviceController device = deviceEntry.mount(i2CDevice);
-    I2CDeviceController controller = new I2CDeviceScheduler(device);
+    I2CDeviceController controller = new I2CDeviceScheduler(device, i2cBus, healthMonitor);
+    healthMonitor.register(i2cAddress, device.getName());
     activeDevices.put(Integer.toHexString(i2cAddress), controller);
     return controller;
   }
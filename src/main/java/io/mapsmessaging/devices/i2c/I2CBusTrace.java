@@ -0,0 +1,153 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Always-on ring buffer of I2C bus transactions. Each entry is packed into four longs of a preallocated array, so
+ * recording costs a few stores and no allocation. Entries are only decoded when {@link #snapshot()} or
+ * {@link #dump()} is called, which makes it cheap enough to leave running to catch intermittent bus stalls.
+ * <p>
+ * The capacity is set with {@code -Di2c.trace.size} (entries, default 4096, 0 disables tracing).
+ */
+public class I2CBusTrace {
+
+  public enum Direction {READ, WRITE, DELAY}
+
+  public enum Result {OK, FAILED, ERROR}
+
+  public static final int NO_REGISTER = -1;
+
+  private static final I2CBusTrace instance = new I2CBusTrace(Integer.getInteger("i2c.trace.size", 4096));
+
+  private static final int WORDS = 4;
+
+  public static I2CBusTrace getInstance() {
+    return instance;
+  }
+
+  private final int capacity;
+  private final AtomicLongArray entries;
+  private final AtomicLong sequence;
+
+  public I2CBusTrace(int capacity) {
+    this.capacity = Math.max(capacity, 0);
+    entries = new AtomicLongArray(this.capacity * WORDS);
+    sequence = new AtomicLong();
+  }
+
+  public boolean isEnabled() {
+    return capacity > 0;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public void record(int bus, int address, int register, Direction direction, int length, long startNanos, Result result) {
+    if (capacity == 0) {
+      return;
+    }
+    long duration = System.nanoTime() - startNanos;
+    long seq = sequence.getAndIncrement();
+    int base = (int) (seq % capacity) * WORDS;
+    // Mark the slot as being written, then publish the sequence last so readers can detect torn entries
+    entries.set(base, -1);
+    entries.lazySet(base + 1, pack(bus, address, register, direction, length, result));
+    entries.lazySet(base + 2, startNanos);
+    entries.lazySet(base + 3, duration);
+    entries.set(base, seq);
+  }
+
+  /**
+   * @return the recorded entries, oldest first. Entries overwritten while the snapshot is taken are left out.
+   */
+  public List<Entry> snapshot() {
+    List<Entry> list = new ArrayList<>();
+    long end = sequence.get();
+    for (long seq = Math.max(0, end - capacity); seq < end; seq++) {
+      int base = (int) (seq % capacity) * WORDS;
+      if (entries.get(base) != seq) {
+        continue;
+      }
+      long header = entries.get(base + 1);
+      long start = entries.get(base + 2);
+      long duration = entries.get(base + 3);
+      if (entries.get(base) == seq) {
+        list.add(unpack(seq, header, start, duration));
+      }
+    }
+    return list;
+  }
+
+  public String dump() {
+    StringBuilder sb = new StringBuilder();
+    for (Entry entry : snapshot()) {
+      sb.append(entry).append('\n');
+    }
+    return sb.toString();
+  }
+
+  public void clear() {
+    for (int i = 0; i < entries.length(); i += WORDS) {
+      entries.set(i, -1);
+    }
+  }
+
+  // bits 0-15 length, 16-31 register, 32-39 address, 40-47 bus, 48-49 direction, 50-51 result
+  private static long pack(int bus, int address, int register, Direction direction, int length, Result result) {
+    return (Math.min(length, 0xffff) & 0xffffL)
+        | ((register & 0xffffL) << 16)
+        | ((address & 0xffL) << 32)
+        | ((bus & 0xffL) << 40)
+        | ((long) direction.ordinal() << 48)
+        | ((long) result.ordinal() << 50);
+  }
+
+  private static Entry unpack(long seq, long header, long start, long duration) {
+    int register = (int) ((header >>> 16) & 0xffff);
+    return new Entry(
+        seq,
+        (int) ((header >>> 40) & 0xff),
+        (int) ((header >>> 32) & 0xff),
+        register == 0xffff ? NO_REGISTER : register,
+        Direction.values()[(int) ((header >>> 48) & 0x3)],
+        (int) (header & 0xffff),
+        start,
+        duration,
+        Result.values()[(int) ((header >>> 50) & 0x3)]
+    );
+  }
+
+  public record Entry(long sequence, int bus, int address, int register, Direction direction, int length,
+                      long startNanos, long durationNanos, Result result) {
+
+    @Override
+    public String toString() {
+      String reg = register == NO_REGISTER ? "--" : String.format("%02X", register);
+      return String.format("%d bus:%d addr:%02X reg:%s %s len:%d start:%d duration:%dns %s",
+          sequence, bus, address, reg, direction, length, startNanos, durationNanos, result);
+    }
+  }
+}
@@ -22,14 +22,23 @@ package io.mapsmessaging.devices.i2c;
 import com.pi4j.exception.Pi4JException;
 import io.mapsmessaging.devices.Device;
 import io.mapsmessaging.devices.DeviceBusManager;
+import io.mapsmessaging.devices.i2c.I2CBusTrace.Direction;
+import io.mapsmessaging.devices.i2c.I2CBusTrace.Result;
 import io.mapsmessaging.devices.i2c.devices.RegisterMap;
 import io.mapsmessaging.devices.impl.AddressableDevice;
 import io.mapsmessaging.devices.logging.DeviceLogMessage;
+import io.mapsmessaging.devices.sensorreadings.ReadingContext;
 import io.mapsmessaging.logging.Logger;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
+import static io.mapsmessaging.devices.i2c.I2CBusTrace.NO_REGISTER;
 import static io.mapsmessaging.devices.logging.DeviceLogMessage.*;
 
 @Getter
@@ -38,11 +47,27 @@ public abstract class I2CDevice implements Device, AutoCloseable {
   public final RegisterMap registerMap;
   protected final Logger logger;
   protected final AddressableDevice device;
+  private final I2CBusLock busLock;
+
+  @Getter(AccessLevel.NONE)
+  private final byte[] pendingWrites;
+  @Getter(AccessLevel.NONE)
+  private final BitSet dirty;
+  @Getter(AccessLevel.NONE)
+  private int transactionDepth;
+  @Getter(AccessLevel.NONE)
+  private IOException deferredFailure;
+  @Getter(AccessLevel.NONE)
+  private final I2CBusTrace trace;
 
   protected I2CDevice(AddressableDevice device, Logger logger) {
     this.device = device;
     this.logger = logger;
-    registerMap = new RegisterMap();
+    busLock = I2CBusManager.getBusLock(device.getBus());
+    registerMap = new RegisterMap(this);
+    pendingWrites = new byte[256];
+    dirty = new BitSet(256);
+    trace = I2CBusTrace.getInstance();
     log(I2C_BUS_DEVICE_ALLOCATED);
   }
 
@@ -57,16 +82,56 @@ public abstract class I2CDevice implements Device, AutoCloseable {
 
   public abstract boolean isConnected();
 
+  /**
+   * Starts a register transaction. Until the matching {@link #commitRegisterTransaction()} register writes only
+   * update a pending copy of the registers, so a register that is changed several times is written once.
+   * Transactions nest, the outermost commit flushes the writes.
+   */
+  public final void beginRegisterTransaction() {
+    transactionDepth++;
+  }
+
+  /**
+   * Flushes the registers changed since {@link #beginRegisterTransaction()} in address order. Adjacent registers are written as a
+   * single burst when the register map has burst writes enabled, otherwise each register is written once.
+   */
+  public final void commitRegisterTransaction() throws IOException {
+    if (transactionDepth == 0) {
+      return;
+    }
+    transactionDepth--;
+    if (transactionDepth == 0) {
+      flushPendingWrites();
+      // A flush forced by delay() cannot throw, so its failure is reported here
+      IOException failure = deferredFailure;
+      deferredFailure = null;
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+
+  public boolean isInTransaction() {
+    return transactionDepth > 0;
+  }
+
   public void write(int val) throws IOException {
+    flushStagedWrites();
     if (logger.isDebugEnabled()) {
       log(I2C_BUS_DEVICE_WRITE, 0, String.format("%02X", val));
     }
+    ReadingContext.recordTransaction();
+    long start = System.nanoTime();
+    int result;
     try {
-      if (device.write(val) < 1 && DeviceBusManager.getInstance().isSupportsLengthResponse())
-        throw new IOException("Failed to write to device");
+      result = device.write(val);
     } catch (Pi4JException e) {
+      trace(NO_REGISTER, Direction.WRITE, 1, start, Result.ERROR);
       throw new IOException(e);
     }
+    trace(NO_REGISTER, Direction.WRITE, 1, start, result < 1 ? Result.FAILED : Result.OK);
+    if (result < 1 && DeviceBusManager.getInstance().isSupportsLengthResponse())
+      throw new IOException("Failed to write to device");
   }
 
   public void write(byte[] buffer) throws IOException {
@@ -74,13 +139,20 @@ public abstract class I2CDevice implements Device, AutoCloseable {
   }
 
   protected void write(byte[] buffer, int off, int len) throws IOException {
+    flushStagedWrites();
+    ReadingContext.recordTransaction();
+    long start = System.nanoTime();
+    int result;
     try {
-      if (device.write(buffer, off, len) < 0 && DeviceBusManager.getInstance().isSupportsLengthResponse()) {
-        throw new IOException("Failed to write buffer to device");
-      }
+      result = device.write(buffer, off, len);
     } catch (Pi4JException e) {
+      trace(NO_REGISTER, Direction.WRITE, len, start, Result.ERROR);
       throw new IOException(e);
     }
+    trace(NO_REGISTER, Direction.WRITE, len, start, result < 0 ? Result.FAILED : Result.OK);
+    if (result < 0 && DeviceBusManager.getInstance().isSupportsLengthResponse()) {
+      throw new IOException("Failed to write buffer to device");
+    }
     if (logger.isDebugEnabled()) {
       String bufferString = dump(buffer, buffer.length);
       log(I2C_BUS_DEVICE_WRITE, 0, bufferString);
@@ -96,14 +168,26 @@ public abstract class I2CDevice implements Device, AutoCloseable {
   }
 
   public void write(int register, byte[] data) throws IOException {
+    if (transactionDepth > 0 && stageWrite(register, data)) {
+      return;
+    }
+    writeToBus(register, data);
+  }
+
+  private void writeToBus(int register, byte[] data) throws IOException {
+    ReadingContext.recordTransaction();
+    long start = System.nanoTime();
+    int val;
     try {
-      int val = device.writeRegister(register, data);
-      if (val < 0 && DeviceBusManager.getInstance().isSupportsLengthResponse()) {
-        throw new IOException("Failed to write buffer to device");
-      }
+      val = device.writeRegister(register, data);
     } catch (Pi4JException e) {
+      trace(register, Direction.WRITE, data.length, start, Result.ERROR);
       throw new IOException(e);
     }
+    trace(register, Direction.WRITE, data.length, start, val < 0 ? Result.FAILED : Result.OK);
+    if (val < 0 && DeviceBusManager.getInstance().isSupportsLengthResponse()) {
+      throw new IOException("Failed to write buffer to device");
+    }
     if (logger.isDebugEnabled()) {
       String bufferString = dump(data, data.length);
       log(I2C_BUS_DEVICE_WRITE, register, bufferString);
@@ -115,12 +199,17 @@ public abstract class I2CDevice implements Device, AutoCloseable {
   }
 
   protected int read(byte[] buffer, int offset, int length) throws IOException {
+    flushStagedWrites();
     int read = 0;
+    ReadingContext.recordTransaction();
+    long start = System.nanoTime();
     try {
       read = device.read(buffer, offset, length);
     } catch (Pi4JException e) {
+      trace(NO_REGISTER, Direction.READ, length, start, Result.ERROR);
       throw new IOException(e);
     }
+    trace(NO_REGISTER, Direction.READ, length, start, read < 0 ? Result.FAILED : Result.OK);
     if (read < 0) {
       throw new IOException("Failed to read from device");
     }
@@ -132,12 +221,17 @@ public abstract class I2CDevice implements Device, AutoCloseable {
   }
 
   public int readRegister(int register) throws IOException {
+    flushStagedWrites();
     int val = 0;
+    ReadingContext.recordTransaction();
+    long start = System.nanoTime();
     try {
       val = device.readRegister(register);
     } catch (Pi4JException e) {
+      trace(register, Direction.READ, 1, start, Result.ERROR);
       throw new IOException(e);
     }
+    trace(register, Direction.READ, 1, start, val < 0 ? Result.FAILED : Result.OK);
     if (val < 0) {
       throw new IOException("Failed to read from device");
     }
@@ -152,12 +246,17 @@ public abstract class I2CDevice implements Device, AutoCloseable {
   }
 
   public int readRegister(int register, byte[] output, int offset, int length) throws IOException {
+    flushStagedWrites();
     int read = 0;
+    ReadingContext.recordTransaction();
+    long start = System.nanoTime();
     try {
       read = device.readRegister(register, output, offset, length);
     } catch (Pi4JException e) {
+      trace(register, Direction.READ, length, start, Result.ERROR);
       throw new IOException(e);
     }
+    trace(register, Direction.READ, length, start, read < 0 ? Result.FAILED : Result.OK);
     if (read < 0) {
       throw new IOException("Failed to read from the required registers");
     }
@@ -168,20 +267,89 @@ public abstract class I2CDevice implements Device, AutoCloseable {
     return read;
   }
 
+  private boolean stageWrite(int register, byte[] data) throws IOException {
+    int start = register & ~registerMap.getAutoIncrementFlag();
+    // Without burst writes a multi byte write may be a single wide register, so it is passed straight through,
+    // as are registers outside the pending copy
+    if ((data.length > 1 && !registerMap.isBurstWrite()) || start < 0 || start + data.length > pendingWrites.length) {
+      flushPendingWrites();
+      return false;
+    }
+    System.arraycopy(data, 0, pendingWrites, start, data.length);
+    dirty.set(start, start + data.length);
+    return true;
+  }
+
+  private void flushPendingWrites() throws IOException {
+    boolean burst = registerMap.isBurstWrite();
+    try {
+      int start = dirty.nextSetBit(0);
+      while (start >= 0) {
+        int end = burst ? Math.min(dirty.nextClearBit(start), start + RegisterMap.MAX_BURST) : start + 1;
+        int register = end - start > 1 ? start | registerMap.getAutoIncrementFlag() : start;
+        writeToBus(register, Arrays.copyOfRange(pendingWrites, start, end));
+        start = dirty.nextSetBit(end);
+      }
+    } finally {
+      dirty.clear();
+    }
+  }
+
+  private void flushStagedWrites() throws IOException {
+    // Any other transfer inside a transaction must follow the register writes staged before it
+    if (!dirty.isEmpty()) {
+      flushPendingWrites();
+    }
+  }
+
   @SuppressWarnings("java:S2274")
   // The delay here is for a specific I2C device. We release the bus lock which allows other devices access
   @Override
   public void delay(int ms) {
-    try {
+    if (logger.isDebugEnabled()) {
       log(I2C_BUS_DEVICE_DELAY, ms);
+    }
+    try {
+      flushStagedWrites();
+    } catch (IOException e) {
+      deferredFailure = e;
+    }
+    long start = System.nanoTime();
+    long deadline = start + TimeUnit.MILLISECONDS.toNanos(ms);
+    if (!busLock.isHeldByCurrentThread()) {
+      // Nothing to release, so just park
+      long remaining = deadline - System.nanoTime();
+      while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+        LockSupport.parkNanos(remaining);
+        remaining = deadline - System.nanoTime();
+      }
+      trace(NO_REGISTER, Direction.DELAY, ms, start, Result.OK);
+      return;
+    }
+    try {
       //this will allow other devices access to the I2C bus while the device waits
-      synchronized (I2CDeviceScheduler.getI2cBusLock()) {
-        I2CDeviceScheduler.getI2cBusLock().wait(ms);
+      // The bus arbiter signals the lock, so keep waiting until the full delay has passed
+      long remaining = deadline - System.nanoTime();
+      while (remaining > 0) {
+        busLock.await(remaining, TimeUnit.NANOSECONDS);
+        remaining = deadline - System.nanoTime();
       }
     } catch (InterruptedException e) {
       // Ignore the interrupt
       Thread.currentThread().interrupt(); // Pass it up
     }
+    trace(NO_REGISTER, Direction.DELAY, ms, start, Result.OK);
+  }
+
+  /**
+   * Called by long transfers between chunks, lets a waiting higher priority device use the bus first.
+   */
+  protected void yieldBus() throws IOException {
+    I2CBusManager.getBusArbiter(device.getBus()).yieldToHigherPriority();
+  }
+
+  private void trace(int register, Direction direction, int length, long start, Result result) {
+    trace.record(device.getBus(), device.getDevice(), register, direction, length, start, result);
   }
 
   private void log(DeviceLogMessage message, Object... args) {
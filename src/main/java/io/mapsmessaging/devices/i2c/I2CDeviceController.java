@@ -25,8 +25,12 @@ import com.google.gson.JsonObject;
 import io.mapsmessaging.devices.DeviceController;
 import io.mapsmessaging.devices.deviceinterfaces.RegisterData;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
+import io.mapsmessaging.devices.deviceinterfaces.SplitPhaseMeasurement;
+import io.mapsmessaging.devices.encoding.StateFormat;
+import io.mapsmessaging.devices.i2c.devices.RegisterUpdateResult;
 import io.mapsmessaging.devices.impl.AddressableDevice;
 import io.mapsmessaging.devices.io.SerialisationHelper;
+import io.mapsmessaging.devices.sampling.ReportByException;
 import io.mapsmessaging.devices.sensorreadings.SensorReading;
 import lombok.Getter;
 import lombok.Setter;
@@ -35,6 +39,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Getter
 @Setter
@@ -47,7 +52,6 @@ public abstract class I2CDeviceController extends DeviceController {
   protected static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
   private final int mountedAddress;
-  private final SerialisationHelper serialisationHelper = new SerialisationHelper();
 
   protected I2CDeviceController() {
     this(null);
@@ -61,12 +65,24 @@ public abstract class I2CDeviceController extends DeviceController {
     }
   }
 
+  /**
+   * @return the helper shared by every controller, built on first use since a Jackson mapper is slow to create
+   */
+  public SerialisationHelper getSerialisationHelper() {
+    return SerialisationHolder.HELPER;
+  }
+
   @Override
   public byte[] updateDeviceConfiguration(byte[] val) throws IOException {
     I2CDevice device = getDevice();
     if (device != null) {
-      Map<Integer, RegisterData> map2 = serialisationHelper.deserialise(val);
-      device.getRegisterMap().setData(map2);
+      Map<Integer, RegisterData> map2 = getSerialisationHelper().deserialise(val);
+      RegisterUpdateResult result = device.getRegisterMap().setData(map2);
+      JsonObject jsonObject = new JsonObject();
+      jsonObject.addProperty("changed", result.getChanged());
+      jsonObject.addProperty("skipped", result.getSkipped());
+      jsonObject.addProperty("failed", result.getFailed());
+      return convert(jsonObject);
     }
     return ("{}").getBytes();
   }
@@ -76,25 +92,89 @@ public abstract class I2CDeviceController extends DeviceController {
     I2CDevice device = getDevice();
     JsonObject jsonObject = new JsonObject();
     if (device != null) {
-      return serialisationHelper.serialise(device.getRegisterMap().getData());
+      return getSerialisationHelper().serialise(device.getRegisterMap().getData());
     }
     return convert(jsonObject);
   }
 
   @Override
   public byte[] getDeviceState() throws IOException {
-    try {
-      I2CDevice device = getDevice();
-      JsonObject jsonObject = new JsonObject();
-      if (device instanceof Sensor sensor) {
-        List<SensorReading<?>> readings = sensor.getReadings();
-        walkSensorReadings(jsonObject, readings);
-      }
-      return convert(jsonObject);
-    } catch (Exception e) {
-      // Log this
+    // Bus failures propagate, so the async future, the health monitor and the sampler's back-off all see them
+    List<SensorReading<?>> readings = getStateReadings();
+    if (readings != null) {
+      return encodeState(readings);
+    }
+    return convert(new JsonObject());
+  }
+
+  @Override
+  protected List<SensorReading<?>> getStateReadings() {
+    if (getDevice() instanceof Sensor sensor) {
+      return sensor.getReadings();
+    }
+    return null;
+  }
+
+  /**
+   * Queues a state read on this device's bus worker. The calling thread never blocks on the bus and
+   * reads on the same bus complete in the order they were requested.
+   *
+   * @return a future holding the same bytes {@link #getDeviceState()} would have returned
+   */
+  public CompletableFuture<byte[]> getDeviceStateAsync() {
+    return getBusExecutor().submit(getPriority(), this::getDeviceState);
+  }
+
+  public CompletableFuture<byte[]> getFilteredDeviceStateAsync(ReportByException filter) {
+    return getBusExecutor().submit(getPriority(), () -> getFilteredDeviceState(filter));
+  }
+
+  public CompletableFuture<byte[]> getEncodedDeviceStateAsync(StateFormat format) {
+    return getBusExecutor().submit(getPriority(), () -> getEncodedDeviceState(format));
+  }
+
+  public CompletableFuture<byte[]> updateDeviceConfigurationAsync(byte[] val) {
+    return getBusExecutor().submit(getPriority(), () -> updateDeviceConfiguration(val));
+  }
+
+  /**
+   * @return the priority class used when this device's requests compete for the bus
+   */
+  public I2CPriority getPriority() {
+    return I2CPriority.PERIODIC;
+  }
+
+  public boolean isSplitPhase() {
+    return getDevice() instanceof SplitPhaseMeasurement;
+  }
+
+  /**
+   * Starts a conversion on a device that supports split-phase measurement.
+   *
+   * @return the time, in {@link System#currentTimeMillis()} terms, from which {@link #collect()} can read the result
+   * @throws IOException if the device does not support split-phase measurement or the conversion could not be started
+   */
+  public long startMeasurement() throws IOException {
+    if (getDevice() instanceof SplitPhaseMeasurement measurement) {
+      return measurement.startMeasurement();
     }
-    return "{}".getBytes();
+    throw new IOException(getName() + " does not support split-phase measurement");
+  }
+
+  public void collect() throws IOException {
+    if (getDevice() instanceof SplitPhaseMeasurement measurement) {
+      measurement.collect();
+      return;
+    }
+    throw new IOException(getName() + " does not support split-phase measurement");
+  }
+
+  protected I2CBusExecutor getBusExecutor() {
+    I2CDevice device = getDevice();
+    if (device == null) {
+      throw new IllegalStateException(getName() + " is not mounted on a bus");
+    }
+    return I2CBusManager.getBusExecutor(device.getBus());
   }
 
   public boolean canDetect() {
@@ -112,4 +192,8 @@ public abstract class I2CDeviceController extends DeviceController {
   protected byte[] emptyJson(){
     return "{}".getBytes(StandardCharsets.UTF_8);
   }
+
+  private static final class SerialisationHolder {
+    private static final SerialisationHelper HELPER = new SerialisationHelper();
+  }
 }
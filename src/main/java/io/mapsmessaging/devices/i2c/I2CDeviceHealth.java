@@ -0,0 +1,109 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Health counters for one mounted I2C address. The record survives a remount, so the counters cover the
+ * address rather than a single driver instance.
+ */
+@Getter
+public class I2CDeviceHealth {
+
+  public enum State {
+    HEALTHY,
+    QUARANTINED
+  }
+
+  private final int address;
+  private final String name;
+  private State state;
+  private int consecutiveFailures;
+  private long successes;
+  private long failures;
+  private long rejected;
+  private long quarantines;
+  private long remounts;
+  private long backoffMillis;
+
+  @Getter(AccessLevel.NONE)
+  private long retryAtNanos;
+
+  I2CDeviceHealth(int address, String name) {
+    this.address = address;
+    this.name = name;
+    state = State.HEALTHY;
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  public synchronized boolean isQuarantined() {
+    return state == State.QUARANTINED;
+  }
+
+  synchronized boolean reject() {
+    if (state == State.QUARANTINED) {
+      rejected++;
+      return true;
+    }
+    return false;
+  }
+
+  synchronized void success() {
+    successes++;
+    consecutiveFailures = 0;
+  }
+
+  /**
+   * @return true if this failure moved the device into quarantine
+   */
+  synchronized boolean failure(int threshold, long initialBackoffMillis) {
+    failures++;
+    consecutiveFailures++;
+    if (state == State.HEALTHY && consecutiveFailures >= threshold) {
+      state = State.QUARANTINED;
+      quarantines++;
+      backoffMillis = initialBackoffMillis;
+      retryAtNanos = System.nanoTime() + backoffMillis * 1_000_000L;
+      return true;
+    }
+    return false;
+  }
+
+  synchronized boolean isRetryDue(long now) {
+    return state == State.QUARANTINED && now - retryAtNanos >= 0;
+  }
+
+  synchronized void retryFailed(long maxBackoffMillis) {
+    backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+    retryAtNanos = System.nanoTime() + backoffMillis * 1_000_000L;
+  }
+
+  synchronized void remounted() {
+    state = State.HEALTHY;
+    consecutiveFailures = 0;
+    backoffMillis = 0;
+    remounts++;
+  }
+}
@@ -20,30 +20,89 @@
 package io.mapsmessaging.devices.i2c;
 
 import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.encoding.StateFormat;
 import io.mapsmessaging.devices.impl.AddressableDevice;
+import io.mapsmessaging.devices.sampling.ReportByException;
+import io.mapsmessaging.devices.sampling.ReportPolicy;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import lombok.Getter;
 
 import java.io.IOException;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The locking here basically disables multiple access to the same device and will limit the
  * access to the I2C bus. If a device calls delay, then another device can take ownership of the bus
  * and perform any operation required. The device that has called delay will need to wait for the
  * new operation on the I2C bus to complete.
+ * <p>
+ * Each physical bus has its own lock, so devices on different buses never wait on each other.
+ * <p>
+ * When created with an {@link I2CHealthMonitor} every request is reported to it, and requests for a
+ * quarantined device fail immediately rather than spending bus time on a device that is not answering.
+ * <p>
+ * Requests are granted the bus by the controller's {@link I2CPriority} through the bus's {@link I2CBusArbiter}.
  */
 public class I2CDeviceScheduler extends I2CDeviceController {
 
-  private static final Object I2C_BUS_LOCK = new Object();
+  private static final int DEFAULT_BUS = 1;
+
   @Getter
   private final I2CDeviceController deviceController;
+  private final I2CBusArbiter busArbiter;
+  private final I2CBusExecutor busExecutor;
+  private final I2CHealthMonitor healthMonitor;
+  // One request per device at a time, a lock rather than a monitor so a request waiting for the bus does not pin
+  private final ReentrantLock deviceLock;
+  private volatile I2CPriority priority;
 
   public I2CDeviceScheduler(I2CDeviceController deviceController) {
+    this(deviceController, resolveBus(deviceController));
+  }
+
+  public I2CDeviceScheduler(I2CDeviceController deviceController, int bus) {
+    this(deviceController, bus, null);
+  }
+
+  public I2CDeviceScheduler(I2CDeviceController deviceController, int bus, I2CHealthMonitor healthMonitor) {
     this.deviceController = deviceController;
+    this.busArbiter = I2CBusManager.getBusArbiter(bus);
+    this.busExecutor = I2CBusManager.getBusExecutor(bus);
+    this.healthMonitor = healthMonitor;
+    this.deviceLock = new ReentrantLock();
+    this.priority = deviceController.getPriority();
+  }
+
+  /**
+   * @deprecated the bus lock is now per bus, use {@link #getI2cBusLock(int)}. This returns the lock for the
+   * default bus 1 only.
+   */
+  @Deprecated(since = "3.1.0")
+  public static I2CBusLock getI2cBusLock() {
+    return getI2cBusLock(DEFAULT_BUS);
+  }
+
+  public static I2CBusLock getI2cBusLock(int bus) {
+    return I2CBusManager.getBusLock(bus);
+  }
+
+  private static int resolveBus(I2CDeviceController deviceController) {
+    I2CDevice device = deviceController.getDevice();
+    return device != null ? device.getBus() : DEFAULT_BUS;
+  }
+
+  @Override
+  protected I2CBusExecutor getBusExecutor() {
+    return busExecutor;
+  }
+
+  @Override
+  public I2CPriority getPriority() {
+    return priority;
   }
 
-  public static Object getI2cBusLock() {
-    return I2C_BUS_LOCK;
+  public void setPriority(I2CPriority priority) {
+    this.priority = priority;
   }
 
   @Override
@@ -61,6 +120,46 @@ public class I2CDeviceScheduler extends I2CDeviceController {
     return deviceController.getMountedAddress();
   }
 
+  @Override
+  public StateFormat getStateFormat() {
+    return deviceController.getStateFormat();
+  }
+
+  @Override
+  public void setStateFormat(StateFormat stateFormat) {
+    deviceController.setStateFormat(stateFormat);
+  }
+
+  @Override
+  public void enableReportByException(ReportPolicy policy) {
+    deviceController.enableReportByException(policy);
+  }
+
+  @Override
+  public void disableReportByException() {
+    deviceController.disableReportByException();
+  }
+
+  @Override
+  public boolean isReportByException() {
+    return deviceController.isReportByException();
+  }
+
+  @Override
+  public int getLastBusTransactionCount() {
+    return deviceController.getLastBusTransactionCount();
+  }
+
+  @Override
+  public int getLastReadingCount() {
+    return deviceController.getLastReadingCount();
+  }
+
+  @Override
+  public int getLastFailedReadingCount() {
+    return deviceController.getLastFailedReadingCount();
+  }
+
   @Override
   public String getName() {
     return deviceController.getName();
@@ -86,27 +185,84 @@ public class I2CDeviceScheduler extends I2CDeviceController {
 
   @Override
   public byte[] getDeviceConfiguration() throws IOException {
-    synchronized (deviceController) {
-      synchronized (I2C_BUS_LOCK) {
-        return deviceController.getDeviceConfiguration();
-      }
-    }
+    return execute(() -> deviceController.getDeviceConfiguration(), false);
   }
 
   @Override
   public byte[] getDeviceState() throws IOException {
-    synchronized (deviceController) {
-      synchronized (I2C_BUS_LOCK) {
-        return deviceController.getDeviceState();
-      }
-    }
+    return execute(() -> deviceController.getDeviceState(), true);
+  }
+
+  @Override
+  public byte[] getFilteredDeviceState(ReportByException filter) throws IOException {
+    return execute(() -> deviceController.getFilteredDeviceState(filter), true);
+  }
+
+  @Override
+  public byte[] getEncodedDeviceState(StateFormat format) throws IOException {
+    return execute(() -> deviceController.getEncodedDeviceState(format), true);
   }
 
   @Override
   public byte[] updateDeviceConfiguration(byte[] val) throws IOException {
-    synchronized (deviceController) {
-      synchronized (I2C_BUS_LOCK) {
-        return deviceController.updateDeviceConfiguration(val);
+    return execute(() -> deviceController.updateDeviceConfiguration(val), false);
+  }
+
+  @Override
+  public boolean isSplitPhase() {
+    return deviceController.isSplitPhase();
+  }
+
+  @Override
+  public long startMeasurement() throws IOException {
+    return execute(deviceController::startMeasurement, false);
+  }
+
+  @Override
+  public void collect() throws IOException {
+    execute(() -> {
+      deviceController.collect();
+      return null;
+    }, false);
+  }
+
+  /**
+   * Runs a task against the mounted device while holding this controller's device lock and the bus, so it never
+   * interleaves with state reads, configuration updates or a delay of another request to the same device.
+   */
+  public <T> T execute(I2CBusArbiter.Task<T> task) throws IOException {
+    return execute(task, false);
+  }
+
+  private <T> T execute(I2CBusArbiter.Task<T> request, boolean readsState) throws IOException {
+    if (healthMonitor == null) {
+      deviceLock.lock();
+      try {
+        return busArbiter.execute(priority, request);
+      } finally {
+        deviceLock.unlock();
+      }
+    }
+    int address = getMountedAddress();
+    healthMonitor.checkAvailable(address);
+    boolean failed = true;
+    try {
+      T result;
+      deviceLock.lock();
+      try {
+        result = busArbiter.execute(priority, request);
+        // A device that has stopped answering usually still produces a state, made up of error entries
+        failed = readsState && deviceController.getLastReadingCount() > 0
+            && deviceController.getLastFailedReadingCount() == deviceController.getLastReadingCount();
+      } finally {
+        deviceLock.unlock();
+      }
+      return result;
+    } finally {
+      if (failed) {
+        healthMonitor.recordFailure(address);
+      } else {
+        healthMonitor.recordSuccess(address);
       }
     }
   }
@@ -0,0 +1,129 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c;
+
+import io.mapsmessaging.devices.logging.DeviceLogMessage;
+import io.mapsmessaging.logging.Logger;
+import io.mapsmessaging.logging.LoggerFactory;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the health of every device mounted on one bus. A device that fails {@link #getFailureThreshold()}
+ * requests in a row is quarantined: further requests fail straight away without touching the bus, and the
+ * bus manager re-probes the address with an exponential back-off until the device answers again and can be
+ * remounted.
+ * <p>
+ * A request counts as failed if it throws, or if it took readings and every one of them failed.
+ */
+public class I2CHealthMonitor {
+
+  private final Logger logger = LoggerFactory.getLogger(I2CHealthMonitor.class);
+  private final int bus;
+  private final Map<Integer, I2CDeviceHealth> devices;
+
+  @Getter
+  @Setter
+  private volatile int failureThreshold = Integer.getInteger("i2c.health.failureThreshold", 5);
+  @Getter
+  @Setter
+  private volatile long initialBackoffMillis = Long.getLong("i2c.health.initialBackoff", 1_000L);
+  @Getter
+  @Setter
+  private volatile long maxBackoffMillis = Long.getLong("i2c.health.maxBackoff", 300_000L);
+
+  public I2CHealthMonitor(int bus) {
+    this.bus = bus;
+    devices = new ConcurrentHashMap<>();
+  }
+
+  public I2CDeviceHealth getHealth(int address) {
+    return devices.get(address);
+  }
+
+  public Map<Integer, I2CDeviceHealth> getDevices() {
+    return Collections.unmodifiableMap(devices);
+  }
+
+  public void register(int address, String name) {
+    devices.computeIfAbsent(address, k -> new I2CDeviceHealth(k, name));
+  }
+
+  public void remove(int address) {
+    devices.remove(address);
+  }
+
+  void checkAvailable(int address) throws IOException {
+    I2CDeviceHealth health = devices.get(address);
+    if (health != null && health.reject()) {
+      throw new IOException("Device 0x" + Integer.toHexString(address) + " on bus " + bus + " is quarantined");
+    }
+  }
+
+  void recordSuccess(int address) {
+    I2CDeviceHealth health = devices.get(address);
+    if (health != null) {
+      health.success();
+    }
+  }
+
+  void recordFailure(int address) {
+    I2CDeviceHealth health = devices.get(address);
+    if (health != null && health.failure(failureThreshold, initialBackoffMillis)) {
+      logger.log(DeviceLogMessage.I2C_BUS_DEVICE_QUARANTINED, health.getName(), bus, Integer.toHexString(address), health.getConsecutiveFailures());
+    }
+  }
+
+  /**
+   * @return the quarantined addresses whose back-off has expired
+   */
+  List<Integer> retryDue() {
+    long now = System.nanoTime();
+    List<Integer> due = new ArrayList<>();
+    for (I2CDeviceHealth health : devices.values()) {
+      if (health.isRetryDue(now)) {
+        due.add(health.getAddress());
+      }
+    }
+    return due;
+  }
+
+  void retryFailed(int address) {
+    I2CDeviceHealth health = devices.get(address);
+    if (health != null) {
+      health.retryFailed(maxBackoffMillis);
+    }
+  }
+
+  void remounted(int address) {
+    I2CDeviceHealth health = devices.get(address);
+    if (health != null) {
+      health.remounted();
+      logger.log(DeviceLogMessage.I2C_BUS_DEVICE_REMOUNTED, health.getName(), bus, Integer.toHexString(address));
+    }
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c;
+
+/**
+ * Priority class of a device's bus transactions, highest first. When several requests are waiting for a bus the
+ * highest priority request is granted it first.
+ */
+public enum I2CPriority {
+  /** Latency sensitive devices such as tag readers and input expanders */
+  INTERACTIVE,
+  /** Sensors sampled on a schedule */
+  PERIODIC,
+  /** Large transfers such as EEPROM dumps, split into chunks that yield the bus to higher priorities */
+  BULK
+}
@@ -37,10 +37,18 @@ public class MultiByteRegister extends Register {
 
   @Override
   public void reload() throws IOException {
+    if (sensor.getRegisterMap().copyShadow(getAddress(), buffer)) {
+      return;
+    }
     Arrays.fill(buffer, (byte) 0);
     sensor.readRegister(address, buffer);
   }
 
+  @Override
+  protected int getShadowLength() {
+    return buffer.length;
+  }
+
   @Override
   protected void setControlRegister(int mask, int value) throws IOException {
     throw new IOException("Function not supported");
@@ -45,6 +45,13 @@ public abstract class Register {
 
   protected abstract void reload() throws IOException;
 
+  /**
+   * @return the number of bytes this register decodes from the register map's shadow, 0 if it cannot
+   */
+  protected int getShadowLength() {
+    return 0;
+  }
+
   protected abstract void setControlRegister(int mask, int value) throws IOException;
 
   protected void waitForDevice() {
@@ -20,19 +20,43 @@
 package io.mapsmessaging.devices.i2c.devices;
 
 import io.mapsmessaging.devices.deviceinterfaces.RegisterData;
+import io.mapsmessaging.devices.i2c.I2CDevice;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Holds the registers of a device. For chips that auto-increment the register address, burst reads can be
+ * enabled: {@link #refresh()}, {@link #getData()} and {@link #toString()} then fill a shadow copy of the
+ * register file with one read per run of adjacent registers, and every register decodes its value from the
+ * shadow instead of reading the bus one register at a time. Chips that also auto-increment on writes can enable
+ * burst writes, which lets a committed {@link I2CDevice#begin() register transaction} write adjacent registers in
+ * one transfer.
+ */
 public class RegisterMap {
 
+  // SMBus block transfers are limited to 32 bytes
+  public static final int MAX_BURST = 32;
+
+  private final I2CDevice device;
   private final Map<Integer, Register> map;
+  private final byte[] shadow;
+  private final BitSet covered;
+  private boolean burstRead;
+  private boolean burstWrite;
+  private int autoIncrementFlag;
+  private int[] runs;
+  private boolean shadowActive;
 
-  public RegisterMap() {
+  public RegisterMap(I2CDevice device) {
+    this.device = device;
     map = new LinkedHashMap<>();
+    shadow = new byte[256];
+    covered = new BitSet(shadow.length);
   }
 
   public void addRegister(Register register) {
@@ -41,29 +65,250 @@ public class RegisterMap {
       throw new RuntimeException("Register address collision for address " + register.getAddress() + " Existing:" + existing.name + " New:" + register.name);
     }
     map.put(register.getAddress(), register);
+    runs = null;
+  }
+
+  /**
+   * Enables burst reads of adjacent registers. Only enable this for chips that auto-increment the register
+   * address during a read.
+   *
+   * @param autoIncrementFlag bits to set in the start address to request auto-increment, for example 0x80 on
+   *                          ST sensors, or 0 if the chip always auto-increments
+   */
+  public void enableBurstRead(int autoIncrementFlag) {
+    this.autoIncrementFlag = autoIncrementFlag;
+    burstRead = true;
+  }
+
+  public void disableBurstRead() {
+    burstRead = false;
+  }
+
+  public boolean isBurstRead() {
+    return burstRead;
+  }
+
+  /**
+   * Enables burst writes of adjacent registers within a register transaction. Only enable this for chips that
+   * auto-increment the register address during a write.
+   */
+  public void enableBurstWrite(int autoIncrementFlag) {
+    this.autoIncrementFlag = autoIncrementFlag;
+    burstWrite = true;
+  }
+
+  public void disableBurstWrite() {
+    burstWrite = false;
+  }
+
+  public boolean isBurstWrite() {
+    return burstWrite;
+  }
+
+  public int getAutoIncrementFlag() {
+    return autoIncrementFlag;
+  }
+
+  /**
+   * Reloads every register from the device, using burst reads when enabled.
+   */
+  public void refresh() throws IOException {
+    if (burstRead) {
+      try {
+        refreshShadow();
+      } finally {
+        shadowActive = false;
+      }
+    } else {
+      for (Register register : map.values()) {
+        register.reload();
+      }
+    }
   }
 
   public Map<Integer, RegisterData> getData() throws IOException {
     Map<Integer, RegisterData> data = new LinkedHashMap<>();
-    for (Map.Entry<Integer, Register> entry : map.entrySet()) {
-      RegisterData res = entry.getValue().toData();
-      if (res != null) {
-        data.put(entry.getKey(), entry.getValue().toData());
+    refreshShadow();
+    try {
+      for (Map.Entry<Integer, Register> entry : map.entrySet()) {
+        RegisterData res = entry.getValue().toData();
+        if (res != null) {
+          data.put(entry.getKey(), res);
+        }
       }
+    } finally {
+      shadowActive = false;
     }
     return data;
   }
 
-  public void setData(Map<Integer, RegisterData> update) throws IOException {
+  /**
+   * @return the shadow value of the register, or -1 if no burst read is in progress or the last one did not cover it
+   */
+  int getShadow(int address) {
+    if (!isCovered(address, 1)) {
+      return -1;
+    }
+    return shadow[address] & 0xff;
+  }
+
+  boolean copyShadow(int address, byte[] buffer) {
+    if (!isCovered(address, buffer.length)) {
+      return false;
+    }
+    System.arraycopy(shadow, address, buffer, 0, buffer.length);
+    return true;
+  }
+
+  private boolean isCovered(int address, int length) {
+    return shadowActive
+        && address >= 0
+        && address + length <= shadow.length
+        && covered.nextClearBit(address) >= address + length;
+  }
+
+  private void refreshShadow() throws IOException {
+    if (!burstRead || map.isEmpty()) {
+      return;
+    }
+    if (runs == null) {
+      runs = buildRuns();
+    }
+    covered.clear();
+    boolean complete = true;
+    for (int i = 0; i < runs.length && complete; i += 2) {
+      complete = device.readRegister(runs[i] | autoIncrementFlag, shadow, runs[i], runs[i + 1]) >= runs[i + 1];
+      if (complete) {
+        covered.set(runs[i], runs[i] + runs[i + 1]);
+      }
+    }
+    // A short burst leaves part of the shadow stale, so every register is then read on its own
+    shadowActive = complete;
+    for (Register register : map.values()) {
+      if (register.getShadowLength() > 0) {
+        register.reload();
+      }
+    }
+  }
+
+  /**
+   * @return start and length pairs covering every register that can decode from the shadow
+   */
+  private int[] buildRuns() {
+    List<Integer> addresses = new ArrayList<>();
+    for (Register register : map.values()) {
+      if (register.getShadowLength() > 0 && register.getAddress() + register.getShadowLength() <= shadow.length) {
+        addresses.add(register.getAddress());
+      }
+    }
+    addresses.sort(Integer::compareTo);
+    List<Integer> list = new ArrayList<>();
+    int start = -1;
+    int end = -1;
+    for (Integer address : addresses) {
+      int registerEnd = address + map.get(address).getShadowLength();
+      if (start >= 0 && address <= end && registerEnd - start <= MAX_BURST) {
+        end = Math.max(end, registerEnd);
+      } else {
+        if (start >= 0) {
+          list.add(start);
+          list.add(end - start);
+        }
+        start = address;
+        end = registerEnd;
+      }
+    }
+    if (start >= 0) {
+      list.add(start);
+      list.add(end - start);
+    }
+    return list.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * Applies a configuration update. The current values are taken from one refresh before the register
+   * transaction starts, registers that already match the update are skipped and the rest are written in a single
+   * register transaction, so nothing is read from the bus between the staged writes.
+   */
+  public RegisterUpdateResult setData(Map<Integer, RegisterData> update) throws IOException {
+    RegisterUpdateResult result = new RegisterUpdateResult();
+    try {
+      refreshShadow();
+    } catch (IOException e) {
+      // fall back to reading each register before the transaction
+    }
+    try {
+      Map<Register, RegisterData> changes = diff(update, result);
+      if (changes.isEmpty()) {
+        return result;
+      }
+      // The shadow stays active, so a register reloaded while it is being written decodes the same snapshot
+      device.beginRegisterTransaction();
+      try {
+        for (Map.Entry<Register, RegisterData> entry : changes.entrySet()) {
+          apply(entry.getKey(), entry.getValue(), result);
+        }
+      } finally {
+        try {
+          device.commitRegisterTransaction();
+        } catch (IOException | RuntimeException e) {
+          // None of the staged registers can be assumed written
+          result.commitFailed();
+        }
+      }
+    } finally {
+      shadowActive = false;
+    }
+    return result;
+  }
+
+  private Map<Register, RegisterData> diff(Map<Integer, RegisterData> update, RegisterUpdateResult result) {
+    Map<Register, RegisterData> changes = new LinkedHashMap<>();
     for (Map.Entry<Integer, RegisterData> entry : update.entrySet()) {
       Register register = map.get(entry.getKey());
-      if (register != null) {
-        register.fromData(entry.getValue());
+      if (register == null) {
+        result.failed();
+        continue;
+      }
+      try {
+        if (entry.getValue().equals(register.toData())) {
+          result.skipped();
+        } else {
+          changes.put(register, entry.getValue());
+        }
+      } catch (IOException | RuntimeException e) {
+        result.failed();
+      }
+    }
+    return changes;
+  }
+
+  private void apply(Register register, RegisterData data, RegisterUpdateResult result) {
+    try {
+      if (register.fromData(data)) {
+        result.changed();
+      } else {
+        result.failed();
       }
+    } catch (IOException | RuntimeException e) {
+      result.failed();
     }
   }
 
   public String toString() {
+    try {
+      refreshShadow();
+    } catch (IOException e) {
+      // fall back to reading each register
+    }
+    try {
+      return buildString();
+    } finally {
+      shadowActive = false;
+    }
+  }
+
+  private String buildString() {
     StringBuilder stringBuilder = new StringBuilder();
     List<Integer> addressList = new ArrayList<>(map.keySet());
     addressList.sort(Integer::compareTo);
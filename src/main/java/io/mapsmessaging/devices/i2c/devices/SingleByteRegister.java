@@ -36,7 +36,13 @@ public class SingleByteRegister extends Register {
 
   @Override
   protected void reload() throws IOException {
-    registerValue = (byte) (sensor.readRegister(address) & 0Xff);
+    int shadow = sensor.getRegisterMap().getShadow(getAddress());
+    registerValue = (byte) ((shadow >= 0 ? shadow : sensor.readRegister(address)) & 0Xff);
+  }
+
+  @Override
+  protected int getShadowLength() {
+    return 1;
   }
 
   @Override
@@ -20,6 +20,7 @@
 package io.mapsmessaging.devices.i2c.devices.demo.impl.scd41;
 
 import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.i2c.I2CBusLock;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
 import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
@@ -51,8 +52,12 @@ public class Scd41Controller extends I2cDemoController {
 
   public Scd41Controller(AddressableDevice device) {
     super(device);
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    I2CBusLock busLock = I2CDeviceScheduler.getI2cBusLock(device.getBus());
+    busLock.lock();
+    try {
       this.device = new Scd41Device(device);
+    } finally {
+      busLock.unlock();
     }
     throwErrror = false;
   }
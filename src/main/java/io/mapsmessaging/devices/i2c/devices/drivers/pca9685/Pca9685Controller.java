@@ -20,6 +20,7 @@
 package io.mapsmessaging.devices.i2c.devices.drivers.pca9685;
 
 import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.i2c.I2CBusLock;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
 import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
@@ -43,8 +44,12 @@ public class Pca9685Controller extends I2CDeviceController {
 
   public Pca9685Controller(AddressableDevice device) throws IOException {
     super(device);
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    I2CBusLock busLock = I2CDeviceScheduler.getI2cBusLock(device.getBus());
+    busLock.lock();
+    try {
       this.device = new Pca9685Device(device);
+    } finally {
+      busLock.unlock();
     }
   }
 
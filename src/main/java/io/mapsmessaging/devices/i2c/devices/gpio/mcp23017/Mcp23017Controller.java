@@ -22,6 +22,7 @@ package io.mapsmessaging.devices.i2c.devices.gpio.mcp23017;
 import io.mapsmessaging.devices.DeviceType;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.i2c.I2CPriority;
 import io.mapsmessaging.devices.impl.AddressableDevice;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.JsonSchemaConfig;
@@ -37,6 +38,11 @@ public class Mcp23017Controller extends I2CDeviceController {
     sensor = null;
   }
 
+  @Override
+  public I2CPriority getPriority() {
+    return I2CPriority.INTERACTIVE;
+  }
+
   @Override
   public String getName() {
     return "MCP23017";
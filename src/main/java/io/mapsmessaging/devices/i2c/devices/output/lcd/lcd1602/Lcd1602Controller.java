@@ -25,6 +25,7 @@ import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.JsonObject;
 import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.i2c.I2CBusLock;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
 import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
@@ -69,11 +70,15 @@ public class Lcd1602Controller extends I2CDeviceController {
 
   protected Lcd1602Controller(AddressableDevice device) {
     super(device);
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    I2CBusLock busLock = I2CDeviceScheduler.getI2cBusLock(device.getBus());
+    busLock.lock();
+    try {
       display = new Lcd1602Device(device);
       display.clearDisplay();
       display.setRows(2);
       display.setColumns(16);
+    } finally {
+      busLock.unlock();
     }
   }
 
@@ -19,6 +19,7 @@
 
 package io.mapsmessaging.devices.i2c.devices.output.lcd.lcd1602.backlight;
 
+import io.mapsmessaging.devices.i2c.I2CBusLock;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
 import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.impl.AddressableDevice;
@@ -35,8 +36,12 @@ public class BacklightV1PwmController extends BacklightPwmController {
   }
 
   public I2CDeviceController mount(AddressableDevice device) throws IOException {
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    I2CBusLock busLock = I2CDeviceScheduler.getI2cBusLock(device.getBus());
+    busLock.lock();
+    try {
       return new BacklightV1PwmController(device);
+    } finally {
+      busLock.unlock();
     }
   }
 
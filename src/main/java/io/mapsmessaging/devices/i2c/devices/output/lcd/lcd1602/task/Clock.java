@@ -19,7 +19,6 @@
 
 package io.mapsmessaging.devices.i2c.devices.output.lcd.lcd1602.task;
 
-import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.i2c.devices.output.Task;
 import io.mapsmessaging.devices.i2c.devices.output.lcd.lcd1602.Lcd1602Controller;
 import io.mapsmessaging.devices.i2c.devices.output.lcd.lcd1602.Lcd1602Device;
@@ -46,24 +45,33 @@ public class Clock implements Task {
 
   @Override
   public void run() {
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    display.getBusLock().lock();
+    try {
       display.clearDisplay();
-      LocalDate date = LocalDate.now();
-      while (runFlag.get()) {
-        display.setCursor((byte) 0, (byte) 0);
-        display.setDisplay(date.toString());
-        for (int x = 0; x < 60; x++) {
-          String time = getTime(true, true);
-          display.setCursor((byte) 1, (byte) 0);
-          display.setDisplay(time);
-          display.delay(500);
-          display.setCursor((byte) 1, (byte) 2);
-          display.setDisplay(":");
-          display.setCursor((byte) 1, (byte) 5);
-          display.setDisplay(":");
-          display.delay(500);
-        }
+    } finally {
+      display.getBusLock().unlock();
+    }
+    LocalDate date = LocalDate.now();
+    while (runFlag.get()) {
+      show(0, 0, date.toString());
+      for (int x = 0; x < 60; x++) {
+        show(1, 0, getTime(true, true));
+        display.delay(500);
+        show(1, 2, ":");
+        show(1, 5, ":");
+        display.delay(500);
       }
     }
   }
+
+  // Holds the bus only for each update, the delays between them must not keep the bus, or a virtual thread, locked
+  private void show(int row, int column, String text) {
+    display.getBusLock().lock();
+    try {
+      display.setCursor((byte) row, (byte) column);
+      display.setDisplay(text);
+    } finally {
+      display.getBusLock().unlock();
+    }
+  }
 }
@@ -21,6 +21,7 @@ package io.mapsmessaging.devices.i2c.devices.output.lcd.st7735;
 
 import com.google.gson.JsonObject;
 import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.i2c.I2CBusLock;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
 import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
@@ -64,8 +65,12 @@ public class St7735Controller extends I2CDeviceController {
 
   protected St7735Controller(AddressableDevice device) throws IOException {
     super(device);
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    I2CBusLock busLock = I2CDeviceScheduler.getI2cBusLock(device.getBus());
+    busLock.lock();
+    try {
       display = new St7735Device(device);
+    } finally {
+      busLock.unlock();
     }
   }
 
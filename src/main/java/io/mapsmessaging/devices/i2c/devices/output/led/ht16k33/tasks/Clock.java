@@ -23,6 +23,7 @@ import io.mapsmessaging.devices.DeviceBusManager;
 import io.mapsmessaging.devices.i2c.devices.output.Task;
 import io.mapsmessaging.devices.i2c.devices.output.led.ht16k33.HT16K33Controller;
 import io.mapsmessaging.devices.util.Delay;
+import io.mapsmessaging.devices.util.DeviceThreads;
 
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -37,8 +38,7 @@ public class Clock implements Task {
   public Clock(HT16K33Controller controller) {
     this.controller = controller;
     runFlag = new AtomicBoolean(true);
-    Thread thread = new Thread(this);
-    thread.start();
+    DeviceThreads.start("HT16K33-Clock", this);
   }
 
   @Override
@@ -21,6 +21,7 @@ package io.mapsmessaging.devices.i2c.devices.sensors.am2315;
 
 import io.mapsmessaging.devices.DeviceType;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
+import io.mapsmessaging.devices.deviceinterfaces.SplitPhaseMeasurement;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.impl.AddressableDevice;
 import io.mapsmessaging.devices.sensorreadings.FloatSensorReading;
@@ -33,7 +34,7 @@ import java.util.List;
 
 import static io.mapsmessaging.devices.logging.DeviceLogMessage.I2C_BUS_DEVICE_READ_REQUEST;
 
-public class AM2315Sensor extends I2CDevice implements Sensor {
+public class AM2315Sensor extends I2CDevice implements Sensor, SplitPhaseMeasurement {
 
   //
   // Command Codes
@@ -49,6 +50,8 @@ public class AM2315Sensor extends I2CDevice implements Sensor {
   private static final byte VERSION = 0x0A;
   private static final byte ID_24_31 = 0x0B;
   private static final byte STATUS = 0x0F;
+
+  private static final int CONVERSION_DELAY = 10;
   @Getter
   private final List<SensorReading<?>> readings;
   private float temperature;
@@ -157,15 +160,38 @@ public class AM2315Sensor extends I2CDevice implements Sensor {
     return val;
   }
 
+  @Override
+  public long startMeasurement() throws IOException {
+    try {
+      requestRegisters(HIGH_RH, RETENTION_1);
+    } catch (IOException e) {
+      // The first transfer only wakes the sensor up
+      delay(2);
+      requestRegisters(HIGH_RH, RETENTION_1);
+    }
+    return System.currentTimeMillis() + CONVERSION_DELAY;
+  }
+
+  @Override
+  public void collect() throws IOException {
+    storeValues(receiveRegisters());
+  }
+
   private void loadValues() throws IOException {
     if (lastRead < System.currentTimeMillis()) {
-      byte[] sensorReadings = retryReads(HIGH_RH, RETENTION_1);
-      temperature = ((sensorReadings[2] & 0xff) << 8 | (sensorReadings[3] & 0xff) + 10) / 10.0f;
-      humidity = ((sensorReadings[0] & 0xff) << 8 | (sensorReadings[1] & 0xff)) / 10.0f;
-      lastRead = System.currentTimeMillis() + 1000;
+      storeValues(retryReads(HIGH_RH, RETENTION_1));
     }
   }
 
+  private void storeValues(byte[] sensorReadings) throws IOException {
+    if (sensorReadings.length < 4) {
+      throw new IOException("Short read from device");
+    }
+    temperature = ((sensorReadings[2] & 0xff) << 8 | (sensorReadings[3] & 0xff) + 10) / 10.0f;
+    humidity = ((sensorReadings[0] & 0xff) << 8 | (sensorReadings[1] & 0xff)) / 10.0f;
+    lastRead = System.currentTimeMillis() + 1000;
+  }
+
   private byte[] retryReads(byte start, byte end) throws IOException {
     int count = 0;
     while (count < 10) {
@@ -180,12 +206,20 @@ public class AM2315Sensor extends I2CDevice implements Sensor {
   }
 
   private byte[] readRegisters(byte startReg, byte endReg) throws IOException {
+    requestRegisters(startReg, endReg);
+    delay(CONVERSION_DELAY);
+    return receiveRegisters();
+  }
+
+  private void requestRegisters(byte startReg, byte endReg) throws IOException {
     byte[] sendPacket = new byte[3];
     sendPacket[0] = READ_FUNCTION;
     sendPacket[1] = startReg;
     sendPacket[2] = endReg;
     write(sendPacket);
-    delay(10);
+  }
+
+  private byte[] receiveRegisters() throws IOException {
     byte[] header = new byte[32];
     int received = read(header);
     if (header[0] != 3) {
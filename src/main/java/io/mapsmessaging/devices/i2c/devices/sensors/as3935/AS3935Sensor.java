@@ -24,7 +24,6 @@ import io.mapsmessaging.devices.deviceinterfaces.PowerManagement;
 import io.mapsmessaging.devices.deviceinterfaces.Resetable;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
 import io.mapsmessaging.devices.i2c.I2CDevice;
-import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.i2c.devices.sensors.as3935.registers.*;
 import io.mapsmessaging.devices.impl.AddressableDevice;
 import io.mapsmessaging.devices.sensorreadings.IntegerSensorReading;
@@ -79,9 +78,12 @@ public class AS3935Sensor extends I2CDevice implements PowerManagement, Sensor,
     calibrateRcoRegister = new CalibrateRcoRegister(this);
     presetDefaultRegister = new PresetDefaultRegister(this);
     this.tuning = tuning;
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    getBusLock().lock();
+    try {
       powerOn();
       reset();
+    } finally {
+      getBusLock().unlock();
     }
     IntegerSensorReading energySensor = new IntegerSensorReading(
         "lightning_energy",
@@ -24,7 +24,6 @@ import io.mapsmessaging.devices.deviceinterfaces.PowerManagement;
 import io.mapsmessaging.devices.deviceinterfaces.Resetable;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
 import io.mapsmessaging.devices.i2c.I2CDevice;
-import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.i2c.devices.sensors.bh1750.register.ReadingModeRegister;
 import io.mapsmessaging.devices.i2c.devices.sensors.bh1750.values.ResolutionMode;
 import io.mapsmessaging.devices.i2c.devices.sensors.bh1750.values.SensorReadingMode;
@@ -58,8 +57,11 @@ public class Bh1750Sensor extends I2CDevice implements PowerManagement, Sensor,
     lastRead = 0;
 
     readingModeRegister = new ReadingModeRegister(this, 0, "Mode");
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    getBusLock().lock();
+    try {
       initialise();
+    } finally {
+      getBusLock().unlock();
     }
 
     FloatSensorReading luxReading = new FloatSensorReading(
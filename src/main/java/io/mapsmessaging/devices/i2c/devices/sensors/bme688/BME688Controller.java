@@ -20,6 +20,7 @@
 package io.mapsmessaging.devices.i2c.devices.sensors.bme688;
 
 import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.i2c.I2CBusLock;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
 import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
@@ -64,8 +65,12 @@ public class BME688Controller extends I2CDeviceController {
   }
 
   public I2CDeviceController mount(AddressableDevice device) throws IOException {
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    I2CBusLock busLock = I2CDeviceScheduler.getI2cBusLock(device.getBus());
+    busLock.lock();
+    try {
       return new BME688Controller(device);
+    } finally {
+      busLock.unlock();
     }
   }
 
@@ -22,8 +22,8 @@ package io.mapsmessaging.devices.i2c.devices.sensors.bme688;
 import io.mapsmessaging.devices.DeviceType;
 import io.mapsmessaging.devices.deviceinterfaces.PowerManagement;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
+import io.mapsmessaging.devices.deviceinterfaces.SplitPhaseMeasurement;
 import io.mapsmessaging.devices.i2c.I2CDevice;
-import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.i2c.devices.sensors.bme688.measurement.CalibrationData;
 import io.mapsmessaging.devices.i2c.devices.sensors.bme688.register.*;
 import io.mapsmessaging.devices.i2c.devices.sensors.bme688.values.HeaterStep;
@@ -40,7 +40,11 @@ import lombok.Getter;
 import java.io.IOException;
 import java.util.List;
 
-public class BME688Sensor extends I2CDevice implements PowerManagement, Sensor {
+public class BME688Sensor extends I2CDevice implements PowerManagement, Sensor, SplitPhaseMeasurement {
+
+  // TPH conversion with the oversampling set in startForceMode (datasheet 3.8.1): (8 + 2 + 4) * 1963us
+  // plus the humidity, pressure and wake up overheads, rounded up, followed by the 100ms heater step
+  private static final int CONVERSION_TIME = 33 + 100;
 
   @Getter
   private final ChipIdRegister chipIdRegister;
@@ -72,6 +76,7 @@ public class BME688Sensor extends I2CDevice implements PowerManagement, Sensor {
 
   public BME688Sensor(AddressableDevice device) throws IOException {
     super(device, LoggerFactory.getLogger(BME688Sensor.class));
+    registerMap.enableBurstRead(0);
 
     chipIdRegister = new ChipIdRegister(this);
     controlMeasurementRegister = new ControlMeasurementRegister(this);
@@ -130,8 +135,11 @@ public class BME688Sensor extends I2CDevice implements PowerManagement, Sensor {
         this::getGasProfileMode
     );
     readings = generateSensorReadings(List.of(temperature, humidity, pressure, gas, heaterStatus, gasMode));
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    getBusLock().lock();
+    try {
       initialise();
+    } finally {
+      getBusLock().unlock();
     }
   }
 
@@ -188,25 +196,47 @@ public class BME688Sensor extends I2CDevice implements PowerManagement, Sensor {
   }
 
   public void startForceMode() throws IOException {
-    // Set the sampling rates
-    controlHumidityRegister.setHumidityOverSampling(Oversampling.X4);
-    controlMeasurementRegister.setTemperatureOversampling(Oversampling.X8);
-    controlMeasurementRegister.setPressureOversampling(Oversampling.X2);
-    controlMeasurementRegister.updateRegister();
-
-    gasWaitRegisters[0].setTimerSteps(52); // 100ms
-    gasWaitRegisters[0].setMultiplicationFactor(1);
-    gasWaitRegisters[0].updateRegister();
-    byte val = (byte) (calibrationData.getGasCalibrationData().calcResHeat(350, 26) & 0xff);
-    heaterResistanceRegister.setHeaterResistance(0, val);
-
-    controlGas1Register.setNbConv(HeaterStep.NONE);
-    controlGas1Register.setRunGas(true);
-    controlMeasurementRegister.setPowerMode(PowerMode.FORCED_MODE);
-    controlMeasurementRegister.updateRegister();
+    // The writes are flushed in address order, so ctrl_meas (0x74) that starts the conversion is written last
+    beginRegisterTransaction();
+    try {
+      // Set the sampling rates
+      controlHumidityRegister.setHumidityOverSampling(Oversampling.X4);
+      controlMeasurementRegister.setTemperatureOversampling(Oversampling.X8);
+      controlMeasurementRegister.setPressureOversampling(Oversampling.X2);
+      controlMeasurementRegister.updateRegister();
+
+      gasWaitRegisters[0].setTimerSteps(52); // 100ms
+      gasWaitRegisters[0].setMultiplicationFactor(1);
+      gasWaitRegisters[0].updateRegister();
+      byte val = (byte) (calibrationData.getGasCalibrationData().calcResHeat(350, 26) & 0xff);
+      heaterResistanceRegister.setHeaterResistance(0, val);
+
+      controlGas1Register.setNbConv(HeaterStep.NONE);
+      controlGas1Register.setRunGas(true);
+      controlMeasurementRegister.setPowerMode(PowerMode.FORCED_MODE);
+      controlMeasurementRegister.updateRegister();
+    } finally {
+      commitRegisterTransaction();
+    }
     sensorReadings[0].setDataReady(System.currentTimeMillis() + 1000);
   }
 
+  @Override
+  public long startMeasurement() throws IOException {
+    startForceMode();
+    long now = System.currentTimeMillis();
+    lastRead = now + 1000;
+    sensorReadings[readingIndex].setDataReady(now + CONVERSION_TIME);
+    return now + CONVERSION_TIME;
+  }
+
+  @Override
+  public void collect() throws IOException {
+    sensorReadings[readingIndex].doMeasurements();
+    // The readings serve these values until checkState starts the next forced conversion
+    sensorReadings[readingIndex].setDataReady(Long.MAX_VALUE);
+  }
+
   public void startParallelMode() throws IOException {
     // No  Op
   }
@@ -22,6 +22,7 @@ package io.mapsmessaging.devices.i2c.devices.sensors.bno055;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.i2c.I2CBusLock;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
 import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
@@ -56,8 +57,12 @@ public class BNO055Controller extends I2CDeviceController {
 
   protected BNO055Controller(AddressableDevice device) throws IOException {
     super(device);
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    I2CBusLock busLock = I2CDeviceScheduler.getI2cBusLock(device.getBus());
+    busLock.lock();
+    try {
       sensor = new BNO055Sensor(device);
+    } finally {
+      busLock.unlock();
     }
   }
 
@@ -79,6 +79,8 @@ public class Lps25Sensor extends I2CDevice implements Sensor, Resetable {
 
   public Lps25Sensor(AddressableDevice device) throws IOException {
     super(device, LoggerFactory.getLogger(Lps25Sensor.class));
+    registerMap.enableBurstRead(0x80);
+    registerMap.enableBurstWrite(0x80);
 
     control1 = new Control1(this);
     control2 = new Control2(this);
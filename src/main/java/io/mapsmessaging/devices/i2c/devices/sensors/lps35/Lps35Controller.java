@@ -20,6 +20,7 @@
 package io.mapsmessaging.devices.i2c.devices.sensors.lps35;
 
 import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.i2c.I2CBusLock;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
 import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
@@ -49,8 +50,12 @@ public class Lps35Controller extends I2CDeviceController {
 
   public Lps35Controller(AddressableDevice device) throws IOException {
     super(device);
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    I2CBusLock busLock = I2CDeviceScheduler.getI2cBusLock(device.getBus());
+    busLock.lock();
+    try {
       sensor = new Lps35Sensor(device);
+    } finally {
+      busLock.unlock();
     }
   }
 
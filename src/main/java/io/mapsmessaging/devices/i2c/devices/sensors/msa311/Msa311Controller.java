@@ -20,6 +20,7 @@
 package io.mapsmessaging.devices.i2c.devices.sensors.msa311;
 
 import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.i2c.I2CBusLock;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
 import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
@@ -50,8 +51,12 @@ public class Msa311Controller extends I2CDeviceController {
 
   public Msa311Controller(AddressableDevice device) throws IOException {
     super(device);
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    I2CBusLock busLock = I2CDeviceScheduler.getI2cBusLock(device.getBus());
+    busLock.lock();
+    try {
       sensor = new Msa311Sensor(device);
+    } finally {
+      busLock.unlock();
     }
   }
 
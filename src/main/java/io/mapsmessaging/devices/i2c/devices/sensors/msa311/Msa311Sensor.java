@@ -79,6 +79,7 @@ public class Msa311Sensor extends I2CDevice implements Sensor, PowerManagement,
 
   public Msa311Sensor(AddressableDevice device) throws IOException {
     super(device, LoggerFactory.getLogger(Msa311Sensor.class));
+    registerMap.enableBurstRead(0);
 
     resetRegister = new ResetRegister(this);
     partIdRegister = new PartIdRegister(this);
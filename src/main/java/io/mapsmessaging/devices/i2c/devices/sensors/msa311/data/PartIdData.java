@@ -23,12 +23,14 @@ import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
 import io.mapsmessaging.devices.deviceinterfaces.RegisterData;
 import io.mapsmessaging.devices.io.TypeNameResolver;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
 @JsonTypeIdResolver(value = TypeNameResolver.class)
 @Getter
 @AllArgsConstructor
+@EqualsAndHashCode
 @ToString
 public class PartIdData implements RegisterData {
   private final int id;
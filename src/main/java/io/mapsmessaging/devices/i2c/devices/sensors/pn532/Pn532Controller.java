@@ -21,6 +21,7 @@ package io.mapsmessaging.devices.i2c.devices.sensors.pn532;
 import io.mapsmessaging.devices.DeviceType;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.i2c.I2CPriority;
 import io.mapsmessaging.devices.impl.AddressableDevice;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.JsonSchemaConfig;
@@ -39,6 +40,11 @@ public class Pn532Controller extends I2CDeviceController {
     this.sensor = new Pn532Sensor(device);
   }
 
+  @Override
+  public I2CPriority getPriority() {
+    return I2CPriority.INTERACTIVE;
+  }
+
   @Override
   public String getName() {
     return "PN532";
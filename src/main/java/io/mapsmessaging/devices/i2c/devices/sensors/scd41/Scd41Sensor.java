@@ -23,6 +23,7 @@ import io.mapsmessaging.devices.DeviceType;
 import io.mapsmessaging.devices.deviceinterfaces.PowerManagement;
 import io.mapsmessaging.devices.deviceinterfaces.Resetable;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
+import io.mapsmessaging.devices.deviceinterfaces.SplitPhaseMeasurement;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.devices.sensors.scd41.functions.SerialNumberRequest;
 import io.mapsmessaging.devices.i2c.devices.sensors.scd41.registers.*;
@@ -37,7 +38,7 @@ import java.io.IOException;
 import java.util.List;
 
 @Getter
-public class Scd41Sensor extends I2CDevice implements Sensor, Resetable, PowerManagement {
+public class Scd41Sensor extends I2CDevice implements Sensor, Resetable, PowerManagement, SplitPhaseMeasurement {
   private final DataReadyRegister dataReadyRegister;
   private final DeviceStateRegister deviceStateRegister;
   private final ASCERegister asceRegister;
@@ -147,6 +148,16 @@ public class Scd41Sensor extends I2CDevice implements Sensor, Resetable, PowerMa
     initialise();
   }
 
+  @Override
+  public long startMeasurement() {
+    return readMeasurementRegister.startMeasurement();
+  }
+
+  @Override
+  public void collect() {
+    readMeasurementRegister.collect();
+  }
+
   @Override
   public DeviceType getType() {
     return DeviceType.SENSOR;
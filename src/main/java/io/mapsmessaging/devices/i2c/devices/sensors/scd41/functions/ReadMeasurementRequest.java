@@ -40,11 +40,11 @@ public class ReadMeasurementRequest extends Request {
   }
 
   @Override
-  public byte[] getResponse() {
+  public byte[] readResponse() {
     co2 = Integer.MIN_VALUE;
     temperature = Float.NaN;
     humidity = Float.NaN;
-    byte[] response = super.getResponse();
+    byte[] response = super.readResponse();
     if (generateCrc(response, 0) == response[2]) {
       co2 = (response[0] & 0xff) << 8 | (response[1] & 0xff);
     }
@@ -48,6 +48,22 @@ public abstract class Request {
     return sendAndWaitForResponse(command);
   }
 
+  /**
+   * Sends the command without waiting for its execution time, for callers that collect the response later
+   * with {@link #readResponse()}.
+   */
+  public void sendCommand() {
+    device.write(command);
+  }
+
+  public byte[] readResponse() {
+    byte[] response = new byte[responseLength];
+    if (responseLength > 0) {
+      device.read(response, 0, responseLength);
+    }
+    return response;
+  }
+
   protected void setValue(int val) {
     byte[] buf = new byte[5];
     buf[0] = getCommand()[0];
@@ -61,11 +77,7 @@ public abstract class Request {
   protected byte[] sendAndWaitForResponse(byte[] buf) {
     device.write(buf);
     if (msDelay > 0) pause();
-    byte[] response = new byte[responseLength];
-    if (responseLength > 0) {
-      device.read(response, 0, responseLength);
-    }
-    return response;
+    return readResponse();
   }
 
   protected int readValue() {
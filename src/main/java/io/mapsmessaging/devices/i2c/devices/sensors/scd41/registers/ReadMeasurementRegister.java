@@ -25,6 +25,7 @@ import io.mapsmessaging.devices.i2c.devices.sensors.scd41.functions.ReadMeasurem
 public class ReadMeasurementRegister extends RequestRegister {
 
   private long lastRead;
+  private boolean pending;
 
   public ReadMeasurementRegister(I2CDevice sensor) {
     super(sensor, "get measurement", new ReadMeasurementRequest(sensor.getDevice()));
@@ -40,6 +41,29 @@ public class ReadMeasurementRegister extends RequestRegister {
     return false;
   }
 
+  /**
+   * Sends the read measurement command if the sensor has produced a new sample since the last read.
+   *
+   * @return the time from which {@link #collect()} can read the response
+   */
+  public long startMeasurement() {
+    long now = System.currentTimeMillis();
+    if (lastRead < now) {
+      request.sendCommand();
+      pending = true;
+      return now + request.getMsDelay();
+    }
+    return now;
+  }
+
+  public void collect() {
+    if (pending) {
+      pending = false;
+      request.readResponse();
+      lastRead = System.currentTimeMillis() + 5000;
+    }
+  }
+
   public int getCo2() {
     hasData();
     return ((ReadMeasurementRequest) request).getCo2();
@@ -24,6 +24,7 @@ import io.mapsmessaging.devices.impl.AddressableDevice;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 public class Sen6xCommandHelper {
 
@@ -72,14 +73,25 @@ public class Sen6xCommandHelper {
   }
 
   public byte[] requestResponse(int command, int expectedResponseLength, int delayMillis) throws IOException {
+    startRequest(command);
+
+    // Delay if needed; typically 20ms for most read ops
+    delay(delayMillis);
+    return readResponse(expectedResponseLength);
+  }
+
+  /**
+   * Sends a read command without waiting, the response is fetched later with {@link #readResponse(int)}.
+   */
+  public void startRequest(int command) {
     byte[] commandBytes = new byte[] {
         (byte) ((command >> 8) & 0xFF),
         (byte) (command & 0xFF)
     };
     device.write(commandBytes);
+  }
 
-    // Delay if needed; typically 20ms for most read ops
-    delay(delayMillis);
+  public byte[] readResponse(int expectedResponseLength) throws IOException {
     byte[] response = new byte[expectedResponseLength];
     int read = device.read(response, 0, response.length);
     if (read < 0) {
@@ -130,10 +142,9 @@ public class Sen6xCommandHelper {
   }
 
   public void delay(int delayMs) {
+    // Sleep rather than wait on the device monitor, which would pin a virtual thread to its carrier
     try {
-      synchronized (device) {
-        device.wait(delayMs);
-      }
+      TimeUnit.MILLISECONDS.sleep(delayMs);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
     }
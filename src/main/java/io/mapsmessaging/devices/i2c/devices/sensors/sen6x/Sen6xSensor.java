@@ -22,6 +22,7 @@ import io.mapsmessaging.devices.DeviceType;
 import io.mapsmessaging.devices.deviceinterfaces.PowerManagement;
 import io.mapsmessaging.devices.deviceinterfaces.Resetable;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
+import io.mapsmessaging.devices.deviceinterfaces.SplitPhaseMeasurement;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.devices.sensors.sen6x.commands.*;
 import io.mapsmessaging.devices.impl.AddressableDevice;
@@ -36,7 +37,7 @@ import java.util.List;
 import java.util.Map;
 
 @Getter
-public abstract class Sen6xSensor extends I2CDevice implements Sensor, Resetable, PowerManagement {
+public abstract class Sen6xSensor extends I2CDevice implements Sensor, Resetable, PowerManagement, SplitPhaseMeasurement {
 
   private final Sen6xCommandHelper helper;
 
@@ -53,6 +54,7 @@ public abstract class Sen6xSensor extends I2CDevice implements Sensor, Resetable
   private final ClearDeviceStateCommand clearDeviceStateCommand;
   private final List<SensorReading<?>> readings;
   private final String productName;
+  private final Sen6xMeasurementManager measurementManager;
 
   protected Sen6xSensor(AddressableDevice device) {
     super(device, LoggerFactory.getLogger(Sen6xSensor.class));
@@ -104,7 +106,8 @@ public abstract class Sen6xSensor extends I2CDevice implements Sensor, Resetable
 
     groupSensorReading.getGroupList().addAll(buildStatusReadings(new Sen6xStatusSupplier(getDeviceStatusCommand)));
     tmp.add(groupSensorReading);
-    tmp.addAll(buildMeasurementReadingds(contructMeasurementManager(helper)));
+    measurementManager = contructMeasurementManager(helper);
+    tmp.addAll(buildMeasurementReadingds(measurementManager));
     readings = generateSensorReadings(tmp);
     initialise();
     try {
@@ -203,6 +206,16 @@ public abstract class Sen6xSensor extends I2CDevice implements Sensor, Resetable
     clearDeviceStateCommand.clear();
   }
 
+  @Override
+  public long startMeasurement() {
+    return measurementManager.startMeasurement();
+  }
+
+  @Override
+  public void collect() throws IOException {
+    measurementManager.collect();
+  }
+
   protected abstract Sen6xMeasurementManager contructMeasurementManager(Sen6xCommandHelper helper);
 
   protected List<SensorReading<?>> buildMeasurementReadingds(Sen6xMeasurementManager manager) {
@@ -22,15 +22,21 @@ import io.mapsmessaging.devices.i2c.devices.sensors.sen6x.Sen6xCommandHelper;
 import io.mapsmessaging.devices.i2c.devices.sensors.sen6x.data.MeasurementBlock;
 
 import java.io.IOException;
+import java.util.concurrent.locks.ReentrantLock;
 
 public abstract class Sen6xMeasurementManager {
 
+  private static final int READ_DELAY = 20;
+
   private final Sen6xCommandHelper helper;
   private final int commandId;
   private final int length;
+  // Requests sleep while holding it, so a lock rather than a monitor
+  private final ReentrantLock lock = new ReentrantLock();
   private long lastReadTime = 0;
   private MeasurementBlock cachedBlock;
   private GetDataReadyFlagCommand getReadyFlagCommand;
+  private boolean pending;
 
   protected Sen6xMeasurementManager(Sen6xCommandHelper helper, int commandId, int length) {
     this.helper = helper;
@@ -40,20 +46,65 @@ public abstract class Sen6xMeasurementManager {
     cachedBlock = new MeasurementBlock();
   }
 
-  public synchronized boolean hasLocked(){
-    return (System.currentTimeMillis() - 15000 ) > lastReadTime;
+  public boolean hasLocked(){
+    lock.lock();
+    try {
+      return (System.currentTimeMillis() - 15000 ) > lastReadTime;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public MeasurementBlock getMeasurementBlock() throws IOException {
+    lock.lock();
+    try {
+      if (getReadyFlagCommand.isReady()) {
+        long now = System.currentTimeMillis();
+        if (cachedBlock == null || now - lastReadTime > 1000) {
+          byte[] raw = helper.requestResponse(commandId, length);
+          cachedBlock = processResponse(raw);
+          lastReadTime = now;
+        }
+      }
+      return cachedBlock;
+    } finally {
+      lock.unlock();
+    }
   }
 
-  public synchronized MeasurementBlock getMeasurementBlock() throws IOException {
-    if (getReadyFlagCommand.isReady()) {
+  /**
+   * Sends the read command for the measurement block unless the cached block is still current. Unlike
+   * {@link #getMeasurementBlock()} this does not poll the data ready flag first, the sensor returns its
+   * latest values while measuring continuously.
+   *
+   * @return the time from which {@link #collect()} can read the response
+   */
+  public long startMeasurement() {
+    lock.lock();
+    try {
       long now = System.currentTimeMillis();
       if (cachedBlock == null || now - lastReadTime > 1000) {
-        byte[] raw = helper.requestResponse(commandId, length);
-        cachedBlock = processResponse(raw);
-        lastReadTime = now;
+        helper.startRequest(commandId);
+        pending = true;
+        return now + READ_DELAY;
+      }
+      return now;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void collect() throws IOException {
+    lock.lock();
+    try {
+      if (pending) {
+        pending = false;
+        cachedBlock = processResponse(helper.readResponse(length));
+        lastReadTime = System.currentTimeMillis();
       }
+    } finally {
+      lock.unlock();
     }
-    return cachedBlock;
   }
 
   protected abstract MeasurementBlock processResponse(byte[] data) throws IOException;
@@ -24,7 +24,6 @@ import io.mapsmessaging.devices.deviceinterfaces.PowerManagement;
 import io.mapsmessaging.devices.deviceinterfaces.Resetable;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
 import io.mapsmessaging.devices.i2c.I2CDevice;
-import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.i2c.devices.sensors.sht31.commands.*;
 import io.mapsmessaging.devices.impl.AddressableDevice;
 import io.mapsmessaging.devices.logging.DeviceLogMessage;
@@ -75,8 +74,11 @@ public class Sht31Sensor extends I2CDevice implements PowerManagement, Resetable
 
     readings = generateSensorReadings(List.of(temperature, humidity));
 
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    getBusLock().lock();
+    try {
       initialise();
+    } finally {
+      getBusLock().unlock();
     }
   }
 
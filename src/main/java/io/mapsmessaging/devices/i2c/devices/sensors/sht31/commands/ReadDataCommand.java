@@ -23,6 +23,8 @@ import io.mapsmessaging.devices.i2c.devices.sensors.sht31.Sht31Sensor;
 import io.mapsmessaging.devices.impl.AddressableDevice;
 import lombok.EqualsAndHashCode;
 
+import java.util.concurrent.locks.ReentrantLock;
+
 @EqualsAndHashCode(callSuper = true)
 public class ReadDataCommand extends Command {
   private float lastTemperature;
@@ -30,6 +32,9 @@ public class ReadDataCommand extends Command {
   private long lastReadTime = 0;
   private final int minimumReadIntervalMillis;
   private final int nextReadingIntervalMillis;
+  // The read delays while holding it, so a lock rather than a monitor
+  @EqualsAndHashCode.Exclude
+  private final ReentrantLock lock = new ReentrantLock();
 
   public ReadDataCommand(Repeatability repeatability, Mps mps) {
     super(0xE000, 0, 6);
@@ -41,21 +46,26 @@ public class ReadDataCommand extends Command {
     nextReadingIntervalMillis = mps.getIntervalMillis();
   }
 
-  public synchronized void read(Sht31Sensor sensor,  AddressableDevice device) {
-    long now = System.currentTimeMillis();
-    if ((now - lastReadTime) < nextReadingIntervalMillis) {
-      return;
-    }
+  public void read(Sht31Sensor sensor,  AddressableDevice device) {
+    lock.lock();
+    try {
+      long now = System.currentTimeMillis();
+      if ((now - lastReadTime) < nextReadingIntervalMillis) {
+        return;
+      }
 
-    byte[] response = sendCommand(sensor, device);
-    sensor.delay(minimumReadIntervalMillis);
+      byte[] response = sendCommand(sensor, device);
+      sensor.delay(minimumReadIntervalMillis);
 
-    int rawTemp = ((response[0] & 0xFF) << 8) | (response[1] & 0xFF);
-    int rawHumidity = ((response[3] & 0xFF) << 8) | (response[4] & 0xFF);
+      int rawTemp = ((response[0] & 0xFF) << 8) | (response[1] & 0xFF);
+      int rawHumidity = ((response[3] & 0xFF) << 8) | (response[4] & 0xFF);
 
-    lastTemperature = -45 + 175 * (rawTemp / 65535.0f);
-    lastHumidity = 100 * (rawHumidity / 65535.0f);
-    lastReadTime = now;
+      lastTemperature = -45 + 175 * (rawTemp / 65535.0f);
+      lastHumidity = 100 * (rawHumidity / 65535.0f);
+      lastReadTime = now;
+    } finally {
+      lock.unlock();
+    }
   }
 
   public float getTemperature() {
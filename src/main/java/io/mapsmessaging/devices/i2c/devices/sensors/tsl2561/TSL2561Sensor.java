@@ -23,7 +23,6 @@ import io.mapsmessaging.devices.DeviceType;
 import io.mapsmessaging.devices.deviceinterfaces.PowerManagement;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
 import io.mapsmessaging.devices.i2c.I2CDevice;
-import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
 import io.mapsmessaging.devices.i2c.devices.MultiByteRegister;
 import io.mapsmessaging.devices.i2c.devices.SingleByteRegister;
 import io.mapsmessaging.devices.i2c.devices.sensors.tsl2561.registers.*;
@@ -113,8 +112,11 @@ public class TSL2561Sensor extends I2CDevice implements PowerManagement, Sensor
 
     readings = generateSensorReadings(List.of(full, ir, lux));
 
-    synchronized (I2CDeviceScheduler.getI2cBusLock()) {
+    getBusLock().lock();
+    try {
       initialise();
+    } finally {
+      getBusLock().unlock();
     }
   }
 
@@ -25,6 +25,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.mapsmessaging.devices.DeviceType;
 import io.mapsmessaging.devices.i2c.I2CDevice;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.i2c.I2CPriority;
 import io.mapsmessaging.devices.i2c.devices.storage.at24c.data.AT24CnnCommand;
 import io.mapsmessaging.devices.i2c.devices.storage.at24c.data.AT24CnnResponse;
 import io.mapsmessaging.devices.i2c.devices.storage.at24c.data.Details;
@@ -44,6 +45,11 @@ public class AT24CnnController extends I2CDeviceController {
     sensor = null;
   }
 
+  @Override
+  public I2CPriority getPriority() {
+    return I2CPriority.BULK;
+  }
+
   @Override
   public String getName() {
     return "AT24C32/64";
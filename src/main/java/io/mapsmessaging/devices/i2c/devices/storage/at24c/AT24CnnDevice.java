@@ -70,12 +70,16 @@ public class AT24CnnDevice extends I2CDevice implements Storage {
   }
 
   @Override
-// Improved readBlock method for efficiency
+  // Reads page by page, letting higher priority devices use the bus between pages
   public byte[] readBlock(int address, int length) throws IOException {
     byte[] buffer = new byte[length];
     int offset = 0;
     while (offset < length) {
-      int len = Math.min(pageSize, (length - offset));
+      if (offset > 0) {
+        yieldBus();
+      }
+      int pageOffset = (address + offset) % pageSize;
+      int len = Math.min(pageSize - pageOffset, (length - offset));
       int read = readChunk(address + offset, buffer, offset, len);
       if (read > 0) {
         offset += len;
@@ -173,6 +177,9 @@ public class AT24CnnDevice extends I2CDevice implements Storage {
     int currentAddress = address;
 
     while (bytesToWrite > 0) {
+      if (currentOffset > 0) {
+        yieldBus();
+      }
       int pageOffset = currentAddress % pageSize;
       int bytesToEndOfPage = pageSize - pageOffset;
       int writeLength = Math.min(bytesToEndOfPage, bytesToWrite);
@@ -0,0 +1,72 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2cmock;
+
+import lombok.Getter;
+
+import java.util.SplittableRandom;
+
+/**
+ * Models how long a simulated transaction holds the bus: a fixed set-up cost, the time to clock each
+ * byte and an occasional clock stretch by the slave.
+ */
+@Getter
+public class BusTiming {
+
+  public static final BusTiming NONE = new BusTiming(0, 0, 0, 0);
+
+  private final long transactionNanos;
+  private final long byteNanos;
+  private final double stretchProbability;
+  private final long stretchNanos;
+
+  public BusTiming(long transactionNanos, long byteNanos, double stretchProbability, long stretchNanos) {
+    this.transactionNanos = transactionNanos;
+    this.byteNanos = byteNanos;
+    this.stretchProbability = stretchProbability;
+    this.stretchNanos = stretchNanos;
+  }
+
+  /**
+   * Standard mode (100 kHz) takes roughly 90us per byte once the ACK bit is included, with an address phase per transaction.
+   */
+  public static BusTiming standardMode() {
+    return new BusTiming(100_000, 90_000, 0, 0);
+  }
+
+  /**
+   * Fast mode (400 kHz).
+   */
+  public static BusTiming fastMode() {
+    return new BusTiming(25_000, 22_500, 0, 0);
+  }
+
+  public BusTiming withClockStretch(double probability, long nanos) {
+    return new BusTiming(transactionNanos, byteNanos, probability, nanos);
+  }
+
+  public long duration(int bytes, SplittableRandom random) {
+    long nanos = transactionNanos + bytes * byteNanos;
+    if (stretchProbability > 0 && random.nextDouble() < stretchProbability) {
+      nanos += stretchNanos;
+    }
+    return nanos;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2cmock;
+
+import java.util.SplittableRandom;
+
+/**
+ * Decides whether a simulated transaction fails. Faults are either random, at a fixed probability, or
+ * queued with {@link #failNext(int, Fault)} so a test can hit an exact transaction.
+ */
+public class FaultInjector {
+
+  public enum Fault {
+    NONE,
+    /** The slave did not acknowledge; the transfer returns -1 as the linux driver does. */
+    NACK,
+    /** The transfer raised an exception in the I/O provider. */
+    ERROR,
+    /** The slave stopped early; a block read returns half the requested bytes, other transfers are unaffected. */
+    SHORT
+  }
+
+  private double nackProbability;
+  private double errorProbability;
+  private int queuedSkip;
+  private int queuedCount;
+  private Fault queuedFault = Fault.NONE;
+
+  public synchronized FaultInjector setNackProbability(double probability) {
+    nackProbability = probability;
+    return this;
+  }
+
+  public synchronized FaultInjector setErrorProbability(double probability) {
+    errorProbability = probability;
+    return this;
+  }
+
+  public synchronized FaultInjector failNext(int count, Fault fault) {
+    return failAfter(0, count, fault);
+  }
+
+  /**
+   * Lets the next {@code skip} transactions through, then fails the {@code count} after them.
+   */
+  public synchronized FaultInjector failAfter(int skip, int count, Fault fault) {
+    queuedSkip = skip;
+    queuedCount = count;
+    queuedFault = fault;
+    return this;
+  }
+
+  public synchronized void clear() {
+    nackProbability = 0;
+    errorProbability = 0;
+    queuedSkip = 0;
+    queuedCount = 0;
+    queuedFault = Fault.NONE;
+  }
+
+  public synchronized Fault next(SplittableRandom random) {
+    if (queuedSkip > 0) {
+      queuedSkip--;
+    } else if (queuedCount > 0) {
+      queuedCount--;
+      return queuedFault;
+    }
+    if (nackProbability > 0 || errorProbability > 0) {
+      double roll = random.nextDouble();
+      if (roll < errorProbability) {
+        return Fault.ERROR;
+      }
+      if (roll < errorProbability + nackProbability) {
+        return Fault.NACK;
+      }
+    }
+    return Fault.NONE;
+  }
+}
@@ -22,60 +22,218 @@ package io.mapsmessaging.devices.i2cmock;
 import io.mapsmessaging.devices.i2c.I2CBusManager;
 import io.mapsmessaging.devices.i2c.I2CDeviceController;
 import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
-import io.mapsmessaging.devices.i2c.devices.demo.I2cDemoController;
-import io.mapsmessaging.devices.impl.I2CDeviceImpl;
+import io.mapsmessaging.devices.impl.AddressableDevice;
 import io.mapsmessaging.devices.impl.I2CMockDeviceImpl;
 import io.mapsmessaging.devices.logging.DeviceLogMessage;
+import io.mapsmessaging.devices.registry.DriverIndex;
+import io.mapsmessaging.devices.replay.ReplayAddressableDevice;
+import io.mapsmessaging.devices.replay.TraceReplay;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.ServiceLoader;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Bus manager backed by {@link I2CMockDeviceImpl} simulators. The demo devices are mounted on their
+ * default addresses as before; in addition any production driver can be placed on an address with
+ * {@link #simulate(int, String)}, the returned simulator scripted, and the driver mounted by the next scan.
+ * Recorded traffic can be placed on an address the same way with {@link #replay(int, int, String, TraceReplay)}.
+ */
 public class I2CMockBusManager extends I2CBusManager {
 
+  private final Map<Integer, Simulation> simulations;
 
   public I2CMockBusManager(int bus) {
     super(bus);
-    ServiceLoader<I2CDeviceController> deviceEntries = ServiceLoader.load(I2CDeviceController.class);
-
-    for (I2CDeviceController device : deviceEntries) {
-      if(device instanceof I2cDemoController) {
-        knownDevices.put(device.getName(), device);
-        logger.log(DeviceLogMessage.I2C_BUS_LOADED_DEVICE, device.getName());
-        int[] addressRange = device.getAddressRange();
-        for (int i : addressRange) {
-          logger.log(DeviceLogMessage.I2C_BUS_ALLOCATING_ADDRESS, "0x" + Integer.toHexString(i), device.getName());
-          mappedDevices.computeIfAbsent(i, k -> new ArrayList<>()).add(device);
+    simulations = new ConcurrentHashMap<>();
+    for (DriverIndex.Entry entry : knownDevices.getEntries()) {
+      logger.log(DeviceLogMessage.I2C_BUS_LOADED_DEVICE, entry.name());
+      if (entry.demo()) {
+        for (int i : entry.addresses()) {
+          logger.log(DeviceLogMessage.I2C_BUS_ALLOCATING_ADDRESS, "0x" + Integer.toHexString(i), entry.name());
+          mappedDevices.computeIfAbsent(i, k -> new ArrayList<>()).add(entry);
         }
       }
     }
 
   }
 
+  /**
+   * Places a simulated device running the named driver at the address. The returned simulator can be
+   * scripted before the device is mounted by {@link #scanForDevices(long)} or {@link #configureDevice(int, String)}.
+   *
+   * @param address the I2C address of the simulated device
+   * @param deviceName the name of a driver loaded by the bus manager
+   * @return the simulator backing the address
+   * @throws IOException if no driver with that name is known
+   */
+  public I2CMockDeviceImpl simulate(int address, String deviceName) throws IOException {
+    Simulation simulation = simulations.get(address);
+    I2CMockDeviceImpl device = simulation != null && simulation.device instanceof I2CMockDeviceImpl mock
+        ? mock
+        : new I2CMockDeviceImpl(i2cBus, address);
+    place(address, deviceName, device);
+    return device;
+  }
+
+  /**
+   * Places a device that plays back the traffic recorded at the same address on this bus, running the named driver.
+   *
+   * @see #replay(int, int, String, TraceReplay)
+   */
+  public ReplayAddressableDevice replay(int address, String deviceName, TraceReplay replay) throws IOException {
+    return replay(i2cBus, address, deviceName, replay);
+  }
+
+  /**
+   * Places a device that plays back the traffic recorded at the address on another bus, usually a real one,
+   * running the named driver. The driver is mounted without detection, since recordings start when the device
+   * is mounted.
+   *
+   * @param recordedBus the bus the traffic was recorded on
+   * @param address the I2C address of the recorded device
+   * @param deviceName the name of the driver that was recorded
+   * @param replay the recording to play back
+   * @return the replay device, which reports how much of the recording has been used
+   * @throws IOException if no driver with that name is known
+   */
+  public ReplayAddressableDevice replay(int recordedBus, int address, String deviceName, TraceReplay replay) throws IOException {
+    ReplayAddressableDevice device = replay.device(recordedBus, address, i2cBus);
+    place(address, deviceName, device);
+    return device;
+  }
+
+  public I2CMockDeviceImpl getSimulator(int address) {
+    Simulation simulation = simulations.get(address);
+    return simulation != null && simulation.device instanceof I2CMockDeviceImpl mock ? mock : null;
+  }
+
+  private void place(int address, String deviceName, AddressableDevice device) throws IOException {
+    if (!knownDevices.contains(deviceName)) {
+      logger.log(DeviceLogMessage.I2C_BUS_DEVICE_NOT_FOUND, deviceName);
+      throw new IOException("No driver named " + deviceName);
+    }
+    simulations.put(address, new Simulation(device, deviceName));
+    List<DriverIndex.Entry> candidates = mappedDevices.computeIfAbsent(address, k -> new ArrayList<>());
+    DriverIndex.Entry entry = knownDevices.getEntry(deviceName);
+    if (!candidates.contains(entry)) {
+      candidates.add(entry);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public I2CDeviceController configureDevices(Map<String, Object> configuration) throws IOException {
+    for (Map.Entry<String, Object> entry : configuration.entrySet()) {
+      int i2cAddress = Integer.parseInt(entry.getKey());
+      Map<String, Object> deviceConfig = (Map<String, Object>) entry.getValue();
+      String deviceName = (String) deviceConfig.get("deviceName");
+      I2CDeviceController deviceEntry = knownDevices.get(deviceName);
+      if (deviceEntry != null) {
+        logger.log(DeviceLogMessage.I2C_BUS_CONFIGURING_DEVICE, deviceEntry.getName(), i2cAddress);
+        Simulation simulation = simulations.get(i2cAddress);
+        AddressableDevice simulator = simulation != null && deviceName.equals(simulation.deviceName)
+            ? simulation.device
+            : simulate(i2cAddress, deviceName);
+        return mount(i2cAddress, deviceEntry, simulator);
+      } else {
+        logger.log(DeviceLogMessage.I2C_BUS_DEVICE_NOT_FOUND, deviceName);
+      }
+    }
+    return null;
+  }
+
   @Override
   public void scanForDevices(long pollDelay) throws InterruptedException {
     if (!active) return;
     List<Integer> foundDevices = new ArrayList<>(mappedDevices.keySet());
     for (Integer addr : foundDevices) {
-      List<I2CDeviceController> devices = mappedDevices.get(addr);
-      if (devices != null && !devices.isEmpty()) {
-        try {
-          processDeviceList(addr, devices.get(0));
-        } catch (IOException e) {
-          // Ignore this
+      if (!simulations.containsKey(addr)) {
+        List<I2CDeviceController> devices = getCandidates(addr);
+        if (!devices.isEmpty()) {
+          processDeviceList(addr, devices);
         }
       }
     }
+    for (Map.Entry<Integer, Simulation> entry : simulations.entrySet()) {
+      if (!activeDevices.containsKey(Integer.toHexString(entry.getKey()))) {
+        mountSimulation(entry.getKey(), entry.getValue());
+      }
+    }
   }
 
-  private void processDeviceList(int addr, I2CDeviceController deviceEntry) throws IOException {
-    I2CDeviceImpl i2CDevice = new I2CMockDeviceImpl(i2cBus, addr);
-    I2CDeviceController device = deviceEntry.mount(i2CDevice);
-    I2CDeviceController controller = new I2CDeviceScheduler(device);
+  @Override
+  protected boolean probeAddress(int addr) {
+    Simulation simulation = simulations.get(addr);
+    if (simulation == null) {
+      return mappedDevices.containsKey(addr);
+    }
+    if (!(simulation.device instanceof I2CMockDeviceImpl)) {
+      // Probing a replay would consume recorded traffic
+      return true;
+    }
+    try {
+      busLock.lock();
+      try {
+        return simulation.device.read(new byte[1], 0, 1) == 1;
+      } finally {
+        busLock.unlock();
+      }
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  @Override
+  protected void processDeviceList(int addr, List<I2CDeviceController> devices) {
+    Simulation simulation = simulations.get(addr);
+    if (simulation != null) {
+      mountSimulation(addr, simulation);
+      return;
+    }
+    try {
+      mount(addr, devices.get(0), new I2CMockDeviceImpl(i2cBus, addr));
+    } catch (IOException e) {
+      // Ignore this
+    }
+  }
+
+  @Override
+  protected I2CDeviceController mountDevice(int addr, I2CDeviceController deviceEntry) throws IOException {
+    Simulation simulation = simulations.get(addr);
+    AddressableDevice device = simulation != null ? simulation.device : new I2CMockDeviceImpl(i2cBus, addr);
+    return mount(addr, deviceEntry, device);
+  }
+
+  private void mountSimulation(int addr, Simulation simulation) {
+    I2CDeviceController deviceEntry = knownDevices.get(simulation.deviceName);
+    boolean detect = deviceEntry.canDetect() && simulation.device instanceof I2CMockDeviceImpl;
+    if (!detect || deviceEntry.detect(simulation.device)) {
+      try {
+        mount(addr, deviceEntry, simulation.device);
+      } catch (IOException e) {
+        // The scripted device failed to initialise, leave it unmounted
+      }
+    }
+  }
+
+  private I2CDeviceController mount(int addr, I2CDeviceController deviceEntry, AddressableDevice i2CDevice) throws IOException {
+    I2CDeviceController device = deviceEntry.mount(record(i2CDevice));
+    I2CDeviceController controller = new I2CDeviceScheduler(device, i2cBus, healthMonitor);
+    healthMonitor.register(addr, device.getName());
     activeDevices.put(Integer.toHexString(addr), controller);
+    return controller;
   }
 
+  private static final class Simulation {
+    private final AddressableDevice device;
+    private final String deviceName;
 
+    private Simulation(AddressableDevice device, String deviceName) {
+      this.device = device;
+      this.deviceName = deviceName;
+    }
+  }
 }
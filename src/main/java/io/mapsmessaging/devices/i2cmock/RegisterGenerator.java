@@ -0,0 +1,35 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2cmock;
+
+/**
+ * Produces the contents of a block of simulated registers just before the bus master reads them.
+ */
+@FunctionalInterface
+public interface RegisterGenerator {
+
+  /**
+   * @param sample the number of times this generator has been triggered, starting at 0
+   * @param registers the register file, to be updated in place
+   * @param offset the first register covered by the generator
+   * @param length the number of registers covered by the generator
+   */
+  void generate(long sample, byte[] registers, int offset, int length);
+}
@@ -0,0 +1,69 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2cmock;
+
+import java.util.SplittableRandom;
+
+/**
+ * Stock generators for scripting simulated devices. Values are written as unsigned integers across
+ * the bound register block in the requested byte order.
+ */
+public class RegisterGenerators {
+
+  private RegisterGenerators() {
+  }
+
+  public static RegisterGenerator constant(long value, boolean bigEndian) {
+    return (sample, registers, offset, length) -> put(value, registers, offset, length, bigEndian);
+  }
+
+  public static RegisterGenerator sequence(boolean bigEndian, long... values) {
+    long[] copy = values.clone();
+    return (sample, registers, offset, length) ->
+        put(copy[(int) (sample % copy.length)], registers, offset, length, bigEndian);
+  }
+
+  public static RegisterGenerator counter(long start, long step, boolean bigEndian) {
+    return (sample, registers, offset, length) -> put(start + sample * step, registers, offset, length, bigEndian);
+  }
+
+  /**
+   * Generates {@code (mean + amplitude * sin(2 * PI * sample / period)) * scale}, which lets a driver's
+   * conversion be exercised with engineering units, for example 1013.25 hPa with a scale of 4096.
+   */
+  public static RegisterGenerator sine(double mean, double amplitude, int period, double scale, boolean bigEndian) {
+    return (sample, registers, offset, length) -> {
+      double value = mean + amplitude * Math.sin(2 * Math.PI * (sample % period) / period);
+      put(Math.round(value * scale), registers, offset, length, bigEndian);
+    };
+  }
+
+  public static RegisterGenerator random(long seed, long min, long max, boolean bigEndian) {
+    SplittableRandom random = new SplittableRandom(seed);
+    return (sample, registers, offset, length) -> put(random.nextLong(min, max + 1), registers, offset, length, bigEndian);
+  }
+
+  static void put(long value, byte[] registers, int offset, int length, boolean bigEndian) {
+    for (int i = 0; i < length; i++) {
+      int shift = bigEndian ? (length - 1 - i) * 8 : i * 8;
+      registers[(offset + i) & 0xFF] = (byte) (value >>> shift);
+    }
+  }
+}
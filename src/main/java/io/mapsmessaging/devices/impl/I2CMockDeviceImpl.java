@@ -19,15 +19,164 @@
 
 package io.mapsmessaging.devices.impl;
 
+import com.pi4j.exception.Pi4JException;
+import io.mapsmessaging.devices.i2cmock.BusTiming;
+import io.mapsmessaging.devices.i2cmock.FaultInjector;
+import io.mapsmessaging.devices.i2cmock.RegisterGenerator;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Register level I2C slave simulator. Each instance holds a 256 byte register file addressed through a
+ * register pointer that is set by the first byte of a write and auto-increments across burst transfers.
+ * Blocks of registers can be bound to {@link RegisterGenerator}s that refresh them before every read,
+ * transfers take the time described by the {@link BusTiming} and the {@link FaultInjector} can make any
+ * transfer NACK or fail. With no script the registers read as zero, as the previous no-op mock did.
+ */
 public class I2CMockDeviceImpl extends I2CDeviceImpl {
 
+  private static final int REGISTER_COUNT = 256;
+
   private final int bus;
   private final int address;
+  private final byte[] registers;
+  private final List<Binding> bindings;
+  private final SplittableRandom random;
+  // Held for the whole transfer, including its simulated bus time, a lock rather than a monitor so a virtual thread
+  // stalling on the bus is not pinned
+  private final ReentrantLock lock;
+
+  @Getter
+  private final FaultInjector faults;
+  private final AtomicLong transactions;
+  private final AtomicLong writes;
+  private final AtomicLong busyNanos;
+
+  private volatile BusTiming timing;
+  private int registerMask;
+  private boolean autoIncrement;
+  private int pointer;
 
   public I2CMockDeviceImpl(int bus, int address) {
+    this(bus, address, address);
+  }
+
+  public I2CMockDeviceImpl(int bus, int address, long seed) {
     super(null);
     this.bus = bus;
     this.address = address;
+    registers = new byte[REGISTER_COUNT];
+    bindings = new ArrayList<>();
+    random = new SplittableRandom(seed);
+    lock = new ReentrantLock();
+    faults = new FaultInjector();
+    transactions = new AtomicLong();
+    writes = new AtomicLong();
+    busyNanos = new AtomicLong();
+    timing = BusTiming.NONE;
+    registerMask = 0xFF;
+    autoIncrement = true;
+  }
+
+  /**
+   * Masks register addresses before they are used, for example 0x7F for ST parts that use bit 7 of the
+   * register address to request auto-increment.
+   */
+  public I2CMockDeviceImpl setRegisterMask(int mask) {
+    lock.lock();
+    try {
+      registerMask = mask & 0xFF;
+      return this;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public I2CMockDeviceImpl setAutoIncrement(boolean autoIncrement) {
+    lock.lock();
+    try {
+      this.autoIncrement = autoIncrement;
+      return this;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public I2CMockDeviceImpl setTiming(BusTiming timing) {
+    this.timing = timing;
+    return this;
+  }
+
+  public BusTiming getTiming() {
+    return timing;
+  }
+
+  public I2CMockDeviceImpl setRegister(int register, int value) {
+    lock.lock();
+    try {
+      registers[register & registerMask] = (byte) value;
+      return this;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public I2CMockDeviceImpl setRegisters(int register, byte... values) {
+    lock.lock();
+    try {
+      for (int i = 0; i < values.length; i++) {
+        registers[(register + i) & registerMask] = values[i];
+      }
+      return this;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getRegister(int register) {
+    lock.lock();
+    try {
+      return registers[register & registerMask] & 0xFF;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Binds a generator to a block of registers. Any read that overlaps the block runs the generator first.
+   */
+  public I2CMockDeviceImpl bind(int register, int length, RegisterGenerator generator) {
+    lock.lock();
+    try {
+      bindings.add(new Binding(register & registerMask, length, generator));
+      return this;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long getTransactionCount() {
+    return transactions.get();
+  }
+
+  /**
+   * @return the number of transfers that wrote register data
+   */
+  public long getWriteCount() {
+    return writes.get();
+  }
+
+  /**
+   * @return the simulated time, in nanoseconds, that transfers have held the bus
+   */
+  public long getBusyNanos() {
+    return busyNanos.get();
   }
 
   @Override
@@ -40,43 +189,192 @@ public class I2CMockDeviceImpl extends I2CDeviceImpl {
     return bus;
   }
 
+  @Override
+  public int getDevice() {
+    return address;
+  }
+
   @Override
   public int write(int val) {
-    return 0;
+    lock.lock();
+    try {
+      if (begin(1) == FaultInjector.Fault.NACK) {
+        return -1;
+      }
+      pointer = val & registerMask;
+      return 1;
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
   public int write(byte[] buffer, int offset, int length) {
-    return 0;
+    lock.lock();
+    try {
+      if (begin(length) == FaultInjector.Fault.NACK) {
+        return -1;
+      }
+      if (length > 0) {
+        pointer = buffer[offset] & registerMask;
+        if (length > 1) {
+          writes.incrementAndGet();
+        }
+        store(buffer, offset + 1, length - 1);
+      }
+      return length;
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
   public int writeRegister(int register, byte[] data) {
-    return 0;
+    lock.lock();
+    try {
+      if (begin(data.length + 1) == FaultInjector.Fault.NACK) {
+        return -1;
+      }
+      pointer = register & registerMask;
+      writes.incrementAndGet();
+      store(data, 0, data.length);
+      return data.length;
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
   public int read(byte[] buffer, int offset, int length) {
-    return 0;
+    lock.lock();
+    try {
+      FaultInjector.Fault fault = begin(length);
+      if (fault == FaultInjector.Fault.NACK) {
+        return -1;
+      }
+      int count = fault == FaultInjector.Fault.SHORT ? length / 2 : length;
+      load(buffer, offset, count);
+      return count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int read() {
+    lock.lock();
+    try {
+      if (begin(1) == FaultInjector.Fault.NACK) {
+        return -1;
+      }
+      byte[] value = new byte[1];
+      load(value, 0, 1);
+      return value[0] & 0xFF;
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
   public int readRegister(int register) {
-    return 0;
+    lock.lock();
+    try {
+      if (begin(2) == FaultInjector.Fault.NACK) {
+        return -1;
+      }
+      pointer = register & registerMask;
+      byte[] value = new byte[1];
+      load(value, 0, 1);
+      return value[0] & 0xFF;
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
   public int readRegister(int register, byte[] buffer, int offset, int length) {
-    return 0;
+    lock.lock();
+    try {
+      FaultInjector.Fault fault = begin(length + 1);
+      if (fault == FaultInjector.Fault.NACK) {
+        return -1;
+      }
+      pointer = register & registerMask;
+      int count = fault == FaultInjector.Fault.SHORT ? length / 2 : length;
+      load(buffer, offset, count);
+      return count;
+    } finally {
+      lock.unlock();
+    }
   }
 
-  @Override
-  public int getDevice() {
-    return address;
+  private FaultInjector.Fault begin(int bytes) {
+    transactions.incrementAndGet();
+    FaultInjector.Fault fault = faults.next(random);
+    if (fault == FaultInjector.Fault.ERROR) {
+      throw new Pi4JException("Simulated bus error on device 0x" + Integer.toHexString(address));
+    }
+    // A NACK on the address phase releases the bus immediately
+    stall(timing.duration(fault == FaultInjector.Fault.NACK ? 0 : bytes, random));
+    return fault;
   }
 
-  @Override
-  public int read() {
-    return 0;
+  private void stall(long nanos) {
+    if (nanos <= 0) {
+      return;
+    }
+    busyNanos.addAndGet(nanos);
+    long deadline = System.nanoTime() + nanos;
+    long remaining = nanos;
+    while (remaining > 0) {
+      LockSupport.parkNanos(remaining);
+      remaining = deadline - System.nanoTime();
+    }
+  }
+
+  private void store(byte[] data, int offset, int length) {
+    for (int i = 0; i < length; i++) {
+      registers[pointer] = data[offset + i];
+      advance();
+    }
+  }
+
+  private void load(byte[] buffer, int offset, int length) {
+    refresh(pointer, autoIncrement ? length : 1);
+    for (int i = 0; i < length; i++) {
+      buffer[offset + i] = registers[pointer];
+      advance();
+    }
+  }
+
+  private void advance() {
+    if (autoIncrement) {
+      pointer = (pointer + 1) & registerMask;
+    }
+  }
+
+  private void refresh(int start, int length) {
+    for (Binding binding : bindings) {
+      if (binding.overlaps(start, length)) {
+        binding.generator.generate(binding.samples++, registers, binding.register, binding.length);
+      }
+    }
+  }
+
+  private static final class Binding {
+    private final int register;
+    private final int length;
+    private final RegisterGenerator generator;
+    private long samples;
+
+    private Binding(int register, int length, RegisterGenerator generator) {
+      this.register = register;
+      this.length = length;
+      this.generator = generator;
+    }
+
+    private boolean overlaps(int start, int count) {
+      return start < register + length && register < start + count;
+    }
   }
 }
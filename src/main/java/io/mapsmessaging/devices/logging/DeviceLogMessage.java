@@ -31,6 +31,9 @@ public enum DeviceLogMessage implements LogMessage {
   BUS_MANAGER_STARTUP(LEVEL.WARN, BUS.MANAGER, "Bus Manager starting up"),
   BUS_MANAGER_CONFIGURE_DEVICES(LEVEL.DEBUG, BUS.MANAGER, "Configure devices called"),
   BUS_MANAGER_PROVIDER(LEVEL.WARN, BUS.MANAGER, "Using GPIO Provider {} from PiGPIO"),
+  BUS_MANAGER_BUS_READY(LEVEL.DEBUG, BUS.MANAGER, "{} ready after {}ms"),
+  BUS_MANAGER_BUS_FAILED(LEVEL.ERROR, BUS.MANAGER, "{} failed to start: {}"),
+  BUS_MANAGER_THREADS(LEVEL.WARN, BUS.MANAGER, "Device threads running in {} mode, virtual threads supported:{}"),
   BUS_MANAGER_SHUTDOWN(LEVEL.WARN, BUS.MANAGER, "Bus Manager shutting down"),
   //</editor-fold>
 
@@ -43,6 +46,8 @@ public enum DeviceLogMessage implements LogMessage {
   I2C_BUS_MANAGER_SHUTDOWN(LEVEL.WARN, BUS.I2C, "I2C Bus Manager shutting down"),
   I2C_BUS_SCAN(LEVEL.WARN, BUS.I2C, "I2C Detect : {}"),
   I2C_BUS_SCAN_MULTIPLE_DEVICES(LEVEL.WARN, BUS.I2C, "Unable to detect which device has been found, needs to be configured {}"),
+  I2C_BUS_DEVICE_QUARANTINED(LEVEL.WARN, BUS.I2C, "Quarantining {} on Bus: {} Address: {} after {} consecutive failures"),
+  I2C_BUS_DEVICE_REMOUNTED(LEVEL.WARN, BUS.I2C, "Remounted {} on Bus: {} Address: {}"),
   //</editor-fold>
 
   //<editor-fold desc="Bus Device messages">
@@ -66,6 +71,17 @@ public enum DeviceLogMessage implements LogMessage {
   SPI_BUS_MANAGER_SHUTDOWN(LEVEL.WARN, BUS.MANAGER, "SPI Bus Manager shutting down"),
   //</editor-fold>
 
+  //<editor-fold desc="Sampling messages">
+  SAMPLING_STARTED(LEVEL.WARN, BUS.MANAGER, "Device sampling started with {} threads, default interval {}ms"),
+  SAMPLING_DEVICE_FAILED(LEVEL.DEBUG, BUS.MANAGER, "Sampling {} failed, {} consecutive failures, reason {}"),
+  SAMPLING_AGGREGATOR_FAILED(LEVEL.WARN, BUS.MANAGER, "Windowed aggregation of {} failed, reason {}"),
+  //</editor-fold>
+
+  //<editor-fold desc="Traffic recording messages">
+  TRACE_RECORDING_STARTED(LEVEL.WARN, BUS.MANAGER, "Recording bus traffic to {}"),
+  TRACE_RECORDING_FAILED(LEVEL.WARN, BUS.MANAGER, "Bus traffic recording stopped, reason {}"),
+  //</editor-fold>
+
   //<editor-fold desc="1-Wire Bus Manager messages">
   ONE_WIRE_BUS_MANAGER_STARTUP(LEVEL.WARN, BUS.MANAGER, "1-Wire Bus Manager starting up, scanning {}"),
 
@@ -21,13 +21,13 @@ package io.mapsmessaging.devices.onewire;
 
 import io.mapsmessaging.devices.DeviceController;
 import io.mapsmessaging.devices.logging.DeviceLogMessage;
+import io.mapsmessaging.devices.registry.DriverIndex;
+import io.mapsmessaging.devices.registry.DriverRegistry;
 import io.mapsmessaging.logging.Logger;
 import io.mapsmessaging.logging.LoggerFactory;
 
 import java.io.File;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("java:S1075") // this is fixed for 1 wire devices
@@ -36,7 +36,7 @@ public class OneWireBusManager {
 
   private final Logger logger = LoggerFactory.getLogger(OneWireBusManager.class);
 
-  private final Map<String, OneWireDeviceController> knownDevices;
+  private final DriverRegistry<OneWireDeviceController> knownDevices;
   private final Map<String, DeviceController> activeDevices;
 
   private final File rootDirectory;
@@ -44,14 +44,10 @@ public class OneWireBusManager {
   public OneWireBusManager() {
     logger.log(DeviceLogMessage.ONE_WIRE_BUS_MANAGER_STARTUP, ONE_WIRE_ROOT_PATH);
 
-    knownDevices = new LinkedHashMap<>();
+    knownDevices = DriverRegistry.forService(OneWireDeviceController.class);
     activeDevices = new ConcurrentHashMap<>();
     rootDirectory = new File(ONE_WIRE_ROOT_PATH);
     if (rootDirectory.exists()) {
-      ServiceLoader<OneWireDeviceController> deviceEntries = ServiceLoader.load(OneWireDeviceController.class);
-      for (OneWireDeviceController device : deviceEntries) {
-        knownDevices.put(device.getId(), device);
-      }
       scan();
     }
   }
@@ -68,12 +64,12 @@ public class OneWireBusManager {
     File[] files = rootDirectory.listFiles();
     if (files == null) return;
     for (File device : files) {
-      for (Map.Entry<String, OneWireDeviceController> entry : knownDevices.entrySet()) {
-        if (device.getName().startsWith(entry.getKey())) {
+      for (DriverIndex.Entry entry : knownDevices.getEntries()) {
+        if (device.getName().startsWith(entry.name())) {
           File data = new File(device, "w1_slave");
-          if (data.exists()) {
-            String path = device.getName();
-            activeDevices.computeIfAbsent(path, s -> entry.getValue().mount(data));
+          OneWireDeviceController controller = data.exists() ? knownDevices.get(entry) : null;
+          if (controller != null) {
+            activeDevices.computeIfAbsent(device.getName(), s -> controller.mount(data));
           }
         }
       }
@@ -0,0 +1,64 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.registry;
+
+import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.onewire.OneWireDeviceController;
+import io.mapsmessaging.devices.serial.SerialDeviceController;
+import io.mapsmessaging.devices.spi.SpiDeviceController;
+import lombok.Getter;
+
+/**
+ * The buses drivers are registered for, each with the service interface its drivers implement.
+ */
+@Getter
+public enum DriverBus {
+  I2C("i2c", I2CDeviceController.class),
+  SPI("spi", SpiDeviceController.class),
+  SERIAL("serial", SerialDeviceController.class),
+  ONE_WIRE("onewire", OneWireDeviceController.class);
+
+  private final String id;
+  private final Class<? extends DeviceController> service;
+
+  DriverBus(String id, Class<? extends DeviceController> service) {
+    this.id = id;
+    this.service = service;
+  }
+
+  public static DriverBus fromId(String id) {
+    for (DriverBus bus : values()) {
+      if (bus.id.equals(id)) {
+        return bus;
+      }
+    }
+    return null;
+  }
+
+  public static DriverBus forService(Class<?> service) {
+    for (DriverBus bus : values()) {
+      if (bus.service == service) {
+        return bus;
+      }
+    }
+    throw new IllegalArgumentException("No bus uses " + service.getName());
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.registry;
+
+import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.i2c.devices.demo.I2cDemoController;
+import io.mapsmessaging.devices.onewire.OneWireDeviceController;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The build-time index of every driver: its bus, the name it is configured by, its provider class and,
+ * for I2C, the addresses it can live at. The index is generated by {@link DriverIndexGenerator} when the
+ * library is built, so the bus managers can match addresses and configuration without loading a driver.
+ * <p>
+ * Each line of {@value #RESOURCE} is tab separated: bus, name, provider class, hex addresses or "-", and flags or "-".
+ */
+public final class DriverIndex {
+
+  public static final String RESOURCE = "META-INF/devices/drivers.idx";
+
+  private static final String NONE = "-";
+  private static final String DEMO = "demo";
+
+  /**
+   * A single driver. The name is the 1-Wire family id for 1-Wire drivers and the driver name otherwise.
+   */
+  public record Entry(DriverBus bus, String name, String provider, int[] addresses, boolean demo) {
+
+    String toLine() {
+      StringJoiner joiner = new StringJoiner(",");
+      for (int address : addresses) {
+        joiner.add("0x" + Integer.toHexString(address));
+      }
+      String addressList = addresses.length == 0 ? NONE : joiner.toString();
+      return bus.getId() + "\t" + name + "\t" + provider + "\t" + addressList + "\t" + (demo ? DEMO : NONE);
+    }
+  }
+
+  private static DriverIndex instance;
+
+  private final List<Entry> entries;
+
+  DriverIndex(List<Entry> entries) {
+    this.entries = entries;
+  }
+
+  /**
+   * @return the entries of every index on the class path, read once
+   */
+  public static synchronized DriverIndex getInstance() {
+    if (instance == null) {
+      instance = load(DriverIndex.class.getClassLoader());
+    }
+    return instance;
+  }
+
+  static DriverIndex load(ClassLoader classLoader) {
+    List<Entry> entries = new ArrayList<>();
+    try {
+      Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+      while (resources.hasMoreElements()) {
+        try (InputStream in = resources.nextElement().openStream()) {
+          entries.addAll(read(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        }
+      }
+    } catch (IOException e) {
+      // Without an index every driver is described by loading it
+    }
+    return new DriverIndex(entries);
+  }
+
+  public List<Entry> getEntries(DriverBus bus) {
+    List<Entry> list = new ArrayList<>();
+    for (Entry entry : entries) {
+      if (entry.bus() == bus) {
+        list.add(entry);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * Describes a loaded driver the way the index does, used at build time and for drivers missing from the index.
+   */
+  public static Entry describe(DriverBus bus, DeviceController controller) {
+    String name = controller instanceof OneWireDeviceController oneWire ? oneWire.getId() : controller.getName();
+    int[] addresses = controller instanceof I2CDeviceController i2c ? i2c.getAddressRange() : new int[0];
+    return new Entry(bus, name, controller.getClass().getName(), addresses, controller instanceof I2cDemoController);
+  }
+
+  static List<Entry> read(Reader reader) throws IOException {
+    List<Entry> list = new ArrayList<>();
+    BufferedReader bufferedReader = new BufferedReader(reader);
+    String line;
+    while ((line = bufferedReader.readLine()) != null) {
+      Entry entry = parse(line.trim());
+      if (entry != null) {
+        list.add(entry);
+      }
+    }
+    return list;
+  }
+
+  static void write(Writer writer, List<Entry> entries) throws IOException {
+    writer.write("# Generated by " + DriverIndexGenerator.class.getName() + ", do not edit\n");
+    for (Entry entry : entries) {
+      writer.write(entry.toLine());
+      writer.write('\n');
+    }
+  }
+
+  private static Entry parse(String line) {
+    if (line.isEmpty() || line.startsWith("#")) {
+      return null;
+    }
+    String[] fields = line.split("\t");
+    DriverBus bus = fields.length == 5 ? DriverBus.fromId(fields[0]) : null;
+    if (bus == null) {
+      return null;
+    }
+    int[] addresses = new int[0];
+    if (!fields[3].equals(NONE)) {
+      String[] list = fields[3].split(",");
+      addresses = new int[list.length];
+      for (int i = 0; i < list.length; i++) {
+        addresses[i] = Integer.decode(list[i]);
+      }
+    }
+    return new Entry(bus, fields[1], fields[2], addresses, fields[4].equals(DEMO));
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.registry;
+
+import io.mapsmessaging.devices.DeviceController;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Writes the {@link DriverIndex} for the drivers on the class path. Run by the build after the classes are
+ * compiled, with the class output directory as its argument.
+ */
+public class DriverIndexGenerator {
+
+  private DriverIndexGenerator() {
+    // No Op
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path output = Path.of(args.length > 0 ? args[0] : "target/classes").resolve(DriverIndex.RESOURCE);
+    List<DriverIndex.Entry> entries = generate(DriverIndexGenerator.class.getClassLoader());
+    Files.createDirectories(output.getParent());
+    try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+      DriverIndex.write(writer, entries);
+    }
+  }
+
+  static List<DriverIndex.Entry> generate(ClassLoader classLoader) {
+    List<DriverIndex.Entry> entries = new ArrayList<>();
+    for (DriverBus bus : DriverBus.values()) {
+      for (DeviceController controller : ServiceLoader.load(bus.getService(), classLoader)) {
+        entries.add(DriverIndex.describe(bus, controller));
+      }
+    }
+    return entries;
+  }
+}
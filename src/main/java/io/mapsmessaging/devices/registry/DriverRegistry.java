@@ -0,0 +1,170 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.registry;
+
+import io.mapsmessaging.devices.DeviceController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The drivers for one bus, described by the {@link DriverIndex} and only instantiated, through
+ * {@link ServiceLoader#stream()}, when an address or configuration entry asks for them. The registry for a
+ * bus is shared by every bus manager of that type.
+ * <p>
+ * Providers listed in META-INF/services but missing from the index, such as drivers from another jar, are
+ * loaded up front and described the same way, so they are still found.
+ */
+public final class DriverRegistry<T extends DeviceController> {
+
+  private static final Map<DriverBus, DriverRegistry<?>> REGISTRIES = new EnumMap<>(DriverBus.class);
+
+  private final Class<T> service;
+  private final ClassLoader classLoader;
+  private final List<DriverIndex.Entry> entries;
+  private final Map<String, DriverIndex.Entry> byName;
+  private final Map<String, T> instances;
+
+  DriverRegistry(DriverBus bus, Class<T> service, DriverIndex index, ClassLoader classLoader) {
+    this.service = service;
+    this.classLoader = classLoader;
+    entries = new ArrayList<>();
+    byName = new LinkedHashMap<>();
+    instances = new ConcurrentHashMap<>();
+    Map<String, DriverIndex.Entry> indexed = new HashMap<>();
+    for (DriverIndex.Entry entry : index.getEntries(bus)) {
+      indexed.putIfAbsent(entry.provider(), entry);
+    }
+    // Only providers that are still registered count, so a stale index cannot name a driver that has gone
+    for (String provider : new LinkedHashSet<>(listProviders())) {
+      DriverIndex.Entry entry = indexed.get(provider);
+      if (entry == null) {
+        T controller = instantiate(provider);
+        if (controller == null) {
+          continue;
+        }
+        entry = DriverIndex.describe(bus, controller);
+        instances.put(provider, controller);
+      }
+      entries.add(entry);
+      byName.put(entry.name(), entry);
+    }
+  }
+
+  /**
+   * @return the shared registry for the drivers implementing the service
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends DeviceController> DriverRegistry<T> forService(Class<T> service) {
+    DriverBus bus = DriverBus.forService(service);
+    synchronized (REGISTRIES) {
+      return (DriverRegistry<T>) REGISTRIES.computeIfAbsent(bus,
+          k -> new DriverRegistry<>(k, service, DriverIndex.getInstance(), DriverRegistry.class.getClassLoader()));
+    }
+  }
+
+  /**
+   * @return every driver, several drivers may share a name when they live at different addresses
+   */
+  public List<DriverIndex.Entry> getEntries() {
+    return Collections.unmodifiableList(entries);
+  }
+
+  public boolean contains(String name) {
+    return byName.containsKey(name);
+  }
+
+  /**
+   * @return the entry for the name, the last registered if several drivers share it
+   */
+  public DriverIndex.Entry getEntry(String name) {
+    return byName.get(name);
+  }
+
+  /**
+   * Returns the driver, loading it the first time it is asked for.
+   *
+   * @param name the driver name, or 1-Wire family id
+   * @return the driver, or null if none has that name or it can no longer be loaded
+   */
+  public T get(String name) {
+    DriverIndex.Entry entry = name != null ? byName.get(name) : null;
+    return entry != null ? get(entry) : null;
+  }
+
+  public T get(DriverIndex.Entry entry) {
+    T controller = instances.get(entry.provider());
+    if (controller == null) {
+      controller = instantiate(entry.provider());
+      if (controller != null) {
+        T previous = instances.putIfAbsent(entry.provider(), controller);
+        controller = previous != null ? previous : controller;
+      }
+    }
+    return controller;
+  }
+
+  /**
+   * @return the number of drivers loaded so far
+   */
+  public int getLoadedCount() {
+    return instances.size();
+  }
+
+  // The stream loads provider classes up to the match but only initialises and constructs the match
+  private T instantiate(String provider) {
+    try {
+      return ServiceLoader.load(service, classLoader).stream()
+          .filter(entry -> entry.type().getName().equals(provider))
+          .findFirst()
+          .map(ServiceLoader.Provider::get)
+          .orElse(null);
+    } catch (ServiceConfigurationError e) {
+      return null;
+    }
+  }
+
+  private List<String> listProviders() {
+    List<String> list = new ArrayList<>();
+    try {
+      Enumeration<URL> resources = classLoader.getResources("META-INF/services/" + service.getName());
+      while (resources.hasMoreElements()) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            int comment = line.indexOf('#');
+            String provider = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (!provider.isEmpty()) {
+              list.add(provider);
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+      // Nothing more can be listed, the index entries still stand
+    }
+    return list;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.replay;
+
+import io.mapsmessaging.devices.impl.AddressableDevice;
+
+import static io.mapsmessaging.devices.replay.TraceFormat.*;
+
+/**
+ * Passes every call through to the wrapped device and records it, with its timing and result, in a
+ * {@link TraceRecorder}.
+ */
+public class RecordingAddressableDevice implements AddressableDevice {
+
+  private final AddressableDevice device;
+  private final TraceRecorder recorder;
+  private final int channel;
+
+  public RecordingAddressableDevice(AddressableDevice device, TraceRecorder recorder) {
+    this.device = device;
+    this.recorder = recorder;
+    channel = recorder.i2cChannel(device.getBus(), device.getDevice());
+  }
+
+  @Override
+  public void close() {
+    device.close();
+  }
+
+  @Override
+  public int getBus() {
+    return device.getBus();
+  }
+
+  @Override
+  public int getDevice() {
+    return device.getDevice();
+  }
+
+  @Override
+  public int write(int val) {
+    long start = System.nanoTime();
+    int result = device.write(val);
+    recorder.record(channel, WRITE_BYTE, start, val, result, null, 0, 0);
+    return result;
+  }
+
+  @Override
+  public int write(byte[] buffer, int offset, int length) {
+    long start = System.nanoTime();
+    int result = device.write(buffer, offset, length);
+    recorder.record(channel, WRITE, start, -1, result, buffer, offset, length);
+    return result;
+  }
+
+  @Override
+  public int writeRegister(int register, byte[] data) {
+    long start = System.nanoTime();
+    int result = device.writeRegister(register, data);
+    recorder.record(channel, WRITE_REGISTER, start, register, result, data, 0, data.length);
+    return result;
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) {
+    long start = System.nanoTime();
+    int result = device.read(buffer, offset, length);
+    recorder.record(channel, READ, start, -1, result, buffer, offset, result);
+    return result;
+  }
+
+  @Override
+  public int read() {
+    long start = System.nanoTime();
+    int result = device.read();
+    recorder.record(channel, READ_BYTE, start, -1, result, null, 0, 0);
+    return result;
+  }
+
+  @Override
+  public int readRegister(int register) {
+    long start = System.nanoTime();
+    int result = device.readRegister(register);
+    recorder.record(channel, READ_REGISTER_BYTE, start, register, result, null, 0, 0);
+    return result;
+  }
+
+  @Override
+  public int readRegister(int register, byte[] buffer, int offset, int length) {
+    long start = System.nanoTime();
+    int result = device.readRegister(register, buffer, offset, length);
+    recorder.record(channel, READ_REGISTER, start, register, result, buffer, offset, result);
+    return result;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.replay;
+
+import io.mapsmessaging.devices.serial.devices.sensors.SerialDevice;
+
+import static io.mapsmessaging.devices.replay.TraceFormat.SERIAL_READ;
+import static io.mapsmessaging.devices.replay.TraceFormat.SERIAL_WRITE;
+
+/**
+ * Passes every call through to the wrapped serial port and records the bytes written and read, with their
+ * timing, in a {@link TraceRecorder}.
+ */
+public class RecordingSerialDevice implements SerialDevice {
+
+  private final SerialDevice device;
+  private final TraceRecorder recorder;
+  private final int channel;
+
+  public RecordingSerialDevice(SerialDevice device, TraceRecorder recorder) {
+    this.device = device;
+    this.recorder = recorder;
+    channel = recorder.serialChannel(device.getSystemPortName());
+  }
+
+  @Override
+  public boolean isOpen() {
+    return device.isOpen();
+  }
+
+  @Override
+  public boolean openPort() {
+    return device.openPort();
+  }
+
+  @Override
+  public String getSystemPortName() {
+    return device.getSystemPortName();
+  }
+
+  @Override
+  public void closePort() {
+    device.closePort();
+  }
+
+  @Override
+  public int writeBytes(byte[] request, int length) {
+    long start = System.nanoTime();
+    int result = device.writeBytes(request, length);
+    recorder.record(channel, SERIAL_WRITE, start, -1, result, request, 0, length);
+    return result;
+  }
+
+  @Override
+  public int readBytes(byte[] buffer, int remaining) {
+    long start = System.nanoTime();
+    int result = device.readBytes(buffer, remaining);
+    recorder.record(channel, SERIAL_READ, start, -1, result, buffer, 0, result);
+    return result;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.replay;
+
+import io.mapsmessaging.devices.impl.AddressableDevice;
+
+import java.util.List;
+
+import static io.mapsmessaging.devices.replay.TraceFormat.*;
+
+/**
+ * Answers each call with the next recorded result for this device. Data written is not checked, data read is
+ * copied from the recording. A call that does not match the next recorded operation, or that runs past the end of
+ * the recording, fails with -1 and is counted in {@link #getMismatches()}.
+ */
+public class ReplayAddressableDevice implements AddressableDevice {
+
+  private final int bus;
+  private final int address;
+  private final ReplayChannel channel;
+
+  ReplayAddressableDevice(TraceReplay replay, int bus, int address, List<TraceRecord> records) {
+    this.bus = bus;
+    this.address = address;
+    channel = new ReplayChannel(replay, records);
+  }
+
+  public long getMismatches() {
+    return channel.getMismatches();
+  }
+
+  public int getRemaining() {
+    return channel.getRemaining();
+  }
+
+  @Override
+  public void close() {
+    // Nothing to release
+  }
+
+  @Override
+  public int getBus() {
+    return bus;
+  }
+
+  @Override
+  public int getDevice() {
+    return address;
+  }
+
+  @Override
+  public int write(int val) {
+    return result(channel.next(WRITE_BYTE));
+  }
+
+  @Override
+  public int write(byte[] buffer, int offset, int length) {
+    return result(channel.next(WRITE));
+  }
+
+  @Override
+  public int writeRegister(int register, byte[] data) {
+    return result(channel.next(WRITE_REGISTER));
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) {
+    return copy(channel.next(READ), buffer, offset, length);
+  }
+
+  @Override
+  public int read() {
+    return result(channel.next(READ_BYTE));
+  }
+
+  @Override
+  public int readRegister(int register) {
+    return result(channel.next(READ_REGISTER_BYTE));
+  }
+
+  @Override
+  public int readRegister(int register, byte[] buffer, int offset, int length) {
+    return copy(channel.next(READ_REGISTER), buffer, offset, length);
+  }
+
+  private static int result(TraceRecord traceRecord) {
+    return traceRecord != null ? traceRecord.result() : -1;
+  }
+
+  static int copy(TraceRecord traceRecord, byte[] buffer, int offset, int length) {
+    if (traceRecord == null) {
+      return -1;
+    }
+    byte[] data = traceRecord.data();
+    System.arraycopy(data, 0, buffer, offset, Math.min(data.length, length));
+    return traceRecord.result();
+  }
+}
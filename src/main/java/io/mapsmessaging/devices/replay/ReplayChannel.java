@@ -0,0 +1,74 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.replay;
+
+import java.util.List;
+
+/**
+ * Cursor over the records of one channel, shared by the replay devices.
+ */
+class ReplayChannel {
+
+  private final TraceReplay replay;
+  private final List<TraceRecord> records;
+  private final long span;
+  private int index;
+  private long offset;
+  private long mismatches;
+
+  ReplayChannel(TraceReplay replay, List<TraceRecord> records) {
+    this.replay = replay;
+    this.records = records;
+    if (records.isEmpty()) {
+      span = 0;
+    } else {
+      TraceRecord last = records.get(records.size() - 1);
+      span = last.startNanos() + last.durationNanos();
+    }
+  }
+
+  /**
+   * @return the next record if it is for the expected operation, otherwise null
+   */
+  synchronized TraceRecord next(int op) {
+    if (index == records.size()) {
+      if (!replay.isLoop() || records.isEmpty()) {
+        return null;
+      }
+      index = 0;
+      offset += span;
+    }
+    TraceRecord traceRecord = records.get(index++);
+    replay.pace(traceRecord, offset);
+    if (traceRecord.op() != op) {
+      mismatches++;
+      return null;
+    }
+    return traceRecord;
+  }
+
+  synchronized long getMismatches() {
+    return mismatches;
+  }
+
+  synchronized int getRemaining() {
+    return records.size() - index;
+  }
+}
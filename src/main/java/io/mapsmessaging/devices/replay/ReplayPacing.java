@@ -0,0 +1,44 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.replay;
+
+/**
+ * How fast recorded traffic is played back. A speed of 1 reproduces the recorded timing, 10 plays back ten times
+ * faster and 0 does not wait at all.
+ */
+public record ReplayPacing(double speed) {
+
+  public static final ReplayPacing REAL_TIME = new ReplayPacing(1.0);
+  public static final ReplayPacing AS_FAST_AS_POSSIBLE = new ReplayPacing(0);
+
+  public ReplayPacing {
+    if (speed < 0 || Double.isNaN(speed)) {
+      throw new IllegalArgumentException("Speed must be 0 or greater");
+    }
+  }
+
+  public static ReplayPacing accelerated(double speed) {
+    return new ReplayPacing(speed);
+  }
+
+  boolean isPaced() {
+    return speed > 0;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.replay;
+
+import io.mapsmessaging.devices.serial.devices.sensors.SerialDevice;
+
+import java.util.List;
+
+import static io.mapsmessaging.devices.replay.TraceFormat.SERIAL_READ;
+import static io.mapsmessaging.devices.replay.TraceFormat.SERIAL_WRITE;
+
+/**
+ * Serial port that answers writes and reads from a recording, see {@link ReplayAddressableDevice}.
+ */
+public class ReplaySerialDevice implements SerialDevice {
+
+  private final String portName;
+  private final ReplayChannel channel;
+  private boolean open;
+
+  ReplaySerialDevice(TraceReplay replay, String portName, List<TraceRecord> records) {
+    this.portName = portName;
+    channel = new ReplayChannel(replay, records);
+  }
+
+  public long getMismatches() {
+    return channel.getMismatches();
+  }
+
+  public int getRemaining() {
+    return channel.getRemaining();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return open;
+  }
+
+  @Override
+  public boolean openPort() {
+    open = true;
+    return true;
+  }
+
+  @Override
+  public String getSystemPortName() {
+    return portName;
+  }
+
+  @Override
+  public void closePort() {
+    open = false;
+  }
+
+  @Override
+  public int writeBytes(byte[] request, int length) {
+    TraceRecord traceRecord = channel.next(SERIAL_WRITE);
+    return traceRecord != null ? traceRecord.result() : -1;
+  }
+
+  @Override
+  public int readBytes(byte[] buffer, int remaining) {
+    return ReplayAddressableDevice.copy(channel.next(SERIAL_READ), buffer, 0, Math.min(remaining, buffer.length));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Layout of a recorded traffic file. After the header every record starts with an operation byte and a channel
+ * number. A DEFINE record introduces a channel, an I2C device by bus and address or a serial port by name. All
+ * other records carry the start time, as a delta from the previous record, the duration, the register, the
+ * result and the data moved, all as variable length integers.
+ */
+final class TraceFormat {
+
+  static final int MAGIC = 0x4D445452; // MDTR
+  static final int VERSION = 1;
+
+  static final int DEFINE = 0;
+  static final int WRITE_BYTE = 1;
+  static final int WRITE = 2;
+  static final int WRITE_REGISTER = 3;
+  static final int READ = 4;
+  static final int READ_BYTE = 5;
+  static final int READ_REGISTER_BYTE = 6;
+  static final int READ_REGISTER = 7;
+  static final int SERIAL_WRITE = 8;
+  static final int SERIAL_READ = 9;
+
+  static final int KIND_I2C = 0;
+  static final int KIND_SERIAL = 1;
+
+  static void writeVarLong(DataOutput out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  static long readVarLong(DataInput in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+
+  static void writeSigned(DataOutput out, long value) throws IOException {
+    writeVarLong(out, (value << 1) ^ (value >> 63));
+  }
+
+  static long readSigned(DataInput in) throws IOException {
+    long value = readVarLong(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private TraceFormat() {
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.replay;
+
+import io.mapsmessaging.devices.impl.AddressableDevice;
+import io.mapsmessaging.devices.logging.DeviceLogMessage;
+import io.mapsmessaging.devices.serial.devices.sensors.SerialDevice;
+import io.mapsmessaging.logging.Logger;
+import io.mapsmessaging.logging.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.mapsmessaging.devices.replay.TraceFormat.*;
+
+/**
+ * Writes the traffic of wrapped I2C and serial devices to a compact binary file that {@link TraceReplay} can
+ * play back. Any number of devices can share one recorder. If the file cannot be written the recorder stops
+ * recording, the wrapped devices carry on working.
+ */
+public class TraceRecorder implements AutoCloseable {
+
+  private final Logger logger = LoggerFactory.getLogger(TraceRecorder.class);
+
+  private final DataOutputStream out;
+  private final Map<String, Integer> channels;
+  private final long origin;
+  private long lastStart;
+  private volatile boolean failed;
+  private boolean closed;
+
+  public static TraceRecorder open(Path path) throws IOException {
+    TraceRecorder recorder = new TraceRecorder(Files.newOutputStream(path));
+    recorder.logger.log(DeviceLogMessage.TRACE_RECORDING_STARTED, path);
+    return recorder;
+  }
+
+  public TraceRecorder(OutputStream outputStream) throws IOException {
+    out = new DataOutputStream(new BufferedOutputStream(outputStream));
+    channels = new HashMap<>();
+    origin = System.nanoTime();
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+  }
+
+  public AddressableDevice wrap(AddressableDevice device) {
+    return new RecordingAddressableDevice(device, this);
+  }
+
+  public SerialDevice wrap(SerialDevice device) {
+    return new RecordingSerialDevice(device, this);
+  }
+
+  public boolean isFailed() {
+    return failed;
+  }
+
+  synchronized int i2cChannel(int bus, int address) {
+    return channels.computeIfAbsent("i2c:" + bus + ":" + address, k -> define(KIND_I2C, out -> {
+      writeVarLong(out, bus);
+      writeVarLong(out, address);
+    }));
+  }
+
+  synchronized int serialChannel(String portName) {
+    return channels.computeIfAbsent("serial:" + portName, k -> define(KIND_SERIAL, out -> out.writeUTF(portName)));
+  }
+
+  synchronized void record(int channel, int op, long startNanos, int register, int result, byte[] data, int offset, int length) {
+    if (failed || closed) {
+      return;
+    }
+    long start = startNanos - origin;
+    try {
+      out.writeByte(op);
+      writeVarLong(out, channel);
+      writeSigned(out, start - lastStart);
+      writeVarLong(out, Math.max(0, System.nanoTime() - startNanos));
+      writeSigned(out, register);
+      writeSigned(out, result);
+      int len = data == null ? 0 : Math.max(0, length);
+      writeVarLong(out, len);
+      if (len > 0) {
+        out.write(data, offset, len);
+      }
+      lastStart = start;
+    } catch (IOException e) {
+      fail(e);
+    }
+  }
+
+  public synchronized void flush() throws IOException {
+    if (!closed) {
+      out.flush();
+    }
+  }
+
+  /**
+   * Closes the file. Traffic from devices still wrapped by the recorder is dropped from then on.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      out.close();
+    }
+  }
+
+  private int define(int kind, ChannelWriter writer) {
+    int channel = channels.size();
+    if (!failed && !closed) {
+      try {
+        out.writeByte(DEFINE);
+        writeVarLong(out, channel);
+        out.writeByte(kind);
+        writer.write(out);
+      } catch (IOException e) {
+        fail(e);
+      }
+    }
+    return channel;
+  }
+
+  private void fail(IOException e) {
+    failed = true;
+    logger.log(DeviceLogMessage.TRACE_RECORDING_FAILED, e.getMessage());
+  }
+
+  private interface ChannelWriter {
+    void write(DataOutputStream out) throws IOException;
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.replay;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.mapsmessaging.devices.replay.TraceFormat.*;
+
+/**
+ * Plays back traffic written by a {@link TraceRecorder}. {@link #device(int, int)} and {@link #serial(String)}
+ * return devices that answer each call with the next recorded result for that channel. All channels share one
+ * clock, so with a paced replay the devices keep the relative timing they had when recorded.
+ */
+public class TraceReplay {
+
+  private final Map<String, List<TraceRecord>> channels;
+
+  @Getter
+  @Setter
+  private volatile ReplayPacing pacing = ReplayPacing.REAL_TIME;
+
+  /**
+   * When set a channel starts again from the beginning once its records are used up, otherwise calls past the
+   * end of the recording fail.
+   */
+  @Getter
+  @Setter
+  private volatile boolean loop;
+
+  private final AtomicLong replayStart;
+
+  public static TraceReplay load(Path path) throws IOException {
+    try (InputStream in = Files.newInputStream(path)) {
+      return new TraceReplay(in);
+    }
+  }
+
+  public TraceReplay(InputStream inputStream) throws IOException {
+    channels = new HashMap<>();
+    replayStart = new AtomicLong();
+    DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a recorded traffic file");
+    }
+    int version = in.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported recording version " + version);
+    }
+    parse(in);
+  }
+
+  public ReplayAddressableDevice device(int bus, int address) {
+    return device(bus, address, bus);
+  }
+
+  /**
+   * Plays back the device recorded at the address on {@code recordedBus} as a device on {@code bus}.
+   */
+  public ReplayAddressableDevice device(int recordedBus, int address, int bus) {
+    return new ReplayAddressableDevice(this, bus, address, records(i2cKey(recordedBus, address)));
+  }
+
+  public ReplaySerialDevice serial(String portName) {
+    return new ReplaySerialDevice(this, portName, records(serialKey(portName)));
+  }
+
+  public boolean hasDevice(int bus, int address) {
+    return channels.containsKey(i2cKey(bus, address));
+  }
+
+  /**
+   * Waits, according to the pacing, until the recorded call would have completed.
+   *
+   * @param offsetNanos added to the recorded time when a looping channel has wrapped
+   */
+  void pace(TraceRecord traceRecord, long offsetNanos) {
+    ReplayPacing current = pacing;
+    if (!current.isPaced()) {
+      return;
+    }
+    long now = System.nanoTime();
+    replayStart.compareAndSet(0, now);
+    long target = replayStart.get() + (long) ((traceRecord.startNanos() + traceRecord.durationNanos() + offsetNanos) / current.speed());
+    long remaining = target - now;
+    while (remaining > 0) {
+      LockSupport.parkNanos(remaining);
+      remaining = target - System.nanoTime();
+    }
+  }
+
+  private List<TraceRecord> records(String key) {
+    List<TraceRecord> list = channels.get(key);
+    if (list == null) {
+      throw new IllegalArgumentException("No recording for " + key);
+    }
+    return list;
+  }
+
+  private void parse(DataInputStream in) throws IOException {
+    Map<Integer, List<TraceRecord>> byChannel = new HashMap<>();
+    long start = 0;
+    long first = -1;
+    int op;
+    while ((op = in.read()) >= 0) {
+      int channel = (int) readVarLong(in);
+      if (op == DEFINE) {
+        List<TraceRecord> list = new ArrayList<>();
+        byChannel.put(channel, list);
+        int kind = in.readUnsignedByte();
+        String key = kind == KIND_I2C ? i2cKey((int) readVarLong(in), (int) readVarLong(in)) : serialKey(in.readUTF());
+        channels.put(key, list);
+        continue;
+      }
+      start += readSigned(in);
+      long duration = readVarLong(in);
+      int register = (int) readSigned(in);
+      int result = (int) readSigned(in);
+      byte[] data = new byte[(int) readVarLong(in)];
+      in.readFully(data);
+      if (first < 0) {
+        first = start;
+      }
+      List<TraceRecord> list = byChannel.get(channel);
+      if (list == null) {
+        throw new IOException("Record for undefined channel " + channel);
+      }
+      list.add(new TraceRecord(op, start - first, duration, register, result, data));
+    }
+  }
+
+  private static String i2cKey(int bus, int address) {
+    return "i2c:" + bus + ":0x" + Integer.toHexString(address);
+  }
+
+  private static String serialKey(String portName) {
+    return "serial:" + portName;
+  }
+}
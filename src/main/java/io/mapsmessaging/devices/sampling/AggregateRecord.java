@@ -0,0 +1,126 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sampling;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * The summary of one window produced by a {@link WindowedAggregator}, one array element per numeric reading in
+ * the order of {@link #getNames()}. Readings with no samples in the window have a count of 0 and NaN values.
+ * The standard deviation is the population standard deviation.
+ * <p>
+ * The aggregator reuses the same record for every window, so it is only valid during the listener call; use
+ * {@link #copy()} to keep it.
+ */
+@Getter
+public final class AggregateRecord {
+
+  private final String[] names;
+  private final long[] count;
+  private final long[] errors;
+  private final double[] min;
+  private final double[] max;
+  private final double[] mean;
+  private final double[] stddev;
+  private final double[] last;
+  private long windowStart;
+  private long windowEnd;
+
+  AggregateRecord(String[] names) {
+    this.names = names;
+    int size = names.length;
+    count = new long[size];
+    errors = new long[size];
+    min = new double[size];
+    max = new double[size];
+    mean = new double[size];
+    stddev = new double[size];
+    last = new double[size];
+  }
+
+  void setWindow(long start, long end) {
+    windowStart = start;
+    windowEnd = end;
+  }
+
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * @return the index of the named reading, or -1
+   */
+  public int indexOf(String name) {
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public AggregateRecord copy() {
+    AggregateRecord copy = new AggregateRecord(names);
+    System.arraycopy(count, 0, copy.count, 0, count.length);
+    System.arraycopy(errors, 0, copy.errors, 0, errors.length);
+    System.arraycopy(min, 0, copy.min, 0, min.length);
+    System.arraycopy(max, 0, copy.max, 0, max.length);
+    System.arraycopy(mean, 0, copy.mean, 0, mean.length);
+    System.arraycopy(stddev, 0, copy.stddev, 0, stddev.length);
+    System.arraycopy(last, 0, copy.last, 0, last.length);
+    copy.setWindow(windowStart, windowEnd);
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("[").append(windowStart).append(", ").append(windowEnd).append(')');
+    for (int i = 0; i < names.length; i++) {
+      sb.append(' ').append(names[i])
+          .append("{n=").append(count[i])
+          .append(" min=").append(min[i])
+          .append(" max=").append(max[i])
+          .append(" mean=").append(mean[i])
+          .append(" sd=").append(stddev[i])
+          .append(" last=").append(last[i])
+          .append(errors[i] > 0 ? " errors=" + errors[i] : "")
+          .append('}');
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof AggregateRecord other)) {
+      return false;
+    }
+    return windowStart == other.windowStart && windowEnd == other.windowEnd
+        && Arrays.equals(names, other.names) && Arrays.equals(count, other.count) && Arrays.equals(errors, other.errors)
+        && Arrays.equals(min, other.min) && Arrays.equals(max, other.max) && Arrays.equals(mean, other.mean)
+        && Arrays.equals(stddev, other.stddev) && Arrays.equals(last, other.last);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Long.hashCode(windowStart) + Arrays.hashCode(count);
+  }
+}
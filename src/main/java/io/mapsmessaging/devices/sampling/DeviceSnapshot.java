@@ -0,0 +1,70 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sampling;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The last state read from a device by the {@link SamplingScheduler}. Snapshots are immutable, so any
+ * number of readers can share one without touching the bus.
+ */
+@Getter
+public final class DeviceSnapshot {
+
+  private final String name;
+  private final long timestamp;
+  private final long sequence;
+  private final int consecutiveFailures;
+  private final Exception lastError;
+  private final byte[] state;
+
+  DeviceSnapshot(String name, byte[] state, long timestamp, long sequence, int consecutiveFailures, Exception lastError) {
+    this.name = name;
+    this.state = state;
+    this.timestamp = timestamp;
+    this.sequence = sequence;
+    this.consecutiveFailures = consecutiveFailures;
+    this.lastError = lastError;
+  }
+
+  DeviceSnapshot failed(Exception error) {
+    return new DeviceSnapshot(name, state, timestamp, sequence, consecutiveFailures + 1, error);
+  }
+
+  /**
+   * @return a copy of the encoded device state
+   */
+  public byte[] getState() {
+    return state.clone();
+  }
+
+  /**
+   * @return a read-only view of the encoded device state, without copying it
+   */
+  public ByteBuffer asReadOnlyBuffer() {
+    return ByteBuffer.wrap(state).asReadOnlyBuffer();
+  }
+
+  public boolean hasError() {
+    return lastError != null;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sampling;
+
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+import lombok.Getter;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the last value reported for each reading of one controller and decides, under a
+ * {@link ReportPolicy}, whether a new value is reported or left out of the state.
+ */
+public class ReportByException {
+
+  @Getter
+  private final ReportPolicy policy;
+  private final Map<SensorReading<?>, LastReport> reported;
+
+  public ReportByException(ReportPolicy policy) {
+    this.policy = policy;
+    reported = new IdentityHashMap<>();
+  }
+
+  /**
+   * @return true if the value is reported, in which case it becomes the value later ones are compared with
+   */
+  public synchronized boolean changed(SensorReading<?> reading, double value, long now) {
+    LastReport last = lastReport(reading);
+    if (last.isDue(now) || moved(last.number, value, last.deadband)) {
+      last.number = value;
+      last.time = now;
+      last.reported = true;
+      return true;
+    }
+    return false;
+  }
+
+  public synchronized boolean changed(SensorReading<?> reading, Object value, long now) {
+    if (value instanceof Number number) {
+      return changed(reading, number.doubleValue(), now);
+    }
+    LastReport last = lastReport(reading);
+    if (last.isDue(now) || !Objects.deepEquals(last.value, value)) {
+      last.value = value;
+      last.time = now;
+      last.reported = true;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Forgets every reported value, so the next state reports all readings.
+   */
+  public synchronized void reset() {
+    reported.clear();
+  }
+
+  private LastReport lastReport(SensorReading<?> reading) {
+    return reported.computeIfAbsent(reading, r -> {
+      ReportPolicy readingPolicy = policy.forReading(r.getName());
+      return new LastReport(readingPolicy.deadbandFor(r), readingPolicy.getMaxSilenceMillis());
+    });
+  }
+
+  private static boolean moved(double last, double value, double deadband) {
+    if (Double.isNaN(last) || Double.isNaN(value)) {
+      return Double.isNaN(last) != Double.isNaN(value);
+    }
+    double delta = Math.abs(value - last);
+    return deadband > 0 ? delta >= deadband : delta > 0;
+  }
+
+  private static final class LastReport {
+    private final double deadband;
+    private final long maxSilenceMillis;
+    private boolean reported;
+    private double number = Double.NaN;
+    private Object value;
+    private long time;
+
+    private LastReport(double deadband, long maxSilenceMillis) {
+      this.deadband = deadband;
+      this.maxSilenceMillis = maxSilenceMillis;
+    }
+
+    private boolean isDue(long now) {
+      return !reported || now - time >= maxSilenceMillis;
+    }
+  }
+}
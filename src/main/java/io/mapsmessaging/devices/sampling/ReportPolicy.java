@@ -0,0 +1,136 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sampling;
+
+import io.mapsmessaging.devices.sensorreadings.IntegerSensorReading;
+import io.mapsmessaging.devices.sensorreadings.LongSensorReading;
+import io.mapsmessaging.devices.sensorreadings.NumericSensorReading;
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * When a reading is worth reporting in report-by-exception mode. A numeric reading is reported once it has
+ * moved at least its deadband away from the value last reported, any other reading once its value changes,
+ * and every reading at least once per maxSilenceMillis as a heartbeat.
+ * <p>
+ * Unless set, the deadband comes from the reading's metadata: deadbandPercent of the min to max range, but
+ * never less than the reading's resolution (its rounding precision, or 1 for integer readings). Values are read
+ * from a "report" map, which may hold per reading overrides:
+ * <pre>
+ *   "report": { "deadbandPercent": 0.1, "maxSilenceMs": 300000, "readings": { "temperature": { "deadband": 0.2 } } }
+ * </pre>
+ */
+@Getter
+public class ReportPolicy {
+
+  public static final String DEADBAND = "deadband";
+  public static final String DEADBAND_PERCENT = "deadbandPercent";
+  public static final String MAX_SILENCE = "maxSilenceMs";
+  public static final String READINGS = "readings";
+
+  /**
+   * A deadband of this value is derived from the reading's metadata
+   */
+  public static final double DERIVED = -1.0;
+
+  private final double deadband;
+  private final double deadbandPercent;
+  private final long maxSilenceMillis;
+  @Getter(AccessLevel.NONE)
+  private final Map<String, ReportPolicy> readingPolicies;
+
+  public ReportPolicy(double deadband, double deadbandPercent, long maxSilenceMillis) {
+    this(deadband, deadbandPercent, maxSilenceMillis, Map.of());
+  }
+
+  private ReportPolicy(double deadband, double deadbandPercent, long maxSilenceMillis, Map<String, ReportPolicy> readingPolicies) {
+    if (maxSilenceMillis <= 0L) {
+      throw new IllegalArgumentException(MAX_SILENCE + " must be > 0");
+    }
+    this.deadband = deadband < 0 ? DERIVED : deadband;
+    this.deadbandPercent = Math.max(0.0, deadbandPercent);
+    this.maxSilenceMillis = maxSilenceMillis;
+    this.readingPolicies = readingPolicies;
+  }
+
+  public static ReportPolicy defaults() {
+    return new ReportPolicy(DERIVED, 0.1, 300_000L);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static ReportPolicy fromMap(Map<String, Object> config, ReportPolicy defaults) {
+    double deadband = getDouble(config, DEADBAND, defaults.deadband);
+    double percent = getDouble(config, DEADBAND_PERCENT, defaults.deadbandPercent);
+    long maxSilence = (long) getDouble(config, MAX_SILENCE, defaults.maxSilenceMillis);
+    ReportPolicy base = new ReportPolicy(deadband, percent, maxSilence);
+    Map<String, ReportPolicy> readings = new LinkedHashMap<>();
+    if (config.get(READINGS) instanceof Map<?, ?> readingConfig) {
+      for (Map.Entry<?, ?> entry : readingConfig.entrySet()) {
+        readings.put(entry.getKey().toString(), fromMap((Map<String, Object>) entry.getValue(), base));
+      }
+    }
+    return new ReportPolicy(deadband, percent, maxSilence, Map.copyOf(readings));
+  }
+
+  /**
+   * @return the override for the named reading, or this policy
+   */
+  public ReportPolicy forReading(String name) {
+    return readingPolicies.getOrDefault(name, this);
+  }
+
+  /**
+   * @return the smallest change in the reading that is reported, 0 reports any change
+   */
+  public double deadbandFor(SensorReading<?> reading) {
+    if (deadband >= 0) {
+      return deadband;
+    }
+    if (!(reading instanceof NumericSensorReading<?> numeric)) {
+      return 0.0;
+    }
+    double resolution = 0.0;
+    if (numeric instanceof IntegerSensorReading || numeric instanceof LongSensorReading) {
+      resolution = 1.0;
+    } else if (numeric.getPrecision() >= 0) {
+      resolution = Math.pow(10, -numeric.getPrecision());
+    }
+    double range = 0.0;
+    if (numeric.getMinimum() != null && numeric.getMaximum() != null) {
+      range = numeric.getMaximum().doubleValue() - numeric.getMinimum().doubleValue();
+    }
+    if (!Double.isFinite(range) || range < 0) {
+      range = 0.0;
+    }
+    return Math.max(resolution, range * deadbandPercent / 100.0);
+  }
+
+  private static double getDouble(Map<String, Object> config, String key, double defaultValue) {
+    Object value = config.get(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    return Double.parseDouble(value.toString());
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sampling;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Poll rate for a sampled device. Values are read from the "sampling" section of the map given to
+ * {@link io.mapsmessaging.devices.DeviceBusManager#configureDevices(Map)}, either as the defaults or per
+ * device name.
+ */
+@Getter
+public class SamplingConfig {
+
+  public static final String INTERVAL = "intervalMs";
+  public static final String JITTER = "jitterMs";
+  public static final String MAX_BACKOFF = "maxBackoffMs";
+
+  private final long intervalMillis;
+  private final long jitterMillis;
+  private final long maxBackoffMillis;
+
+  public SamplingConfig(long intervalMillis, long jitterMillis, long maxBackoffMillis) {
+    if (intervalMillis <= 0L) {
+      throw new IllegalArgumentException(INTERVAL + " must be > 0");
+    }
+    this.intervalMillis = intervalMillis;
+    this.jitterMillis = Math.max(0L, Math.min(jitterMillis, intervalMillis / 2));
+    this.maxBackoffMillis = Math.max(intervalMillis, maxBackoffMillis);
+  }
+
+  public static SamplingConfig defaults() {
+    return new SamplingConfig(1_000L, 50L, 60_000L);
+  }
+
+  public static SamplingConfig fromMap(Map<String, Object> config, SamplingConfig defaults) {
+    return new SamplingConfig(
+        getLong(config, INTERVAL, defaults.intervalMillis),
+        getLong(config, JITTER, defaults.jitterMillis),
+        getLong(config, MAX_BACKOFF, defaults.maxBackoffMillis)
+    );
+  }
+
+  /**
+   * Delay until the next poll: the interval with random jitter, or an exponential back-off capped at
+   * maxBackoffMillis while the device keeps failing.
+   */
+  public long nextDelay(int consecutiveFailures, long random) {
+    if (consecutiveFailures > 0) {
+      int shift = Math.min(consecutiveFailures, 20);
+      return Math.min(maxBackoffMillis, intervalMillis << shift);
+    }
+    if (jitterMillis == 0L) {
+      return intervalMillis;
+    }
+    return intervalMillis + Math.floorMod(random, (2 * jitterMillis) + 1) - jitterMillis;
+  }
+
+  private static long getLong(Map<String, Object> config, String key, long defaultValue) {
+    Object value = config.get(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    return Long.parseLong(value.toString());
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sampling;
+
+import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.logging.DeviceLogMessage;
+import io.mapsmessaging.devices.util.DeviceThreads;
+import io.mapsmessaging.logging.Logger;
+import io.mapsmessaging.logging.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Polls every active device at its configured rate and keeps the latest state as an immutable
+ * {@link DeviceSnapshot}. Consumers read the snapshot instead of calling getDeviceState() themselves, so
+ * any number of subscribers to a device cost a single bus read and a single encode per interval.
+ * <p>
+ * The "sampling" configuration section looks like:
+ * <pre>
+ *   "sampling": {
+ *     "intervalMs": 1000, "jitterMs": 50, "maxBackoffMs": 60000, "threads": 2,
+ *     "devices": {
+ *       "BME688": { "intervalMs": 250, "report": { "maxSilenceMs": 60000 } },
+ *       "LCD1602": { "enabled": false }
+ *     }
+ *   }
+ * </pre>
+ * Sensors are sampled by default, other device types only when named in "devices". A "report" section, at
+ * the top or per device, filters the sampled devices under that {@link ReportPolicy}, so their snapshots only hold
+ * readings that changed beyond the deadband, or whose heartbeat was due. The filter belongs to the sampler, direct
+ * getDeviceState() calls on the same controller still report every reading. When
+ * {@link DeviceThreads} runs in virtual mode, reads of devices that are not on an I2C bus each run on their own virtual thread.
+ */
+public class SamplingScheduler implements AutoCloseable {
+
+  public static final String DEVICES = "devices";
+  public static final String THREADS = "threads";
+  public static final String ENABLED = "enabled";
+  public static final String REPORT = "report";
+
+  private static final long RECONCILE_INTERVAL_MILLIS = 5_000L;
+
+  private final Logger logger = LoggerFactory.getLogger(SamplingScheduler.class);
+  private final Supplier<Collection<DeviceController>> activeDevices;
+  private final Map<DeviceController, SampledDevice> sampled;
+  private final Map<String, SamplingConfig> deviceConfigs;
+  private final Set<String> disabledDevices;
+  private final Map<String, ReportPolicy> reportPolicies;
+
+  private SamplingConfig defaultConfig;
+  private ReportPolicy defaultReportPolicy;
+  private int threads;
+  private ScheduledExecutorService executor;
+
+  public SamplingScheduler(Supplier<Collection<DeviceController>> activeDevices) {
+    this.activeDevices = activeDevices;
+    sampled = new ConcurrentHashMap<>();
+    deviceConfigs = new ConcurrentHashMap<>();
+    disabledDevices = ConcurrentHashMap.newKeySet();
+    reportPolicies = new ConcurrentHashMap<>();
+    defaultConfig = SamplingConfig.defaults();
+    threads = 1;
+  }
+
+  @SuppressWarnings("unchecked")
+  public synchronized void configure(Map<String, Object> config) {
+    defaultConfig = SamplingConfig.fromMap(config, SamplingConfig.defaults());
+    if (config.containsKey(THREADS)) {
+      threads = Math.max(1, Integer.parseInt(config.get(THREADS).toString()));
+    }
+    deviceConfigs.clear();
+    disabledDevices.clear();
+    reportPolicies.clear();
+    defaultReportPolicy = config.get(REPORT) instanceof Map<?, ?> report
+        ? ReportPolicy.fromMap((Map<String, Object>) report, ReportPolicy.defaults())
+        : null;
+    if (config.get(DEVICES) instanceof Map<?, ?> devices) {
+      for (Map.Entry<?, ?> entry : devices.entrySet()) {
+        String name = entry.getKey().toString();
+        Map<String, Object> deviceConfig = (Map<String, Object>) entry.getValue();
+        if (!Boolean.parseBoolean(deviceConfig.getOrDefault(ENABLED, "true").toString())) {
+          disabledDevices.add(name);
+        } else {
+          deviceConfigs.put(name, SamplingConfig.fromMap(deviceConfig, defaultConfig));
+          if (deviceConfig.get(REPORT) instanceof Map<?, ?> report) {
+            ReportPolicy base = defaultReportPolicy != null ? defaultReportPolicy : ReportPolicy.defaults();
+            reportPolicies.put(name, ReportPolicy.fromMap((Map<String, Object>) report, base));
+          }
+        }
+      }
+    }
+    // Picks up the new rates on the next poll of each device
+    for (SampledDevice device : sampled.values()) {
+      device.config = getConfig(device.controller.getName());
+      applyReportPolicy(device);
+    }
+  }
+
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    executor = Executors.newScheduledThreadPool(threads, DeviceThreads.factory("Device-Sampler-"));
+    executor.scheduleWithFixedDelay(this::reconcile, 0, RECONCILE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    logger.log(DeviceLogMessage.SAMPLING_STARTED, threads, defaultConfig.getIntervalMillis());
+  }
+
+  public synchronized boolean isRunning() {
+    return executor != null;
+  }
+
+  /**
+   * @return the latest snapshot for the device, or null if it has not been sampled yet
+   */
+  public DeviceSnapshot getSnapshot(DeviceController controller) {
+    SampledDevice device = sampled.get(controller);
+    return device != null ? device.snapshot : null;
+  }
+
+  public List<DeviceSnapshot> getSnapshots() {
+    List<DeviceSnapshot> list = new ArrayList<>();
+    for (SampledDevice device : sampled.values()) {
+      DeviceSnapshot snapshot = device.snapshot;
+      if (snapshot != null) {
+        list.add(snapshot);
+      }
+    }
+    return list;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    sampled.clear();
+  }
+
+  synchronized void reconcile() {
+    if (executor == null) {
+      return;
+    }
+    Collection<DeviceController> current = activeDevices.get();
+    Set<DeviceController> live = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (DeviceController controller : current) {
+      if (shouldSample(controller)) {
+        live.add(controller);
+        sampled.computeIfAbsent(controller, this::schedule);
+      }
+    }
+    sampled.entrySet().removeIf(entry -> {
+      boolean remove = !live.contains(entry.getKey());
+      if (remove) {
+        entry.getValue().removed = true;
+      }
+      return remove;
+    });
+  }
+
+  private SampledDevice schedule(DeviceController controller) {
+    SampledDevice device = new SampledDevice(controller, getConfig(controller.getName()));
+    applyReportPolicy(device);
+    // Spread the first reads across one interval so devices configured together do not all hit the bus at once
+    long initialDelay = ThreadLocalRandom.current().nextLong(device.config.getIntervalMillis());
+    executor.schedule(() -> poll(device), initialDelay, TimeUnit.MILLISECONDS);
+    return device;
+  }
+
+  private void poll(SampledDevice device) {
+    if (device.removed) {
+      return;
+    }
+    if (device.controller instanceof I2CDeviceController i2cController) {
+      // Run on the bus worker so sampled reads keep the bus ordering of every other request
+      i2cController.getFilteredDeviceStateAsync(device.filter).whenComplete((state, error) -> completed(device, state, error));
+    } else if (DeviceThreads.isVirtual()) {
+      // Serial and 1-Wire reads block for a long time, give each its own virtual thread instead of holding a sampler
+      DeviceThreads.start("Device-Read", () -> read(device));
+    } else {
+      read(device);
+    }
+  }
+
+  @SuppressWarnings("java:S1181") // any failure in a driver is recorded against the device and retried
+  private void read(SampledDevice device) {
+    try {
+      completed(device, device.controller.getFilteredDeviceState(device.filter), null);
+    } catch (Throwable error) {
+      completed(device, null, error);
+    }
+  }
+
+  private void completed(SampledDevice device, byte[] state, Throwable error) {
+    DeviceSnapshot previous = device.snapshot;
+    if (error != null) {
+      Exception cause = unwrap(error);
+      device.snapshot = previous != null
+          ? previous.failed(cause)
+          : new DeviceSnapshot(device.controller.getName(), new byte[0], 0L, 0L, 1, cause);
+      logger.log(DeviceLogMessage.SAMPLING_DEVICE_FAILED, device.controller.getName(), device.snapshot.getConsecutiveFailures(), cause.getMessage());
+    } else {
+      long sequence = previous != null ? previous.getSequence() + 1 : 1L;
+      device.snapshot = new DeviceSnapshot(device.controller.getName(), state, System.currentTimeMillis(), sequence, 0, null);
+    }
+    reschedule(device);
+  }
+
+  private synchronized void reschedule(SampledDevice device) {
+    if (executor == null || device.removed) {
+      return;
+    }
+    long delay = device.config.nextDelay(device.snapshot.getConsecutiveFailures(), ThreadLocalRandom.current().nextLong());
+    executor.schedule(() -> poll(device), delay, TimeUnit.MILLISECONDS);
+  }
+
+  private boolean shouldSample(DeviceController controller) {
+    String name = controller.getName();
+    if (disabledDevices.contains(name)) {
+      return false;
+    }
+    if (deviceConfigs.containsKey(name)) {
+      return true;
+    }
+    try {
+      return controller.getType() == DeviceType.SENSOR;
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  // A new filter reports every reading once, a device whose policy was removed goes back to full snapshots
+  private void applyReportPolicy(SampledDevice device) {
+    ReportPolicy policy = reportPolicies.getOrDefault(device.controller.getName(), defaultReportPolicy);
+    device.filter = policy != null ? new ReportByException(policy) : null;
+  }
+
+  private SamplingConfig getConfig(String name) {
+    return deviceConfigs.getOrDefault(name, defaultConfig);
+  }
+
+  private static Exception unwrap(Throwable error) {
+    Throwable cause = error;
+    while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    return cause instanceof Exception exception ? exception : new ExecutionException(cause);
+  }
+
+  private static final class SampledDevice {
+    private final DeviceController controller;
+    private volatile SamplingConfig config;
+    private volatile DeviceSnapshot snapshot;
+    private volatile ReportByException filter;
+    private volatile boolean removed;
+
+    private SampledDevice(DeviceController controller, SamplingConfig config) {
+      this.controller = controller;
+      this.config = config;
+    }
+  }
+}
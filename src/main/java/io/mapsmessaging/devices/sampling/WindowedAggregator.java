@@ -0,0 +1,422 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sampling;
+
+import io.mapsmessaging.devices.deviceinterfaces.Sensor;
+import io.mapsmessaging.devices.i2c.I2CBusLock;
+import io.mapsmessaging.devices.i2c.I2CDevice;
+import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
+import io.mapsmessaging.devices.logging.DeviceLogMessage;
+import io.mapsmessaging.devices.sensorreadings.GroupSensorReading;
+import io.mapsmessaging.devices.sensorreadings.NumericSensorReading;
+import io.mapsmessaging.devices.sensorreadings.ReadingContext;
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+import io.mapsmessaging.devices.sensorreadings.SensorSampleSink;
+import io.mapsmessaging.devices.util.DeviceThreads;
+import io.mapsmessaging.logging.Logger;
+import io.mapsmessaging.logging.LoggerFactory;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Samples a {@link Sensor} at a high rate and summarises each numeric reading over tumbling or sliding windows,
+ * handing one {@link AggregateRecord} per window to the listener instead of every sample.
+ * <p>
+ * A window of windowMs sliding by slideMs is kept as windowMs / slideMs panes, each pane holding the count,
+ * mean, sum of squared deviations, min, max and last value of every reading in primitive arrays. A window is the
+ * combination of its panes, so a sliding window costs the same per sample as a tumbling one, where slideMs equals
+ * windowMs. Windows are aligned to multiples of slideMs and are emitted by the first sample, or
+ * {@link #advance(long)}, past their end. Windows with no samples at all are not emitted.
+ * <p>
+ * Nothing is allocated per sample or per window, the record handed to the listener is reused.
+ * <p>
+ * Given a mounted {@link I2CDeviceController}, each frame is read through its scheduler, so it never interleaves
+ * with the sampler or any other request to the same driver. A bare {@link Sensor} is only read under its bus lock,
+ * which a delay inside a read gives up, so such a sensor must not also be mounted and sampled.
+ */
+public class WindowedAggregator implements SensorSampleSink, AutoCloseable {
+
+  public static final String WINDOW = "windowMs";
+  public static final String SLIDE = "slideMs";
+
+  private static final long NO_PANE = Long.MIN_VALUE;
+
+  private final Logger logger = LoggerFactory.getLogger(WindowedAggregator.class);
+  private final Sensor sensor;
+  private final I2CDeviceScheduler scheduler;
+  private final I2CBusLock busLock;
+  // Guards the panes, a lock rather than a monitor since sensors are read while it is held and may delay
+  private final ReentrantLock paneLock;
+  private final Consumer<AggregateRecord> listener;
+  private final SensorReading<?>[] readings;
+  @Getter
+  private final long windowMillis;
+  @Getter
+  private final long slideMillis;
+  private final int panes;
+  private final int slots;
+
+  // pane p, slot s is at index p * slots + s
+  private final long[] count;
+  private final long[] errors;
+  private final double[] mean;
+  private final double[] m2;
+  private final double[] min;
+  private final double[] max;
+  private final double[] last;
+  private final long[] lastTime;
+  private final AggregateRecord record;
+
+  private long currentPane;
+  private int cursor;
+  private long sampleTime;
+  private volatile Thread worker;
+
+  public WindowedAggregator(Sensor sensor, long windowMillis, long slideMillis, Consumer<AggregateRecord> listener) {
+    this(sensor, null, windowMillis, slideMillis, listener);
+  }
+
+  public WindowedAggregator(I2CDeviceController controller, long windowMillis, long slideMillis, Consumer<AggregateRecord> listener) {
+    this(sensorOf(controller), controller instanceof I2CDeviceScheduler deviceScheduler ? deviceScheduler : null,
+        windowMillis, slideMillis, listener);
+  }
+
+  private WindowedAggregator(Sensor sensor, I2CDeviceScheduler scheduler, long windowMillis, long slideMillis, Consumer<AggregateRecord> listener) {
+    if (windowMillis <= 0L || slideMillis <= 0L || slideMillis > windowMillis || windowMillis % slideMillis != 0L) {
+      throw new IllegalArgumentException(WINDOW + " must be > 0 and a multiple of " + SLIDE);
+    }
+    this.sensor = sensor;
+    this.scheduler = scheduler;
+    this.listener = listener;
+    this.windowMillis = windowMillis;
+    this.slideMillis = slideMillis;
+    // The scheduler takes the bus itself
+    busLock = scheduler == null && sensor instanceof I2CDevice device ? device.getBusLock() : null;
+    paneLock = new ReentrantLock();
+    List<SensorReading<?>> leaves = new ArrayList<>();
+    flatten(sensor.getReadings(), leaves);
+    readings = leaves.toArray(new SensorReading<?>[0]);
+    String[] names = new String[readings.length];
+    for (int i = 0; i < readings.length; i++) {
+      names[i] = readings[i].getName();
+    }
+    panes = (int) (windowMillis / slideMillis);
+    slots = readings.length;
+    int size = panes * slots;
+    count = new long[size];
+    errors = new long[size];
+    mean = new double[size];
+    m2 = new double[size];
+    min = new double[size];
+    max = new double[size];
+    last = new double[size];
+    lastTime = new long[size];
+    record = new AggregateRecord(names);
+    currentPane = NO_PANE;
+  }
+
+  /**
+   * Tumbling windows of windowMs, or sliding windows when slideMs is also given.
+   */
+  public static WindowedAggregator fromMap(Sensor sensor, Map<String, Object> config, Consumer<AggregateRecord> listener) {
+    long window = Long.parseLong(config.getOrDefault(WINDOW, "1000").toString());
+    long slide = config.containsKey(SLIDE) ? Long.parseLong(config.get(SLIDE).toString()) : window;
+    return new WindowedAggregator(sensor, window, slide, listener);
+  }
+
+  public static WindowedAggregator fromMap(I2CDeviceController controller, Map<String, Object> config, Consumer<AggregateRecord> listener) {
+    long window = Long.parseLong(config.getOrDefault(WINDOW, "1000").toString());
+    long slide = config.containsKey(SLIDE) ? Long.parseLong(config.get(SLIDE).toString()) : window;
+    return new WindowedAggregator(controller, window, slide, listener);
+  }
+
+  public int getReadingCount() {
+    return slots;
+  }
+
+  public void sample() {
+    sample(System.currentTimeMillis());
+  }
+
+  /**
+   * Reads every numeric reading once and adds the values to the pane that holds now. I2C sensors are read through
+   * their scheduler, or under the bus lock, so that the frame is consistent. Finished windows are emitted before
+   * the device is locked.
+   */
+  public void sample(long now) {
+    advance(now);
+    if (scheduler != null) {
+      try {
+        scheduler.execute(() -> {
+          readFrame(now);
+          return null;
+        });
+      } catch (IOException e) {
+        // The device is quarantined or the bus failed, every reading of the frame counts as an error
+        failFrame(now, e);
+      }
+      return;
+    }
+    if (busLock != null) {
+      busLock.lock();
+    }
+    try {
+      readFrame(now);
+    } finally {
+      if (busLock != null) {
+        busLock.unlock();
+      }
+    }
+  }
+
+  @SuppressWarnings("try") // the context only scopes memoized readings to this frame
+  private void readFrame(long now) {
+    paneLock.lock();
+    try {
+      sampleTime = now;
+      try (ReadingContext context = ReadingContext.open()) {
+        for (int i = 0; i < readings.length; i++) {
+          cursor = i;
+          readings[i].readInto(this);
+        }
+      }
+    } finally {
+      paneLock.unlock();
+    }
+  }
+
+  private void failFrame(long now, IOException error) {
+    paneLock.lock();
+    try {
+      sampleTime = now;
+      for (int i = 0; i < readings.length; i++) {
+        cursor = i;
+        acceptError(readings[i], error);
+      }
+    } finally {
+      paneLock.unlock();
+    }
+  }
+
+  /**
+   * Emits every window that ended at or before now, call it when samples may stop arriving.
+   */
+  public void advance(long now) {
+    paneLock.lock();
+    try {
+      long pane = Math.floorDiv(now, slideMillis);
+      if (currentPane == NO_PANE) {
+        currentPane = pane;
+        return;
+      }
+      long steps = pane - currentPane;
+      if (steps <= 0) {
+        return;
+      }
+      for (long i = 0; i < Math.min(steps, panes); i++) {
+        emit(currentPane);
+        currentPane++;
+        clearPane(paneIndex(currentPane));
+      }
+      if (currentPane != pane) {
+        // a gap longer than the window, nothing left to emit
+        for (int p = 0; p < panes; p++) {
+          clearPane(p);
+        }
+        currentPane = pane;
+      }
+    } finally {
+      paneLock.unlock();
+    }
+  }
+
+  /**
+   * Samples on a background thread every intervalMicros until closed.
+   */
+  public synchronized void start(long intervalMicros) {
+    if (worker != null) {
+      return;
+    }
+    long intervalNanos = intervalMicros * 1_000L;
+    worker = DeviceThreads.start("Aggregator", () -> run(intervalNanos));
+  }
+
+  @Override
+  public void close() {
+    Thread thread = worker;
+    worker = null;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  private void run(long intervalNanos) {
+    long next = System.nanoTime();
+    while (worker == Thread.currentThread()) {
+      try {
+        sample();
+      } catch (RuntimeException e) {
+        logger.log(DeviceLogMessage.SAMPLING_AGGREGATOR_FAILED, sensor.getClass().getSimpleName(), e.getMessage());
+      }
+      next += intervalNanos;
+      long wait = next - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      } else {
+        next = System.nanoTime();
+      }
+    }
+  }
+
+  @Override
+  public void acceptFloat(SensorReading<?> reading, float value) {
+    add(value);
+  }
+
+  @Override
+  public void acceptInt(SensorReading<?> reading, int value) {
+    add(value);
+  }
+
+  @Override
+  public void acceptLong(SensorReading<?> reading, long value) {
+    add(value);
+  }
+
+  @Override
+  public void accept(SensorReading<?> reading, Object value) {
+    if (value instanceof Number number) {
+      add(number.doubleValue());
+    } else {
+      errors[paneIndex(currentPane) * slots + cursor]++;
+    }
+  }
+
+  @Override
+  public void acceptError(SensorReading<?> reading, IOException error) {
+    errors[paneIndex(currentPane) * slots + cursor]++;
+  }
+
+  private void add(double value) {
+    int index = paneIndex(currentPane) * slots + cursor;
+    if (Double.isNaN(value)) {
+      errors[index]++;
+      return;
+    }
+    long n = ++count[index];
+    double delta = value - mean[index];
+    mean[index] += delta / n;
+    m2[index] += delta * (value - mean[index]);
+    if (n == 1 || value < min[index]) {
+      min[index] = value;
+    }
+    if (n == 1 || value > max[index]) {
+      max[index] = value;
+    }
+    last[index] = value;
+    lastTime[index] = sampleTime;
+  }
+
+  // Combines the panes of the window that ends with the given pane (Chan et al.) into the record
+  private void emit(long endPane) {
+    boolean empty = true;
+    for (int s = 0; s < slots; s++) {
+      long n = 0;
+      long errorCount = 0;
+      double wMean = 0;
+      double wM2 = 0;
+      double wMin = Double.NaN;
+      double wMax = Double.NaN;
+      double wLast = Double.NaN;
+      long wLastTime = Long.MIN_VALUE;
+      for (int p = 0; p < panes; p++) {
+        int index = p * slots + s;
+        errorCount += errors[index];
+        long nb = count[index];
+        if (nb == 0) {
+          continue;
+        }
+        long total = n + nb;
+        double delta = mean[index] - wMean;
+        wMean += delta * nb / total;
+        wM2 += m2[index] + delta * delta * ((double) n * nb / total);
+        wMin = n == 0 ? min[index] : Math.min(wMin, min[index]);
+        wMax = n == 0 ? max[index] : Math.max(wMax, max[index]);
+        if (lastTime[index] >= wLastTime) {
+          wLastTime = lastTime[index];
+          wLast = last[index];
+        }
+        n = total;
+      }
+      empty &= n == 0 && errorCount == 0;
+      record.getCount()[s] = n;
+      record.getErrors()[s] = errorCount;
+      record.getMin()[s] = wMin;
+      record.getMax()[s] = wMax;
+      record.getMean()[s] = n == 0 ? Double.NaN : wMean;
+      record.getStddev()[s] = n == 0 ? Double.NaN : Math.sqrt(wM2 / n);
+      record.getLast()[s] = wLast;
+    }
+    if (!empty) {
+      long end = (endPane + 1) * slideMillis;
+      record.setWindow(end - windowMillis, end);
+      listener.accept(record);
+    }
+  }
+
+  private void clearPane(int pane) {
+    int from = pane * slots;
+    int to = from + slots;
+    Arrays.fill(count, from, to, 0L);
+    Arrays.fill(errors, from, to, 0L);
+    Arrays.fill(mean, from, to, 0.0);
+    Arrays.fill(m2, from, to, 0.0);
+  }
+
+  private int paneIndex(long pane) {
+    return (int) Math.floorMod(pane, (long) panes);
+  }
+
+  private static Sensor sensorOf(I2CDeviceController controller) {
+    if (controller.getDevice() instanceof Sensor sensor) {
+      return sensor;
+    }
+    throw new IllegalArgumentException(controller.getName() + " is not a sensor");
+  }
+
+  private static void flatten(List<SensorReading<?>> list, List<SensorReading<?>> leaves) {
+    for (SensorReading<?> reading : list) {
+      if (reading instanceof GroupSensorReading group) {
+        flatten(group.getGroupList(), leaves);
+      } else if (reading instanceof NumericSensorReading<?>) {
+        leaves.add(reading);
+      }
+    }
+  }
+}
@@ -21,21 +21,62 @@ package io.mapsmessaging.devices.sensorreadings;
 
 import lombok.Getter;
 
+import java.io.IOException;
+
 public class FloatSensorReading extends NumericSensorReading<Float> {
 
+  private static final float[] SCALES = new float[10];
+
+  static {
+    for (int i = 0; i < SCALES.length; i++) {
+      SCALES[i] = (float) Math.pow(10, i);
+    }
+  }
+
   @Getter
   private final int precision;
+  private final FloatReadingSupplier floatSupplier;
 
   public FloatSensorReading(String name, String unit, String description, Float example, boolean readOnly, float min, float max, int precision, ReadingSupplier<Float> valueSupplier) {
+    this(name, unit, description, example, readOnly, min, max, precision, asFloatSupplier(valueSupplier));
+  }
+
+  public FloatSensorReading(String name, String unit, String description, Float example, boolean readOnly, float min, float max, int precision, FloatReadingSupplier valueSupplier) {
     super(name, unit, description, example, readOnly, min, max, valueSupplier);
     this.precision = precision;
+    this.floatSupplier = valueSupplier;
   }
 
   public static float roundToDecimalPlaces(float value, int places) {
-    float scale = (float) Math.pow(10, places);
+    float scale = places < SCALES.length ? SCALES[places] : (float) Math.pow(10, places);
     return Math.round(value * scale) / scale;
   }
 
+  static FloatReadingSupplier asFloatSupplier(ReadingSupplier<Float> supplier) {
+    if (supplier instanceof FloatReadingSupplier floatReadingSupplier) {
+      return floatReadingSupplier;
+    }
+    return supplier::get;
+  }
+
+  public float readFloat() throws IOException {
+    return ReadingContext.readFloat(this, floatSupplier);
+  }
+
+  @Override
+  public Float read() throws IOException {
+    return readFloat();
+  }
+
+  @Override
+  public void readInto(SensorSampleSink sink) {
+    try {
+      sink.acceptFloat(this, formatFloat(readFloat()));
+    } catch (IOException ioException) {
+      sink.acceptError(this, ioException);
+    }
+  }
+
   @Override
   protected Float format(Float val) {
     if (precision >= 0) {
@@ -43,4 +84,11 @@ public class FloatSensorReading extends NumericSensorReading<Float> {
     }
     return val;
   }
+
+  protected float formatFloat(float val) {
+    if (precision >= 0) {
+      return roundToDecimalPlaces(val, precision);
+    }
+    return val;
+  }
 }
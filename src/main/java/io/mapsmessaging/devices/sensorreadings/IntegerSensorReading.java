@@ -19,10 +19,36 @@
 
 package io.mapsmessaging.devices.sensorreadings;
 
+import java.io.IOException;
+
 public class IntegerSensorReading extends NumericSensorReading<Integer> {
 
+  private final IntReadingSupplier intSupplier;
+
   public IntegerSensorReading(String name, String unit, String description, Integer example, boolean readOnly, int min, int max, ReadingSupplier<Integer> valueSupplier) {
+    this(name, unit, description, example, readOnly, min, max, valueSupplier instanceof IntReadingSupplier primitive ? primitive : valueSupplier::get);
+  }
+
+  public IntegerSensorReading(String name, String unit, String description, Integer example, boolean readOnly, int min, int max, IntReadingSupplier valueSupplier) {
     super(name, unit, description, example, readOnly, min, max, valueSupplier);
+    this.intSupplier = valueSupplier;
   }
 
+  public int readInt() throws IOException {
+    return ReadingContext.readInt(this, intSupplier);
+  }
+
+  @Override
+  public Integer read() throws IOException {
+    return readInt();
+  }
+
+  @Override
+  public void readInto(SensorSampleSink sink) {
+    try {
+      sink.acceptInt(this, readInt());
+    } catch (IOException ioException) {
+      sink.acceptError(this, ioException);
+    }
+  }
 }
@@ -19,9 +19,36 @@
 
 package io.mapsmessaging.devices.sensorreadings;
 
+import java.io.IOException;
+
 public class LongSensorReading extends NumericSensorReading<Long> {
 
+  private final LongReadingSupplier longSupplier;
+
   public LongSensorReading(String name, String unit, String description, Long example, boolean readOnly, long min, long max, ReadingSupplier<Long> valueSupplier) {
+    this(name, unit, description, example, readOnly, min, max, valueSupplier instanceof LongReadingSupplier primitive ? primitive : valueSupplier::get);
+  }
+
+  public LongSensorReading(String name, String unit, String description, Long example, boolean readOnly, long min, long max, LongReadingSupplier valueSupplier) {
     super(name, unit, description, example, readOnly, min, max, valueSupplier);
+    this.longSupplier = valueSupplier;
+  }
+
+  public long readLong() throws IOException {
+    return ReadingContext.readLong(this, longSupplier);
+  }
+
+  @Override
+  public Long read() throws IOException {
+    return readLong();
+  }
+
+  @Override
+  public void readInto(SensorSampleSink sink) {
+    try {
+      sink.acceptLong(this, readLong());
+    } catch (IOException ioException) {
+      sink.acceptError(this, ioException);
+    }
   }
 }
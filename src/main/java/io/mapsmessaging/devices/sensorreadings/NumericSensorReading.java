@@ -32,4 +32,11 @@ public abstract class NumericSensorReading<T extends Number> extends SensorReadi
     this.minimum = min;
     this.maximum = max;
   }
+
+  /**
+   * @return the number of decimal places the value is rounded to, or -1 if it is not rounded
+   */
+  public int getPrecision() {
+    return -1;
+  }
 }
@@ -0,0 +1,248 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sensorreadings;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A frame scoped to a single state request on the current thread. While a frame is open every
+ * {@link SensorReading} is read from the hardware at most once; later reads in the same frame, such as the
+ * computed dew point asking for temperature and humidity again, are served from the frame. All readings in
+ * one state request therefore come from one coherent sample.
+ * <p>
+ * The frame also counts the bus transactions made while it is open, and the readings taken and failed.
+ */
+public final class ReadingContext implements AutoCloseable {
+
+  private static final ThreadLocal<ReadingContext> CURRENT = ThreadLocal.withInitial(ReadingContext::new);
+
+  private final Map<Object, Object> values;
+  private Object[] primitiveKeys;
+  private long[] primitiveValues;
+  private int primitiveCount;
+  private int depth;
+  private int transactions;
+  private int reads;
+  private int failures;
+
+  private ReadingContext() {
+    values = new IdentityHashMap<>();
+    primitiveKeys = new Object[32];
+    primitiveValues = new long[32];
+  }
+
+  /**
+   * Opens a frame, or joins the frame already open on this thread. The frame object is reused by the
+   * thread, so opening one does not allocate.
+   */
+  public static ReadingContext open() {
+    ReadingContext context = CURRENT.get();
+    if (context.depth == 0) {
+      context.transactions = 0;
+      context.reads = 0;
+      context.failures = 0;
+    }
+    context.depth++;
+    return context;
+  }
+
+  public static void recordTransaction() {
+    ReadingContext context = CURRENT.get();
+    if (context.depth > 0) {
+      context.transactions++;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> T read(Object key, ReadingSupplier<T> supplier) throws IOException {
+    ReadingContext context = CURRENT.get();
+    if (context.depth == 0) {
+      return supplier.get();
+    }
+    if (context.values.containsKey(key)) {
+      Object cached = context.values.get(key);
+      if (cached instanceof Failure failure) {
+        throw failure.exception;
+      }
+      return (T) cached;
+    }
+    context.reads++;
+    try {
+      T value = supplier.get();
+      context.values.put(key, value);
+      return value;
+    } catch (IOException e) {
+      context.failures++;
+      context.values.put(key, new Failure(e));
+      throw e;
+    }
+  }
+
+  public static float readFloat(Object key, FloatReadingSupplier supplier) throws IOException {
+    ReadingContext context = CURRENT.get();
+    if (context.depth == 0) {
+      return supplier.getAsFloat();
+    }
+    int slot = context.slot(key);
+    if (context.primitiveKeys[slot] == key) {
+      return Float.intBitsToFloat((int) context.primitiveValues[slot]);
+    }
+    context.checkFailure(key);
+    context.reads++;
+    try {
+      float value = supplier.getAsFloat();
+      context.store(slot, key, Float.floatToRawIntBits(value));
+      return value;
+    } catch (IOException e) {
+      context.failures++;
+      context.values.put(key, new Failure(e));
+      throw e;
+    }
+  }
+
+  public static int readInt(Object key, IntReadingSupplier supplier) throws IOException {
+    ReadingContext context = CURRENT.get();
+    if (context.depth == 0) {
+      return supplier.getAsInt();
+    }
+    int slot = context.slot(key);
+    if (context.primitiveKeys[slot] == key) {
+      return (int) context.primitiveValues[slot];
+    }
+    context.checkFailure(key);
+    context.reads++;
+    try {
+      int value = supplier.getAsInt();
+      context.store(slot, key, value);
+      return value;
+    } catch (IOException e) {
+      context.failures++;
+      context.values.put(key, new Failure(e));
+      throw e;
+    }
+  }
+
+  public static long readLong(Object key, LongReadingSupplier supplier) throws IOException {
+    ReadingContext context = CURRENT.get();
+    if (context.depth == 0) {
+      return supplier.getAsLong();
+    }
+    int slot = context.slot(key);
+    if (context.primitiveKeys[slot] == key) {
+      return context.primitiveValues[slot];
+    }
+    context.checkFailure(key);
+    context.reads++;
+    try {
+      long value = supplier.getAsLong();
+      context.store(slot, key, value);
+      return value;
+    } catch (IOException e) {
+      context.failures++;
+      context.values.put(key, new Failure(e));
+      throw e;
+    }
+  }
+
+  /**
+   * Wraps a supplier that is shared by several readings so it runs once per frame.
+   */
+  public static <T> ReadingSupplier<T> memoized(ReadingSupplier<T> supplier) {
+    return new ReadingSupplier<>() {
+      @Override
+      public T get() throws IOException {
+        return read(this, supplier);
+      }
+    };
+  }
+
+  public int getTransactionCount() {
+    return transactions;
+  }
+
+  /**
+   * @return the number of readings taken from the hardware in this frame
+   */
+  public int getReadCount() {
+    return reads;
+  }
+
+  /**
+   * @return the number of readings in this frame that failed
+   */
+  public int getFailureCount() {
+    return failures;
+  }
+
+  @Override
+  public void close() {
+    depth--;
+    if (depth == 0) {
+      // drop the references but keep the tables for the next frame
+      if (!values.isEmpty()) {
+        values.clear();
+      }
+      if (primitiveCount > 0) {
+        Arrays.fill(primitiveKeys, null);
+        primitiveCount = 0;
+      }
+    }
+  }
+
+  private void checkFailure(Object key) throws IOException {
+    if (!values.isEmpty() && values.get(key) instanceof Failure failure) {
+      throw failure.exception;
+    }
+  }
+
+  private int slot(Object key) {
+    int mask = primitiveKeys.length - 1;
+    int index = System.identityHashCode(key) & mask;
+    while (primitiveKeys[index] != null && primitiveKeys[index] != key) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  private void store(int slot, Object key, long value) {
+    primitiveKeys[slot] = key;
+    primitiveValues[slot] = value;
+    primitiveCount++;
+    if (primitiveCount * 2 > primitiveKeys.length) {
+      Object[] oldKeys = primitiveKeys;
+      long[] oldValues = primitiveValues;
+      primitiveKeys = new Object[oldKeys.length * 2];
+      primitiveValues = new long[oldKeys.length * 2];
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != null) {
+          int index = slot(oldKeys[i]);
+          primitiveKeys[index] = oldKeys[i];
+          primitiveValues[index] = oldValues[i];
+        }
+      }
+    }
+  }
+
+  private record Failure(IOException exception) {
+  }
+}
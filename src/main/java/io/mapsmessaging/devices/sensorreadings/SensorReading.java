@@ -50,12 +50,31 @@ public class SensorReading<T> {
 
   public ComputationResult<T> getValue() {
     try {
-      return ComputationResult.success(format(supplier.get()));
+      return ComputationResult.success(format(read()));
     } catch (IOException ioException) {
       return ComputationResult.failure(ioException);
     }
   }
 
+  /**
+   * Reads the raw, unformatted value. Inside a {@link ReadingContext} the hardware is only read once per frame.
+   */
+  public T read() throws IOException {
+    return ReadingContext.read(this, supplier);
+  }
+
+  /**
+   * Reads the value and hands it to the sink. Numeric readings override this to pass primitives, so the
+   * value is neither boxed nor wrapped in a {@link ComputationResult}.
+   */
+  public void readInto(SensorSampleSink sink) {
+    try {
+      sink.accept(this, format(read()));
+    } catch (IOException ioException) {
+      sink.acceptError(this, ioException);
+    }
+  }
+
   protected T format(T val) {
     return val;
   }
@@ -0,0 +1,42 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sensorreadings;
+
+import java.io.IOException;
+
+/**
+ * Receives the values produced by {@link SensorReading#readInto(SensorSampleSink)}. Float, integer and long
+ * readings arrive through the primitive methods, so a full pass over a sensor does not box.
+ */
+public interface SensorSampleSink {
+
+  void acceptFloat(SensorReading<?> reading, float value);
+
+  void acceptInt(SensorReading<?> reading, int value);
+
+  void acceptLong(SensorReading<?> reading, long value);
+
+  /**
+   * Any other reading type, the value is as returned by getValue()
+   */
+  void accept(SensorReading<?> reading, Object value);
+
+  void acceptError(SensorReading<?> reading, IOException error);
+}
@@ -19,25 +19,24 @@
 
 package io.mapsmessaging.devices.sensorreadings;
 
+import io.mapsmessaging.devices.util.IncrementalRollingComputation;
 import io.mapsmessaging.devices.util.RollingComputation;
 import lombok.Getter;
 
 import java.io.IOException;
-import java.util.ArrayDeque;
-import java.util.Deque;
 
 public class StatefulFloatSensorReading extends NumericSensorReading<Float> {
 
   @Getter
   private final int precision;
 
-  private final ReadingSupplier<Float> sourceSupplier;
-  private final int maxSamples;
+  private final FloatReadingSupplier sourceSupplier;
   private final long windowMillis;
   private final RollingComputation computation;
+  private final IncrementalRollingComputation incremental;
 
   private final Object lock;
-  private final Deque<TimedFloatSample> samples;
+  private final TimedFloatSampleRing samples;
 
   public StatefulFloatSensorReading(
       String name,
@@ -57,20 +56,47 @@ public class StatefulFloatSensorReading extends NumericSensorReading<Float> {
     SelfSupplier selfSupplier = (SelfSupplier) getSupplier();
 
     this.precision = precision;
-    this.sourceSupplier = sourceSupplier;
-    this.maxSamples = Math.max(1, maxSamples);
+    this.sourceSupplier = FloatSensorReading.asFloatSupplier(sourceSupplier);
     this.windowMillis = Math.max(1L, windowMillis);
     this.computation = computation;
+    this.incremental = computation instanceof IncrementalRollingComputation running ? running : null;
+    if (incremental != null) {
+      if (!incremental.claim()) {
+        throw new IllegalArgumentException(name + ": the incremental computation already belongs to another reading");
+      }
+      incremental.clear();
+    }
 
     this.lock = new Object();
-    this.samples = new ArrayDeque<>(this.maxSamples);
+    this.samples = new TimedFloatSampleRing(maxSamples);
 
     selfSupplier.setOwner(this);
   }
 
   public static float roundToDecimalPlaces(float value, int places) {
-    float scale = (float) Math.pow(10, places);
-    return Math.round(value * scale) / scale;
+    return FloatSensorReading.roundToDecimalPlaces(value, places);
+  }
+
+  public float readFloat() throws IOException {
+    return ReadingContext.readFloat(this, (SelfSupplier) getSupplier());
+  }
+
+  @Override
+  public Float read() throws IOException {
+    return readFloat();
+  }
+
+  @Override
+  public void readInto(SensorSampleSink sink) {
+    try {
+      float value = readFloat();
+      if (precision >= 0 && !Float.isNaN(value) && !Float.isInfinite(value)) {
+        value = roundToDecimalPlaces(value, precision);
+      }
+      sink.acceptFloat(this, value);
+    } catch (IOException ioException) {
+      sink.acceptError(this, ioException);
+    }
   }
 
   @Override
@@ -87,10 +113,10 @@ public class StatefulFloatSensorReading extends NumericSensorReading<Float> {
     return val;
   }
 
-  private Float computeValue() {
+  private float computeValue() {
     float latest;
     try {
-      latest = sourceSupplier.get();
+      latest = sourceSupplier.getAsFloat();
     }catch (IOException ioException) {
       return Float.NaN;
     }
@@ -99,38 +125,36 @@ public class StatefulFloatSensorReading extends NumericSensorReading<Float> {
 
     synchronized (lock) {
       if (!Float.isNaN(latest) && !Float.isInfinite(latest)) {
-        samples.addLast(new TimedFloatSample(now, latest));
+        if (samples.size() == samples.getCapacity()) {
+          evictOldest();
+        }
+        samples.add(now, latest);
+        if (incremental != null) {
+          incremental.add(now, latest);
+        }
       }
 
-      purgeExpired(now);
-      purgeOversize();
+      long cutoff = now - windowMillis;
+      while (!samples.isEmpty() && samples.time(0) < cutoff) {
+        evictOldest();
+      }
 
       if (samples.isEmpty()) {
         return Float.NaN;
       }
 
-      return computation.compute(samples);
-    }
-  }
-
-  private void purgeExpired(long now) {
-    long cutoff = now - windowMillis;
-    while (!samples.isEmpty()) {
-      TimedFloatSample first = samples.peekFirst();
-      if (first.epochMillis() >= cutoff) {
-        break;
-      }
-      samples.removeFirst();
+      return incremental != null ? incremental.result() : computation.compute(samples);
     }
   }
 
-  private void purgeOversize() {
-    while (samples.size() > maxSamples) {
-      samples.removeFirst();
+  private void evictOldest() {
+    if (incremental != null) {
+      incremental.evict(samples.time(0), samples.value(0));
     }
+    samples.removeFirst();
   }
 
-  private static final class SelfSupplier implements ReadingSupplier<Float> {
+  private static final class SelfSupplier implements FloatReadingSupplier {
 
     private StatefulFloatSensorReading owner;
 
@@ -139,7 +163,7 @@ public class StatefulFloatSensorReading extends NumericSensorReading<Float> {
     }
 
     @Override
-    public Float get() {
+    public float getAsFloat() {
       return owner.computeValue();
     }
   }
@@ -0,0 +1,187 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sensorreadings;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Time ordered float samples held in parallel primitive arrays used as a ring, oldest first. The arrays start
+ * small and double up to the capacity, once full adding a sample drops the oldest.
+ * <p>
+ * Sample i of the window is at {@code (start + i) % length} in {@link #getTimes()} and {@link #getValues()}, so
+ * computations can walk the window as at most two array slices without allocating. Iterating with
+ * {@link #iterator()} allocates a {@link TimedFloatSample} per sample and is kept for older computations.
+ */
+public final class TimedFloatSampleRing implements Iterable<TimedFloatSample> {
+
+  private static final int INITIAL_SIZE = 64;
+
+  private final int capacity;
+  private long[] times;
+  private float[] values;
+  private int start;
+  private int size;
+
+  public TimedFloatSampleRing(int capacity) {
+    this.capacity = Math.max(1, capacity);
+    int initial = Math.min(this.capacity, INITIAL_SIZE);
+    times = new long[initial];
+    values = new float[initial];
+  }
+
+  /**
+   * Copies the samples into a new ring, for computations that are handed an Iterable.
+   */
+  public static TimedFloatSampleRing copyOf(Iterable<TimedFloatSample> samples) {
+    if (samples instanceof TimedFloatSampleRing ring) {
+      return ring;
+    }
+    int count = 0;
+    for (TimedFloatSample ignored : samples) {
+      count++;
+    }
+    TimedFloatSampleRing ring = new TimedFloatSampleRing(count);
+    for (TimedFloatSample sample : samples) {
+      ring.add(sample.epochMillis(), sample.value());
+    }
+    return ring;
+  }
+
+  public void add(long epochMillis, float value) {
+    if (size == times.length) {
+      if (times.length < capacity) {
+        grow();
+      } else {
+        removeFirst();
+      }
+    }
+    int index = index(size);
+    times[index] = epochMillis;
+    values[index] = value;
+    size++;
+  }
+
+  public void removeFirst() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    start = start + 1 == times.length ? 0 : start + 1;
+    size--;
+  }
+
+  /**
+   * Drops the samples older than the cutoff.
+   */
+  public void removeBefore(long cutoffMillis) {
+    while (size > 0 && times[start] < cutoffMillis) {
+      removeFirst();
+    }
+  }
+
+  public void clear() {
+    start = 0;
+    size = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return the time of the i'th sample, 0 being the oldest
+   */
+  public long time(int i) {
+    return times[index(i)];
+  }
+
+  /**
+   * @return the value of the i'th sample, 0 being the oldest
+   */
+  public float value(int i) {
+    return values[index(i)];
+  }
+
+  /**
+   * The backing array, valid until the next add. Sample i is at {@code (getStart() + i) % getTimes().length}.
+   */
+  public long[] getTimes() {
+    return times;
+  }
+
+  /**
+   * The backing array, valid until the next add. Sample i is at {@code (getStart() + i) % getValues().length}.
+   */
+  public float[] getValues() {
+    return values;
+  }
+
+  public int getStart() {
+    return start;
+  }
+
+  @Override
+  public Iterator<TimedFloatSample> iterator() {
+    return new Iterator<>() {
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return next < size;
+      }
+
+      @Override
+      public TimedFloatSample next() {
+        if (next >= size) {
+          throw new NoSuchElementException();
+        }
+        int index = index(next++);
+        return new TimedFloatSample(times[index], values[index]);
+      }
+    };
+  }
+
+  private int index(int i) {
+    int index = start + i;
+    return index >= times.length ? index - times.length : index;
+  }
+
+  private void grow() {
+    int length = (int) Math.min(capacity, times.length * 2L);
+    long[] newTimes = new long[length];
+    float[] newValues = new float[length];
+    int head = Math.min(size, times.length - start);
+    System.arraycopy(times, start, newTimes, 0, head);
+    System.arraycopy(times, 0, newTimes, head, size - head);
+    System.arraycopy(values, start, newValues, 0, head);
+    System.arraycopy(values, 0, newValues, head, size - head);
+    times = newTimes;
+    values = newValues;
+    start = 0;
+  }
+}
@@ -19,25 +19,36 @@
 package io.mapsmessaging.devices.serial;
 
 import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.logging.DeviceLogMessage;
+import io.mapsmessaging.devices.registry.DriverRegistry;
+import io.mapsmessaging.devices.replay.TraceRecorder;
 import io.mapsmessaging.devices.serial.devices.sensors.SerialDevice;
+import io.mapsmessaging.logging.Logger;
+import io.mapsmessaging.logging.LoggerFactory;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.io.IOException;
 import java.util.Map;
-import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class SerialBusManager {
 
-  private Map<String, SerialDeviceController> knownDevices;
+  private final Logger logger = LoggerFactory.getLogger(SerialBusManager.class);
+  private final DriverRegistry<SerialDeviceController> knownDevices;
   private Map<String, DeviceController> activeDevices;
 
+  /**
+   * When set, the traffic of every port mounted from then on is written to the recorder, which is closed by
+   * {@link #close()}
+   */
+  @Getter
+  @Setter
+  private volatile TraceRecorder recorder;
+
   public SerialBusManager() {
-    knownDevices = new ConcurrentHashMap<>();
+    knownDevices = DriverRegistry.forService(SerialDeviceController.class);
     activeDevices = new ConcurrentHashMap<>();
-    ServiceLoader<SerialDeviceController> known = ServiceLoader.load(SerialDeviceController.class);
-    for (SerialDeviceController device : known) {
-      knownDevices.put(device.getName(), device);
-    }
   }
 
   public SerialDeviceController getDevice(String name) {
@@ -52,7 +63,8 @@ public class SerialBusManager {
   public SerialDeviceController mount(String name, SerialDevice serialDevice) throws IOException {
     SerialDeviceController controller = knownDevices.get(name);
     if (controller != null) {
-      controller = controller.mount(serialDevice);
+      TraceRecorder traceRecorder = recorder;
+      controller = controller.mount(traceRecorder != null ? traceRecorder.wrap(serialDevice) : serialDevice);
       activeDevices.put(name, controller);
     }
     return controller;
@@ -62,4 +74,16 @@ public class SerialBusManager {
     activeDevices.remove(serialDevice.getName());
   }
 
+  public void close() {
+    TraceRecorder traceRecorder = recorder;
+    recorder = null;
+    if (traceRecorder != null) {
+      try {
+        traceRecorder.close();
+      } catch (IOException e) {
+        logger.log(DeviceLogMessage.TRACE_RECORDING_FAILED, e.getMessage());
+      }
+    }
+  }
+
 }
@@ -0,0 +1,62 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.serial.devices.sensors;
+
+/**
+ * Modbus RTU CRC-16 (polynomial 0xA001, initial value 0xFFFF), transmitted low byte first.
+ */
+public class ModbusCrc16 {
+
+  public static int compute(byte[] data, int offset, int length) {
+    int crcValue = 0xFFFF;
+    for (int index = 0; index < length; index++) {
+      crcValue ^= (data[offset + index] & 0xFF);
+      for (int bitIndex = 0; bitIndex < 8; bitIndex++) {
+        if ((crcValue & 0x0001) != 0) {
+          crcValue = (crcValue >>> 1) ^ 0xA001;
+        } else {
+          crcValue = (crcValue >>> 1);
+        }
+      }
+    }
+    return crcValue & 0xFFFF;
+  }
+
+  public static void append(byte[] frame, int lengthWithoutCrc) {
+    int crcValue = compute(frame, 0, lengthWithoutCrc);
+    frame[lengthWithoutCrc] = (byte) (crcValue & 0xFF);
+    frame[lengthWithoutCrc + 1] = (byte) ((crcValue >> 8) & 0xFF);
+  }
+
+  public static boolean check(byte[] frame) {
+    if (frame.length < 3) {
+      return false;
+    }
+    int lengthWithoutCrc = frame.length - 2;
+    int expectedCrc = compute(frame, 0, lengthWithoutCrc);
+    int receivedCrc = (frame[lengthWithoutCrc] & 0xFF)
+        | ((frame[lengthWithoutCrc + 1] & 0xFF) << 8);
+    return expectedCrc == receivedCrc;
+  }
+
+  private ModbusCrc16() {
+    // static helpers only
+  }
+}
@@ -19,7 +19,6 @@
 package io.mapsmessaging.devices.serial.devices.sensors.sen0642;
 
 
-import com.google.gson.JsonObject;
 import io.mapsmessaging.devices.DeviceType;
 import io.mapsmessaging.devices.sensorreadings.SensorReading;
 import io.mapsmessaging.devices.serial.SerialDeviceController;
@@ -80,13 +79,15 @@ public class Sen0642Controller extends SerialDeviceController {
     return DeviceType.SENSOR;
   }
 
+  @Override
+  protected List<SensorReading<?>> getStateReadings() {
+    return sensor != null ? sensor.getReadings() : null;
+  }
+
   @Override
   public byte[] getDeviceState() throws IOException {
     try {
-      JsonObject jsonObject = new JsonObject();
-      List<SensorReading<?>> readings = sensor.getReadings();
-      walkSensorReadings(jsonObject, readings);
-      return convert(jsonObject);
+      return encodeState(sensor.getReadings());
     } catch (Exception e) {
       // Log this
     }
@@ -23,8 +23,11 @@ import io.mapsmessaging.devices.DeviceType;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
 import io.mapsmessaging.devices.sensorreadings.FloatSensorReading;
 import io.mapsmessaging.devices.sensorreadings.IntegerSensorReading;
+import io.mapsmessaging.devices.sensorreadings.ReadingContext;
 import io.mapsmessaging.devices.sensorreadings.SensorReading;
+import io.mapsmessaging.devices.serial.devices.sensors.ModbusCrc16;
 import io.mapsmessaging.devices.serial.devices.sensors.SerialDevice;
+import io.mapsmessaging.devices.util.Delay;
 import lombok.Getter;
 
 import java.io.IOException;
@@ -268,7 +271,7 @@ public class Sen0642Sensor implements Device, Sensor {
     if ((response[1] & 0xFF) != expectedFunction) {
       throw new IOException("Unexpected function code in response: " + (response[1] & 0xFF));
     }
-    if (!checkCrc(response)) {
+    if (!ModbusCrc16.check(response)) {
       throw new IOException("CRC check failed for response");
     }
   }
@@ -277,6 +280,7 @@ public class Sen0642Sensor implements Device, Sensor {
     if (!serialPort.isOpen()) {
       throw new IOException("Serial port is not open");
     }
+    ReadingContext.recordTransaction();
 
     int bytesWritten = serialPort.writeBytes(request, request.length);
     if (bytesWritten != request.length) {
@@ -300,6 +304,8 @@ public class Sen0642Sensor implements Device, Sensor {
         throw new IOException("Error reading from serial port, readBytes=" + readCount);
       }
       if (readCount == 0) {
+        // Nothing yet, park briefly rather than spin so the thread (or its carrier) is free until the next byte
+        Delay.pause(1);
         continue;
       }
 
@@ -319,7 +325,7 @@ public class Sen0642Sensor implements Device, Sensor {
     frame[3] = (byte) (startRegister & 0xFF);
     frame[4] = (byte) ((registerCount >> 8) & 0xFF);
     frame[5] = (byte) (registerCount & 0xFF);
-    appendCrc(frame, 6);
+    ModbusCrc16.append(frame, 6);
     return frame;
   }
 
@@ -333,46 +339,10 @@ public class Sen0642Sensor implements Device, Sensor {
     frame[3] = (byte) (registerAddress & 0xFF);
     frame[4] = (byte) ((value >> 8) & 0xFF);
     frame[5] = (byte) (value & 0xFF);
-    appendCrc(frame, 6);
+    ModbusCrc16.append(frame, 6);
     return frame;
   }
 
-  // -------------------------------------------------------------------------
-  // CRC16 (Modbus) helpers: polynomial 0xA001, low-byte first
-  // -------------------------------------------------------------------------
-
-  private static void appendCrc(byte[] frame, int lengthWithoutCrc) {
-    int crcValue = computeCrc16(frame, 0, lengthWithoutCrc);
-    frame[lengthWithoutCrc] = (byte) (crcValue & 0xFF);
-    frame[lengthWithoutCrc + 1] = (byte) ((crcValue >> 8) & 0xFF);
-  }
-
-  private static boolean checkCrc(byte[] frame) {
-    if (frame.length < 3) {
-      return false;
-    }
-    int lengthWithoutCrc = frame.length - 2;
-    int expectedCrc = computeCrc16(frame, 0, lengthWithoutCrc);
-    int receivedCrc = (frame[lengthWithoutCrc] & 0xFF)
-        | ((frame[lengthWithoutCrc + 1] & 0xFF) << 8);
-    return expectedCrc == receivedCrc;
-  }
-
-  private static int computeCrc16(byte[] data, int offset, int length) {
-    int crcValue = 0xFFFF;
-    for (int index = 0; index < length; index++) {
-      crcValue ^= (data[offset + index] & 0xFF);
-      for (int bitIndex = 0; bitIndex < 8; bitIndex++) {
-        if ((crcValue & 0x0001) != 0) {
-          crcValue = (crcValue >>> 1) ^ 0xA001;
-        } else {
-          crcValue = (crcValue >>> 1);
-        }
-      }
-    }
-    return crcValue & 0xFFFF;
-  }
-
   // -------------------------------------------------------------------------
   // Baud rate enum mapped to register 0x07D1 values
   // -------------------------------------------------------------------------
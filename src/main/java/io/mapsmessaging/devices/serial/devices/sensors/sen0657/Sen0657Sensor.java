@@ -22,11 +22,13 @@ import io.mapsmessaging.devices.Device;
 import io.mapsmessaging.devices.DeviceType;
 import io.mapsmessaging.devices.deviceinterfaces.Sensor;
 import io.mapsmessaging.devices.sensorreadings.*;
+import io.mapsmessaging.devices.serial.devices.sensors.ModbusCrc16;
 import io.mapsmessaging.devices.serial.devices.sensors.SerialDevice;
 import io.mapsmessaging.devices.util.AccumulatingCounterDelta;
-import io.mapsmessaging.devices.util.RollingBucketAccumulator;
+import io.mapsmessaging.devices.util.Delay;
 import io.mapsmessaging.devices.util.RollingComputations;
 import io.mapsmessaging.devices.util.SensorReadingAugmentor;
+import io.mapsmessaging.devices.util.TimeWheelAccumulator;
 import lombok.Getter;
 
 import java.io.IOException;
@@ -170,7 +172,7 @@ public class Sen0657Sensor implements Device, Sensor {
             this::getWindSpeedMetersPerSecond,
             50,
             10_000L,
-            RollingComputations.max()
+            RollingComputations.incrementalMax()
         )
     );
 
@@ -181,23 +183,22 @@ public class Sen0657Sensor implements Device, Sensor {
     if(SensorReadingAugmentor.isENABLE_COMPUTED_READINGS()) {
       AccumulatingCounterDelta rainfallDelta = new AccumulatingCounterDelta();
 
-      RollingBucketAccumulator rain10Min = new RollingBucketAccumulator(10L * 60_000L, 5_000L);        // 5s buckets
-      RollingBucketAccumulator rain1Hour = new RollingBucketAccumulator(60L * 60_000L, 60_000L);       // 1m buckets
-      RollingBucketAccumulator rain24Hour = new RollingBucketAccumulator(24L * 60L * 60_000L, 60_000L);// 1m buckets
+      TimeWheelAccumulator rainfall = new TimeWheelAccumulator();
+      TimeWheelAccumulator.Window rain10Min = rainfall.addWindow(10L * 60_000L, 5_000L);          // 5s buckets
+      TimeWheelAccumulator.Window rain1Hour = rainfall.addWindow(60L * 60_000L, 60_000L);         // 1m buckets
+      TimeWheelAccumulator.Window rain24Hour = rainfall.addWindow(24L * 60L * 60_000L, 60_000L);  // 1m buckets, shares the 1 hour level
 
-      ReadingSupplier<Float> rainUpdateAndReturn10Min = () -> {
+      ReadingSupplier<Float> rainUpdateAndReturn10Min = ReadingContext.memoized(() -> {
         long now = System.currentTimeMillis();
         float total = getRainfallMillimeters();
         float delta = rainfallDelta.computeDelta(total);
 
         if (!Float.isNaN(delta)) {
-          rain10Min.add(now, delta);
-          rain1Hour.add(now, delta);
-          rain24Hour.add(now, delta);
+          rainfall.add(now, delta);
         }
 
         return rain10Min.getSum();
-      };
+      });
 
 
       StatefulFloatSensorReading pressureTrendHpaPerHour = new StatefulFloatSensorReading(
@@ -212,7 +213,7 @@ public class Sen0657Sensor implements Device, Sensor {
           this::getAtmosphericPressureHpa,
           180,              // up to 180 samples
           3L * 3_600_000L,  // 3 hours
-          RollingComputations.slopeLeastSquaresPerHour()
+          RollingComputations.incrementalSlopeLeastSquaresPerHour()
       );
 
       StatefulFloatSensorReading pressureTrendHpaPer3Hours = new StatefulFloatSensorReading(
@@ -224,7 +225,7 @@ public class Sen0657Sensor implements Device, Sensor {
           -10.0f,
           10.0f,
           3,
-          () -> pressureTrendHpaPerHour.getSupplier().get(),
+          () -> pressureTrendHpaPerHour.read(),
           1,
           1_000L,
           samples -> {
@@ -248,7 +249,7 @@ public class Sen0657Sensor implements Device, Sensor {
               "Unknown",
               false,
               () -> describePressureTendency(
-                  pressureTrendHpaPer3Hours.getSupplier().get()
+                  pressureTrendHpaPer3Hours.read()
               )
           ),
           new BooleanSensorReading(
@@ -259,7 +260,7 @@ public class Sen0657Sensor implements Device, Sensor {
               true,
               () -> stormWarning(
                   this.getAtmosphericPressureHpa(),
-                  pressureTrendHpaPer3Hours.getSupplier().get()
+                  pressureTrendHpaPer3Hours.read()
               )
           ),
           new FloatSensorReading(
@@ -271,7 +272,7 @@ public class Sen0657Sensor implements Device, Sensor {
               0.0f,
               1.0f,
               2,
-              () -> stormRisk(getAtmosphericPressureHpa(), pressureTrendHpaPer3Hours.getSupplier().get())
+              () -> stormRisk(getAtmosphericPressureHpa(), pressureTrendHpaPer3Hours.read())
           ),
 
           new StatefulFloatSensorReading(
@@ -542,6 +543,7 @@ public class Sen0657Sensor implements Device, Sensor {
     if (!serialPort.isOpen()) {
       throw new IOException("Serial port is not open");
     }
+    ReadingContext.recordTransaction();
 
     byte[] request = buildReadHoldingRegisterRequest(deviceAddress, startRegister, registerCount);
 
@@ -566,12 +568,14 @@ public class Sen0657Sensor implements Device, Sensor {
         throw new IOException("Error reading from serial port, readBytes=" + readCount);
       }
       if (readCount == 0) {
+        // Nothing yet, park briefly rather than spin so the thread (or its carrier) is free until the next byte
+        Delay.pause(1);
         continue;
       }
       bytesRead += readCount;
     }
 
-    if (!checkCrc(buffer)) {
+    if (!ModbusCrc16.check(buffer)) {
       throw new IOException("CRC check failed for response");
     }
 
@@ -610,42 +614,10 @@ public class Sen0657Sensor implements Device, Sensor {
     frame[3] = (byte) (startRegister & 0xFF);
     frame[4] = (byte) ((registerCount >> 8) & 0xFF);
     frame[5] = (byte) (registerCount & 0xFF);
-    appendCrc(frame);
+    ModbusCrc16.append(frame, 6);
     return frame;
   }
 
-  private static void appendCrc(byte[] frame) {
-    int crcValue = computeCrc16(frame, 6);
-    frame[6] = (byte) (crcValue & 0xFF);
-    frame[6 + 1] = (byte) ((crcValue >> 8) & 0xFF);
-  }
-
-  private static boolean checkCrc(byte[] frame) {
-    if (frame.length < 3) {
-      return false;
-    }
-    int lengthWithoutCrc = frame.length - 2;
-    int expectedCrc = computeCrc16(frame, lengthWithoutCrc);
-    int receivedCrc = (frame[lengthWithoutCrc] & 0xFF)
-        | ((frame[lengthWithoutCrc + 1] & 0xFF) << 8);
-    return expectedCrc == receivedCrc;
-  }
-
-  private static int computeCrc16(byte[] data, int length) {
-    int crcValue = 0xFFFF;
-    for (int index = 0; index < length; index++) {
-      crcValue ^= (data[index] & 0xFF);
-      for (int bitIndex = 0; bitIndex < 8; bitIndex++) {
-        if ((crcValue & 0x0001) != 0) {
-          crcValue = (crcValue >>> 1) ^ 0xA001;
-        } else {
-          crcValue = (crcValue >>> 1);
-        }
-      }
-    }
-    return crcValue & 0xFFFF;
-  }
-
   @Override
   public String getName() {
     return "Sen0657";
@@ -22,6 +22,7 @@ package io.mapsmessaging.devices.spi;
 import com.pi4j.context.Context;
 import io.mapsmessaging.devices.DeviceController;
 import io.mapsmessaging.devices.logging.DeviceLogMessage;
+import io.mapsmessaging.devices.registry.DriverRegistry;
 import io.mapsmessaging.logging.Logger;
 import io.mapsmessaging.logging.LoggerFactory;
 
@@ -32,7 +33,7 @@ public class SpiBusManager {
 
   private final Logger logger = LoggerFactory.getLogger(SpiBusManager.class);
 
-  private final Map<String, SpiDeviceController> knownDevices;
+  private final DriverRegistry<SpiDeviceController> knownDevices;
   private final Map<String, DeviceController> activeDevices;
 
   private final Context pi4j;
@@ -41,12 +42,8 @@ public class SpiBusManager {
     logger.log(DeviceLogMessage.SPI_BUS_MANAGER_STARTUP);
 
     this.pi4j = pi4j;
-    knownDevices = new LinkedHashMap<>();
+    knownDevices = DriverRegistry.forService(SpiDeviceController.class);
     activeDevices = new ConcurrentHashMap<>();
-    ServiceLoader<SpiDeviceController> deviceEntries = ServiceLoader.load(SpiDeviceController.class);
-    for (SpiDeviceController controller : deviceEntries) {
-      knownDevices.putIfAbsent(controller.getName(), controller);
-    }
   }
 
   public SpiDeviceController configureDevice(String spiName, Map<String, String> configuration) {
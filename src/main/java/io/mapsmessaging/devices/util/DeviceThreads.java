@@ -0,0 +1,122 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.util;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the helper threads used by the device library: bus workers, interrupt pollers, display tasks and
+ * sampled reads of blocking devices. In {@link Mode#VIRTUAL} mode these are virtual threads, so hundreds of
+ * mostly sleeping workers do not each cost a platform thread.
+ * <p>
+ * The mode defaults to the "device.threads" system property, "platform" or "virtual". Virtual threads need
+ * JDK 21 or later, on older runtimes {@link Mode#VIRTUAL} falls back to daemon platform threads.
+ */
+public final class DeviceThreads {
+
+  public static final String THREADS_PROPERTY = "device.threads";
+
+  public enum Mode {
+    PLATFORM,
+    VIRTUAL
+  }
+
+  private static final boolean VIRTUAL_SUPPORTED = virtualFactory("Probe-") != null;
+  private static final AtomicInteger COUNTER = new AtomicInteger();
+
+  private static volatile Mode mode = parseMode(System.getProperty(THREADS_PROPERTY, "platform"));
+
+  private DeviceThreads() {
+    // No Op
+  }
+
+  public static Mode getMode() {
+    return mode;
+  }
+
+  public static void setMode(Mode newMode) {
+    mode = newMode;
+  }
+
+  public static boolean isVirtualSupported() {
+    return VIRTUAL_SUPPORTED;
+  }
+
+  /**
+   * @return true if new threads will be virtual threads
+   */
+  public static boolean isVirtual() {
+    return mode == Mode.VIRTUAL && VIRTUAL_SUPPORTED;
+  }
+
+  /**
+   * Threads from the factory are named prefix followed by a counter, platform threads are daemon threads.
+   * The mode is read when the factory is created.
+   */
+  public static ThreadFactory factory(String prefix) {
+    if (isVirtual()) {
+      ThreadFactory factory = virtualFactory(prefix);
+      if (factory != null) {
+        return factory;
+      }
+    }
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Starts a single named thread for the runnable.
+   */
+  public static Thread start(String name, Runnable runnable) {
+    Thread thread = factory(name + "-").newThread(runnable);
+    thread.setName(name + "-" + COUNTER.incrementAndGet());
+    thread.start();
+    return thread;
+  }
+
+  static Mode parseMode(String value) {
+    try {
+      return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      return Mode.PLATFORM;
+    }
+  }
+
+  // Built by reflection so the library still runs on JDK 17
+  @SuppressWarnings("java:S1181") // preview or missing APIs fail in several ways, all mean no virtual threads
+  private static ThreadFactory virtualFactory(String prefix) {
+    try {
+      Method ofVirtual = Thread.class.getMethod("ofVirtual");
+      Object builder = ofVirtual.invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+}
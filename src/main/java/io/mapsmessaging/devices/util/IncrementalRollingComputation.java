@@ -0,0 +1,53 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.util;
+
+/**
+ * A {@link RollingComputation} that keeps its own running state, so the result costs O(1) per sample instead of
+ * a pass over the window. The owner of the window calls {@link #add} for every new sample and {@link #evict} for
+ * every sample dropped from the window, oldest first. Instances hold the state of one window, so the owner
+ * {@link #claim() claims} the instance before using it.
+ * <p>
+ * The compute methods are stateless batch passes and give the same result as {@link #result()} over the same
+ * samples.
+ */
+public interface IncrementalRollingComputation extends RollingComputation {
+
+  void add(long epochMillis, float value);
+
+  /**
+   * Removes the oldest sample still in the window, which must be the one given.
+   */
+  void evict(long epochMillis, float value);
+
+  void clear();
+
+  /**
+   * Marks this instance as owned by one window.
+   *
+   * @return false if another owner already claimed it
+   */
+  boolean claim();
+
+  /**
+   * @return the value over the samples added and not yet evicted, NaN if there are not enough
+   */
+  float result();
+}
@@ -20,8 +20,17 @@
 package io.mapsmessaging.devices.util;
 
 import io.mapsmessaging.devices.sensorreadings.TimedFloatSample;
+import io.mapsmessaging.devices.sensorreadings.TimedFloatSampleRing;
 
 @FunctionalInterface
 public interface RollingComputation {
   float compute(Iterable<TimedFloatSample> samples);
+
+  /**
+   * Computes over the ring's arrays. The computations in {@link RollingComputations} override this to index the
+   * arrays directly, others fall back to iterating the samples.
+   */
+  default float compute(TimedFloatSampleRing samples) {
+    return compute((Iterable<TimedFloatSample>) samples);
+  }
 }
\ No newline at end of file
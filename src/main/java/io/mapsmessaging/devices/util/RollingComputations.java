@@ -21,6 +21,9 @@ package io.mapsmessaging.devices.util;
 
 
 import io.mapsmessaging.devices.sensorreadings.TimedFloatSample;
+import io.mapsmessaging.devices.sensorreadings.TimedFloatSampleRing;
+
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class RollingComputations {
 
@@ -28,141 +31,134 @@ public class RollingComputations {
   }
 
   public static RollingComputation deltaFirstToLastNonNegative() {
-    return samples -> {
-      TimedFloatSample first = null;
-      TimedFloatSample last = null;
-
-      for (TimedFloatSample sample : samples) {
-        if (first == null) {
-          first = sample;
-        }
-        last = sample;
-      }
-
-      if (first == null || last == null) {
+    return of(samples -> {
+      int size = samples.size();
+      if (size == 0) {
         return Float.NaN;
       }
 
-      float delta = last.value() - first.value();
+      float delta = samples.value(size - 1) - samples.value(0);
       if (delta < 0.0f) {
         return Float.NaN;
       }
       return delta;
-    };
+    });
   }
 
   public static RollingComputation ratePerHourFirstToLastNonNegative() {
-    return samples -> {
-      TimedFloatSample first = null;
-      TimedFloatSample last = null;
-
-      for (TimedFloatSample sample : samples) {
-        if (first == null) {
-          first = sample;
-        }
-        last = sample;
-      }
-
-      if (first == null || last == null) {
+    return of(samples -> {
+      int size = samples.size();
+      if (size == 0) {
         return Float.NaN;
       }
 
-      long dtMillis = last.epochMillis() - first.epochMillis();
+      long dtMillis = samples.time(size - 1) - samples.time(0);
       if (dtMillis <= 0L) {
         return Float.NaN;
       }
 
-      float delta = last.value() - first.value();
+      float delta = samples.value(size - 1) - samples.value(0);
       if (delta < 0.0f) {
         return Float.NaN;
       }
 
       double dtHours = (double) dtMillis / 3_600_000.0;
       return (float) (delta / dtHours);
-    };
+    });
   }
 
 
   public static RollingComputation average() {
-    return samples -> {
+    return of(samples -> {
+      int size = samples.size();
+      if (size == 0) {
+        return Float.NaN;
+      }
+      float[] values = samples.getValues();
+      int start = samples.getStart();
+      int head = Math.min(size, values.length - start);
       double sum = 0.0;
-      long count = 0L;
-      for (TimedFloatSample sample : samples) {
-        sum += sample.value();
-        count++;
+      for (int i = start; i < start + head; i++) {
+        sum += values[i];
       }
-      if (count == 0L) {
-        return Float.NaN;
+      for (int i = 0; i < size - head; i++) {
+        sum += values[i];
       }
-      return (float) (sum / (double) count);
-    };
+      return (float) (sum / (double) size);
+    });
   }
 
   public static RollingComputation min() {
-    return samples -> {
+    return of(samples -> {
+      int size = samples.size();
+      if (size == 0) {
+        return Float.NaN;
+      }
+      float[] values = samples.getValues();
+      int start = samples.getStart();
+      int head = Math.min(size, values.length - start);
       float min = Float.POSITIVE_INFINITY;
-      boolean has = false;
-      for (TimedFloatSample sample : samples) {
-        has = true;
-        if (sample.value() < min) {
-          min = sample.value();
+      for (int i = start; i < start + head; i++) {
+        if (values[i] < min) {
+          min = values[i];
         }
       }
-      return has ? min : Float.NaN;
-    };
+      for (int i = 0; i < size - head; i++) {
+        if (values[i] < min) {
+          min = values[i];
+        }
+      }
+      return min;
+    });
   }
 
   public static RollingComputation max() {
-    return samples -> {
+    return of(samples -> {
+      int size = samples.size();
+      if (size == 0) {
+        return Float.NaN;
+      }
+      float[] values = samples.getValues();
+      int start = samples.getStart();
+      int head = Math.min(size, values.length - start);
       float max = Float.NEGATIVE_INFINITY;
-      boolean has = false;
-      for (TimedFloatSample sample : samples) {
-        has = true;
-        if (sample.value() > max) {
-          max = sample.value();
+      for (int i = start; i < start + head; i++) {
+        if (values[i] > max) {
+          max = values[i];
         }
       }
-      return has ? max : Float.NaN;
-    };
+      for (int i = 0; i < size - head; i++) {
+        if (values[i] > max) {
+          max = values[i];
+        }
+      }
+      return max;
+    });
   }
 
   public static RollingComputation deltaFirstToLast() {
-    return samples -> {
-      TimedFloatSample first = null;
-      TimedFloatSample last = null;
-      for (TimedFloatSample sample : samples) {
-        if (first == null) {
-          first = sample;
-        }
-        last = sample;
-      }
-      if (first == null || last == null) {
+    return of(samples -> {
+      int size = samples.size();
+      if (size == 0) {
         return Float.NaN;
       }
-      return last.value() - first.value();
-    };
+      return samples.value(size - 1) - samples.value(0);
+    });
   }
 
   public static RollingComputation ratePerHourFirstToLast() {
-    return samples -> {
-      TimedFloatSample first = null;
-      TimedFloatSample last = null;
-      for (TimedFloatSample sample : samples) {
-        if (first == null) {
-          first = sample;
-        }
-        last = sample;
-      }
-      if (first == null || last == null) {
+    return of(samples -> {
+      int size = samples.size();
+      if (size == 0) {
         return Float.NaN;
       }
-      long dtMillis = last.epochMillis() - first.epochMillis();
+      long dtMillis = samples.time(size - 1) - samples.time(0);
       if (dtMillis <= 0L) {
         return Float.NaN;
       }
       double dtHours = (double) dtMillis / 3_600_000.0;
-      return (float) ((last.value() - first.value()) / dtHours);
-    };
+      return (float) ((samples.value(size - 1) - samples.value(0)) / dtHours);
+    });
   }
 
   /**
@@ -170,32 +166,32 @@ public class RollingComputations {
    * More stable than first-to-last when pressure is noisy.
    */
   public static RollingComputation slopeLeastSquaresPerHour() {
-    return samples -> {
-      TimedFloatSample first = null;
-      long count = 0L;
+    return of(samples -> {
+      int count = samples.size();
+      if (count < 2) {
+        return Float.NaN;
+      }
+
+      long[] times = samples.getTimes();
+      float[] values = samples.getValues();
+      int start = samples.getStart();
+      long firstMillis = times[start];
 
       double sumX = 0.0;
       double sumY = 0.0;
       double sumXX = 0.0;
       double sumXY = 0.0;
 
-      for (TimedFloatSample sample : samples) {
-        if (first == null) {
-          first = sample;
-        }
-
-        double xHours = (double) (sample.epochMillis() - first.epochMillis()) / 3_600_000.0;
-        double y = sample.value();
+      int index = start;
+      for (int i = 0; i < count; i++) {
+        double xHours = (double) (times[index] - firstMillis) / 3_600_000.0;
+        double y = values[index];
 
         sumX += xHours;
         sumY += y;
         sumXX += xHours * xHours;
         sumXY += xHours * y;
-        count++;
-      }
-
-      if (count < 2L) {
-        return Float.NaN;
+        index = index + 1 == times.length ? 0 : index + 1;
       }
 
       double denom = (count * sumXX) - (sumX * sumX);
@@ -205,6 +201,271 @@ public class RollingComputations {
 
       double slopePerHour = ((count * sumXY) - (sumX * sumY)) / denom;
       return (float) slopePerHour;
+    });
+  }
+
+  /**
+   * Average kept as a compensated running sum.
+   */
+  public static IncrementalRollingComputation incrementalAverage() {
+    return new IncrementalAverage();
+  }
+
+  /**
+   * Minimum kept in a monotonic queue, each sample is queued and dropped at most once.
+   */
+  public static IncrementalRollingComputation incrementalMin() {
+    return new IncrementalExtreme(min(), true);
+  }
+
+  /**
+   * Maximum kept in a monotonic queue, each sample is queued and dropped at most once.
+   */
+  public static IncrementalRollingComputation incrementalMax() {
+    return new IncrementalExtreme(max(), false);
+  }
+
+  /**
+   * Least-squares slope per hour kept as compensated running sums of x, y, xx and xy.
+   */
+  public static IncrementalRollingComputation incrementalSlopeLeastSquaresPerHour() {
+    return new IncrementalSlope();
+  }
+
+  // Computations work on the ring's arrays, an Iterable is copied into a ring first
+  private static RollingComputation of(RingComputation computation) {
+    return new RollingComputation() {
+      @Override
+      public float compute(Iterable<TimedFloatSample> samples) {
+        return computation.compute(TimedFloatSampleRing.copyOf(samples));
+      }
+
+      @Override
+      public float compute(TimedFloatSampleRing samples) {
+        return computation.compute(samples);
+      }
     };
   }
-}
\ No newline at end of file
+
+  @FunctionalInterface
+  private interface RingComputation {
+    float compute(TimedFloatSampleRing samples);
+  }
+
+  private abstract static class Incremental implements IncrementalRollingComputation {
+
+    private final RollingComputation batch;
+    private final AtomicBoolean claimed;
+
+    protected Incremental(RollingComputation batch) {
+      this.batch = batch;
+      claimed = new AtomicBoolean();
+    }
+
+    @Override
+    public boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+
+    @Override
+    public float compute(Iterable<TimedFloatSample> samples) {
+      return batch.compute(samples);
+    }
+
+    @Override
+    public float compute(TimedFloatSampleRing samples) {
+      return batch.compute(samples);
+    }
+  }
+
+  private static final class IncrementalAverage extends Incremental {
+
+    private final CompensatedSum sum = new CompensatedSum();
+    private long count;
+
+    private IncrementalAverage() {
+      super(average());
+    }
+
+    @Override
+    public void add(long epochMillis, float value) {
+      sum.add(value);
+      count++;
+    }
+
+    @Override
+    public void evict(long epochMillis, float value) {
+      sum.add(-value);
+      if (--count == 0) {
+        sum.set(0.0);
+      }
+    }
+
+    @Override
+    public void clear() {
+      sum.set(0.0);
+      count = 0;
+    }
+
+    @Override
+    public float result() {
+      return count == 0 ? Float.NaN : (float) (sum.value() / count);
+    }
+  }
+
+  // Queue of the samples that can still become the extreme, by sequence number, the head is the extreme
+  private static final class IncrementalExtreme extends Incremental {
+
+    private final boolean minimum;
+    private long[] sequences;
+    private float[] values;
+    private int head;
+    private int size;
+    private long added;
+    private long evicted;
+
+    private IncrementalExtreme(RollingComputation batch, boolean minimum) {
+      super(batch);
+      this.minimum = minimum;
+      sequences = new long[16];
+      values = new float[16];
+    }
+
+    @Override
+    public void add(long epochMillis, float value) {
+      // samples that can no longer be the extreme are dropped from the tail
+      while (size > 0 && dominates(value, values[index(size - 1)])) {
+        size--;
+      }
+      if (size == sequences.length) {
+        grow();
+      }
+      int index = index(size);
+      sequences[index] = added++;
+      values[index] = value;
+      size++;
+    }
+
+    @Override
+    public void evict(long epochMillis, float value) {
+      if (size > 0 && sequences[head] == evicted) {
+        head = index(1);
+        size--;
+      }
+      evicted++;
+    }
+
+    @Override
+    public void clear() {
+      head = 0;
+      size = 0;
+      added = 0;
+      evicted = 0;
+    }
+
+    @Override
+    public float result() {
+      return size == 0 ? Float.NaN : values[head];
+    }
+
+    private boolean dominates(float value, float queued) {
+      return minimum ? value <= queued : value >= queued;
+    }
+
+    private int index(int i) {
+      int index = head + i;
+      return index >= sequences.length ? index - sequences.length : index;
+    }
+
+    private void grow() {
+      long[] newSequences = new long[sequences.length * 2];
+      float[] newValues = new float[values.length * 2];
+      for (int i = 0; i < size; i++) {
+        newSequences[i] = sequences[index(i)];
+        newValues[i] = values[index(i)];
+      }
+      sequences = newSequences;
+      values = newValues;
+      head = 0;
+    }
+  }
+
+  // x is in hours from an origin that is moved up to the oldest sample each time the window has turned over,
+  // so the sums stay small. The slope does not depend on the origin.
+  private static final class IncrementalSlope extends Incremental {
+
+    private final CompensatedSum sumX = new CompensatedSum();
+    private final CompensatedSum sumY = new CompensatedSum();
+    private final CompensatedSum sumXX = new CompensatedSum();
+    private final CompensatedSum sumXY = new CompensatedSum();
+    private long originMillis;
+    private long count;
+    private long evictedSinceRebase;
+
+    private IncrementalSlope() {
+      super(slopeLeastSquaresPerHour());
+    }
+
+    @Override
+    public void add(long epochMillis, float value) {
+      if (count == 0) {
+        originMillis = epochMillis;
+      }
+      update(epochMillis, value, 1.0);
+      count++;
+    }
+
+    @Override
+    public void evict(long epochMillis, float value) {
+      if (--count == 0) {
+        clear();
+        return;
+      }
+      update(epochMillis, value, -1.0);
+      if (++evictedSinceRebase >= count) {
+        rebase(epochMillis);
+      }
+    }
+
+    @Override
+    public void clear() {
+      sumX.set(0.0);
+      sumY.set(0.0);
+      sumXX.set(0.0);
+      sumXY.set(0.0);
+      count = 0;
+      evictedSinceRebase = 0;
+    }
+
+    @Override
+    public float result() {
+      if (count < 2L) {
+        return Float.NaN;
+      }
+      double x = sumX.value();
+      double denom = (count * sumXX.value()) - (x * x);
+      if (denom == 0.0) {
+        return Float.NaN;
+      }
+      return (float) (((count * sumXY.value()) - (x * sumY.value())) / denom);
+    }
+
+    private void update(long epochMillis, float value, double sign) {
+      double x = (double) (epochMillis - originMillis) / 3_600_000.0;
+      sumX.add(sign * x);
+      sumY.add(sign * value);
+      sumXX.add(sign * x * x);
+      sumXY.add(sign * x * value);
+    }
+
+    private void rebase(long newOriginMillis) {
+      double d = (double) (newOriginMillis - originMillis) / 3_600_000.0;
+      double x = sumX.value();
+      sumXX.set(sumXX.value() - (2.0 * d * x) + (count * d * d));
+      sumXY.set(sumXY.value() - (d * sumY.value()));
+      sumX.set(x - (count * d));
+      originMillis = newOriginMillis;
+      evictedSinceRebase = 0;
+    }
+  }
+}
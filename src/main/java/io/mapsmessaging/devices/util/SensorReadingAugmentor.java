@@ -85,8 +85,8 @@ public class SensorReadingAugmentor {
           100f,
           1,
           () -> (float) ComputeDewPoint.computeDewPoint(
-              tempSupplier.get(),
-              humiditySupplier.get())
+              tempSupplier.getAsFloat(),
+              humiditySupplier.getAsFloat())
       ));
 
       computed.add(new BooleanSensorReading(
@@ -95,7 +95,7 @@ public class SensorReadingAugmentor {
           "1 if condensation risk (dew point within 2°C of temp), 0 otherwise",
           true,
           false,
-          () -> ComputeDewPoint.dewPointWarning(tempSupplier.get(), humiditySupplier.get())
+          () -> ComputeDewPoint.dewPointWarning(tempSupplier.getAsFloat(), humiditySupplier.getAsFloat())
       ));
     }
   }
@@ -119,7 +119,7 @@ public class SensorReadingAugmentor {
           0f,
           500f,
           0,
-          () -> AqiCalculator.computeFromPMSA003I(pm25.get(), pm10.get())
+          () -> AqiCalculator.computeFromPMSA003I(pm25.getAsFloat(), pm10.getAsFloat())
       ));
       computed.add(new StringSensorReading(
           "AQICategory",
@@ -128,7 +128,7 @@ public class SensorReadingAugmentor {
           "Good",
           false,
           () -> {
-            float aqi = AqiCalculator.computeFromPMSA003I(pm25.get(), pm10.get());
+            float aqi = AqiCalculator.computeFromPMSA003I(pm25.getAsFloat(), pm10.getAsFloat());
             return AqiCalculator.describeAqi(aqi);
           }
       ));
@@ -146,7 +146,7 @@ public class SensorReadingAugmentor {
           0f,
           500f,
           0,
-          () -> AqiCalculator.computeFromSEN66(voc.get(), voc.get(), nox.get())
+          () -> AqiCalculator.computeFromSEN66(voc.getAsFloat(), voc.getAsFloat(), nox.getAsFloat())
       ));
       computed.add(new StringSensorReading(
           "AQICategory",
@@ -155,7 +155,7 @@ public class SensorReadingAugmentor {
           "Good",
           false,
           () -> {
-            float aqi = AqiCalculator.computeFromSEN66(Float.NaN, voc.get(), nox.get());
+            float aqi = AqiCalculator.computeFromSEN66(Float.NaN, voc.getAsFloat(), nox.getAsFloat());
             return AqiCalculator.describeAqi(aqi);
           }
       ));
@@ -181,7 +181,7 @@ public class SensorReadingAugmentor {
           "Unknown",
           false,
           () -> AqiCalculator.describeCo2Quality(
-              Math.round(co2.get()), humidity.get(), temperature.get()
+              Math.round(co2.getAsFloat()), humidity.getAsFloat(), temperature.getAsFloat()
           )
       ));
     }
@@ -193,8 +193,8 @@ public class SensorReadingAugmentor {
     boolean hasWindSpeed = lookup.containsKey(WINDSPEED);
 
     if (hasTemp && hasHumidity) {
-      ReadingSupplier<Float> temperature = getFloatSupplier(lookup.get(TEMPERATURE));
-      ReadingSupplier<Float> humidity = getFloatSupplier(lookup.get(HUMIDITY));
+      FloatReadingSupplier temperature = getFloatSupplier(lookup.get(TEMPERATURE));
+      FloatReadingSupplier humidity = getFloatSupplier(lookup.get(HUMIDITY));
 
       computed.add(new FloatSensorReading(
           "heatIndex",
@@ -205,7 +205,7 @@ public class SensorReadingAugmentor {
           -40f,
           80f,
           1,
-          () -> (float) computeHeatIndexCelsius(temperature.get(), humidity.get())
+          () -> (float) computeHeatIndexCelsius(temperature.getAsFloat(), humidity.getAsFloat())
       ));
 
       computed.add(new FloatSensorReading(
@@ -217,13 +217,13 @@ public class SensorReadingAugmentor {
           -40f,
           80f,
           1,
-          () -> (float) computeHumidexCelsius(temperature.get(), humidity.get())
+          () -> (float) computeHumidexCelsius(temperature.getAsFloat(), humidity.getAsFloat())
       ));
     }
 
     if (hasTemp && hasWindSpeed) {
-      ReadingSupplier<Float> temperature = getFloatSupplier(lookup.get(TEMPERATURE));
-      ReadingSupplier<Float> windSpeed = getFloatSupplier(lookup.get(WINDSPEED));
+      FloatReadingSupplier temperature = getFloatSupplier(lookup.get(TEMPERATURE));
+      FloatReadingSupplier windSpeed = getFloatSupplier(lookup.get(WINDSPEED));
 
       computed.add(new FloatSensorReading(
           "windChill",
@@ -234,7 +234,7 @@ public class SensorReadingAugmentor {
           -60f,
           40f,
           1,
-          () -> (float) computeWindChillCelsius(temperature.get(), windSpeed.get())
+          () -> (float) computeWindChillCelsius(temperature.getAsFloat(), windSpeed.getAsFloat())
       ));
     }
   }
@@ -247,8 +247,8 @@ public class SensorReadingAugmentor {
       return;
     }
 
-    ReadingSupplier<Float> temperature = getFloatSupplier(lookup.get(TEMPERATURE));
-    ReadingSupplier<Float> humidity = getFloatSupplier(lookup.get(HUMIDITY));
+    FloatReadingSupplier temperature = getFloatSupplier(lookup.get(TEMPERATURE));
+    FloatReadingSupplier humidity = getFloatSupplier(lookup.get(HUMIDITY));
 
     computed.add(new FloatSensorReading(
         "saturationVapourPressure",
@@ -259,7 +259,7 @@ public class SensorReadingAugmentor {
         0f,
         20f,
         3,
-        () -> (float) saturationVapourPressureKpa(temperature.get())
+        () -> (float) saturationVapourPressureKpa(temperature.getAsFloat())
     ));
 
     computed.add(new FloatSensorReading(
@@ -271,7 +271,7 @@ public class SensorReadingAugmentor {
         0f,
         20f,
         3,
-        () -> (float) vapourPressureKpa(temperature.get(), humidity.get())
+        () -> (float) vapourPressureKpa(temperature.getAsFloat(), humidity.getAsFloat())
     ));
 
     computed.add(new FloatSensorReading(
@@ -283,7 +283,7 @@ public class SensorReadingAugmentor {
         0f,
         50f,
         2,
-        () -> (float) absoluteHumidityGPerM3(temperature.get(), humidity.get())
+        () -> (float) absoluteHumidityGPerM3(temperature.getAsFloat(), humidity.getAsFloat())
     ));
 
     computed.add(new FloatSensorReading(
@@ -296,8 +296,8 @@ public class SensorReadingAugmentor {
         80f,
         1,
         () -> {
-          float tempCelsius = temperature.get();
-          float rh = humidity.get();
+          float tempCelsius = temperature.getAsFloat();
+          float rh = humidity.getAsFloat();
           float dewPoint = (float) ComputeDewPoint.computeDewPoint(tempCelsius, rh);
           if (Float.isNaN(dewPoint) || Float.isNaN(tempCelsius)) {
             return Float.NaN;
@@ -312,7 +312,7 @@ public class SensorReadingAugmentor {
         "Simple humidity comfort classification",
         "Unknown",
         false,
-        () -> describeHumidityCategory(humidity.get())
+        () -> describeHumidityCategory(humidity.getAsFloat())
     ));
   }
 
@@ -321,7 +321,7 @@ public class SensorReadingAugmentor {
     boolean hasWindAngle = lookup.containsKey(WIND_DIRECTION_ANGLE);
 
     if (hasWindSpeed) {
-      ReadingSupplier<Float> windSpeed = getFloatSupplier(lookup.get(WINDSPEED));
+      FloatReadingSupplier windSpeed = getFloatSupplier(lookup.get(WINDSPEED));
 
       computed.add(new IntegerSensorReading(
           "beaufortScale",
@@ -331,7 +331,7 @@ public class SensorReadingAugmentor {
           false,
           0,
           12,
-          () -> computeBeaufortScale(windSpeed.get())
+          () -> computeBeaufortScale(windSpeed.getAsFloat())
       ));
 
       computed.add(new StringSensorReading(
@@ -340,12 +340,12 @@ public class SensorReadingAugmentor {
           "Beaufort description derived from wind speed",
           "Calm",
           false,
-          () -> describeBeaufort(computeBeaufortScale(windSpeed.get()))
+          () -> describeBeaufort(computeBeaufortScale(windSpeed.getAsFloat()))
       ));
     }
 
     if (hasWindAngle) {
-      ReadingSupplier<Float> windAngle = getFloatSupplier(lookup.get(WIND_DIRECTION_ANGLE));
+      FloatReadingSupplier windAngle = getFloatSupplier(lookup.get(WIND_DIRECTION_ANGLE));
 
       computed.add(new StringSensorReading(
           "windDirectionText",
@@ -353,7 +353,7 @@ public class SensorReadingAugmentor {
           "Compass direction (16-point) derived from wind direction angle",
           "N",
           false,
-          () -> toCompass16(windAngle.get())
+          () -> toCompass16(windAngle.getAsFloat())
       ));
     }
   }
@@ -364,7 +364,7 @@ public class SensorReadingAugmentor {
       return;
     }
 
-    ReadingSupplier<Float> lux = getFloatSupplier(lookup.get(LUX));
+    FloatReadingSupplier lux = getFloatSupplier(lookup.get(LUX));
 
     computed.add(new StringSensorReading(
         "daylightState",
@@ -372,19 +372,19 @@ public class SensorReadingAugmentor {
         "Simple daylight state derived from lux",
         "Unknown",
         false,
-        () -> describeDaylightState(lux.get())
+        () -> describeDaylightState(lux.getAsFloat())
     ));
   }
 
-  private static ReadingSupplier<Float> getFloatSupplier(SensorReading<?> reading) {
+  private static FloatReadingSupplier getFloatSupplier(SensorReading<?> reading) {
     if (reading instanceof FloatSensorReading floatSensorReading) {
-      return floatSensorReading.getSupplier();
+      return floatSensorReading::readFloat;
     }
     if (reading instanceof IntegerSensorReading integerSensorReading) {
-      return () -> (float) integerSensorReading.getSupplier().get();
+      return integerSensorReading::readInt;
     }
     if (reading instanceof LongSensorReading longSensorReading) {
-      return () -> (float) longSensorReading.getSupplier().get();
+      return longSensorReading::readLong;
     }
     return () -> Float.NaN;
   }
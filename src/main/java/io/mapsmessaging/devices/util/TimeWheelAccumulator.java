@@ -0,0 +1,306 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Rolling sums over several windows fed by a single {@link #add(long, float)}. Windows are registered up front
+ * with their bucket size; each distinct bucket size is a level of the wheel and every level's bucket size must be a
+ * multiple of the next finer one. Values go into the open bucket of the finest level only. When a bucket closes,
+ * its total rolls up into the open bucket of the next coarser level, so a window's sum is its closed buckets plus
+ * the open buckets of its own and every finer level.
+ * <p>
+ * Like {@link RollingBucketAccumulator}, sums are as of the last add or {@link #advance(long)}. Writers take a
+ * {@link StampedLock} write lock; readers use optimistic reads, a seqlock, so readers of different windows never
+ * block each other or the writer, and only fall back to a read lock when they keep racing a write.
+ */
+public class TimeWheelAccumulator {
+
+  private static final int OPTIMISTIC_ATTEMPTS = 4;
+
+  private final StampedLock lock;
+  private final List<Window> windows;
+
+  private Level[] levels;
+  private double[] open;
+  private double[] closedSums;
+  private boolean started;
+
+  public TimeWheelAccumulator() {
+    lock = new StampedLock();
+    windows = new ArrayList<>();
+    levels = new Level[0];
+    open = new double[0];
+    closedSums = new double[0];
+  }
+
+  /**
+   * Registers a window, which must happen before the first add.
+   */
+  public Window addWindow(long windowMillis, long bucketSizeMillis) {
+    if (windowMillis <= 0L) {
+      throw new IllegalArgumentException("windowMillis must be > 0");
+    }
+    if (bucketSizeMillis <= 0L) {
+      throw new IllegalArgumentException("bucketSizeMillis must be > 0");
+    }
+    if (bucketSizeMillis > windowMillis) {
+      throw new IllegalArgumentException("bucketSizeMillis must be <= windowMillis");
+    }
+    long stamp = lock.writeLock();
+    try {
+      if (started) {
+        throw new IllegalStateException("Windows must be added before the first sample");
+      }
+      Window window = new Window(windows.size(), windowMillis, bucketSizeMillis);
+      windows.add(window);
+      try {
+        buildLevels();
+      } catch (IllegalArgumentException e) {
+        windows.remove(window);
+        buildLevels();
+        throw e;
+      }
+      return window;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  public void add(long epochMillis, float value) {
+    if (Float.isNaN(value) || Float.isInfinite(value)) {
+      return;
+    }
+    long stamp = lock.writeLock();
+    try {
+      moveTo(epochMillis);
+      if (levels.length > 0) {
+        open[0] += value;
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Expires buckets up to the given time without adding a value.
+   */
+  public void advance(long epochMillis) {
+    long stamp = lock.writeLock();
+    try {
+      moveTo(epochMillis);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  public void clear() {
+    long stamp = lock.writeLock();
+    try {
+      reset();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private void buildLevels() {
+    TreeSet<Long> sizes = new TreeSet<>();
+    for (Window window : windows) {
+      sizes.add(window.bucketSizeMillis);
+    }
+    Level[] built = new Level[sizes.size()];
+    long previous = 0L;
+    int index = 0;
+    for (long size : sizes) {
+      if (previous != 0L && size % previous != 0L) {
+        throw new IllegalArgumentException("bucketSizeMillis " + size + " is not a multiple of " + previous);
+      }
+      built[index++] = new Level(size);
+      previous = size;
+    }
+    for (Window window : windows) {
+      int level = 0;
+      while (built[level].bucketSizeMillis != window.bucketSizeMillis) {
+        level++;
+      }
+      window.level = level;
+      built[level].windows.add(window);
+      built[level].length = Math.max(built[level].length, window.bucketCount);
+    }
+    for (Level level : built) {
+      level.buckets = new double[level.length];
+    }
+    levels = built;
+    open = new double[built.length];
+    closedSums = new double[windows.size()];
+  }
+
+  private void reset() {
+    for (Level level : levels) {
+      Arrays.fill(level.buckets, 0.0);
+    }
+    Arrays.fill(open, 0.0);
+    Arrays.fill(closedSums, 0.0);
+    started = false;
+  }
+
+  private void moveTo(long epochMillis) {
+    if (levels.length == 0) {
+      return;
+    }
+    if (!started) {
+      start(epochMillis);
+      return;
+    }
+    long finest = epochMillis / levels[0].bucketSizeMillis;
+    if (finest < levels[0].currentKey) {
+      // Time went backwards, reset rather than corrupt the windows
+      reset();
+      start(epochMillis);
+      return;
+    }
+    // finest first, so each level has rolled up into the next before that one closes
+    for (int i = 0; i < levels.length; i++) {
+      long key = epochMillis / levels[i].bucketSizeMillis;
+      if (key != levels[i].currentKey) {
+        close(i, key);
+      }
+    }
+  }
+
+  private void start(long epochMillis) {
+    for (Level level : levels) {
+      level.currentKey = epochMillis / level.bucketSizeMillis;
+    }
+    started = true;
+  }
+
+  private void close(int index, long newKey) {
+    Level level = levels[index];
+    double total = open[index];
+    if (index + 1 < levels.length) {
+      open[index + 1] += total;
+    }
+    open[index] = 0.0;
+    long steps = newKey - level.currentKey;
+    if (steps >= level.length) {
+      Arrays.fill(level.buckets, 0.0);
+      for (Window window : level.windows) {
+        closedSums[window.index] = 0.0;
+      }
+    } else {
+      for (long step = 0; step < steps; step++) {
+        long key = level.currentKey + step;
+        double value = step == 0 ? total : 0.0;
+        level.buckets[level.slot(key)] = value;
+        for (Window window : level.windows) {
+          if (window.bucketCount > 1) {
+            closedSums[window.index] += value - level.buckets[level.slot(key - window.bucketCount + 1)];
+          }
+        }
+      }
+    }
+    level.currentKey = newKey;
+  }
+
+  private static final class Level {
+
+    private final long bucketSizeMillis;
+    private final List<Window> windows;
+    private int length;
+    private double[] buckets;
+    private long currentKey;
+
+    private Level(long bucketSizeMillis) {
+      this.bucketSizeMillis = bucketSizeMillis;
+      windows = new ArrayList<>();
+      length = 1;
+    }
+
+    private int slot(long key) {
+      return (int) Math.floorMod(key, (long) length);
+    }
+  }
+
+  /**
+   * A registered window, reading it never blocks the writer or other readers.
+   */
+  public final class Window {
+
+    private final int index;
+    private final long windowMillis;
+    private final long bucketSizeMillis;
+    private final int bucketCount;
+    private int level;
+
+    private Window(int index, long windowMillis, long bucketSizeMillis) {
+      this.index = index;
+      this.windowMillis = windowMillis;
+      this.bucketSizeMillis = bucketSizeMillis;
+      this.bucketCount = (int) Math.ceil((double) windowMillis / (double) bucketSizeMillis);
+    }
+
+    public long getWindowMillis() {
+      return windowMillis;
+    }
+
+    public long getBucketSizeMillis() {
+      return bucketSizeMillis;
+    }
+
+    public float getSum() {
+      for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+          double sum = read();
+          if (lock.validate(stamp)) {
+            return (float) sum;
+          }
+        }
+        Thread.onSpinWait();
+      }
+      long stamp = lock.readLock();
+      try {
+        return (float) read();
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    private double read() {
+      // the arrays are only replaced while no samples have been added
+      double[] sums = closedSums;
+      double[] opened = open;
+      if (index >= sums.length || level >= opened.length) {
+        return 0.0;
+      }
+      double sum = sums[index];
+      for (int i = level; i >= 0; i--) {
+        sum += opened[i];
+      }
+      return sum;
+    }
+  }
+}
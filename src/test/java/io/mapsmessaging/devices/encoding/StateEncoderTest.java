@@ -0,0 +1,240 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.encoding;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.sampling.ReportByException;
+import io.mapsmessaging.devices.sampling.ReportPolicy;
+import io.mapsmessaging.devices.sensorreadings.*;
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateEncoderTest {
+
+  private final List<SensorReading<?>> readings = List.of(
+      new FloatSensorReading("temperature", "C", "", 20.0f, true, -40, 85, 1, () -> 21.5f),
+      new IntegerSensorReading("co2", "ppm", "", 400, true, 0, 5000, () -> 812),
+      new StringSensorReading("status", "", "", "ok", true, () -> "ok"),
+      new IntegerSensorReading("broken", "", "", 0, true, 0, 1, () -> {
+        throw new IOException("NACK");
+      }),
+      new GroupSensorReading("empty", "", "", null, true, () -> null)
+  );
+
+  @Test
+  void prettyJsonMatchesTheOriginalOutput() throws IOException {
+    TestController controller = new TestController();
+    JsonObject legacy = new JsonObject();
+    controller.walk(legacy, readings);
+    JsonObject encoded = parse(controller.getEncodedDeviceState(StateFormat.JSON));
+    legacy.remove("timestamp");
+    encoded.remove("timestamp");
+    assertEquals(legacy, encoded);
+  }
+
+  @Test
+  void prettyJsonKeepsTheOriginalBytesWithGroups() throws IOException {
+    List<SensorReading<?>> grouped = List.of(readings.get(0), environment(), readings.get(1), readings.get(3));
+    TestController controller = new TestController(grouped);
+    JsonObject legacy = new JsonObject();
+    controller.walk(legacy, grouped);
+    String expected = withoutTimestamps(controller.json(legacy));
+    String encoded = withoutTimestamps(controller.getEncodedDeviceState(StateFormat.JSON));
+    assertEquals(expected, encoded);
+    assertFalse(encoded.contains("environment"));
+  }
+
+  @Test
+  void nestedJsonNestsGroupsWithOneTimestampPerRecord() throws IOException {
+    List<SensorReading<?>> grouped = List.of(readings.get(0), environment(), readings.get(4));
+    TestController controller = new TestController(grouped);
+    JsonObject encoded = parse(controller.getEncodedDeviceState(StateFormat.NESTED_JSON));
+
+    String timestamp = encoded.get("timestamp").getAsString();
+    assertTrue(Instant.parse(timestamp).toEpochMilli() > 0);
+    JsonObject expected = JsonParser.parseString(
+        "{\"temperature\":21.5,\"timestamp\":\"" + timestamp + "\","
+            + "\"environment\":{\"humidity\":40.5,\"timestamp\":\"" + timestamp + "\"}}").getAsJsonObject();
+    assertEquals(expected, encoded);
+  }
+
+  private static GroupSensorReading environment() {
+    GroupSensorReading environment = new GroupSensorReading("environment", "", "", null, true, () -> null);
+    environment.getGroupList().add(new FloatSensorReading("humidity", "%", "", 50f, true, 0, 100, 1, () -> 40.5f));
+    return environment;
+  }
+
+  private static String withoutTimestamps(byte[] state) {
+    return new String(state, StandardCharsets.UTF_8).replaceAll("\"timestamp\": \"[^\"]*\"", "\"timestamp\": \"\"");
+  }
+
+  @Test
+  void compactJsonHasOneNumericTimestamp() throws IOException {
+    byte[] state = new TestController().getEncodedDeviceState(StateFormat.COMPACT_JSON);
+    String text = new String(state, StandardCharsets.UTF_8);
+    assertFalse(text.contains("\n"));
+    JsonObject json = parse(state);
+    assertEquals(21.5f, json.get("temperature").getAsFloat());
+    assertEquals(812, json.get("co2").getAsInt());
+    assertEquals("NACK", json.get("broken").getAsString());
+    assertFalse(json.has("empty"));
+    assertTrue(json.get("timestamp").getAsLong() > 0);
+  }
+
+  @Test
+  void cborWritesFloatsAsFourBytes() throws IOException {
+    byte[] state = new TestController().getEncodedDeviceState(StateFormat.CBOR);
+    assertEquals((byte) 0xBF, state[0]);
+    assertEquals((byte) (0x60 | 11), state[1]);
+    assertEquals("temperature", new String(state, 2, 11, StandardCharsets.US_ASCII));
+    ByteBuffer value = ByteBuffer.wrap(state, 13, 5);
+    assertEquals((byte) 0xFA, value.get());
+    assertEquals(21.5f, value.getFloat());
+    assertEquals((byte) 0xFF, state[state.length - 1]);
+  }
+
+  @Test
+  void binaryRecordFollowsTheLayout() throws IOException {
+    TestController controller = new TestController();
+    byte[] state = controller.getEncodedDeviceState(StateFormat.BINARY);
+    List<BinaryStateEncoder.Slot> slots = BinaryStateEncoder.layout(readings);
+    assertEquals(4, slots.size());
+    assertEquals(BinaryStateEncoder.SlotType.FLOAT32, slots.get(0).type());
+    assertEquals(BinaryStateEncoder.SlotType.VARIABLE, slots.get(2).type());
+
+    ByteBuffer record = ByteBuffer.wrap(state);
+    assertEquals(controller.getSchemaId().getMostSignificantBits(), record.getLong(0));
+    assertEquals(21.5f, record.getFloat(slots.get(0).offset()));
+    assertEquals(812, record.getInt(slots.get(1).offset()));
+    byte valid = record.get(BinaryStateEncoder.HEADER_LENGTH);
+    assertEquals(0b0111, valid);
+
+    int variable = slots.get(3).offset() + 4;
+    assertEquals(2, record.getShort(variable));
+    assertEquals("ok", new String(state, variable + 2, 2, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void reportByExceptionLeavesOutUnchangedReadings() throws IOException {
+    TestController controller = new TestController();
+    controller.enableReportByException(ReportPolicy.defaults());
+    JsonObject first = parse(controller.getEncodedDeviceState(StateFormat.COMPACT_JSON));
+    assertTrue(first.has("temperature"));
+    assertTrue(first.has("status"));
+
+    JsonObject second = parse(controller.getEncodedDeviceState(StateFormat.COMPACT_JSON));
+    assertFalse(second.has("temperature"));
+    assertFalse(second.has("co2"));
+    assertFalse(second.has("status"));
+    assertEquals("NACK", second.get("broken").getAsString());
+
+    byte[] record = controller.getEncodedDeviceState(StateFormat.BINARY);
+    assertEquals(0, record[BinaryStateEncoder.HEADER_LENGTH]);
+  }
+
+  @Test
+  void callerFiltersDoNotShareReportedValues() throws IOException {
+    TestController controller = new TestController();
+    controller.setStateFormat(StateFormat.COMPACT_JSON);
+    ReportByException sampler = new ReportByException(ReportPolicy.defaults());
+    assertTrue(parse(controller.getFilteredDeviceState(sampler)).has("temperature"));
+    assertFalse(parse(controller.getFilteredDeviceState(sampler)).has("temperature"));
+
+    assertTrue(parse(controller.getFilteredDeviceState(new ReportByException(ReportPolicy.defaults()))).has("temperature"));
+    assertTrue(parse(controller.getDeviceState()).has("temperature"));
+    assertTrue(parse(controller.getFilteredDeviceState(null)).has("temperature"));
+  }
+
+  private static JsonObject parse(byte[] state) {
+    return JsonParser.parseString(new String(state, StandardCharsets.UTF_8)).getAsJsonObject();
+  }
+
+  private final class TestController extends DeviceController {
+
+    private final List<SensorReading<?>> readings;
+
+    TestController() {
+      this(StateEncoderTest.this.readings);
+    }
+
+    TestController(List<SensorReading<?>> readings) {
+      this.readings = readings;
+    }
+
+    void walk(JsonObject root, List<SensorReading<?>> list) throws IOException {
+      walkSensorReadings(root, list);
+    }
+
+    byte[] json(JsonObject root) {
+      return convert(root);
+    }
+
+    @Override
+    protected List<SensorReading<?>> getStateReadings() {
+      return readings;
+    }
+
+    @Override
+    public byte[] getDeviceState() throws IOException {
+      return encodeState(readings);
+    }
+
+    @Override
+    public String getName() {
+      return "test";
+    }
+
+    @Override
+    public String getDescription() {
+      return "test";
+    }
+
+    @Override
+    public SchemaConfig getSchema() {
+      return null;
+    }
+
+    @Override
+    public byte[] getDeviceConfiguration() {
+      return new byte[0];
+    }
+
+    @Override
+    public DeviceType getType() {
+      return DeviceType.SENSOR;
+    }
+
+    @Override
+    public byte[] updateDeviceConfiguration(byte[] val) {
+      return new byte[0];
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class I2CBusArbiterTest {
+
+  @Test
+  void waitingRequestsAreGrantedByPriority() throws Exception {
+    I2CBusArbiter arbiter = new I2CBusArbiter(new I2CBusLock());
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch holding = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Thread bulk = start(arbiter, I2CPriority.BULK, () -> {
+      holding.countDown();
+      await(release);
+      order.add("bulk");
+    });
+    holding.await();
+    Thread periodic = start(arbiter, I2CPriority.PERIODIC, () -> order.add("periodic"));
+    waitFor(arbiter, I2CPriority.PERIODIC);
+    Thread interactive = start(arbiter, I2CPriority.INTERACTIVE, () -> order.add("interactive"));
+    waitFor(arbiter, I2CPriority.INTERACTIVE);
+    release.countDown();
+
+    bulk.join();
+    periodic.join();
+    interactive.join();
+    assertEquals(List.of("bulk", "interactive", "periodic"), order);
+    assertEquals(1L, arbiter.getWaitStatistics(I2CPriority.INTERACTIVE).count());
+    assertTrue(arbiter.getWaitStatistics(I2CPriority.PERIODIC).maxNanos() > 0);
+  }
+
+  @Test
+  void bulkTransfersYieldBetweenChunks() throws Exception {
+    I2CBusArbiter arbiter = new I2CBusArbiter(new I2CBusLock());
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+    Thread[] interactive = new Thread[1];
+
+    arbiter.execute(I2CPriority.BULK, () -> {
+      for (int chunk = 0; chunk < 4; chunk++) {
+        order.add("chunk" + chunk);
+        if (chunk == 1) {
+          interactive[0] = start(arbiter, I2CPriority.INTERACTIVE, () -> order.add("interactive"));
+          waitFor(arbiter, I2CPriority.INTERACTIVE);
+        }
+        arbiter.yieldToHigherPriority();
+      }
+      return null;
+    });
+    interactive[0].join();
+    assertEquals(List.of("chunk0", "chunk1", "interactive", "chunk2", "chunk3"), order);
+  }
+
+  private static Thread start(I2CBusArbiter arbiter, I2CPriority priority, Runnable work) {
+    Thread thread = new Thread(() -> {
+      try {
+        arbiter.execute(priority, () -> {
+          work.run();
+          return null;
+        });
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    thread.start();
+    return thread;
+  }
+
+  private static void waitFor(I2CBusArbiter arbiter, I2CPriority priority) {
+    while (arbiter.getWaiting(priority) == 0) {
+      Thread.onSpinWait();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
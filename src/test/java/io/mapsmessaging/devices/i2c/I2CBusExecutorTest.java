@@ -0,0 +1,96 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class I2CBusExecutorTest {
+
+  @Test
+  void transactionsRunInSubmissionOrder() throws Exception {
+    try (I2CBusExecutor executor = new I2CBusExecutor(42)) {
+      List<Integer> order = new ArrayList<>();
+      List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+      for (int x = 0; x < 50; x++) {
+        int id = x;
+        futures.add(executor.submit(() -> {
+          order.add(id);
+          return new byte[]{(byte) id};
+        }));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+      for (int x = 0; x < 50; x++) {
+        assertEquals(x, order.get(x));
+        assertEquals(x, futures.get(x).get()[0]);
+      }
+    }
+  }
+
+  @Test
+  void failuresCompleteTheFutureExceptionally() throws Exception {
+    try (I2CBusExecutor executor = new I2CBusExecutor(43)) {
+      CompletableFuture<byte[]> failed = executor.submit(() -> {
+        throw new IOException("NACK");
+      });
+      ExecutionException exception = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+      assertTrue(exception.getCause() instanceof IOException);
+
+      // The worker must survive a failing transaction
+      assertEquals(1, executor.submit(() -> new byte[]{1}).get(5, TimeUnit.SECONDS)[0]);
+    }
+  }
+
+  @Test
+  void closedExecutorRejectsWork() {
+    I2CBusExecutor executor = new I2CBusExecutor(44);
+    executor.close();
+    assertTrue(executor.submit(() -> new byte[0]).isCompletedExceptionally());
+  }
+
+  @Test
+  void submissionsRacingCloseAlwaysComplete() throws Exception {
+    for (int round = 0; round < 200; round++) {
+      I2CBusExecutor executor = new I2CBusExecutor(45);
+      executor.submit(() -> new byte[0]).get(5, TimeUnit.SECONDS);
+      List<CompletableFuture<byte[]>> futures = Collections.synchronizedList(new ArrayList<>());
+      Thread submitter = new Thread(() -> {
+        for (int x = 0; x < 100; x++) {
+          futures.add(executor.submit(() -> new byte[0]));
+        }
+      });
+      submitter.start();
+      executor.close();
+      submitter.join();
+      for (CompletableFuture<byte[]> future : futures) {
+        future.exceptionally(e -> null).get(5, TimeUnit.SECONDS);
+      }
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c;
+
+import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.i2c.devices.sensors.lps25.Lps25Sensor;
+import io.mapsmessaging.devices.i2cmock.BusTiming;
+import io.mapsmessaging.devices.impl.AddressableDevice;
+import io.mapsmessaging.devices.impl.I2CMockDeviceImpl;
+import io.mapsmessaging.devices.util.DeviceThreads;
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class I2CBusLockTest {
+
+  @Test
+  void locksAreScopedPerBus() {
+    assertSame(I2CBusManager.getBusLock(0), I2CBusManager.getBusLock(0));
+    assertNotSame(I2CBusManager.getBusLock(0), I2CBusManager.getBusLock(1));
+    assertSame(I2CBusManager.getBusLock(1), I2CDeviceScheduler.getI2cBusLock(1));
+  }
+
+  @Test
+  void separateBusesProgressInParallel() throws Exception {
+    CountDownLatch inside = new CountDownLatch(2);
+    I2CDeviceScheduler bus0 = new I2CDeviceScheduler(blocking(inside), 0);
+    I2CDeviceScheduler bus1 = new I2CDeviceScheduler(blocking(inside), 1);
+
+    assertArrayEquals(new boolean[]{true, true}, runConcurrently(bus0, bus1));
+  }
+
+  @Test
+  void sameBusIsSerialised() throws Exception {
+    CountDownLatch inside = new CountDownLatch(2);
+    I2CDeviceScheduler first = new I2CDeviceScheduler(blocking(inside), 3);
+    I2CDeviceScheduler second = new I2CDeviceScheduler(blocking(inside), 3);
+
+    boolean[] results = runConcurrently(first, second);
+    assertFalse(results[0] && results[1], "Both devices held the same bus lock at the same time");
+  }
+
+  // Needs -Djdk.tracePinnedThreads, which the surefire argLine sets. A virtual thread that parks while
+  // holding a monitor prints its stack to System.out
+  @Test
+  void delayedReadDoesNotPinVirtualThreads() throws Exception {
+    assumeTrue(DeviceThreads.isVirtualSupported(), "Virtual threads need JDK 21 or later");
+    assumeTrue(System.getProperty("jdk.tracePinnedThreads") != null, "jdk.tracePinnedThreads is not set");
+    // Simulated bus time is spent holding the mock's register file
+    I2CMockDeviceImpl mock = new I2CMockDeviceImpl(246, 0x5D)
+        .setRegisterMask(0x7F)
+        .setRegister(0x0F, 0b10111101)
+        .setTiming(BusTiming.standardMode());
+    Lps25Sensor sensor = new Lps25Sensor(mock);
+    I2CDeviceScheduler scheduler = new I2CDeviceScheduler(new StateController(() -> {
+      sensor.delay(20);
+      return new byte[]{(byte) sensor.readRegister(0x0F)};
+    }), 246);
+
+    PrintStream out = System.out;
+    ByteArrayOutputStream trace = new ByteArrayOutputStream();
+    DeviceThreads.Mode previous = DeviceThreads.getMode();
+    CompletableFuture<byte[]> result = new CompletableFuture<>();
+    try {
+      System.setOut(new PrintStream(trace, true));
+      DeviceThreads.setMode(DeviceThreads.Mode.VIRTUAL);
+      Thread thread = DeviceThreads.start("Pinning", () -> {
+        try {
+          result.complete(scheduler.getDeviceState());
+        } catch (IOException e) {
+          result.completeExceptionally(e);
+        }
+      });
+      thread.join(5000);
+    } finally {
+      DeviceThreads.setMode(previous);
+      System.setOut(out);
+    }
+    assertEquals((byte) 0b10111101, result.get(5, TimeUnit.SECONDS)[0]);
+    assertEquals("", trace.toString(), "Virtual thread was pinned during the delayed read");
+  }
+
+  private boolean[] runConcurrently(I2CDeviceScheduler first, I2CDeviceScheduler second) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<byte[]> f1 = executor.submit(first::getDeviceState);
+      Future<byte[]> f2 = executor.submit(second::getDeviceState);
+      return new boolean[]{f1.get(5, TimeUnit.SECONDS)[0] == 1, f2.get(5, TimeUnit.SECONDS)[0] == 1};
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Waits, while holding its bus, for the other controller to also be inside getDeviceState.
+   * Returns {1} if both were inside at the same time, {0} if the wait timed out.
+   */
+  private static StateController blocking(CountDownLatch inside) {
+    return new StateController(() -> {
+      inside.countDown();
+      try {
+        return new byte[]{(byte) (inside.await(500, TimeUnit.MILLISECONDS) ? 1 : 0)};
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+    });
+  }
+
+  private static final class StateController extends I2CDeviceController {
+
+    private final I2CBusArbiter.Task<byte[]> state;
+
+    StateController(I2CBusArbiter.Task<byte[]> state) {
+      this.state = state;
+    }
+
+    @Override
+    public byte[] getDeviceState() throws IOException {
+      return state.run();
+    }
+
+    @Override
+    public String getName() {
+      return "state";
+    }
+
+    @Override
+    public String getDescription() {
+      return "Test controller that runs a task on the bus";
+    }
+
+    @Override
+    public SchemaConfig getSchema() {
+      return null;
+    }
+
+    @Override
+    public DeviceType getType() {
+      return DeviceType.SENSOR;
+    }
+
+    @Override
+    public I2CDeviceController mount(AddressableDevice device) {
+      return this;
+    }
+
+    @Override
+    public int[] getAddressRange() {
+      return new int[0];
+    }
+
+    @Override
+    public boolean detect(AddressableDevice i2cDevice) {
+      return false;
+    }
+
+    @Override
+    public I2CDevice getDevice() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+package io.mapsmessaging.devices.i2c;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link I2CBusLock} is a ReentrantLock, synchronized on it excludes nothing, so no source may do that.
+ */
+class I2CBusLockUsageTest {
+
+  private static final Pattern SYNCHRONIZED_ON_BUS_LOCK = Pattern.compile("synchronized\\s*\\(([^()]*(\\([^()]*\\))?)*(busLock|BusLock)");
+  private static final String[] SOURCE_ROOTS = {"src/main/java", "src/jmh/java", "examples/java"};
+
+  @Test
+  void noSourceSynchronizesOnTheBusLock() throws IOException {
+    List<String> found = new ArrayList<>();
+    for (String root : SOURCE_ROOTS) {
+      Path path = Path.of(root);
+      if (!Files.isDirectory(path)) {
+        continue;
+      }
+      try (Stream<Path> files = Files.walk(path)) {
+        for (Path file : files.filter(p -> p.toString().endsWith(".java")).toList()) {
+          List<String> lines = Files.readAllLines(file);
+          for (int line = 0; line < lines.size(); line++) {
+            Matcher matcher = SYNCHRONIZED_ON_BUS_LOCK.matcher(lines.get(line));
+            if (matcher.find()) {
+              found.add(file + ":" + (line + 1));
+            }
+          }
+        }
+      }
+    }
+    assertTrue(found.isEmpty(), "synchronized on an I2CBusLock, use lock() and unlock() instead: " + found);
+  }
+
+  @Test
+  void patternFindsTheLockExpressions() {
+    assertTrue(SYNCHRONIZED_ON_BUS_LOCK.matcher("synchronized (device.getBusLock()) {").find());
+    assertTrue(SYNCHRONIZED_ON_BUS_LOCK.matcher("synchronized (I2CDeviceScheduler.getI2cBusLock(device.getBus())) {").find());
+    assertTrue(SYNCHRONIZED_ON_BUS_LOCK.matcher("synchronized(busLock) {").find());
+    assertFalse(SYNCHRONIZED_ON_BUS_LOCK.matcher("synchronized (stateEncoders) {").find());
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c;
+
+import io.mapsmessaging.devices.i2c.I2CBusTrace.Direction;
+import io.mapsmessaging.devices.i2c.I2CBusTrace.Entry;
+import io.mapsmessaging.devices.i2c.I2CBusTrace.Result;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class I2CBusTraceTest {
+
+  @Test
+  void entriesRoundTrip() {
+    I2CBusTrace trace = new I2CBusTrace(8);
+    long start = System.nanoTime();
+    trace.record(1, 0x5D, 0xA8, Direction.READ, 3, start, Result.OK);
+    trace.record(1, 0x5D, I2CBusTrace.NO_REGISTER, Direction.DELAY, 10, start, Result.OK);
+    trace.record(2, 0x77, 0x74, Direction.WRITE, 1, start, Result.ERROR);
+
+    List<Entry> entries = trace.snapshot();
+    assertEquals(3, entries.size());
+    Entry read = entries.get(0);
+    assertEquals(1, read.bus());
+    assertEquals(0x5D, read.address());
+    assertEquals(0xA8, read.register());
+    assertEquals(Direction.READ, read.direction());
+    assertEquals(3, read.length());
+    assertEquals(start, read.startNanos());
+    assertTrue(read.durationNanos() >= 0);
+    assertEquals(I2CBusTrace.NO_REGISTER, entries.get(1).register());
+    assertEquals(Result.ERROR, entries.get(2).result());
+    assertTrue(trace.dump().contains("addr:77 reg:74 WRITE"));
+  }
+
+  @Test
+  void oldestEntriesAreOverwritten() {
+    I2CBusTrace trace = new I2CBusTrace(4);
+    for (int i = 0; i < 10; i++) {
+      trace.record(1, 0x40, i, Direction.WRITE, 1, System.nanoTime(), Result.OK);
+    }
+    List<Entry> entries = trace.snapshot();
+    assertEquals(4, entries.size());
+    assertEquals(6, entries.get(0).register());
+    assertEquals(9, entries.get(3).register());
+
+    trace.clear();
+    assertTrue(trace.snapshot().isEmpty());
+  }
+}
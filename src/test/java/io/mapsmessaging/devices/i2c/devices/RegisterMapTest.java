@@ -0,0 +1,227 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2c.devices;
+
+import com.google.gson.Gson;
+import io.mapsmessaging.devices.deviceinterfaces.RegisterData;
+import io.mapsmessaging.devices.i2c.I2CDevice;
+import io.mapsmessaging.devices.i2c.devices.sensors.lps25.Lps25Sensor;
+import io.mapsmessaging.devices.i2cmock.FaultInjector;
+import io.mapsmessaging.devices.impl.I2CMockDeviceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegisterMapTest {
+
+  @Test
+  void burstReadMatchesRegisterReads() throws IOException {
+    I2CMockDeviceImpl device = lps25()
+        .setRegister(0x20, 0x90)
+        .setRegisters(0x28, new byte[]{0x11, 0x22, 0x33, 0x44, 0x55});
+    Lps25Sensor sensor = new Lps25Sensor(device);
+    RegisterMap registerMap = sensor.getRegisterMap();
+    assertTrue(registerMap.isBurstRead());
+    device.setRegister(0x20, 0xB4);
+    device.setRegisters(0x28, new byte[]{0x12, 0x23, 0x34});
+
+    long start = device.getTransactionCount();
+    registerMap.refresh();
+    long burstTransactions = device.getTransactionCount() - start;
+    Gson gson = new Gson();
+    String burst = gson.toJson(registerMap.getData());
+
+    registerMap.disableBurstRead();
+    start = device.getTransactionCount();
+    registerMap.refresh();
+    long singleTransactions = device.getTransactionCount() - start;
+    String single = gson.toJson(registerMap.getData());
+
+    assertEquals(single, burst);
+    assertTrue(burstTransactions < singleTransactions);
+  }
+
+  @Test
+  void shortBurstReadFallsBackToRegisterReads() throws IOException {
+    I2CMockDeviceImpl device = lps25();
+    RegisterMap registerMap = new Lps25Sensor(device).getRegisterMap();
+    registerMap.getData();
+    for (int register = 0x08; register < 0x40; register++) {
+      if (register != 0x0F) {
+        device.setRegister(register, register);
+      }
+    }
+
+    device.getFaults().failNext(1, FaultInjector.Fault.SHORT);
+    Gson gson = new Gson();
+    String shortRead = gson.toJson(registerMap.getData());
+    assertEquals(gson.toJson(registerMap.getData()), shortRead);
+  }
+
+  @Test
+  void shadowOnlyServesRefreshedRegisters() throws IOException {
+    I2CMockDeviceImpl device = lps25().setRegister(0x20, 0x90);
+    Lps25Sensor sensor = new Lps25Sensor(device);
+    ShadowProbe probe = new ShadowProbe(sensor, 0x120);
+    sensor.getRegisterMap().getData();
+    assertEquals(-1, probe.shadow);
+  }
+
+  @Test
+  void setDataCoalescesWrites() throws IOException {
+    I2CMockDeviceImpl source = lps25().setRegisters(0x20, new byte[]{(byte) 0xB4, 0x40, (byte) 0xC0, 0x01});
+    Map<Integer, RegisterData> config = new Lps25Sensor(source).getRegisterMap().getData();
+
+    I2CMockDeviceImpl target = lps25();
+    RegisterMap registerMap = new Lps25Sensor(target).getRegisterMap();
+    long refreshTransactions = refreshTransactions(target, registerMap);
+    long writes = target.getWriteCount();
+    long start = target.getTransactionCount();
+    RegisterUpdateResult result = registerMap.setData(config);
+    // One snapshot of the registers, then CTRL_REG1 to CTRL_REG4 written as a single burst
+    assertEquals(1, target.getWriteCount() - writes);
+    assertEquals(refreshTransactions + 1, target.getTransactionCount() - start);
+    assertEquals(4, result.getChanged());
+
+    I2CMockDeviceImpl single = lps25();
+    registerMap = new Lps25Sensor(single).getRegisterMap();
+    registerMap.disableBurstWrite();
+    writes = single.getWriteCount();
+    start = single.getTransactionCount();
+    registerMap.setData(config);
+    assertEquals(4, single.getWriteCount() - writes);
+    assertEquals(refreshTransactions + 4, single.getTransactionCount() - start);
+
+    for (int register = 0x20; register <= 0x23; register++) {
+      assertEquals(source.getRegister(register), target.getRegister(register));
+      assertEquals(source.getRegister(register), single.getRegister(register));
+    }
+  }
+
+  @Test
+  void failedCommitCountsChangedRegistersAsFailed() throws IOException {
+    I2CMockDeviceImpl source = lps25().setRegisters(0x20, new byte[]{(byte) 0xB4, 0x40, (byte) 0xC0, 0x01});
+    Map<Integer, RegisterData> config = new Lps25Sensor(source).getRegisterMap().getData();
+
+    I2CMockDeviceImpl target = lps25();
+    RegisterMap registerMap = new Lps25Sensor(target).getRegisterMap();
+    long refreshTransactions = refreshTransactions(target, registerMap);
+    long writes = target.getWriteCount();
+    target.getFaults().failAfter((int) refreshTransactions, 1, FaultInjector.Fault.ERROR);
+    RegisterUpdateResult result = registerMap.setData(config);
+    assertEquals(0, result.getChanged());
+    assertEquals(4, result.getFailed());
+    assertEquals(config.size() - 4, result.getSkipped());
+    assertEquals(0, target.getWriteCount() - writes);
+  }
+
+  @Test
+  void unstagedTransfersFollowStagedWrites() throws IOException {
+    I2CMockDeviceImpl device = lps25();
+    Lps25Sensor sensor = new Lps25Sensor(device);
+    sensor.beginRegisterTransaction();
+    sensor.write(0x10, (byte) 0x05);
+    sensor.write(new byte[]{0x10, 0x0A});
+    sensor.write(0x11, (byte) 0x06);
+    sensor.delay(1);
+    assertEquals(0x06, device.getRegister(0x11));
+    sensor.commitRegisterTransaction();
+    assertEquals(0x0A, device.getRegister(0x10));
+  }
+
+  @Test
+  void registersOutsideTheStagingCopyAreNotAliased() throws IOException {
+    I2CMockDeviceImpl device = new I2CMockDeviceImpl(1, 0x5D).setRegister(0x0F, 0b10111101);
+    Lps25Sensor sensor = new Lps25Sensor(device);
+    long writes = device.getWriteCount();
+    sensor.beginRegisterTransaction();
+    sensor.write(0x20, (byte) 0x01);
+    // 0x120 is written straight through, after the staged write to 0x20 rather than over it
+    sensor.write(0x120, (byte) 0x02);
+    assertEquals(2, device.getWriteCount() - writes);
+    sensor.commitRegisterTransaction();
+    assertEquals(2, device.getWriteCount() - writes);
+  }
+
+  @Test
+  void unchangedRegistersAreSkipped() throws IOException {
+    I2CMockDeviceImpl device = lps25().setRegisters(0x20, new byte[]{(byte) 0x90, 0x40});
+    RegisterMap registerMap = new Lps25Sensor(device).getRegisterMap();
+    Map<Integer, RegisterData> config = registerMap.getData();
+
+    long start = device.getWriteCount();
+    RegisterUpdateResult result = registerMap.setData(config);
+    assertEquals(0, device.getWriteCount() - start);
+    assertEquals(0, result.getChanged());
+    assertEquals(0, result.getFailed());
+    assertEquals(config.size(), result.getSkipped());
+
+    I2CMockDeviceImpl other = lps25().setRegister(0x20, 0xB4);
+    result = registerMap.setData(new Lps25Sensor(other).getRegisterMap().getData());
+    // CTRL_REG1 and CTRL_REG2 differ
+    assertEquals(2, result.getChanged());
+    assertEquals(other.getRegister(0x20), device.getRegister(0x20));
+    assertEquals(other.getRegister(0x21), device.getRegister(0x21));
+  }
+
+  private static final class ShadowProbe extends Register {
+    private int shadow;
+
+    private ShadowProbe(I2CDevice sensor, int address) {
+      super(sensor, address, "PROBE");
+    }
+
+    @Override
+    protected void reload() {
+      shadow = sensor.getRegisterMap().getShadow(getAddress());
+    }
+
+    @Override
+    protected void setControlRegister(int mask, int value) {
+      // read only
+    }
+
+    @Override
+    public RegisterData toData() {
+      reload();
+      return null;
+    }
+
+    @Override
+    public String toString(int maxLength) {
+      return displayRegister(maxLength, getAddress(), shadow);
+    }
+  }
+
+  private static long refreshTransactions(I2CMockDeviceImpl device, RegisterMap registerMap) throws IOException {
+    long start = device.getTransactionCount();
+    registerMap.refresh();
+    return device.getTransactionCount() - start;
+  }
+
+  private static I2CMockDeviceImpl lps25() {
+    return new I2CMockDeviceImpl(1, 0x5D)
+        .setRegisterMask(0x7F)
+        .setRegister(0x0F, 0b10111101);
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2cmock;
+
+import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.i2c.I2CDeviceHealth;
+import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
+import io.mapsmessaging.devices.i2c.I2CHealthMonitor;
+import io.mapsmessaging.devices.impl.I2CMockDeviceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class I2CMockBusManagerTest {
+
+  @Test
+  void incrementalScanCachesAbsentAddresses() throws IOException {
+    I2CMockBusManager manager = new I2CMockBusManager(250);
+    try {
+      I2CMockDeviceImpl lps25 = manager.simulate(0x5D, "LPS25")
+          .setRegisterMask(0x7F)
+          .setRegister(0x0F, 0b10111101);
+      lps25.getFaults().failNext(1, FaultInjector.Fault.NACK);
+
+      assertFalse(manager.scanIncremental(1000).contains(0x5D));
+      long probes = lps25.getTransactionCount();
+
+      assertFalse(manager.scanIncremental(1000).contains(0x5D));
+      assertEquals(probes, lps25.getTransactionCount());
+
+      manager.clearNegativeCache();
+      List<Integer> found = manager.scanIncremental(1000);
+      assertTrue(found.contains(0x5D));
+      assertNotNull(manager.get("5d"));
+    } finally {
+      manager.shutdown();
+    }
+  }
+
+  @Test
+  void budgetLimitsEachPass() {
+    I2CMockBusManager manager = new I2CMockBusManager(251);
+    try {
+      int passes = 0;
+      while (manager.getActive().isEmpty() && passes < 200) {
+        assertTrue(manager.scanIncremental(0).size() <= 1);
+        passes++;
+      }
+      assertTrue(passes > 1);
+      assertFalse(manager.getActive().isEmpty());
+    } finally {
+      manager.shutdown();
+    }
+  }
+
+  @Test
+  void failingDeviceIsQuarantinedAndRemounted() throws Exception {
+    I2CMockBusManager manager = new I2CMockBusManager(252);
+    try {
+      I2CMockDeviceImpl lps25 = manager.simulate(0x5D, "LPS25")
+          .setRegisterMask(0x7F)
+          .setRegister(0x0F, 0b10111101)
+          .setRegister(0x27, 0x03);
+      I2CHealthMonitor monitor = manager.getHealthMonitor();
+      monitor.setFailureThreshold(3);
+      monitor.setInitialBackoffMillis(1);
+      assertTrue(manager.scanIncremental(1000).contains(0x5D));
+      I2CDeviceController original = manager.get("5d");
+
+      lps25.getFaults().setErrorProbability(1.0);
+      for (int i = 0; i < 3; i++) {
+        original.getDeviceState();
+      }
+      I2CDeviceHealth health = monitor.getHealth(0x5D);
+      assertTrue(health.isQuarantined());
+
+      long transactions = lps25.getTransactionCount();
+      assertThrows(IOException.class, original::getDeviceState);
+      assertEquals(transactions, lps25.getTransactionCount());
+      assertEquals(1, health.getRejected());
+
+      TimeUnit.MILLISECONDS.sleep(5);
+      assertTrue(manager.checkHealth().isEmpty());
+      assertEquals(2, health.getBackoffMillis());
+
+      lps25.getFaults().clear();
+      TimeUnit.MILLISECONDS.sleep(5);
+      assertTrue(manager.checkHealth().contains(0x5D));
+      assertFalse(health.isQuarantined());
+      assertEquals(1, health.getRemounts());
+      assertNotSame(original, manager.get("5d"));
+      assertSame(((I2CDeviceScheduler) original).getDeviceController().getClass(),
+          ((I2CDeviceScheduler) manager.get("5d")).getDeviceController().getClass());
+      assertNotNull(manager.get("5d").getDeviceState());
+    } finally {
+      manager.shutdown();
+    }
+  }
+
+  @Test
+  void asyncStateFailsWhenTheBusFails() throws Exception {
+    I2CMockBusManager manager = new I2CMockBusManager(248);
+    try {
+      I2CMockDeviceImpl lps25 = manager.simulate(0x5D, "LPS25")
+          .setRegisterMask(0x7F)
+          .setRegister(0x0F, 0b10111101);
+      assertTrue(manager.scanIncremental(1000).contains(0x5D));
+      I2CDeviceController controller = manager.get("5d");
+      controller.setRaiseExceptionOnError(true);
+
+      lps25.getFaults().setErrorProbability(1.0);
+      CompletableFuture<byte[]> state = controller.getDeviceStateAsync();
+      ExecutionException failure = assertThrows(ExecutionException.class, () -> state.get(5, TimeUnit.SECONDS));
+      assertTrue(failure.getCause() instanceof IOException);
+    } finally {
+      manager.shutdown();
+    }
+  }
+
+  @Test
+  void pollCycleCollectsSplitPhaseDevices() throws Exception {
+    I2CMockBusManager manager = new I2CMockBusManager(253);
+    try {
+      byte[] calibration = new byte[24];
+      Arrays.fill(calibration, (byte) 0x40);
+      manager.simulate(0x77, "BME688")
+          .setRegisters(0x8A, calibration)
+          .setRegisters(0xE1, calibration);
+      manager.simulate(0x5D, "LPS25")
+          .setRegisterMask(0x7F)
+          .setRegister(0x0F, 0b10111101);
+      manager.scanIncremental(1000);
+      assertTrue(manager.get("77").isSplitPhase());
+      assertFalse(manager.get("5d").isSplitPhase());
+
+      Map<String, byte[]> states = manager.pollActiveDevices();
+      assertEquals(manager.getActive().keySet(), states.keySet());
+      assertTrue(new String(states.get("77")).contains("temperature"));
+    } finally {
+      manager.shutdown();
+    }
+  }
+}
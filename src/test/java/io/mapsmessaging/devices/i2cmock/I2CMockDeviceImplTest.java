@@ -0,0 +1,93 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.i2cmock;
+
+import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import io.mapsmessaging.devices.i2c.devices.sensors.lps25.Lps25Controller;
+import io.mapsmessaging.devices.i2c.devices.sensors.lps25.Lps25Sensor;
+import io.mapsmessaging.devices.impl.I2CMockDeviceImpl;
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class I2CMockDeviceImplTest {
+
+  @Test
+  void registerPointerAutoIncrements() {
+    I2CMockDeviceImpl device = new I2CMockDeviceImpl(1, 0x40);
+    device.writeRegister(0x10, new byte[]{1, 2, 3});
+    assertEquals(2, device.readRegister(0x11));
+    assertEquals(3, device.read());
+
+    device.write(new byte[]{0x10});
+    byte[] buffer = new byte[3];
+    assertEquals(3, device.read(buffer, 0, 3));
+    assertArrayEquals(new byte[]{1, 2, 3}, buffer);
+  }
+
+  @Test
+  void generatorsRefreshBoundRegisters() {
+    I2CMockDeviceImpl device = new I2CMockDeviceImpl(1, 0x40);
+    device.bind(0x20, 2, RegisterGenerators.counter(0x0100, 1, true));
+    byte[] buffer = new byte[2];
+    device.readRegister(0x20, buffer, 0, 2);
+    assertArrayEquals(new byte[]{1, 0}, buffer);
+    device.readRegister(0x20, buffer, 0, 2);
+    assertArrayEquals(new byte[]{1, 1}, buffer);
+    assertEquals(0, device.readRegister(0x30));
+  }
+
+  @Test
+  void faultsAndTimingAreApplied() {
+    I2CMockDeviceImpl device = new I2CMockDeviceImpl(1, 0x40);
+    device.setTiming(new BusTiming(TimeUnit.MICROSECONDS.toNanos(100), 0, 1.0, TimeUnit.MICROSECONDS.toNanos(50)));
+    device.getFaults().failNext(1, FaultInjector.Fault.NACK);
+    assertEquals(-1, device.readRegister(0));
+    assertEquals(0, device.readRegister(0));
+    assertEquals(300_000, device.getBusyNanos());
+
+    device.getFaults().failNext(1, FaultInjector.Fault.ERROR);
+    assertThrows(RuntimeException.class, () -> device.readRegister(0));
+    assertEquals(3, device.getTransactionCount());
+  }
+
+  @Test
+  void productionDriverRunsAgainstScriptedRegisters() throws IOException {
+    I2CMockDeviceImpl device = new I2CMockDeviceImpl(1, 0x5D)
+        .setRegisterMask(0x7F)
+        .setRegister(0x0F, 0b10111101)
+        .setRegister(0x27, 0x03)
+        .bind(0x28, 3, RegisterGenerators.constant(Math.round(1013.25 * 4096), false));
+
+    Lps25Controller probe = new Lps25Controller();
+    assertTrue(probe.detect(device));
+    I2CDeviceController controller = probe.mount(device);
+    Lps25Sensor sensor = (Lps25Sensor) controller.getDevice();
+    SensorReading<?> pressure = sensor.getReadings().get(0);
+    assertEquals(1013.25f, (Float) pressure.getValue().getResult(), 0.1f);
+
+    device.getFaults().failNext(1, FaultInjector.Fault.NACK);
+    assertTrue(pressure.getValue().hasError());
+  }
+}
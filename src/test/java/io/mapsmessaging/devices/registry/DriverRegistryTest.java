@@ -0,0 +1,75 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.registry;
+
+import io.mapsmessaging.devices.i2c.I2CDeviceController;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DriverRegistryTest {
+
+  private final ClassLoader classLoader = DriverRegistryTest.class.getClassLoader();
+
+  @Test
+  void indexedDriversAreOnlyLoadedWhenAsked() {
+    DriverIndex index = new DriverIndex(DriverIndexGenerator.generate(classLoader));
+    DriverRegistry<I2CDeviceController> registry = new DriverRegistry<>(DriverBus.I2C, I2CDeviceController.class, index, classLoader);
+    assertEquals(index.getEntries(DriverBus.I2C).size(), registry.getEntries().size());
+    assertEquals(0, registry.getLoadedCount());
+
+    I2CDeviceController controller = registry.get("BH1750");
+    assertNotNull(controller);
+    assertEquals("BH1750", controller.getName());
+    assertSame(controller, registry.get("BH1750"));
+    assertEquals(1, registry.getLoadedCount());
+    assertNull(registry.get("No Such Driver"));
+  }
+
+  @Test
+  void driversMissingFromTheIndexAreLoadedUpFront() {
+    DriverRegistry<I2CDeviceController> registry = new DriverRegistry<>(DriverBus.I2C, I2CDeviceController.class, new DriverIndex(List.of()), classLoader);
+    assertFalse(registry.getEntries().isEmpty());
+    assertEquals(registry.getEntries().size(), registry.getLoadedCount());
+    assertTrue(registry.contains("BH1750"));
+  }
+
+  @Test
+  void indexSurvivesWriteAndRead() throws Exception {
+    List<DriverIndex.Entry> entries = DriverIndexGenerator.generate(classLoader);
+    StringWriter writer = new StringWriter();
+    DriverIndex.write(writer, entries);
+    List<DriverIndex.Entry> read = DriverIndex.read(new StringReader(writer.toString()));
+    assertEquals(lines(entries), lines(read));
+  }
+
+  private static List<String> lines(List<DriverIndex.Entry> entries) {
+    List<String> lines = new ArrayList<>();
+    for (DriverIndex.Entry entry : entries) {
+      lines.add(entry.toLine());
+    }
+    return lines;
+  }
+}
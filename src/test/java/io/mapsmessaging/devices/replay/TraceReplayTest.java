@@ -0,0 +1,152 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.replay;
+
+import io.mapsmessaging.devices.i2cmock.I2CMockBusManager;
+import io.mapsmessaging.devices.i2cmock.RegisterGenerators;
+import io.mapsmessaging.devices.serial.SerialBusManager;
+import io.mapsmessaging.devices.serial.devices.sensors.SerialDevice;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceReplayTest {
+
+  @Test
+  void recordedI2CTrafficReplaysThroughTheDriver() throws IOException {
+    ByteArrayOutputStream file = new ByteArrayOutputStream();
+    List<String> recorded = new ArrayList<>();
+    I2CMockBusManager live = new I2CMockBusManager(249);
+    try {
+      // Closed, and so flushed to the file, by the bus shutdown
+      live.setRecorder(new TraceRecorder(file));
+      live.simulate(0x5D, "LPS25")
+          .setRegisterMask(0x7F)
+          .setRegister(0x0F, 0b10111101)
+          .setRegister(0x27, 0x03)
+          .bind(0x28, 3, RegisterGenerators.sequence(false, 4_000_000, 4_100_000, 4_200_000));
+      live.scanIncremental(1000);
+      for (int i = 0; i < 3; i++) {
+        recorded.add(withoutTimestamp(live.get("5d").getDeviceState()));
+      }
+    } finally {
+      live.shutdown();
+    }
+
+    TraceReplay replay = new TraceReplay(new ByteArrayInputStream(file.toByteArray()));
+    replay.setPacing(ReplayPacing.AS_FAST_AS_POSSIBLE);
+    I2CMockBusManager replayed = new I2CMockBusManager(247);
+    try {
+      ReplayAddressableDevice device = replayed.replay(249, 0x5D, "LPS25", replay);
+      replayed.scanIncremental(1000);
+      for (String state : recorded) {
+        assertEquals(state, withoutTimestamp(replayed.get("5d").getDeviceState()));
+      }
+      assertEquals(0, device.getMismatches());
+      assertEquals(0, device.getRemaining());
+    } finally {
+      replayed.shutdown();
+    }
+  }
+
+  @Test
+  void serialTrafficReplaysWithPacing() throws IOException {
+    ByteArrayOutputStream file = new ByteArrayOutputStream();
+    try (TraceRecorder recorder = new TraceRecorder(file)) {
+      SerialDevice port = recorder.wrap(new FixedResponsePort(new byte[]{1, 2, 3, 4}));
+      port.writeBytes(new byte[]{9, 9}, 2);
+      port.readBytes(new byte[8], 8);
+    }
+
+    TraceReplay replay = new TraceReplay(new ByteArrayInputStream(file.toByteArray()));
+    replay.setPacing(ReplayPacing.accelerated(4));
+    ReplaySerialDevice port = replay.serial("ttyTEST");
+    assertEquals(2, port.writeBytes(new byte[]{9, 9}, 2));
+    byte[] buffer = new byte[8];
+    assertEquals(4, port.readBytes(buffer, 8));
+    assertEquals(4, buffer[3]);
+    assertEquals(-1, port.readBytes(buffer, 8));
+
+    replay.setLoop(true);
+    assertEquals(2, port.writeBytes(new byte[]{9, 9}, 2));
+    assertEquals(0, port.getMismatches());
+  }
+
+  @Test
+  void serialRecorderIsClosedWithTheBus() throws IOException {
+    ByteArrayOutputStream file = new ByteArrayOutputStream();
+    SerialBusManager manager = new SerialBusManager();
+    manager.setRecorder(new TraceRecorder(file));
+    manager.close();
+    assertNull(manager.getRecorder());
+
+    TraceReplay replay = new TraceReplay(new ByteArrayInputStream(file.toByteArray()));
+    assertFalse(replay.hasDevice(1, 0x5D));
+  }
+
+  private static String withoutTimestamp(byte[] state) {
+    return new String(state).replaceAll("\"timestamp\": \"[^\"]*\",?", "");
+  }
+
+  private static final class FixedResponsePort implements SerialDevice {
+    private final byte[] response;
+
+    private FixedResponsePort(byte[] response) {
+      this.response = response;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public boolean openPort() {
+      return true;
+    }
+
+    @Override
+    public String getSystemPortName() {
+      return "ttyTEST";
+    }
+
+    @Override
+    public void closePort() {
+      // Nothing to close
+    }
+
+    @Override
+    public int writeBytes(byte[] request, int length) {
+      return length;
+    }
+
+    @Override
+    public int readBytes(byte[] buffer, int remaining) {
+      System.arraycopy(response, 0, buffer, 0, response.length);
+      return response.length;
+    }
+  }
+}
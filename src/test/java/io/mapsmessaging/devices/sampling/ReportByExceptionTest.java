@@ -0,0 +1,71 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sampling;
+
+import io.mapsmessaging.devices.sensorreadings.FloatSensorReading;
+import io.mapsmessaging.devices.sensorreadings.IntegerSensorReading;
+import io.mapsmessaging.devices.sensorreadings.StringSensorReading;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportByExceptionTest {
+
+  private final FloatSensorReading temperature = new FloatSensorReading("temperature", "C", "", 20.0f, true, -40, 85, 1, () -> 0f);
+  private final IntegerSensorReading co2 = new IntegerSensorReading("co2", "ppm", "", 400, true, 0, 5000, () -> 0);
+  private final StringSensorReading status = new StringSensorReading("status", "", "", "ok", true, () -> "ok");
+
+  @Test
+  void deadbandComesFromTheReadingMetadata() {
+    ReportPolicy policy = ReportPolicy.defaults();
+    // 0.1% of the -40 to 85 range, above the 0.1 precision
+    assertEquals(0.125, policy.deadbandFor(temperature), 1e-9);
+    assertEquals(5.0, policy.deadbandFor(co2), 1e-9);
+    assertEquals(1.0, new ReportPolicy(ReportPolicy.DERIVED, 0, 1000).deadbandFor(co2), 1e-9);
+  }
+
+  @Test
+  void readingsAreReportedWhenTheyMoveOrTheHeartbeatIsDue() {
+    ReportByException filter = new ReportByException(new ReportPolicy(ReportPolicy.DERIVED, 0.1, 60_000L));
+    assertTrue(filter.changed(temperature, 21.5, 0));
+    assertFalse(filter.changed(temperature, 21.6, 1_000));
+    // Compared with the value last reported, so slow drift is still reported
+    assertTrue(filter.changed(temperature, 21.7, 2_000));
+    assertFalse(filter.changed(temperature, 21.7, 61_999));
+    assertTrue(filter.changed(temperature, 21.7, 62_000));
+
+    assertTrue(filter.changed(status, "ok", 0));
+    assertFalse(filter.changed(status, "ok", 1));
+    assertTrue(filter.changed(status, "warming", 2));
+  }
+
+  @Test
+  void configOverridesTheDeadbandPerReading() {
+    Map<String, Object> config = Map.of(
+        ReportPolicy.MAX_SILENCE, "10000",
+        ReportPolicy.READINGS, Map.of("temperature", Map.of(ReportPolicy.DEADBAND, "0.5")));
+    ReportPolicy policy = ReportPolicy.fromMap(config, ReportPolicy.defaults());
+    assertEquals(0.5, policy.forReading("temperature").deadbandFor(temperature), 1e-9);
+    assertEquals(10_000L, policy.forReading("temperature").getMaxSilenceMillis());
+    assertEquals(5.0, policy.forReading("co2").deadbandFor(co2), 1e-9);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+package io.mapsmessaging.devices.sampling;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.mapsmessaging.devices.DeviceController;
+import io.mapsmessaging.devices.DeviceType;
+import io.mapsmessaging.devices.sensorreadings.FloatSensorReading;
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingSchedulerTest {
+
+  @Test
+  void reportPolicyFiltersOnlyTheSampledSnapshots() throws Exception {
+    TestController controller = new TestController();
+    SamplingScheduler scheduler = new SamplingScheduler(() -> List.of(controller));
+    try {
+      scheduler.configure(Map.of(SamplingConfig.INTERVAL, "10", SamplingScheduler.REPORT, Map.of(ReportPolicy.MAX_SILENCE, "60000")));
+      scheduler.start();
+      scheduler.reconcile();
+      DeviceSnapshot snapshot = awaitSequence(scheduler, controller, 2);
+      assertFalse(parse(snapshot.getState()).has("temperature"));
+
+      // Direct callers are not filtered, and do not use up the sampler's changes
+      assertFalse(controller.isReportByException());
+      assertTrue(parse(controller.getDeviceState()).has("temperature"));
+
+      scheduler.configure(Map.of(SamplingConfig.INTERVAL, "10"));
+      snapshot = awaitSequence(scheduler, controller, snapshot.getSequence() + 2);
+      assertTrue(parse(snapshot.getState()).has("temperature"));
+    } finally {
+      scheduler.close();
+    }
+  }
+
+  private static DeviceSnapshot awaitSequence(SamplingScheduler scheduler, DeviceController controller, long sequence) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (System.currentTimeMillis() < deadline) {
+      DeviceSnapshot snapshot = scheduler.getSnapshot(controller);
+      if (snapshot != null && snapshot.getSequence() >= sequence) {
+        return snapshot;
+      }
+      Thread.sleep(5);
+    }
+    throw new AssertionError("No snapshot with sequence " + sequence);
+  }
+
+  private static JsonObject parse(byte[] state) {
+    return JsonParser.parseString(new String(state, StandardCharsets.UTF_8)).getAsJsonObject();
+  }
+
+  private static final class TestController extends DeviceController {
+
+    private final List<SensorReading<?>> readings = List.of(
+        new FloatSensorReading("temperature", "C", "", 20.0f, true, -40, 85, 1, () -> 21.5f));
+
+    @Override
+    protected List<SensorReading<?>> getStateReadings() {
+      return readings;
+    }
+
+    @Override
+    public byte[] getDeviceState() throws IOException {
+      return encodeState(readings);
+    }
+
+    @Override
+    public String getName() {
+      return "test";
+    }
+
+    @Override
+    public String getDescription() {
+      return "test";
+    }
+
+    @Override
+    public SchemaConfig getSchema() {
+      return null;
+    }
+
+    @Override
+    public byte[] getDeviceConfiguration() {
+      return new byte[0];
+    }
+
+    @Override
+    public DeviceType getType() {
+      return DeviceType.SENSOR;
+    }
+
+    @Override
+    public byte[] updateDeviceConfiguration(byte[] val) {
+      return new byte[0];
+    }
+  }
+}
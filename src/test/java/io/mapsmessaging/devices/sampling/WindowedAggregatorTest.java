@@ -0,0 +1,168 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sampling;
+
+import io.mapsmessaging.devices.deviceinterfaces.Sensor;
+import io.mapsmessaging.devices.i2c.I2CDeviceScheduler;
+import io.mapsmessaging.devices.i2c.devices.sensors.lps25.Lps25Controller;
+import io.mapsmessaging.devices.impl.I2CMockDeviceImpl;
+import io.mapsmessaging.devices.sensorreadings.FloatSensorReading;
+import io.mapsmessaging.devices.sensorreadings.IntegerSensorReading;
+import io.mapsmessaging.devices.sensorreadings.SensorReading;
+import io.mapsmessaging.devices.sensorreadings.StringSensorReading;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowedAggregatorTest {
+
+  private float current;
+  private int errorsAfter = Integer.MAX_VALUE;
+  private int reads;
+
+  private final Sensor sensor = () -> List.<SensorReading<?>>of(
+      new FloatSensorReading("current", "mA", "", 0f, true, 0, 3200, 1, () -> current),
+      new IntegerSensorReading("reads", "", "", 0, true, 0, Integer.MAX_VALUE, () -> {
+        if (++reads > errorsAfter) {
+          throw new java.io.IOException("bus error");
+        }
+        return reads;
+      }),
+      new StringSensorReading("status", "", "", "ok", true, () -> "ok"));
+
+  @Test
+  void tumblingWindowsSummariseEachReading() {
+    List<AggregateRecord> records = new ArrayList<>();
+    WindowedAggregator aggregator = new WindowedAggregator(sensor, 1_000, 1_000, r -> records.add(r.copy()));
+    assertEquals(2, aggregator.getReadingCount());
+    for (int i = 0; i < 10; i++) {
+      current = i + 1;
+      aggregator.sample(i * 100L);
+    }
+    assertTrue(records.isEmpty());
+    current = 50;
+    aggregator.sample(1_000);
+
+    assertEquals(1, records.size());
+    AggregateRecord record = records.get(0);
+    assertEquals(0L, record.getWindowStart());
+    assertEquals(1_000L, record.getWindowEnd());
+    int index = record.indexOf("current");
+    assertEquals(10L, record.getCount()[index]);
+    assertEquals(1.0, record.getMin()[index], 1e-9);
+    assertEquals(10.0, record.getMax()[index], 1e-9);
+    assertEquals(5.5, record.getMean()[index], 1e-9);
+    assertEquals(Math.sqrt(8.25), record.getStddev()[index], 1e-9);
+    assertEquals(10.0, record.getLast()[index], 1e-9);
+    assertEquals(-1, record.indexOf("status"));
+  }
+
+  @Test
+  void slidingWindowsShareTheirPanes() {
+    List<AggregateRecord> records = new ArrayList<>();
+    WindowedAggregator aggregator = WindowedAggregator.fromMap(sensor,
+        Map.of(WindowedAggregator.WINDOW, "1000", WindowedAggregator.SLIDE, "500"), r -> records.add(r.copy()));
+    for (int i = 0; i < 15; i++) {
+      current = i;
+      aggregator.sample(i * 100L);
+    }
+    aggregator.advance(1_500);
+
+    // [-500, 500) holds 0..4, [0, 1000) holds 0..9, [500, 1500) holds 5..14
+    assertEquals(3, records.size());
+    AggregateRecord record = records.get(2);
+    int index = record.indexOf("current");
+    assertEquals(500L, record.getWindowStart());
+    assertEquals(10L, record.getCount()[index]);
+    assertEquals(5.0, record.getMin()[index], 1e-9);
+    assertEquals(14.0, record.getMax()[index], 1e-9);
+    assertEquals(9.5, record.getMean()[index], 1e-9);
+    assertEquals(Math.sqrt(8.25), record.getStddev()[index], 1e-9);
+    assertEquals(14.0, record.getLast()[index], 1e-9);
+    assertEquals(4.5, records.get(1).getMean()[index], 1e-9);
+  }
+
+  @Test
+  void errorsAreCountedAndGapsAreNotEmitted() {
+    List<AggregateRecord> records = new ArrayList<>();
+    WindowedAggregator aggregator = new WindowedAggregator(sensor, 1_000, 1_000, r -> records.add(r.copy()));
+    errorsAfter = 2;
+    for (int i = 0; i < 5; i++) {
+      aggregator.sample(i * 100L);
+    }
+    aggregator.advance(60_000);
+    assertEquals(1, records.size());
+    AggregateRecord record = records.get(0);
+    int index = record.indexOf("reads");
+    assertEquals(2L, record.getCount()[index]);
+    assertEquals(3L, record.getErrors()[index]);
+
+    aggregator.advance(61_000);
+    assertEquals(1, records.size());
+  }
+
+  @Test
+  void windowMustBeAMultipleOfTheSlide() {
+    assertThrows(IllegalArgumentException.class, () -> new WindowedAggregator(sensor, 1_000, 300, r -> {
+    }));
+  }
+
+  @Test
+  void mountedSensorsAreReadUnderTheDeviceLock() throws Exception {
+    I2CMockDeviceImpl mock = new I2CMockDeviceImpl(245, 0x5D)
+        .setRegisterMask(0x7F)
+        .setRegister(0x0F, 0b10111101);
+    I2CDeviceScheduler scheduler = new I2CDeviceScheduler(new Lps25Controller(mock), 245);
+    List<AggregateRecord> records = new ArrayList<>();
+    WindowedAggregator aggregator = new WindowedAggregator(scheduler, 1_000, 1_000, r -> records.add(r.copy()));
+
+    // The delay gives up the bus lock but not the device, so the frame must wait for the whole request
+    CountDownLatch inside = new CountDownLatch(1);
+    AtomicBoolean finished = new AtomicBoolean();
+    Thread request = new Thread(() -> {
+      try {
+        scheduler.execute(() -> {
+          inside.countDown();
+          scheduler.getDevice().delay(200);
+          finished.set(true);
+          return null;
+        });
+      } catch (java.io.IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    request.start();
+    assertTrue(inside.await(5, TimeUnit.SECONDS));
+    aggregator.sample(0);
+    assertTrue(finished.get());
+    request.join();
+
+    aggregator.sample(1_000);
+    assertEquals(1, records.size());
+    assertEquals(1L, records.get(0).getCount()[0]);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sensorreadings;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadingContextTest {
+
+  @Test
+  void readingIsSampledOncePerFrame() throws IOException {
+    AtomicInteger reads = new AtomicInteger();
+    FloatSensorReading reading = new FloatSensorReading("temperature", "C", "", 20.0f, true, -40, 85, 1,
+        () -> {
+          ReadingContext.recordTransaction();
+          return (float) reads.incrementAndGet();
+        });
+    try (ReadingContext context = ReadingContext.open()) {
+      assertEquals(1.0f, reading.getValue().getResult());
+      assertEquals(1.0f, reading.read());
+      assertEquals(1, context.getTransactionCount());
+    }
+    assertEquals(2.0f, reading.getValue().getResult());
+    assertEquals(2, reads.get());
+  }
+
+  @Test
+  void nestedFramesShareTheOuterSample() throws IOException {
+    AtomicInteger reads = new AtomicInteger();
+    ReadingSupplier<Integer> supplier = ReadingContext.memoized(reads::incrementAndGet);
+    try (ReadingContext outer = ReadingContext.open()) {
+      assertEquals(1, supplier.get());
+      try (ReadingContext inner = ReadingContext.open()) {
+        assertSame(outer, inner);
+        assertEquals(1, supplier.get());
+      }
+      assertEquals(1, supplier.get());
+    }
+    assertEquals(2, supplier.get());
+  }
+
+  @Test
+  void failuresAreNotRetriedWithinAFrame() {
+    AtomicInteger reads = new AtomicInteger();
+    ReadingSupplier<Integer> supplier = ReadingContext.memoized(() -> {
+      reads.incrementAndGet();
+      throw new IOException("NACK");
+    });
+    try (ReadingContext context = ReadingContext.open()) {
+      assertThrows(IOException.class, supplier::get);
+      assertThrows(IOException.class, supplier::get);
+      assertEquals(1, context.getReadCount());
+      assertEquals(1, context.getFailureCount());
+    }
+    assertEquals(1, reads.get());
+  }
+
+  @Test
+  void primitiveReadsShareTheFrameWithBoxedReads() throws IOException {
+    AtomicInteger reads = new AtomicInteger();
+    FloatSensorReading reading = new FloatSensorReading("humidity", "%", "", 50.0f, true, 0, 100, 2,
+        () -> reads.incrementAndGet() + 0.123456f);
+    float[] sampled = new float[1];
+    SensorSampleSink sink = new SensorSampleSink() {
+      @Override
+      public void acceptFloat(SensorReading<?> r, float value) {
+        sampled[0] = value;
+      }
+
+      @Override
+      public void acceptInt(SensorReading<?> r, int value) {
+        fail("int");
+      }
+
+      @Override
+      public void acceptLong(SensorReading<?> r, long value) {
+        fail("long");
+      }
+
+      @Override
+      public void accept(SensorReading<?> r, Object value) {
+        fail("boxed");
+      }
+
+      @Override
+      public void acceptError(SensorReading<?> r, IOException error) {
+        fail(error.getMessage());
+      }
+    };
+    try (ReadingContext context = ReadingContext.open()) {
+      reading.readInto(sink);
+      assertEquals(1.12f, sampled[0]);
+      assertEquals(1.123456f, reading.read());
+      assertEquals(1.12f, reading.getValue().getResult());
+      assertEquals(1, context.getReadCount());
+    }
+    assertEquals(1, reads.get());
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.sensorreadings;
+
+import io.mapsmessaging.devices.util.RollingComputation;
+import io.mapsmessaging.devices.util.RollingComputations;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedFloatSampleRingTest {
+
+  @Test
+  void fullRingDropsTheOldestSample() {
+    TimedFloatSampleRing ring = new TimedFloatSampleRing(100);
+    for (int i = 0; i < 250; i++) {
+      ring.add(i * 1_000L, i);
+    }
+    assertEquals(100, ring.size());
+    assertEquals(150_000L, ring.time(0));
+    assertEquals(249f, ring.value(99), 0f);
+
+    ring.removeBefore(200_000L);
+    assertEquals(50, ring.size());
+    assertEquals(200f, ring.value(0), 0f);
+    assertEquals(200f, ring.iterator().next().value(), 0f);
+  }
+
+  @Test
+  void ringAndIterableGiveTheSameResults() {
+    TimedFloatSampleRing ring = new TimedFloatSampleRing(500);
+    ArrayDeque<TimedFloatSample> deque = new ArrayDeque<>();
+    for (int i = 0; i < 700; i++) {
+      float value = 1000f + (float) Math.sin(i / 30.0) + i * 0.01f;
+      ring.add(i * 60_000L, value);
+      deque.addLast(new TimedFloatSample(i * 60_000L, value));
+      if (deque.size() > 500) {
+        deque.removeFirst();
+      }
+    }
+    List<RollingComputation> computations = List.of(
+        RollingComputations.average(), RollingComputations.min(), RollingComputations.max(),
+        RollingComputations.deltaFirstToLast(), RollingComputations.ratePerHourFirstToLast(),
+        RollingComputations.slopeLeastSquaresPerHour());
+    for (RollingComputation computation : computations) {
+      assertEquals(computation.compute(deque), computation.compute(ring), 1e-4);
+    }
+    assertTrue(Float.isNaN(RollingComputations.average().compute(new TimedFloatSampleRing(10))));
+  }
+}
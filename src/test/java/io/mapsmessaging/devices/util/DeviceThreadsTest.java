@@ -0,0 +1,53 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeviceThreadsTest {
+
+  @Test
+  void startedThreadsRunAndNeverHoldTheJvmOpen() throws Exception {
+    DeviceThreads.Mode previous = DeviceThreads.getMode();
+    try {
+      for (DeviceThreads.Mode mode : DeviceThreads.Mode.values()) {
+        DeviceThreads.setMode(mode);
+        CountDownLatch ran = new CountDownLatch(1);
+        Thread thread = DeviceThreads.start("Test-" + mode, ran::countDown);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertTrue(thread.isDaemon());
+        assertTrue(thread.getName().startsWith("Test-" + mode));
+      }
+    } finally {
+      DeviceThreads.setMode(previous);
+    }
+  }
+
+  @Test
+  void unknownModeFallsBackToPlatform() {
+    assertEquals(DeviceThreads.Mode.VIRTUAL, DeviceThreads.parseMode(" Virtual "));
+    assertEquals(DeviceThreads.Mode.PLATFORM, DeviceThreads.parseMode("fibres"));
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.util;
+
+import io.mapsmessaging.devices.sensorreadings.StatefulFloatSensorReading;
+import io.mapsmessaging.devices.sensorreadings.TimedFloatSampleRing;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalRollingComputationTest {
+
+  @Test
+  void averageMatchesTheBatchVersion() {
+    compare(RollingComputations::incrementalAverage, RollingComputations.average(), 1e-3);
+  }
+
+  @Test
+  void minAndMaxMatchTheBatchVersions() {
+    compare(RollingComputations::incrementalMin, RollingComputations.min(), 0.0);
+    compare(RollingComputations::incrementalMax, RollingComputations.max(), 0.0);
+  }
+
+  @Test
+  void slopeMatchesTheBatchVersion() {
+    compare(RollingComputations::incrementalSlopeLeastSquaresPerHour, RollingComputations.slopeLeastSquaresPerHour(), 1e-3);
+  }
+
+  @Test
+  void anIncrementalComputationBelongsToOneReading() {
+    IncrementalRollingComputation max = RollingComputations.incrementalMax();
+    reading("first", max);
+    max.add(0L, 5f);
+    assertThrows(IllegalArgumentException.class, () -> reading("second", max));
+    assertEquals(5f, max.result(), 0f);
+    assertFalse(max.claim());
+
+    // Batch computations keep no state and can be shared
+    RollingComputation average = RollingComputations.average();
+    reading("first", average);
+    assertDoesNotThrow(() -> reading("second", average));
+  }
+
+  @Test
+  void emptyWindowHasNoResult() {
+    IncrementalRollingComputation max = RollingComputations.incrementalMax();
+    max.add(0L, 5f);
+    max.evict(0L, 5f);
+    assertTrue(Float.isNaN(max.result()));
+    IncrementalRollingComputation slope = RollingComputations.incrementalSlopeLeastSquaresPerHour();
+    slope.add(0L, 1f);
+    assertTrue(Float.isNaN(slope.result()));
+  }
+
+  // Slides a 180 sample window over a long noisy pressure-like series, with duplicate values and times, and
+  // windows that shrink when samples arrive late
+  private void compare(Supplier<IncrementalRollingComputation> factory, RollingComputation batch, double delta) {
+    Random random = new Random(42);
+    IncrementalRollingComputation incremental = factory.get();
+    TimedFloatSampleRing window = new TimedFloatSampleRing(180);
+    long now = 1_700_000_000_000L;
+    for (int i = 0; i < 50_000; i++) {
+      now += random.nextInt(10) == 0 ? 0L : 60_000L + random.nextInt(5_000);
+      if (random.nextInt(1_000) == 0) {
+        now += 2L * 3_600_000L;
+      }
+      float value = 1013.25f + (float) Math.sin(i / 500.0) * 20f + (random.nextInt(4) * 0.25f);
+      if (window.size() == window.getCapacity()) {
+        incremental.evict(window.time(0), window.value(0));
+        window.removeFirst();
+      }
+      window.add(now, value);
+      incremental.add(now, value);
+      while (window.time(0) < now - 3L * 3_600_000L) {
+        incremental.evict(window.time(0), window.value(0));
+        window.removeFirst();
+      }
+      float expected = batch.compute(window);
+      float actual = incremental.result();
+      if (Float.isNaN(expected)) {
+        assertTrue(Float.isNaN(actual), "sample " + i);
+      } else {
+        assertEquals(expected, actual, delta + Math.abs(expected) * 1e-5, "sample " + i);
+      }
+    }
+  }
+
+  private static StatefulFloatSensorReading reading(String name, RollingComputation computation) {
+    return new StatefulFloatSensorReading(name, "", "", 0f, true, 0f, 100f, 1, () -> 1f, 10, 1_000L, computation);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License
+ */
+
+package io.mapsmessaging.devices.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeWheelAccumulatorTest {
+
+  @Test
+  void windowsMatchSeparateBucketAccumulators() {
+    assertMatchesSeparateAccumulators(300_000L);
+  }
+
+  // The Sen0657 layout, where the hour and day windows share the 1 minute level
+  @Test
+  void windowsSharingABucketSizeMatchSeparateBucketAccumulators() {
+    assertMatchesSeparateAccumulators(60_000L);
+  }
+
+  private static void assertMatchesSeparateAccumulators(long dayBucketMillis) {
+    TimeWheelAccumulator wheel = new TimeWheelAccumulator();
+    TimeWheelAccumulator.Window tenMinutes = wheel.addWindow(10L * 60_000L, 5_000L);
+    TimeWheelAccumulator.Window hour = wheel.addWindow(60L * 60_000L, 60_000L);
+    TimeWheelAccumulator.Window day = wheel.addWindow(24L * 60L * 60_000L, dayBucketMillis);
+    RollingBucketAccumulator tenMinutesExpected = new RollingBucketAccumulator(10L * 60_000L, 5_000L);
+    RollingBucketAccumulator hourExpected = new RollingBucketAccumulator(60L * 60_000L, 60_000L);
+    RollingBucketAccumulator dayExpected = new RollingBucketAccumulator(24L * 60L * 60_000L, dayBucketMillis);
+
+    Random random = new Random(7);
+    long now = 1_700_000_000_000L;
+    for (int i = 0; i < 200_000; i++) {
+      now += random.nextInt(20) == 0 ? random.nextInt(1_800_000) : 1_000L + random.nextInt(2_000);
+      // quarters are exact in float, so the old accumulator does not drift
+      float value = random.nextInt(3) == 0 ? 0.25f : 0f;
+      wheel.add(now, value);
+      tenMinutesExpected.add(now, value);
+      hourExpected.add(now, value);
+      dayExpected.add(now, value);
+      assertEquals(tenMinutesExpected.getSum(), tenMinutes.getSum(), 0f, "sample " + i);
+      assertEquals(hourExpected.getSum(), hour.getSum(), 0f, "sample " + i);
+      assertEquals(dayExpected.getSum(), day.getSum(), 0f, "sample " + i);
+    }
+  }
+
+  @Test
+  void timeGoingBackwardsResetsTheWindows() {
+    TimeWheelAccumulator wheel = new TimeWheelAccumulator();
+    TimeWheelAccumulator.Window minute = wheel.addWindow(60_000L, 1_000L);
+    TimeWheelAccumulator.Window hour = wheel.addWindow(3_600_000L, 60_000L);
+    wheel.add(120_000L, 1f);
+    wheel.add(130_000L, 1f);
+    assertEquals(2f, hour.getSum(), 0f);
+    wheel.add(100_000L, 0.5f);
+    assertEquals(0.5f, minute.getSum(), 0f);
+    assertEquals(0.5f, hour.getSum(), 0f);
+    wheel.advance(100_000L + 3_600_000L);
+    assertEquals(0f, hour.getSum(), 0f);
+  }
+
+  @Test
+  void windowsAreCheckedWhenRegistered() {
+    TimeWheelAccumulator wheel = new TimeWheelAccumulator();
+    wheel.addWindow(60_000L, 2_000L);
+    assertThrows(IllegalArgumentException.class, () -> wheel.addWindow(60_000L, 3_000L));
+    wheel.add(0L, 1f);
+    assertThrows(IllegalStateException.class, () -> wheel.addWindow(3_600_000L, 60_000L));
+  }
+
+  @Test
+  void readersSeeConsistentSumsWhileTheWriterRuns() throws InterruptedException {
+    TimeWheelAccumulator wheel = new TimeWheelAccumulator();
+    TimeWheelAccumulator.Window hour = wheel.addWindow(3_600_000L, 60_000L);
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicReference<String> failure = new AtomicReference<>();
+    Thread[] readers = new Thread[2];
+    for (int r = 0; r < readers.length; r++) {
+      readers[r] = new Thread(() -> {
+        while (running.get()) {
+          // every add is 1, and the window never expires, so the sum is a whole number
+          float sum = hour.getSum();
+          if (sum != Math.rint(sum)) {
+            failure.set("torn read " + sum);
+          }
+        }
+      });
+      readers[r].start();
+    }
+    for (int i = 0; i < 1_000_000; i++) {
+      wheel.add(i / 1_000L, 1f);
+    }
+    running.set(false);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    assertNull(failure.get());
+    assertEquals(1_000_000f, hour.getSum(), 0f);
+  }
+}